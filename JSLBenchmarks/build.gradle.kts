@@ -0,0 +1,39 @@
+// JSLBenchmarks
+
+plugins {
+    java
+    // https://github.com/melix/jmh-gradle-plugin
+    id("me.champeau.gradle.jmh") version "0.5.0"
+}
+
+version = "1.0-SNAPSHOT"
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+
+	jmh(project(":JSLCore"))
+	jmh(project(":JSLExamples"))
+	jmh(project(":JSLExtensions"))
+}
+
+configure<JavaPluginConvention> {
+    sourceCompatibility = JavaVersion.VERSION_11
+}
+
+// run with: gradle jmh
+// restrict to some benchmarks with: gradle jmh -Pinclude=QueueBenchmark
+// measure allocation per operation with: gradle jmh -Pprofilers=gc
+jmh {
+    jmhVersion = "1.23"
+    if (project.hasProperty("include")) {
+        include = listOf(project.property("include") as String)
+    }
+    if (project.hasProperty("profilers")) {
+        profilers = listOf(project.property("profilers") as String)
+    }
+    resultFormat = "CSV"
+    resultsFile = file("${project.buildDir}/reports/jmh/results.csv")
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package benchmarks;
+
+import jsl.calendar.CalendarIfc;
+import jsl.calendar.IndexedHeapEventCalendar;
+import jsl.calendar.LadderQueueEventCalendar;
+import jsl.calendar.LinkedListEventCalendar;
+import jsl.calendar.PriorityQueueEventCalendar;
+import jsl.calendar.SkewHeapEventCalendar;
+import jsl.calendar.TreeSetEventCalendar;
+
+/**
+ * Makes the event calendars by name so that benchmarks can be parameterized by calendar
+ */
+final class Calendars {
+
+    private Calendars() {
+    }
+
+    /**
+     * @param name the simple name of the calendar class, without the EventCalendar suffix
+     * @return a new calendar
+     */
+    static CalendarIfc create(String name) {
+        switch (name) {
+            case "PriorityQueue":
+                return new PriorityQueueEventCalendar();
+            case "LinkedList":
+                return new LinkedListEventCalendar();
+            case "SkewHeap":
+                return new SkewHeapEventCalendar();
+            case "TreeSet":
+                return new TreeSetEventCalendar();
+            case "IndexedHeap":
+                return new IndexedHeapEventCalendar();
+            case "LadderQueue":
+                return new LadderQueueEventCalendar();
+            default:
+                throw new IllegalArgumentException("Unknown calendar: " + name);
+        }
+    }
+}
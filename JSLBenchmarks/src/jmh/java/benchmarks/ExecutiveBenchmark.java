@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import jsl.calendar.CalendarIfc;
+import jsl.simulation.EventAction;
+import jsl.simulation.Executive;
+import jsl.simulation.JSLEvent;
+import jsl.simulation.Model;
+import jsl.simulation.Simulation;
+import jsl.utilities.random.rng.RNStreamIfc;
+import jsl.utilities.random.rng.RNStreamProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of Executive.scheduleEvent() and the execution of events
+ * under each event calendar. The classic hold model is used: the calendar holds
+ * a fixed number of pending events and each executed event schedules one new event
+ * at an exponentially distributed time in the future. Optionally, an event is first
+ * scheduled far in the future, as a model does for the end of the replication.
+ * Run with the gc profiler to measure the allocation per executed event with and
+ * without event recycling.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutiveBenchmark {
+
+    @Param({"PriorityQueue", "LinkedList", "SkewHeap", "TreeSet", "IndexedHeap", "LadderQueue"})
+    public String calendar;
+
+    @Param({"100", "10000"})
+    public int pendingEvents;
+
+    @Param({"false", "true"})
+    public boolean recycling;
+
+    @Param({"false", "true"})
+    public boolean endEvent;
+
+    private Model myModel;
+
+    private Executive myExecutive;
+
+    private RNStreamIfc myStream;
+
+    private EventAction myAction;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        myModel = new Simulation().getModel();
+        CalendarIfc cal = Calendars.create(calendar);
+        myExecutive = new Executive(cal);
+        myExecutive.setEventRecyclingOption(recycling);
+        myStream = new RNStreamProvider().nextRNStream();
+        myAction = new EventAction() {
+            @Override
+            public void action(JSLEvent event) {
+                myExecutive.scheduleEvent(this, -Math.log(myStream.randU01()), 1,
+                        null, null, myModel);
+            }
+        };
+        myExecutive.initialize();
+        if (endEvent) {
+            myExecutive.scheduleEvent(myAction, 1.0e9, 1, null, null, myModel);
+            // moves the end event out of the calendar's unsorted holding area, if any,
+            // before the other events are scheduled
+            myExecutive.scheduleEvent(myAction, 0.0, 1, null, null, myModel);
+            myExecutive.executeNextEvent();
+        }
+        for (int i = cal.size(); i < pendingEvents; i++) {
+            myExecutive.scheduleEvent(myAction, -Math.log(myStream.randU01()), 1,
+                    null, null, myModel);
+        }
+    }
+
+    /**
+     * Executes the next event, which schedules another event
+     */
+    @Benchmark
+    public void hold() {
+        myExecutive.executeNextEvent();
+    }
+}
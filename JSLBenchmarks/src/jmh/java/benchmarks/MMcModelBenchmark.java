@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import examples.general.queueing.DriverLicenseBureauWithQ;
+import jsl.simulation.Executive;
+import jsl.simulation.Simulation;
+import jsl.utilities.random.rvariable.ExponentialRV;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the events per second of a complete M/M/c model, a replication of
+ * DriverLicenseBureauWithQ with a utilization of 0.9, under each event calendar.
+ * The number of executed events is reported as the events counter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MMcModelBenchmark {
+
+    @Param({"PriorityQueue", "SkewHeap", "IndexedHeap", "LadderQueue"})
+    public String calendar;
+
+    @Param({"1", "10"})
+    public int numServers;
+
+    /**
+     * The counts of the events executed during the measurement
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EventCounter {
+
+        public long events;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            events = 0;
+        }
+    }
+
+    @Benchmark
+    public double replication(EventCounter counter) {
+        Executive executive = new Executive(Calendars.create(calendar));
+        Simulation sim = new Simulation("MMcModelBenchmark", null, executive);
+        DriverLicenseBureauWithQ bureau = new DriverLicenseBureauWithQ(sim.getModel(), numServers,
+                new ExponentialRV(1.0), new ExponentialRV(0.9 * numServers));
+        sim.setNumberOfReplications(1);
+        sim.setLengthOfReplication(10000.0);
+        sim.run();
+        double n = executive.getTotalNumberEventsExecuted();
+        counter.events = counter.events + (long) n;
+        return n;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import jsl.modeling.queue.QObject;
+import jsl.modeling.queue.Queue;
+import jsl.simulation.Simulation;
+import jsl.utilities.random.rng.RNStreamFactory;
+import jsl.utilities.random.rng.RNStreamIfc;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures Queue.enqueue() followed by Queue.removeNext() or by the removal of
+ * a randomly chosen object (reneging) under each queue discipline while the
+ * queue holds a fixed number of objects
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueueBenchmark {
+
+    @Param({"FIFO", "LIFO", "RANDOM", "RANKED"})
+    public Queue.Discipline discipline;
+
+    @Param({"10", "1000", "50000"})
+    public int queueSize;
+
+    @Param({"false", "true"})
+    public boolean fastRemoval;
+
+    private Queue<QObject> myQueue;
+
+    private RNStreamIfc myStream;
+
+    private QObject[] myItems;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Simulation sim = new Simulation();
+        myQueue = new Queue<>(sim.getModel(), "Queue", discipline);
+        myQueue.setFastRemovalOption(fastRemoval);
+        myStream = new RNStreamFactory().getStream();
+        myItems = new QObject[queueSize];
+        for (int i = 0; i < queueSize; i++) {
+            myItems[i] = new QObject(0.0);
+            myQueue.enqueue(myItems[i], myStream.randInt(1, 10));
+        }
+    }
+
+    @Benchmark
+    public QObject enqueueRemoveNext() {
+        myQueue.enqueue(new QObject(0.0), myStream.randInt(1, 10));
+        return myQueue.removeNext();
+    }
+
+    /**
+     * Removes a randomly chosen object from the queue and replaces it with a new one
+     */
+    @Benchmark
+    public boolean enqueueRenege() {
+        int j = myStream.randInt(0, queueSize - 1);
+        boolean removed = myQueue.remove(myItems[j], false);
+        myItems[j] = new QObject(0.0);
+        myQueue.enqueue(myItems[j], myStream.randInt(1, 10));
+        return removed;
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import jsl.utilities.random.rng.RNStreamFactory;
+import jsl.utilities.random.rng.RNStreamIfc;
+import jsl.utilities.random.rvariable.DEmpiricalRV;
+import jsl.utilities.random.rvariable.ExponentialRV;
+import jsl.utilities.random.rvariable.JSLRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the generation of pseudo-random numbers by RNStreamFactory.RNStream
+ * and of random variates by the JSLRandom generators
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomBenchmark {
+
+    private RNStreamIfc myStream;
+
+    private final double[] myValues = new double[1024];
+
+    private ExponentialRV myExponentialRV;
+
+    private DEmpiricalRV myDEmpiricalRV;
+
+    private DEmpiricalRV myDEmpiricalAliasRV;
+
+    @Setup
+    public void setUp() {
+        myStream = new RNStreamFactory().getStream();
+        myExponentialRV = new ExponentialRV(2.0, myStream);
+        // a 5000 point empirical distribution with equally likely values
+        int n = 5000;
+        double[] values = new double[n];
+        double[] cdf = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i + 1;
+            cdf[i] = (i + 1.0) / n;
+        }
+        cdf[n - 1] = 1.0;
+        myDEmpiricalRV = new DEmpiricalRV(values, cdf, myStream);
+        myDEmpiricalAliasRV = new DEmpiricalRV(values, cdf, myStream, JSLRandom.AlgoType.AcceptanceRejection);
+    }
+
+    @Benchmark
+    public double randU01() {
+        return myStream.randU01();
+    }
+
+    /**
+     * Fills an array of 1024 numbers, one operation per array
+     */
+    @Benchmark
+    public double[] randU01Bulk() {
+        myStream.randU01(myValues, 0, myValues.length);
+        return myValues;
+    }
+
+    /**
+     * Fills an array of 1024 exponential variates, one operation per array
+     */
+    @Benchmark
+    public double[] exponentialSampleBulk() {
+        myExponentialRV.sample(myValues);
+        return myValues;
+    }
+
+    @Benchmark
+    public int randInt() {
+        return myStream.randInt(1, 100);
+    }
+
+    @Benchmark
+    public double rUniform() {
+        return JSLRandom.rUniform(0.0, 10.0, myStream);
+    }
+
+    @Benchmark
+    public double rExponential() {
+        return JSLRandom.rExponential(2.0, myStream);
+    }
+
+    @Benchmark
+    public double rExponentialAR() {
+        return JSLRandom.rExponential(2.0, myStream, JSLRandom.AlgoType.AcceptanceRejection);
+    }
+
+    @Benchmark
+    public double rNormal() {
+        return JSLRandom.rNormal(0.0, 1.0, myStream);
+    }
+
+    @Benchmark
+    public double rNormalAR() {
+        return JSLRandom.rNormal(0.0, 1.0, myStream, JSLRandom.AlgoType.AcceptanceRejection);
+    }
+
+    @Benchmark
+    public double rLogNormal() {
+        return JSLRandom.rLogNormal(2.0, 1.0, myStream);
+    }
+
+    @Benchmark
+    public double rGamma() {
+        return JSLRandom.rGamma(2.5, 1.0, myStream);
+    }
+
+    @Benchmark
+    public double rGammaAR() {
+        return JSLRandom.rGamma(2.5, 1.0, myStream, JSLRandom.AlgoType.AcceptanceRejection);
+    }
+
+    @Benchmark
+    public double rBeta() {
+        return JSLRandom.rBeta(2.0, 5.0, myStream);
+    }
+
+    @Benchmark
+    public double rBetaAR() {
+        return JSLRandom.rBeta(2.0, 5.0, myStream, JSLRandom.AlgoType.AcceptanceRejection);
+    }
+
+    @Benchmark
+    public double rWeibull() {
+        return JSLRandom.rWeibull(2.0, 3.0, myStream);
+    }
+
+    @Benchmark
+    public double rTriangular() {
+        return JSLRandom.rTriangular(0.0, 2.0, 5.0, myStream);
+    }
+
+    @Benchmark
+    public int rPoisson() {
+        return JSLRandom.rPoisson(10.0, myStream);
+    }
+
+    @Benchmark
+    public int rPoissonAR() {
+        return JSLRandom.rPoisson(10.0, myStream, JSLRandom.AlgoType.AcceptanceRejection);
+    }
+
+    @Benchmark
+    public int rPoissonLarge() {
+        return JSLRandom.rPoisson(2000.0, myStream);
+    }
+
+    @Benchmark
+    public int rPoissonLargeAR() {
+        return JSLRandom.rPoisson(2000.0, myStream, JSLRandom.AlgoType.AcceptanceRejection);
+    }
+
+    @Benchmark
+    public int rBinomial() {
+        return JSLRandom.rBinomial(0.3, 50, myStream);
+    }
+
+    @Benchmark
+    public int rBinomialAR() {
+        return JSLRandom.rBinomial(0.3, 50, myStream, JSLRandom.AlgoType.AcceptanceRejection);
+    }
+
+    @Benchmark
+    public int rBinomialLarge() {
+        return JSLRandom.rBinomial(0.3, 10000, myStream);
+    }
+
+    @Benchmark
+    public int rBinomialLargeAR() {
+        return JSLRandom.rBinomial(0.3, 10000, myStream, JSLRandom.AlgoType.AcceptanceRejection);
+    }
+
+    @Benchmark
+    public int rNegBinomial() {
+        return JSLRandom.rNegBinomial(0.3, 5.0, myStream);
+    }
+
+    @Benchmark
+    public int rNegBinomialAR() {
+        return JSLRandom.rNegBinomial(0.3, 5.0, myStream, JSLRandom.AlgoType.AcceptanceRejection);
+    }
+
+    @Benchmark
+    public int rDUniform() {
+        return JSLRandom.rDUniform(1, 6, myStream);
+    }
+
+    @Benchmark
+    public double dEmpirical5000() {
+        return myDEmpiricalRV.getValue();
+    }
+
+    @Benchmark
+    public double dEmpirical5000Alias() {
+        return myDEmpiricalAliasRV.getValue();
+    }
+}
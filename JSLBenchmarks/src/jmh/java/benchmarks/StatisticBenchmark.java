@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import jsl.utilities.random.rng.RNStreamFactory;
+import jsl.utilities.random.rng.RNStreamIfc;
+import jsl.utilities.statistic.Statistic;
+import jsl.utilities.statistic.WeightedStatistic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the collection of observations by Statistic and WeightedStatistic
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatisticBenchmark {
+
+    private static final int SIZE = 1024;
+
+    private final double[] myValues = new double[SIZE];
+
+    private final double[] myWeights = new double[SIZE];
+
+    private int myIndex;
+
+    private Statistic myStatistic;
+
+    private WeightedStatistic myWeightedStatistic;
+
+    @Setup
+    public void setUp() {
+        RNStreamIfc stream = new RNStreamFactory().getStream();
+        for (int i = 0; i < SIZE; i++) {
+            myValues[i] = stream.randU01();
+            myWeights[i] = stream.randU01();
+        }
+        myStatistic = new Statistic();
+        myWeightedStatistic = new WeightedStatistic();
+    }
+
+    @Benchmark
+    public Statistic statisticCollect() {
+        myIndex = (myIndex + 1) & (SIZE - 1);
+        myStatistic.collect(myValues[myIndex]);
+        return myStatistic;
+    }
+
+    @Benchmark
+    public WeightedStatistic weightedStatisticCollect() {
+        myIndex = (myIndex + 1) & (SIZE - 1);
+        myWeightedStatistic.collect(myValues[myIndex], myWeights[myIndex]);
+        return myWeightedStatistic;
+    }
+}
@@ -64,12 +64,26 @@ public interface CalendarIfc {
     /**
      * Cancels the supplied JSLEvent in the calendar. Canceling does not remove
      * the event from the data structure. It simply indicates that the
-     * scheduled event must not be executed.
+     * scheduled event must not be executed. The event remains scheduled until
+     * its scheduled time. Use Executive.cancel() to remove the event from calendars
+     * that support remove(), which also marks the event as unscheduled.
      *
      * @param event The JSLEvent to be canceled
      */
     public void cancel(JSLEvent event);
 
+    /**
+     * Removes the supplied JSLEvent from the calendar. Calendars that cannot
+     * remove an arbitrary event return false, in which case canceled events remain
+     * in the calendar until their scheduled time.
+     *
+     * @param event The JSLEvent to be removed
+     * @return true if the event was in the calendar and was removed
+     */
+    default boolean remove(JSLEvent event) {
+        return false;
+    }
+
     /**
      * Returns the number of events in the calendar
      *
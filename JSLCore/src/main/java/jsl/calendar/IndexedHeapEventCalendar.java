@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package jsl.calendar;
+
+import java.util.Arrays;
+
+import jsl.simulation.JSLEvent;
+
+/**
+ * This class provides an event calendar by using an indexed 4-ary heap to hold
+ * the underlying events. Each event stores its position within the heap (see
+ * JSLEvent.getCalendarIndex()) so that an event can be removed from the calendar
+ * in O(log n) time. Thus, events that are canceled through the Executive are
+ * physically removed, using remove(), rather than remaining in the calendar until
+ * their scheduled time. Events that are canceled by calling cancel() on the calendar,
+ * or by directly setting their canceled flag, remain in the calendar and remain
+ * scheduled, as with the other calendars.
+ */
+public class IndexedHeapEventCalendar implements CalendarIfc {
+
+    private static final int ARITY = 4;
+
+    private JSLEvent[] myHeap;
+
+    private int mySize;
+
+    private long myNumRemoved;
+
+    public IndexedHeapEventCalendar() {
+        this(64);
+    }
+
+    /**
+     * @param initialCapacity the initial capacity of the heap, must be &gt; 0
+     */
+    public IndexedHeapEventCalendar(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("The initial capacity must be > 0");
+        }
+        myHeap = new JSLEvent[initialCapacity];
+        mySize = 0;
+        myNumRemoved = 0;
+    }
+
+    @Override
+    public final void add(JSLEvent event) {
+        if (mySize == myHeap.length) {
+            myHeap = Arrays.copyOf(myHeap, 2 * myHeap.length);
+        }
+        myHeap[mySize] = event;
+        event.setCalendarIndex(mySize);
+        mySize++;
+        siftUp(mySize - 1);
+    }
+
+    @Override
+    public final JSLEvent nextEvent() {
+        if (mySize == 0) {
+            return null;
+        }
+        JSLEvent event = myHeap[0];
+        removeAt(0);
+        return event;
+    }
+
+    @Override
+    public final JSLEvent peekNext() {
+        if (mySize == 0) {
+            return null;
+        }
+        return myHeap[0];
+    }
+
+    @Override
+    public final boolean isEmpty() {
+        return mySize == 0;
+    }
+
+    @Override
+    public final void clear() {
+        for (int i = 0; i < mySize; i++) {
+            myHeap[i].setCalendarIndex(-1);
+            myHeap[i] = null;
+        }
+        mySize = 0;
+        myNumRemoved = 0;
+    }
+
+    @Override
+    public final void cancel(JSLEvent event) {
+        // only the Executive can mark a removed event as unscheduled, so the event is
+        // left in the calendar, see Executive.cancel()
+        event.setCanceledFlag(true);
+    }
+
+    @Override
+    public final boolean remove(JSLEvent event) {
+        int i = event.getCalendarIndex();
+        if ((i < 0) || (i >= mySize) || (myHeap[i] != event)) {
+            return false;
+        }
+        removeAt(i);
+        myNumRemoved++;
+        return true;
+    }
+
+    @Override
+    public final int size() {
+        return mySize;
+    }
+
+    /**
+     * @return the number of events removed from the calendar, other than by
+     * nextEvent(), since the calendar was last cleared
+     */
+    public final long getNumberOfRemovedEvents() {
+        return myNumRemoved;
+    }
+
+    /**
+     * The number of events in the calendar that have their canceled flag set.
+     * These are events that were canceled without going through the calendar.
+     * This requires a scan of the calendar.
+     *
+     * @return the number of canceled events that remain in the calendar
+     */
+    public final int getNumberOfCanceledEvents() {
+        int n = 0;
+        for (int i = 0; i < mySize; i++) {
+            if (myHeap[i].getCanceledFlag()) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * @return the number of events in the calendar that have not been canceled
+     */
+    public final int getNumberOfLiveEvents() {
+        return mySize - getNumberOfCanceledEvents();
+    }
+
+    private void removeAt(int i) {
+        JSLEvent removed = myHeap[i];
+        mySize--;
+        JSLEvent last = myHeap[mySize];
+        myHeap[mySize] = null;
+        removed.setCalendarIndex(-1);
+        if (i != mySize) {
+            myHeap[i] = last;
+            last.setCalendarIndex(i);
+            siftDown(i);
+            if (myHeap[i] == last) {
+                siftUp(i);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void siftUp(int i) {
+        JSLEvent event = myHeap[i];
+        while (i > 0) {
+            int parent = (i - 1) / ARITY;
+            JSLEvent p = myHeap[parent];
+            if (event.compareTo(p) >= 0) {
+                break;
+            }
+            myHeap[i] = p;
+            p.setCalendarIndex(i);
+            i = parent;
+        }
+        myHeap[i] = event;
+        event.setCalendarIndex(i);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void siftDown(int i) {
+        JSLEvent event = myHeap[i];
+        while (true) {
+            int first = ARITY * i + 1;
+            if (first >= mySize) {
+                break;
+            }
+            int last = Math.min(first + ARITY, mySize);
+            int min = first;
+            for (int c = first + 1; c < last; c++) {
+                if (myHeap[c].compareTo(myHeap[min]) < 0) {
+                    min = c;
+                }
+            }
+            if (myHeap[min].compareTo(event) >= 0) {
+                break;
+            }
+            myHeap[i] = myHeap[min];
+            myHeap[i].setCalendarIndex(i);
+            i = min;
+        }
+        myHeap[i] = event;
+        event.setCalendarIndex(i);
+    }
+}
@@ -0,0 +1,402 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package jsl.calendar;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import jsl.simulation.JSLEvent;
+
+/**
+ * This class provides an event calendar by using a ladder queue to hold the
+ * underlying events (Tang, Goh, and Thng, "Ladder queue: An O(1) priority queue
+ * structure for large-scale discrete event simulation", ACM TOMACS, 2005).
+ * <p>
+ * Events far in the future are held unsorted in the top. When needed, they are
+ * spread into the buckets of the rungs of the ladder, and buckets holding many
+ * events are spread into a finer rung. Only the bucket holding the events that are
+ * next to occur is sorted, into the bottom. When an event is added to a bottom
+ * that already holds many events, the bottom is spread into a new rung rather than
+ * growing, so that a distant event, such as the end of a replication, cannot turn
+ * the bottom into a large sorted list. Thus, the amortized cost of adding and
+ * removing an event does not depend on the number of events in the calendar.
+ * <p>
+ * The events are ordered in the same manner as the other calendars, by time, then
+ * priority, then the order in which the events were scheduled. Canceled events remain
+ * in the calendar until their scheduled time.
+ */
+public class LadderQueueEventCalendar implements CalendarIfc {
+
+    /**
+     * A bucket or bottom holding more events than this is spread into a new rung
+     */
+    private static final int THRESHOLD = 50;
+
+    /**
+     * The maximum number of rungs
+     */
+    private static final int MAX_RUNGS = 8;
+
+    private static final Comparator<JSLEvent> DESCENDING = (e1, e2) -> e2.compareTo(e1);
+
+    private final List<JSLEvent> myTop;
+
+    private double myTopMin;
+
+    private double myTopMax;
+
+    /**
+     * Events with times at or after this time are placed in the top
+     */
+    private double myTopStart;
+
+    private final Rung[] myRungs;
+
+    private int myNumRungs;
+
+    /**
+     * The events that are next to occur, sorted in descending order so that the
+     * next event is at the end of the list
+     */
+    private final ArrayList<JSLEvent> myBottom;
+
+    private int mySize;
+
+    public LadderQueueEventCalendar() {
+        myTop = new ArrayList<>();
+        myBottom = new ArrayList<>();
+        myRungs = new Rung[MAX_RUNGS];
+        clear();
+    }
+
+    @Override
+    public final void add(JSLEvent event) {
+        mySize++;
+        double t = event.getTime();
+        if (t >= myTopStart) {
+            myTop.add(event);
+            if (t < myTopMin) {
+                myTopMin = t;
+            }
+            if (t > myTopMax) {
+                myTopMax = t;
+            }
+            return;
+        }
+        for (int x = 0; x < myNumRungs; x++) {
+            if (myRungs[x].contains(t)) {
+                myRungs[x].add(event);
+                return;
+            }
+        }
+        addToBottom(event);
+    }
+
+    @Override
+    public final JSLEvent nextEvent() {
+        if (!prepareBottom()) {
+            return null;
+        }
+        mySize--;
+        return myBottom.remove(myBottom.size() - 1);
+    }
+
+    @Override
+    public final JSLEvent peekNext() {
+        if (!prepareBottom()) {
+            return null;
+        }
+        return myBottom.get(myBottom.size() - 1);
+    }
+
+    @Override
+    public final boolean isEmpty() {
+        return mySize == 0;
+    }
+
+    @Override
+    public final void clear() {
+        myTop.clear();
+        myTopMin = Double.POSITIVE_INFINITY;
+        myTopMax = Double.NEGATIVE_INFINITY;
+        myTopStart = Double.NEGATIVE_INFINITY;
+        for (int x = 0; x < MAX_RUNGS; x++) {
+            myRungs[x] = null;
+        }
+        myNumRungs = 0;
+        myBottom.clear();
+        mySize = 0;
+    }
+
+    @Override
+    public final void cancel(JSLEvent event) {
+        event.setCanceledFlag(true);
+    }
+
+    @Override
+    public final int size() {
+        return mySize;
+    }
+
+    /**
+     * Inserts the event into its sorted position within the bottom. If the bottom
+     * is full, its events are first spread into a new rung and the event is added
+     * to the new rung if it falls within it.
+     *
+     * @param event the event
+     */
+    private void addToBottom(JSLEvent event) {
+        if ((myBottom.size() >= THRESHOLD) && (myNumRungs < MAX_RUNGS)) {
+            Rung rung = spawnBottom();
+            if (rung != null) {
+                myRungs[myNumRungs] = rung;
+                myNumRungs++;
+                if (rung.contains(event.getTime())) {
+                    rung.add(event);
+                    return;
+                }
+            }
+        }
+        int index = Collections.binarySearch(myBottom, event, DESCENDING);
+        if (index < 0) {
+            index = -(index + 1);
+        }
+        myBottom.add(index, event);
+    }
+
+    /**
+     * Spreads the events of the bottom into a new rung, which becomes the last rung.
+     * The bottom is empty if the rung is created.
+     *
+     * @return the new rung or null if the events could not be spread
+     */
+    private Rung spawnBottom() {
+        // the bottom is sorted in descending order
+        double min = myBottom.get(myBottom.size() - 1).getTime();
+        double max = myBottom.get(0).getTime();
+        if (!(max > min)) {
+            return null;
+        }
+        Rung rung = Rung.spread(myBottom, min, Math.nextUp(max));
+        if (rung != null) {
+            myBottom.clear();
+        }
+        return rung;
+    }
+
+    /**
+     * Ensures that the bottom holds the next events, if there are any events
+     *
+     * @return true if the bottom has events
+     */
+    private boolean prepareBottom() {
+        while (myBottom.isEmpty()) {
+            if (myNumRungs == 0) {
+                if (myTop.isEmpty()) {
+                    return false;
+                }
+                transferTop();
+                continue;
+            }
+            Rung rung = myRungs[myNumRungs - 1];
+            List<JSLEvent> bucket = rung.nextBucket();
+            if (bucket == null) {
+                // rung is exhausted
+                myRungs[myNumRungs - 1] = null;
+                myNumRungs--;
+                continue;
+            }
+            Rung child = null;
+            if ((bucket.size() > THRESHOLD) && (myNumRungs < MAX_RUNGS)) {
+                child = rung.spawn(bucket);
+            }
+            if (child != null) {
+                myRungs[myNumRungs] = child;
+                myNumRungs++;
+            } else {
+                bucket.sort(DESCENDING);
+                myBottom.addAll(bucket);
+            }
+            rung.removeNextBucket();
+        }
+        return true;
+    }
+
+    /**
+     * Moves the events in the top to the first rung, or to the bottom
+     * if there are not many events
+     */
+    private void transferTop() {
+        int n = myTop.size();
+        Rung rung = null;
+        if ((n > THRESHOLD) && (myTopMax > myTopMin)) {
+            rung = Rung.create(myTopMin, (myTopMax - myTopMin) / n, n);
+        }
+        if (rung == null) {
+            myTop.sort(DESCENDING);
+            myBottom.addAll(myTop);
+            myTopStart = Math.nextUp(myTopMax);
+        } else {
+            for (JSLEvent e : myTop) {
+                rung.add(e);
+            }
+            myRungs[0] = rung;
+            myNumRungs = 1;
+            myTopStart = Math.max(rung.boundary(rung.myNumBuckets), Math.nextUp(myTopMax));
+        }
+        myTop.clear();
+        myTopMin = Double.POSITIVE_INFINITY;
+        myTopMax = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * A rung of the ladder. Bucket i holds the events with times t such that
+     * boundary(i) &lt;= t &lt; boundary(i+1), except that the last bucket holds all
+     * later events. The boundaries are always computed in the same manner so that
+     * events with the same time are always placed in the same bucket.
+     */
+    private static final class Rung {
+
+        private final double myStart;
+
+        private final double myWidth;
+
+        private final int myNumBuckets;
+
+        private final List<List<JSLEvent>> myBuckets;
+
+        /**
+         * The next bucket to be processed, earlier buckets are empty
+         */
+        private int myCurrent;
+
+        private int myCount;
+
+        private Rung(double start, double width, int numBuckets) {
+            myStart = start;
+            myWidth = width;
+            myNumBuckets = numBuckets;
+            myBuckets = new ArrayList<>(Collections.nCopies(numBuckets, null));
+            myCurrent = 0;
+            myCount = 0;
+        }
+
+        /**
+         * @return the rung, or null if the width cannot distinguish the buckets
+         */
+        static Rung create(double start, double width, int numBuckets) {
+            if (!(width > 0.0) || (start + width <= start) || Double.isInfinite(start + width * numBuckets)) {
+                return null;
+            }
+            return new Rung(start, width, numBuckets);
+        }
+
+        double boundary(int i) {
+            return myStart + i * myWidth;
+        }
+
+        boolean contains(double t) {
+            return (myCurrent < myNumBuckets) && (t >= boundary(myCurrent));
+        }
+
+        int bucketIndex(double t) {
+            double d = (t - myStart) / myWidth;
+            int i = (d >= myNumBuckets) ? myNumBuckets - 1 : Math.max(0, (int) d);
+            while ((i > 0) && (t < boundary(i))) {
+                i--;
+            }
+            while ((i < myNumBuckets - 1) && (t >= boundary(i + 1))) {
+                i++;
+            }
+            return i;
+        }
+
+        void add(JSLEvent event) {
+            int i = bucketIndex(event.getTime());
+            List<JSLEvent> bucket = myBuckets.get(i);
+            if (bucket == null) {
+                bucket = new ArrayList<>();
+                myBuckets.set(i, bucket);
+            }
+            bucket.add(event);
+            myCount++;
+        }
+
+        /**
+         * @return the next non-empty bucket, or null if the rung has no events
+         */
+        List<JSLEvent> nextBucket() {
+            if (myCount == 0) {
+                return null;
+            }
+            while ((myBuckets.get(myCurrent) == null) || myBuckets.get(myCurrent).isEmpty()) {
+                myBuckets.set(myCurrent, null);
+                myCurrent++;
+            }
+            return myBuckets.get(myCurrent);
+        }
+
+        void removeNextBucket() {
+            myCount = myCount - myBuckets.get(myCurrent).size();
+            myBuckets.set(myCurrent, null);
+            myCurrent++;
+        }
+
+        /**
+         * Spreads the events of the supplied bucket, which must be the next
+         * bucket, into a new rung
+         *
+         * @param bucket the bucket
+         * @return the new rung or null if the events could not be spread
+         */
+        Rung spawn(List<JSLEvent> bucket) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (JSLEvent e : bucket) {
+                min = Math.min(min, e.getTime());
+                max = Math.max(max, e.getTime());
+            }
+            if (!(max > min)) {
+                return null;
+            }
+            double start = boundary(myCurrent);
+            double end = (myCurrent == myNumBuckets - 1) ? Math.nextUp(max) : boundary(myCurrent + 1);
+            return spread(bucket, start, end);
+        }
+
+        /**
+         * Spreads the events into a new rung with one bucket per event covering
+         * the times from start to end
+         *
+         * @param events the events
+         * @param start  the start of the first bucket
+         * @param end    the end of the last bucket
+         * @return the new rung or null if the events could not be spread
+         */
+        static Rung spread(List<JSLEvent> events, double start, double end) {
+            int n = events.size();
+            Rung rung = create(start, (end - start) / n, n);
+            if (rung != null) {
+                for (JSLEvent e : events) {
+                    rung.add(e);
+                }
+            }
+            return rung;
+        }
+    }
+}
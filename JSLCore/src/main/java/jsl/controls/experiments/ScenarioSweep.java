@@ -0,0 +1,402 @@
+package jsl.controls.experiments;
+
+import jsl.controls.Controls;
+import jsl.simulation.Model;
+import jsl.simulation.ModelBuilderIfc;
+import jsl.simulation.Simulation;
+import jsl.utilities.random.rng.RNStreamIfc;
+import jsl.utilities.random.rng.RNStreamProvider;
+import jsl.utilities.random.rvariable.JSLRandom;
+import jsl.utilities.random.rvariable.RVParameterSetter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes a simulation run for each design point (row) of a design matrix. The columns
+ * of the matrix are the factors, which are the names of controls of the model or flattened
+ * random variable parameter names (see RVParameterSetter.getFlatParametersAsDoubles()), as
+ * applied by SimulationRunner.
+ * <p>
+ * The design points are executed concurrently, each on its own instance of the model built
+ * by the ModelBuilderIfc. Each instance is built with a new stream provider, so every design
+ * point uses the same random number streams, i.e. common random numbers across the design points.
+ * The results are given to the ScenarioSweepListenerIfc listeners as the design points complete,
+ * e.g. to write them to a file or database, rather than being held in memory.
+ * <p>
+ * If a checkpoint file is specified, each completed design point is recorded in the file after
+ * the listeners have been notified. Running the sweep again with the same checkpoint file executes
+ * only the design points that have not been completed. Design points whose runs fail are not
+ * recorded and are attempted again when the sweep is resumed.
+ */
+public class ScenarioSweep {
+
+    private static final String CHECKPOINT_HEADER = "# ScenarioSweep ";
+
+    private final String myName;
+
+    private final ModelBuilderIfc myBuilder;
+
+    private final List<String> myFactorNames;
+
+    private final double[][] myDesign;
+
+    private final SimulationParameters myParameters;
+
+    private final List<ScenarioSweepListenerIfc> myListeners = new ArrayList<>();
+
+    private int myNumThreads;
+
+    private Path myCheckpointFile;
+
+    /**
+     * @param name        the name of the sweep, used to name the runs of the design points
+     * @param builder     the builder of the model, must not be null
+     * @param factorNames the names of the controls or random variable parameters, one for each
+     *                    column of the design, must not be null
+     * @param design      the design matrix, each row is a design point, must not be null or empty
+     * @param parameters  the parameters of the run of each design point, must specify the number of
+     *                    replications
+     */
+    public ScenarioSweep(String name, ModelBuilderIfc builder, List<String> factorNames, double[][] design,
+                         SimulationParameters parameters) {
+        Objects.requireNonNull(builder, "The supplied model builder was null");
+        Objects.requireNonNull(factorNames, "The factor names were null");
+        Objects.requireNonNull(design, "The design was null");
+        Objects.requireNonNull(parameters, "The simulation parameters were null");
+        if (design.length == 0) {
+            throw new IllegalArgumentException("The design must have at least one design point");
+        }
+        for (double[] point : design) {
+            if ((point == null) || (point.length != factorNames.size())) {
+                throw new IllegalArgumentException("Each design point must have a value for each factor");
+            }
+        }
+        if (parameters.numberOfReplications == null) {
+            throw new IllegalArgumentException("The simulation parameters must specify the number of replications");
+        }
+        myName = (name == null) ? getClass().getSimpleName() : name;
+        myBuilder = builder;
+        myFactorNames = Collections.unmodifiableList(new ArrayList<>(factorNames));
+        myDesign = new double[design.length][];
+        for (int i = 0; i < design.length; i++) {
+            myDesign[i] = Arrays.copyOf(design[i], design[i].length);
+        }
+        myParameters = parameters.newInstance();
+        myNumThreads = Runtime.getRuntime().availableProcessors();
+        checkFactorNames();
+    }
+
+    /**
+     * Checks that each factor is a control or a random variable parameter of the model
+     */
+    private void checkFactorNames() {
+        Simulation sim = new Simulation(myName + "_Reference");
+        Model model = sim.getModel();
+        model.setRNStreamProvider(new RNStreamProvider());
+        JSLRandom.runWithRNStreamProvider(model.getRNStreamProvider(), () -> myBuilder.build(model));
+        Controls controls = sim.getModelControls();
+        RVParameterSetter setter = new RVParameterSetter();
+        setter.extractParameters(model);
+        // the default concatenation string, as used by SimulationRunner
+        Map<String, Double> params = setter.getFlatParametersAsDoubles();
+        List<String> unknown = new ArrayList<>();
+        for (String factor : myFactorNames) {
+            if (!controls.hasControl(factor) && !params.containsKey(factor)) {
+                unknown.add(factor);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("The factors " + unknown
+                    + " are not controls or random variable parameters of the model");
+        }
+    }
+
+    /**
+     * @return the name of the sweep
+     */
+    public final String getName() {
+        return myName;
+    }
+
+    /**
+     * @return the names of the factors
+     */
+    public final List<String> getFactorNames() {
+        return myFactorNames;
+    }
+
+    /**
+     * @return the number of design points
+     */
+    public final int getNumberOfDesignPoints() {
+        return myDesign.length;
+    }
+
+    /**
+     * @param designPoint the index of the design point
+     * @return a copy of the factor values of the design point
+     */
+    public final double[] getDesignPoint(int designPoint) {
+        return Arrays.copyOf(myDesign[designPoint], myDesign[designPoint].length);
+    }
+
+    /**
+     * @return the number of design points that are executed concurrently
+     */
+    public final int getNumberOfThreads() {
+        return myNumThreads;
+    }
+
+    /**
+     * @param numThreads the number of design points that are executed concurrently, must be &gt; 0
+     */
+    public final void setNumberOfThreads(int numThreads) {
+        if (numThreads <= 0) {
+            throw new IllegalArgumentException("The number of threads must be > 0");
+        }
+        myNumThreads = numThreads;
+    }
+
+    /**
+     * @return the checkpoint file, or null if no checkpoints are recorded
+     */
+    public final Path getCheckpointFile() {
+        return myCheckpointFile;
+    }
+
+    /**
+     * @param checkpointFile the file used to record the completed design points, null means
+     *                       no checkpoints are recorded
+     */
+    public final void setCheckpointFile(Path checkpointFile) {
+        myCheckpointFile = checkpointFile;
+    }
+
+    /**
+     * @param listener the listener to add, must not be null
+     */
+    public final void addListener(ScenarioSweepListenerIfc listener) {
+        Objects.requireNonNull(listener, "The listener was null");
+        myListeners.add(listener);
+    }
+
+    /**
+     * @param listener the listener to remove
+     */
+    public final void removeListener(ScenarioSweepListenerIfc listener) {
+        myListeners.remove(listener);
+    }
+
+    /**
+     * @param designPoint the index of the design point
+     * @return the run that executes the design point
+     */
+    public final SimulationRun makeSimulationRun(int designPoint) {
+        SimulationRun run = new SimulationRun.Builder()
+                .withParameters(myParameters.newInstance())
+                .withInputs(myFactorNames.toArray(new String[0]), myDesign[designPoint])
+                .create();
+        run.name = myName + "_DP" + designPoint;
+        return run;
+    }
+
+    /**
+     * Reads the completed design points from the checkpoint file
+     *
+     * @return the completed design points
+     */
+    public final BitSet getCompletedDesignPoints() {
+        BitSet done = new BitSet(myDesign.length);
+        if ((myCheckpointFile == null) || !Files.exists(myCheckpointFile)) {
+            return done;
+        }
+        try {
+            List<String> lines = Files.readAllLines(myCheckpointFile, StandardCharsets.UTF_8);
+            if (lines.isEmpty() || !lines.get(0).equals(checkpointHeader())) {
+                throw new IllegalStateException("The checkpoint file " + myCheckpointFile
+                        + " was not written by this sweep");
+            }
+            for (String line : lines.subList(1, lines.size())) {
+                if (!line.isBlank()) {
+                    done.set(Integer.parseInt(line.trim()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the checkpoint file " + myCheckpointFile, e);
+        }
+        return done;
+    }
+
+    /**
+     * Identifies the sweep, so that a checkpoint file is only used with the sweep that wrote it
+     */
+    private String checkpointHeader() {
+        int hash = Arrays.deepHashCode(myDesign);
+        hash = 31 * hash + myFactorNames.hashCode();
+        hash = 31 * hash + myParameters.hashCode();
+        return CHECKPOINT_HEADER + myName + " " + Integer.toHexString(hash);
+    }
+
+    /**
+     * Executes the design points that have not been completed according to the checkpoint file
+     *
+     * @return the number of design points executed
+     */
+    public int run() {
+        BitSet done = getCompletedDesignPoints();
+        List<Integer> points = new ArrayList<>();
+        for (int k = 0; k < myDesign.length; k++) {
+            if (!done.get(k)) {
+                points.add(k);
+            }
+        }
+        if (points.isEmpty()) {
+            return 0;
+        }
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(myNumThreads, points.size()), r -> {
+            Thread t = new Thread(r, myName + "_Worker_" + threadCounter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        CompletionService<Integer> completions = new ExecutorCompletionService<>(executor);
+        SimulationRun[] results = new SimulationRun[myDesign.length];
+        try (BufferedWriter checkpoint = openCheckpointFile(done.isEmpty())) {
+            for (Integer k : points) {
+                completions.submit(() -> {
+                    results[k] = SimulationRunWorker.execute(myBuilder, Thread.currentThread().getName(),
+                            makeSimulationRun(k));
+                    return k;
+                });
+            }
+            for (int i = 0; i < points.size(); i++) {
+                int k = completions.take().get();
+                SimulationRun run = results[k];
+                results[k] = null;
+                for (ScenarioSweepListenerIfc listener : myListeners) {
+                    listener.designPointCompleted(this, k, run);
+                }
+                if ((run.functionError != null) && !run.functionError.isEmpty()) {
+                    Simulation.LOGGER.error("Design point {} of sweep {} failed", k, myName);
+                } else if (checkpoint != null) {
+                    checkpoint.write(Integer.toString(k));
+                    checkpoint.newLine();
+                    checkpoint.flush();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The sweep " + myName + " was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("The sweep " + myName + " failed", e.getCause());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the checkpoint file " + myCheckpointFile, e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return points.size();
+    }
+
+    private BufferedWriter openCheckpointFile(boolean create) throws IOException {
+        if (myCheckpointFile == null) {
+            return null;
+        }
+        if (create) {
+            BufferedWriter writer = Files.newBufferedWriter(myCheckpointFile, StandardCharsets.UTF_8);
+            writer.write(checkpointHeader());
+            writer.newLine();
+            writer.flush();
+            return writer;
+        }
+        return Files.newBufferedWriter(myCheckpointFile, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Makes a full factorial design over the supplied levels of each factor. The levels of
+     * the last factor change fastest.
+     *
+     * @param levels the levels of each factor, each must have at least one level
+     * @return the design matrix
+     */
+    public static double[][] fullFactorial(double[]... levels) {
+        Objects.requireNonNull(levels, "The levels were null");
+        int n = 1;
+        for (double[] l : levels) {
+            if ((l == null) || (l.length == 0)) {
+                throw new IllegalArgumentException("Each factor must have at least one level");
+            }
+            n = Math.multiplyExact(n, l.length);
+        }
+        double[][] design = new double[n][levels.length];
+        for (int i = 0; i < n; i++) {
+            int index = i;
+            for (int j = levels.length - 1; j >= 0; j--) {
+                design[i][j] = levels[j][index % levels[j].length];
+                index = index / levels[j].length;
+            }
+        }
+        return design;
+    }
+
+    /**
+     * Makes a Latin hypercube design. The range of each factor is divided into numPoints
+     * equally likely intervals and each interval is sampled exactly once.
+     *
+     * @param numPoints the number of design points, must be &gt; 0
+     * @param lower     the lower limit of each factor
+     * @param upper     the upper limit of each factor
+     * @param stream    the stream used to sample and permute the intervals, must not be null
+     * @return the design matrix
+     */
+    public static double[][] latinHypercube(int numPoints, double[] lower, double[] upper, RNStreamIfc stream) {
+        Objects.requireNonNull(lower, "The lower limits were null");
+        Objects.requireNonNull(upper, "The upper limits were null");
+        Objects.requireNonNull(stream, "The stream was null");
+        if (numPoints <= 0) {
+            throw new IllegalArgumentException("The number of points must be > 0");
+        }
+        if (lower.length != upper.length) {
+            throw new IllegalArgumentException("The number of lower and upper limits must be the same");
+        }
+        double[][] design = new double[numPoints][lower.length];
+        int[] perm = new int[numPoints];
+        for (int j = 0; j < lower.length; j++) {
+            if (lower[j] > upper[j]) {
+                throw new IllegalArgumentException("The lower limit must be <= the upper limit");
+            }
+            for (int i = 0; i < numPoints; i++) {
+                perm[i] = i;
+            }
+            for (int i = numPoints - 1; i > 0; i--) {
+                int r = stream.randInt(0, i);
+                int t = perm[i];
+                perm[i] = perm[r];
+                perm[r] = t;
+            }
+            double width = (upper[j] - lower[j]) / numPoints;
+            for (int i = 0; i < numPoints; i++) {
+                design[i][j] = lower[j] + (perm[i] + stream.randU01()) * width;
+            }
+        }
+        return design;
+    }
+}
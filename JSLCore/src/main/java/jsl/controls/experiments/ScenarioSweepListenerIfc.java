@@ -0,0 +1,20 @@
+package jsl.controls.experiments;
+
+/**
+ * Receives the results of the design points of a ScenarioSweep as they complete.
+ * The listeners are notified on the thread that runs the sweep, one design point at
+ * a time, so they do not need to be thread-safe.
+ */
+@FunctionalInterface
+public interface ScenarioSweepListenerIfc {
+
+    /**
+     * Called after a design point has been executed
+     *
+     * @param sweep       the sweep
+     * @param designPoint the index of the design point, i.e. the row of the design matrix
+     * @param run         the run holding the inputs and the results of the design point. If the
+     *                    run failed, its functionError is not empty.
+     */
+    void designPointCompleted(ScenarioSweep sweep, int designPoint, SimulationRun run);
+}
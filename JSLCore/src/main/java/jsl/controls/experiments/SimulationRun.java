@@ -95,12 +95,16 @@ public class SimulationRun {
         p.numberOfReplications = toReplicationExclusive - fromReplicationInclusive;
         p.firstReplication = fromReplicationInclusive;
 
-        return new SimulationRun.Builder()
+        SimulationRun.Builder builder = new SimulationRun.Builder()
                 .withParameters(p)
-                .withInputs(inputs)
 //                .withRVParameters(rvParameters)
-                .withID(id)
-                .create();
+                .withID(id);
+        if (inputs != null) {
+            builder.withInputs(inputs);
+        }
+        SimulationRun run = builder.create();
+        run.name = name;
+        return run;
     }
 
     public static class Builder {
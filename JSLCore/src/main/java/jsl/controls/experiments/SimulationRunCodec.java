@@ -0,0 +1,160 @@
+package jsl.controls.experiments;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A compact binary encoding of a SimulationRun, used to exchange runs between a
+ * SimulationRunFarm and its SimulationRunWorker instances. Strings are written as
+ * UTF-8 bytes preceded by their length, nullable values are preceded by a presence
+ * flag, and the response data is written as arrays of doubles.
+ */
+final class SimulationRunCodec {
+
+    /**
+     * Sent by a worker when it is ready to receive runs
+     */
+    static final int READY = 0x4A534C57;
+
+    /**
+     * Precedes a run sent to a worker
+     */
+    static final byte RUN = 1;
+
+    /**
+     * Tells a worker to stop
+     */
+    static final byte SHUTDOWN = 0;
+
+    private SimulationRunCodec() {
+    }
+
+    static void write(DataOutputStream out, SimulationRun run) throws IOException {
+        writeString(out, run.id);
+        writeString(out, run.name);
+        writeString(out, run.functionError);
+        SimulationParameters p = run.parameters;
+        out.writeBoolean(p != null);
+        if (p != null) {
+            out.writeInt(p.firstReplication);
+            writeDouble(out, p.lengthOfReplication);
+            writeDouble(out, p.lengthOfWarmup);
+            out.writeBoolean(p.numberOfReplications != null);
+            if (p.numberOfReplications != null) {
+                out.writeInt(p.numberOfReplications);
+            }
+            out.writeBoolean(p.useAntithetic);
+        }
+        if (run.inputs == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(run.inputs.size());
+            for (Map.Entry<String, Double> e : run.inputs.entrySet()) {
+                writeString(out, e.getKey());
+                out.writeDouble(e.getValue());
+            }
+        }
+        writeLong(out, run.handlerStartedNs);
+        writeLong(out, run.handlerEndedNs);
+        if (run.responseData == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(run.responseData.size());
+            for (Map.Entry<String, double[]> e : run.responseData.entrySet()) {
+                writeString(out, e.getKey());
+                double[] data = e.getValue();
+                out.writeInt(data.length);
+                for (double x : data) {
+                    out.writeDouble(x);
+                }
+            }
+        }
+    }
+
+    static SimulationRun read(DataInputStream in) throws IOException {
+        SimulationRun run = new SimulationRun();
+        run.id = readString(in);
+        run.name = readString(in);
+        run.functionError = readString(in);
+        if (in.readBoolean()) {
+            SimulationParameters p = new SimulationParameters();
+            p.firstReplication = in.readInt();
+            p.lengthOfReplication = readDouble(in);
+            p.lengthOfWarmup = readDouble(in);
+            if (in.readBoolean()) {
+                p.numberOfReplications = in.readInt();
+            }
+            p.useAntithetic = in.readBoolean();
+            run.parameters = p;
+        }
+        int n = in.readInt();
+        if (n >= 0) {
+            run.inputs = new LinkedHashMap<>();
+            for (int i = 0; i < n; i++) {
+                String key = readString(in);
+                run.inputs.put(key, in.readDouble());
+            }
+        }
+        run.handlerStartedNs = readLong(in);
+        run.handlerEndedNs = readLong(in);
+        n = in.readInt();
+        if (n >= 0) {
+            run.responseData = new LinkedHashMap<>();
+            for (int i = 0; i < n; i++) {
+                String key = readString(in);
+                double[] data = new double[in.readInt()];
+                for (int j = 0; j < data.length; j++) {
+                    data[j] = in.readDouble();
+                }
+                run.responseData.put(key, data);
+            }
+        }
+        return run;
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int n = in.readInt();
+        if (n < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[n];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDouble(DataOutputStream out, Double x) throws IOException {
+        out.writeBoolean(x != null);
+        if (x != null) {
+            out.writeDouble(x);
+        }
+    }
+
+    private static Double readDouble(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readDouble() : null;
+    }
+
+    private static void writeLong(DataOutputStream out, Long x) throws IOException {
+        out.writeBoolean(x != null);
+        if (x != null) {
+            out.writeLong(x);
+        }
+    }
+
+    private static Long readLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+}
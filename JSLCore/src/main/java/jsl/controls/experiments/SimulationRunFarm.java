@@ -0,0 +1,527 @@
+package jsl.controls.experiments;
+
+import jsl.simulation.ModelBuilderIfc;
+import jsl.simulation.Simulation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Executes the replications of a SimulationRun in parallel by splitting the run into
+ * sub-tasks (see SimulationRun.subTask()) and sending the sub-tasks to a pool of
+ * SimulationRunWorker instances. A worker is either a separate JVM, started using the
+ * class path of this JVM, or an isolated class loader within this JVM. Either way, each
+ * worker has its own copy of all static state, so models that are not thread-safe can be
+ * executed in parallel. The runs and their results are exchanged using a compact binary
+ * encoding over the standard input and output of the worker process, or over pipes.
+ * <p>
+ * The response data of the sub-tasks is reassembled in replication order. If a worker
+ * fails (e.g. its process crashes), it is replaced and only the sub-task that it was
+ * executing is run again, up to the maximum number of attempts. Because each worker builds
+ * its model with a new stream provider and SimulationRunner positions the streams at the
+ * first replication of the sub-task, the results are the same as running the whole run
+ * with a single SimulationRunner on a model built the same way. The antithetic option
+ * is not supported.
+ * <p>
+ * The model is built by a ModelBuilderIfc class that has a public no argument constructor.
+ */
+public class SimulationRunFarm {
+
+    /**
+     * The kinds of workers
+     */
+    public enum WorkerType {
+        /**
+         * Each worker is a separate JVM
+         */
+        PROCESS,
+        /**
+         * Each worker is a thread within this JVM that uses its own class loader
+         */
+        CLASS_LOADER
+    }
+
+    /**
+     * The default number of times that a sub-task is attempted before it is considered failed
+     */
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    /**
+     * The size of the pipes used by the class loader workers
+     */
+    private static final int PIPE_SIZE = 1 << 16;
+
+    private final String myName;
+
+    private final String myBuilderClassName;
+
+    private final int myNumWorkers;
+
+    private final WorkerType myWorkerType;
+
+    private final List<String> myJVMOptions = new ArrayList<>();
+
+    private int myMaxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+    private final AtomicInteger myWorkerCounter = new AtomicInteger();
+
+    /**
+     * Uses one worker process per available processor
+     *
+     * @param builderClass the class of the model builder, must have a public no argument constructor
+     */
+    public SimulationRunFarm(Class<? extends ModelBuilderIfc> builderClass) {
+        this(null, builderClass, Runtime.getRuntime().availableProcessors(), WorkerType.PROCESS);
+    }
+
+    /**
+     * @param name         the name of the farm, used to name the workers
+     * @param builderClass the class of the model builder, must have a public no argument constructor
+     * @param numWorkers   the number of workers, must be &gt; 0
+     * @param workerType   the kind of workers, must not be null
+     */
+    public SimulationRunFarm(String name, Class<? extends ModelBuilderIfc> builderClass, int numWorkers,
+                             WorkerType workerType) {
+        Objects.requireNonNull(builderClass, "The supplied model builder class was null");
+        Objects.requireNonNull(workerType, "The supplied worker type was null");
+        if (numWorkers <= 0) {
+            throw new IllegalArgumentException("The number of workers must be > 0");
+        }
+        try {
+            builderClass.getConstructor();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("The model builder class must have a public no argument constructor", e);
+        }
+        myName = (name == null) ? getClass().getSimpleName() : name;
+        myBuilderClassName = builderClass.getName();
+        myNumWorkers = numWorkers;
+        myWorkerType = workerType;
+    }
+
+    /**
+     * @return the name of the farm
+     */
+    public final String getName() {
+        return myName;
+    }
+
+    /**
+     * @return the number of workers
+     */
+    public final int getNumberOfWorkers() {
+        return myNumWorkers;
+    }
+
+    /**
+     * @return the kind of workers
+     */
+    public final WorkerType getWorkerType() {
+        return myWorkerType;
+    }
+
+    /**
+     * @return the number of times that a sub-task is attempted before it is considered failed
+     */
+    public final int getMaximumAttempts() {
+        return myMaxAttempts;
+    }
+
+    /**
+     * @param maxAttempts the number of times that a sub-task is attempted before it is
+     *                    considered failed, must be &gt; 0
+     */
+    public final void setMaximumAttempts(int maxAttempts) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("The maximum number of attempts must be > 0");
+        }
+        myMaxAttempts = maxAttempts;
+    }
+
+    /**
+     * @return the options (e.g. -Xmx2g) used to start worker processes
+     */
+    public final List<String> getJVMOptions() {
+        return Collections.unmodifiableList(myJVMOptions);
+    }
+
+    /**
+     * @param options the options (e.g. -Xmx2g) used to start worker processes, must not be null
+     */
+    public final void setJVMOptions(List<String> options) {
+        Objects.requireNonNull(options, "The options were null");
+        myJVMOptions.clear();
+        myJVMOptions.addAll(options);
+    }
+
+    /**
+     * Executes the run, using about one sub-task per worker
+     *
+     * @param run the run to execute, must not be null
+     * @return a new run holding the results of all the replications
+     */
+    public SimulationRun run(SimulationRun run) {
+        checkRun(run);
+        int n = run.parameters.numberOfReplications;
+        return run(run, (n + myNumWorkers - 1) / myNumWorkers);
+    }
+
+    /**
+     * Executes the run by splitting its replications into sub-tasks of the supplied size.
+     * Smaller sub-tasks balance the load better and lose less work when a worker fails.
+     * If any sub-task fails, the functionError of the returned run describes the failures
+     * and its response data is empty.
+     *
+     * @param run                 the run to execute, must not be null and must have parameters
+     *                            that specify the number of replications
+     * @param replicationsPerTask the number of replications of each sub-task, must be &gt; 0
+     * @return a new run holding the results of all the replications
+     */
+    public SimulationRun run(SimulationRun run, int replicationsPerTask) {
+        checkRun(run);
+        if (replicationsPerTask <= 0) {
+            throw new IllegalArgumentException("The number of replications per task must be > 0");
+        }
+        List<SimulationRun> tasks = new ArrayList<>();
+        int first = run.parameters.firstReplication;
+        int end = run.parameters.lastReplication() + 1;
+        for (int from = first; from < end; from = from + replicationsPerTask) {
+            tasks.add(run.subTask(from, Math.min(from + replicationsPerTask, end)));
+        }
+        SimulationRun[] results = new SimulationRun[tasks.size()];
+        AtomicIntegerArray attempts = new AtomicIntegerArray(tasks.size());
+        ConcurrentLinkedQueue<Integer> pending = new ConcurrentLinkedQueue<>();
+        for (int k = 0; k < tasks.size(); k++) {
+            pending.add(k);
+        }
+        int numWorkers = Math.min(myNumWorkers, tasks.size());
+        ExecutorService executor = Executors.newFixedThreadPool(numWorkers, r -> {
+            Thread t = new Thread(r, myName + "_Coordinator");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < numWorkers; i++) {
+                futures.add(executor.submit(() -> runTasks(tasks, results, attempts, pending)));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The farm was interrupted while executing " + run.name, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("The farm failed while executing " + run.name, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return assemble(run, tasks, results);
+    }
+
+    private void checkRun(SimulationRun run) {
+        Objects.requireNonNull(run, "The supplied simulation run was null");
+        if ((run.parameters == null) || (run.parameters.numberOfReplications == null)) {
+            throw new IllegalArgumentException("The simulation run must specify the number of replications");
+        }
+        if (run.parameters.useAntithetic) {
+            throw new IllegalArgumentException("The simulation run farm does not support antithetic replications");
+        }
+    }
+
+    /**
+     * Executes pending sub-tasks on a worker until there are none left, replacing the
+     * worker if it fails
+     */
+    private void runTasks(List<SimulationRun> tasks, SimulationRun[] results, AtomicIntegerArray attempts,
+                          ConcurrentLinkedQueue<Integer> pending) {
+        Worker worker = null;
+        Integer k;
+        try {
+            while (!Thread.currentThread().isInterrupted() && ((k = pending.poll()) != null)) {
+                SimulationRun task = tasks.get(k);
+                try {
+                    if (worker == null) {
+                        worker = startWorker();
+                    }
+                    results[k] = worker.execute(task);
+                } catch (IOException e) {
+                    int attempt = attempts.incrementAndGet(k);
+                    Simulation.LOGGER.warn("Worker {} failed on replications {} to {} of {}, attempt {}: {}",
+                            worker == null ? "startup" : worker.myName, task.parameters.firstReplication,
+                            task.parameters.lastReplication(), task.name, attempt, e.toString());
+                    if (worker != null) {
+                        worker.destroy();
+                        worker = null;
+                    }
+                    if (attempt < myMaxAttempts) {
+                        pending.add(k);
+                    } else {
+                        results[k] = task;
+                        task.responseData = new LinkedHashMap<>();
+                        task.functionError = "The replications could not be executed after " + attempt
+                                + " attempts: " + e;
+                    }
+                }
+            }
+        } finally {
+            if (worker != null) {
+                worker.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Combines the results of the sub-tasks in replication order
+     */
+    private SimulationRun assemble(SimulationRun run, List<SimulationRun> tasks, SimulationRun[] results) {
+        SimulationRun.Builder builder = new SimulationRun.Builder()
+                .withParameters(run.parameters.newInstance())
+                .withID(run.id);
+        if (run.inputs != null) {
+            builder.withInputs(run.inputs);
+        }
+        SimulationRun r = builder.create();
+        r.name = run.name;
+        StringBuilder errors = new StringBuilder();
+        for (int k = 0; k < results.length; k++) {
+            SimulationRun result = results[k];
+            if ((result.functionError != null) && !result.functionError.isEmpty()) {
+                errors.append("Replications ").append(tasks.get(k).parameters.firstReplication)
+                        .append(" to ").append(tasks.get(k).parameters.lastReplication())
+                        .append(": ").append(result.functionError).append(System.lineSeparator());
+            }
+            if (result.handlerStartedNs != null) {
+                r.handlerStartedNs = (r.handlerStartedNs == null) ? result.handlerStartedNs
+                        : Math.min(r.handlerStartedNs, result.handlerStartedNs);
+            }
+            if (result.handlerEndedNs != null) {
+                r.handlerEndedNs = (r.handlerEndedNs == null) ? result.handlerEndedNs
+                        : Math.max(r.handlerEndedNs, result.handlerEndedNs);
+            }
+        }
+        r.functionError = errors.toString();
+        r.responseData = new LinkedHashMap<>();
+        if (!r.functionError.isEmpty()) {
+            Simulation.LOGGER.error("The simulation run farm {} could not execute all the replications of {}",
+                    myName, run.name);
+            return r;
+        }
+        for (String key : results[0].responseData.keySet()) {
+            int n = 0;
+            for (SimulationRun result : results) {
+                double[] data = result.responseData.get(key);
+                n = n + ((data == null) ? 0 : data.length);
+            }
+            double[] all = new double[n];
+            int i = 0;
+            for (SimulationRun result : results) {
+                double[] data = result.responseData.get(key);
+                if (data != null) {
+                    System.arraycopy(data, 0, all, i, data.length);
+                    i = i + data.length;
+                }
+            }
+            r.responseData.put(key, all);
+        }
+        return r;
+    }
+
+    private Worker startWorker() throws IOException {
+        String name = myName + "_Worker_" + myWorkerCounter.incrementAndGet();
+        Worker worker;
+        if (myWorkerType == WorkerType.PROCESS) {
+            worker = new ProcessWorker(name);
+        } else {
+            worker = new ClassLoaderWorker(name);
+        }
+        try {
+            int ready = worker.myInput.readInt();
+            if (ready != SimulationRunCodec.READY) {
+                throw new IOException("The worker " + name + " did not start properly");
+            }
+        } catch (IOException e) {
+            worker.destroy();
+            throw e;
+        }
+        return worker;
+    }
+
+    /**
+     * A connection to a worker
+     */
+    private abstract static class Worker {
+
+        final String myName;
+        DataInputStream myInput;
+        DataOutputStream myOutput;
+
+        Worker(String name) {
+            myName = name;
+        }
+
+        void connect(InputStream in, OutputStream out) {
+            myInput = new DataInputStream(new BufferedInputStream(in));
+            myOutput = new DataOutputStream(new BufferedOutputStream(out));
+        }
+
+        SimulationRun execute(SimulationRun task) throws IOException {
+            myOutput.writeByte(SimulationRunCodec.RUN);
+            SimulationRunCodec.write(myOutput, task);
+            myOutput.flush();
+            return SimulationRunCodec.read(myInput);
+        }
+
+        /**
+         * Asks the worker to stop and releases its resources
+         */
+        void shutdown() {
+            try {
+                myOutput.writeByte(SimulationRunCodec.SHUTDOWN);
+                myOutput.flush();
+            } catch (IOException e) {
+                // the worker is already gone
+            }
+            destroy();
+        }
+
+        /**
+         * Releases the resources of the worker without waiting for it
+         */
+        abstract void destroy();
+    }
+
+    private class ProcessWorker extends Worker {
+
+        private final Process myProcess;
+
+        ProcessWorker(String name) throws IOException {
+            super(name);
+            List<String> command = new ArrayList<>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(myJVMOptions);
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(SimulationRunWorker.class.getName());
+            command.add(myBuilderClassName);
+            command.add(name);
+            ProcessBuilder pb = new ProcessBuilder(command);
+            pb.redirectError(ProcessBuilder.Redirect.INHERIT);
+            myProcess = pb.start();
+            connect(myProcess.getInputStream(), myProcess.getOutputStream());
+        }
+
+        @Override
+        void shutdown() {
+            try {
+                myOutput.writeByte(SimulationRunCodec.SHUTDOWN);
+                myOutput.flush();
+                myProcess.waitFor(5, TimeUnit.SECONDS);
+            } catch (IOException e) {
+                // the worker is already gone
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            destroy();
+        }
+
+        @Override
+        void destroy() {
+            if (myProcess.isAlive()) {
+                myProcess.destroyForcibly();
+            }
+        }
+    }
+
+    private class ClassLoaderWorker extends Worker {
+
+        private final URLClassLoader myLoader;
+        private final Thread myThread;
+
+        ClassLoaderWorker(String name) throws IOException {
+            super(name);
+            myLoader = new URLClassLoader(name, classPath(), ClassLoader.getPlatformClassLoader());
+            PipedOutputStream toWorker = new PipedOutputStream();
+            PipedInputStream workerIn = new PipedInputStream(toWorker, PIPE_SIZE);
+            PipedOutputStream workerOut = new PipedOutputStream();
+            PipedInputStream fromWorker = new PipedInputStream(workerOut, PIPE_SIZE);
+            Method serve;
+            try {
+                serve = myLoader.loadClass(SimulationRunWorker.class.getName()).getMethod("serve",
+                        String.class, String.class, InputStream.class, OutputStream.class);
+            } catch (ReflectiveOperationException e) {
+                myLoader.close();
+                throw new IOException("Could not load the worker within a class loader", e);
+            }
+            myThread = new Thread(() -> {
+                Thread.currentThread().setContextClassLoader(myLoader);
+                try {
+                    serve.invoke(null, myBuilderClassName, name, workerIn, workerOut);
+                } catch (ReflectiveOperationException e) {
+                    Simulation.LOGGER.warn("Worker {} failed: {}", name, e.getCause() == null ? e : e.getCause());
+                } finally {
+                    try {
+                        workerOut.close();
+                        workerIn.close();
+                    } catch (IOException e) {
+                        // nothing more to release
+                    }
+                }
+            }, name);
+            myThread.setDaemon(true);
+            myThread.start();
+            connect(fromWorker, toWorker);
+        }
+
+        @Override
+        void destroy() {
+            myThread.interrupt();
+            try {
+                myOutput.close();
+                myInput.close();
+                myLoader.close();
+            } catch (IOException e) {
+                Simulation.LOGGER.warn("Could not release the class loader of worker {}", myName);
+            }
+        }
+    }
+
+    /**
+     * @return the class path of this JVM as URLs
+     */
+    private static URL[] classPath() throws IOException {
+        String[] entries = System.getProperty("java.class.path").split(File.pathSeparator);
+        List<URL> urls = new ArrayList<>();
+        for (String entry : entries) {
+            if (!entry.isEmpty()) {
+                urls.add(Paths.get(entry).toUri().toURL());
+            }
+        }
+        return urls.toArray(new URL[0]);
+    }
+}
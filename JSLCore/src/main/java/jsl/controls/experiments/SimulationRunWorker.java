@@ -0,0 +1,112 @@
+package jsl.controls.experiments;
+
+import jsl.simulation.Model;
+import jsl.simulation.ModelBuilderIfc;
+import jsl.simulation.Simulation;
+import jsl.utilities.random.rng.RNStreamProvider;
+import jsl.utilities.random.rvariable.JSLRandom;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * Executes the SimulationRun instances sent to it by a SimulationRunFarm. A worker
+ * is either a separate JVM started with main(), which communicates over its standard
+ * input and output, or a call to serve() from within an isolated class loader, which
+ * communicates over pipes. For each run, the model is built by a new instance of the
+ * ModelBuilderIfc using its own stream provider, so that the replications of a run are
+ * the same regardless of the worker that executes them.
+ */
+public final class SimulationRunWorker {
+
+    private SimulationRunWorker() {
+    }
+
+    /**
+     * Starts a worker that reads runs from the standard input and writes the results
+     * to the standard output. Anything that the model prints to the standard output
+     * is sent to the standard error.
+     *
+     * @param args the name of the ModelBuilderIfc class, which must have a public
+     *             no argument constructor, and optionally the name of the worker
+     * @throws IOException if the communication with the farm fails
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: SimulationRunWorker builderClassName [workerName]");
+            System.exit(2);
+        }
+        OutputStream out = new FileOutputStream(FileDescriptor.out);
+        System.setOut(System.err);
+        serve(args[0], args.length > 1 ? args[1] : null, System.in, out);
+    }
+
+    /**
+     * Reads runs from the input and writes the results to the output until told to stop
+     *
+     * @param builderClassName the name of the ModelBuilderIfc class, which must have a
+     *                         public no argument constructor
+     * @param workerName       the name used for the simulations of the worker, may be null
+     * @param input            the input, must not be null
+     * @param output           the output, must not be null
+     * @throws IOException if the communication with the farm fails
+     */
+    public static void serve(String builderClassName, String workerName, InputStream input,
+                             OutputStream output) throws IOException {
+        Objects.requireNonNull(input, "The input was null");
+        Objects.requireNonNull(output, "The output was null");
+        ModelBuilderIfc builder = makeBuilder(builderClassName);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+        out.writeInt(SimulationRunCodec.READY);
+        out.flush();
+        while (in.readByte() == SimulationRunCodec.RUN) {
+            SimulationRun run = SimulationRunCodec.read(in);
+            SimulationRunCodec.write(out, execute(builder, workerName, run));
+            out.flush();
+        }
+        out.close();
+    }
+
+    /**
+     * Builds a model using the builder and executes the run on it
+     *
+     * @param builder the builder of the model, must not be null
+     * @param simName the name of the simulation, may be null
+     * @param run     the run to execute, must not be null
+     * @return the run holding the results
+     */
+    public static SimulationRun execute(ModelBuilderIfc builder, String simName, SimulationRun run) {
+        Objects.requireNonNull(builder, "The supplied model builder was null");
+        Simulation sim = new Simulation(simName);
+        Model model = sim.getModel();
+        model.setRNStreamProvider(new RNStreamProvider());
+        JSLRandom.runWithRNStreamProvider(model.getRNStreamProvider(), () -> builder.build(model));
+        return new SimulationRunner(sim, run).run();
+    }
+
+    /**
+     * @param builderClassName the name of a ModelBuilderIfc class with a public no argument constructor
+     * @return a new instance of the class
+     */
+    static ModelBuilderIfc makeBuilder(String builderClassName) {
+        Objects.requireNonNull(builderClassName, "The builder class name was null");
+        try {
+            Class<?> c = Class.forName(builderClassName);
+            if (!ModelBuilderIfc.class.isAssignableFrom(c)) {
+                throw new IllegalArgumentException(builderClassName + " does not implement ModelBuilderIfc");
+            }
+            return (ModelBuilderIfc) c.getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Could not create the model builder " + builderClassName, e);
+        }
+    }
+}
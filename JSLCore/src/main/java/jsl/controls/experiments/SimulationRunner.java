@@ -47,6 +47,16 @@ public class SimulationRunner {
         myModel.resetStartStream();
     }
 
+    /**
+     * @param sim the simulation to run, must not be null
+     * @param run the parameters and inputs of the run, e.g. a subTask() of a larger run, must not be null
+     */
+    public SimulationRunner(Simulation sim, SimulationRun run) {
+        this(sim);
+        Objects.requireNonNull(run, "The supplied simulation run must not be null");
+        simulationRun = run;
+    }
+
     /**
      * Sets up the simulation to run with the experimental parameters
      * and controls
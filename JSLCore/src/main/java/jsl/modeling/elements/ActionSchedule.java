@@ -395,6 +395,7 @@ public class ActionSchedule extends SchedulingElement {
     public final void scheduleStart() {
         if (myStartEvent == null) {
             myStartEvent = scheduleEvent(myStartEventHandler, getInitialStartTime());
+            myStartEvent.setRetainedFlag(true);
         }
     }
 
@@ -432,10 +433,12 @@ public class ActionSchedule extends SchedulingElement {
                 // schedule first action
                 myNextScheduledAction = myActionIterator.next();
                 myActionEvent = scheduleEvent(myActionEventHandler, myNextScheduledAction.getDuration());
+                myActionEvent.setRetainedFlag(true);
             }
 
             if (myScheduleLength < Double.POSITIVE_INFINITY) {
                 myEndEvent = scheduleEvent(myEndEventHandler, myScheduleLength);
+                myEndEvent.setRetainedFlag(true);
             }
         }
     }
@@ -480,10 +483,12 @@ public class ActionSchedule extends SchedulingElement {
                     // schedule first action
                     myNextScheduledAction = myActionIterator.next();
                     myActionEvent = scheduleEvent(myActionEventHandler, myNextScheduledAction.getDuration());
+                    myActionEvent.setRetainedFlag(true);
                 }
 
                 if (myScheduleLength < Double.POSITIVE_INFINITY) {
                     myEndEvent = scheduleEvent(myEndEventHandler, myScheduleLength);
+                    myEndEvent.setRetainedFlag(true);
                 }
             }
         }
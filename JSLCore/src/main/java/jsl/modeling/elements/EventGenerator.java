@@ -669,6 +669,7 @@ public class EventGenerator extends SchedulingElement implements EventGeneratorI
             if (myDoneFlag == false) {
                 // I'm not done generating, schedule the event
                 myNextEvent = scheduleEvent(myEventHandler, t, myEventPriority);
+                myNextEvent.setRetainedFlag(true);
             }
         }
     }
@@ -887,6 +888,7 @@ public class EventGenerator extends SchedulingElement implements EventGeneratorI
         if (myDoneFlag == false) {
             // I'm not done generating, schedule the first event
             myNextEvent = scheduleEvent(myEventHandler, t, myEventPriority);
+            myNextEvent.setRetainedFlag(true);
         }
     }
 
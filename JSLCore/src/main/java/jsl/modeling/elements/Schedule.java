@@ -547,6 +547,7 @@ public class Schedule extends SchedulingElement {
             }
             myStartScheduleEvent = scheduleEvent(this::startSchedule,
                     getInitialStartTime(), priority);
+            myStartScheduleEvent.setRetainedFlag(true);
         }
     }
 
@@ -606,6 +607,7 @@ public class Schedule extends SchedulingElement {
                 item.getStartTime(), priority, item);
         //e.setMessage(item);
         item.myStartEvent = e;
+        e.setRetainedFlag(true);
     }
 
     protected final void scheduleItemEnd(ScheduleItem item) {
@@ -628,6 +630,7 @@ public class Schedule extends SchedulingElement {
                 item.getDuration(), priority - 1, item);
         //event.setMessage(item);
         item.myEndEvent = event;
+        event.setRetainedFlag(true);
     }
 
     /** A ScheduleItem represents an item on a Schedule. It has a start time, relative to the
@@ -299,6 +299,7 @@ public class TimedAction extends SchedulingElement {
                 return;
             }
             myTimedActionEvent = scheduleEvent(myEventHandler, t);
+            myTimedActionEvent.setRetainedFlag(true);
         } else {
             if (myTimedActionEvent.getCanceledFlag()) {
                 // make a new event
@@ -307,6 +308,7 @@ public class TimedAction extends SchedulingElement {
                     return;
                 }
                 myTimedActionEvent = scheduleEvent(myEventHandler, t);
+                myTimedActionEvent.setRetainedFlag(true);
             }
         }
     }
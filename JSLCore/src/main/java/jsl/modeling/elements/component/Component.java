@@ -1034,6 +1034,7 @@ public class Component extends SchedulingElement {
             if (ttf <= operationTime) { // failure will occur first, schedule it
                 myOperationTime = ttf;
                 myFailureEvent = scheduleEvent(myFailureListener, ttf);
+                myFailureEvent.setRetainedFlag(true);
                 myEndOperationEvent = null;
             } else { // client controls end of operation
                 myOperationTime = operationTime;
@@ -1049,10 +1050,12 @@ public class Component extends SchedulingElement {
             if (ttf <= operationTime) { // failure will occur first, schedule it
                 myOperationTime = ttf;
                 myFailureEvent = scheduleEvent(myFailureListener, ttf);
+                myFailureEvent.setRetainedFlag(true);
                 myEndOperationEvent = null;
             } else { // failure will occur after current operation
                 myOperationTime = operationTime;
                 myEndOperationEvent = scheduleEvent(myEndOperationListener, operationTime);
+                myEndOperationEvent.setRetainedFlag(true);
                 myFailureEvent = null;
             }
             setState(myOperatingState);
@@ -1188,6 +1191,7 @@ public class Component extends SchedulingElement {
         protected void scheduleRepair(double time) {
             myRepairTime = time;
             myEndRepairEvent = scheduleEvent(myEndRepairListener, time);
+            myEndRepairEvent.setRetainedFlag(true);
             setState(myRepairingState);
         }
     }
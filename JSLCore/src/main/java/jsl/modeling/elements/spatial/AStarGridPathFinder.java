@@ -0,0 +1,472 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package jsl.modeling.elements.spatial;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Finds paths across the cells of a RectangularGridSpatialModel2D using the A* algorithm.
+ * A path moves from cell center to cell center between adjacent cells that are not blocked,
+ * either across the 4 edges of a cell or, if diagonal movement is allowed, also across its
+ * 4 corners. A diagonal move is not permitted to cut the corner of a blocked cell.
+ * All cells are open until blocked by setBlocked().
+ * <p>
+ * The found paths are remembered in a least recently used cache keyed by the starting and
+ * goal cells, so repeated requests between the same cells do not search the grid again.
+ * The cache is cleared whenever the blocking of a cell changes. The points of a path are
+ * the centers of the intermediate cells followed by the goal location. The center coordinates
+ * are shared between paths and must not be changed.
+ */
+public class AStarGridPathFinder implements PathFinder {
+
+    /**
+     * The estimate of the remaining distance used to guide the search
+     */
+    public enum Heuristic {
+        /**
+         * The sum of the horizontal and vertical distances, which is exact for a grid
+         * without diagonal movement
+         */
+        MANHATTAN,
+        /**
+         * The straight line distance, which never over estimates the remaining distance
+         */
+        EUCLIDEAN,
+        /**
+         * No estimate, which makes the search equivalent to Dijkstra's algorithm
+         */
+        NONE
+    }
+
+    /**
+     * The default number of paths held by the cache
+     */
+    public static final int DEFAULT_CACHE_CAPACITY = 1000;
+
+    /**
+     * Cached for pairs of cells that are not connected
+     */
+    private static final int[] NO_PATH = new int[0];
+
+    private final RectangularGridSpatialModel2D myGrid;
+    private final int myNumRows;
+    private final int myNumCols;
+    private final double myCellWidth;
+    private final double myCellHeight;
+    private final double myDiagonalLength;
+    private final CoordinateIfc[] myCenters;
+    private final BitSet myBlockedCells;
+    private final Map<Long, int[]> myCache;
+    private Heuristic myHeuristic;
+    private boolean myDiagonalMoveOption;
+    private int myCacheCapacity;
+    private long myNumCacheHits;
+    private long myNumCacheMisses;
+
+    /**
+     * Creates a finder that allows diagonal movement and uses the Euclidean heuristic
+     *
+     * @param grid the grid to find paths on, must not be null
+     */
+    public AStarGridPathFinder(RectangularGridSpatialModel2D grid) {
+        this(grid, true, Heuristic.EUCLIDEAN);
+    }
+
+    /**
+     * @param grid                the grid to find paths on, must not be null
+     * @param diagonalMoveOption  true allows movement across the corners of cells
+     * @param heuristic           the heuristic, must not be null
+     */
+    public AStarGridPathFinder(RectangularGridSpatialModel2D grid, boolean diagonalMoveOption,
+                               Heuristic heuristic) {
+        Objects.requireNonNull(grid, "The grid must not be null");
+        Objects.requireNonNull(heuristic, "The heuristic must not be null");
+        myGrid = grid;
+        myNumRows = grid.getNumRows();
+        myNumCols = grid.getNumColumns();
+        myCellWidth = grid.getCellWidth();
+        myCellHeight = grid.getCellHeight();
+        myDiagonalLength = Math.sqrt(myCellWidth * myCellWidth + myCellHeight * myCellHeight);
+        myCenters = new CoordinateIfc[myNumRows * myNumCols];
+        myBlockedCells = new BitSet(myNumRows * myNumCols);
+        myDiagonalMoveOption = diagonalMoveOption;
+        myHeuristic = heuristic;
+        myCacheCapacity = DEFAULT_CACHE_CAPACITY;
+        myCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+                return size() > myCacheCapacity;
+            }
+        };
+    }
+
+    /**
+     * @return the grid that paths are found on
+     */
+    public final RectangularGridSpatialModel2D getGrid() {
+        return myGrid;
+    }
+
+    /**
+     * @return the heuristic used by the search
+     */
+    public final Heuristic getHeuristic() {
+        return myHeuristic;
+    }
+
+    /**
+     * The Manhattan heuristic may over estimate the remaining distance when diagonal
+     * movement is allowed, in which case the found paths may not be the shortest.
+     * Changing the heuristic clears the cache.
+     *
+     * @param heuristic the heuristic, must not be null
+     */
+    public final void setHeuristic(Heuristic heuristic) {
+        Objects.requireNonNull(heuristic, "The heuristic must not be null");
+        if (myHeuristic != heuristic) {
+            myHeuristic = heuristic;
+            clearCache();
+        }
+    }
+
+    /**
+     * @return true if movement across the corners of cells is allowed
+     */
+    public final boolean getDiagonalMoveOption() {
+        return myDiagonalMoveOption;
+    }
+
+    /**
+     * Changing the option clears the cache.
+     *
+     * @param flag true allows movement across the corners of cells
+     */
+    public final void setDiagonalMoveOption(boolean flag) {
+        if (myDiagonalMoveOption != flag) {
+            myDiagonalMoveOption = flag;
+            clearCache();
+        }
+    }
+
+    /**
+     * @param cell the cell, must be a cell of the grid
+     * @return true if the cell cannot be traversed
+     */
+    public final boolean isBlocked(RectangularCell2D cell) {
+        return myBlockedCells.get(index(cell));
+    }
+
+    /**
+     * Changing the blocking of a cell clears the cache.
+     *
+     * @param cell the cell, must be a cell of the grid
+     * @param flag true means that the cell cannot be traversed
+     */
+    public final void setBlocked(RectangularCell2D cell, boolean flag) {
+        int i = index(cell);
+        if (myBlockedCells.get(i) != flag) {
+            myBlockedCells.set(i, flag);
+            clearCache();
+        }
+    }
+
+    /**
+     * Changing the blocking of a cell clears the cache.
+     *
+     * @param row  the row of the cell
+     * @param col  the column of the cell
+     * @param flag true means that the cell cannot be traversed
+     */
+    public final void setBlocked(int row, int col, boolean flag) {
+        RectangularCell2D cell = myGrid.getCell(row, col);
+        if (cell == null) {
+            throw new IllegalArgumentException("There is no cell at row " + row + " and column " + col);
+        }
+        setBlocked(cell, flag);
+    }
+
+    /**
+     * Opens every cell of the grid and clears the cache
+     */
+    public final void unblockAll() {
+        myBlockedCells.clear();
+        clearCache();
+    }
+
+    /**
+     * @return the maximum number of paths held by the cache
+     */
+    public final int getCacheCapacity() {
+        return myCacheCapacity;
+    }
+
+    /**
+     * The least recently used paths are removed when the cache is full.
+     *
+     * @param capacity the maximum number of paths held by the cache, 0 turns off caching,
+     *                 must be &gt;= 0
+     */
+    public final void setCacheCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("The cache capacity must be >= 0");
+        }
+        myCacheCapacity = capacity;
+        if (myCache.size() > capacity) {
+            clearCache();
+        }
+    }
+
+    /**
+     * Removes all paths from the cache
+     */
+    public final void clearCache() {
+        myCache.clear();
+    }
+
+    /**
+     * @return the number of paths in the cache
+     */
+    public final int getCacheSize() {
+        return myCache.size();
+    }
+
+    /**
+     * @return the number of requests answered from the cache
+     */
+    public final long getNumberOfCacheHits() {
+        return myNumCacheHits;
+    }
+
+    /**
+     * @return the number of requests that searched the grid
+     */
+    public final long getNumberOfCacheMisses() {
+        return myNumCacheMisses;
+    }
+
+    @Override
+    public void findPath(Path path, CoordinateIfc from, CoordinateIfc to) {
+        Objects.requireNonNull(path, "The path must not be null");
+        RectangularCell2D fromCell = myGrid.getCell(from);
+        if (fromCell == null) {
+            throw new IllegalArgumentException("The from coordinate is not on the grid");
+        }
+        RectangularCell2D toCell = myGrid.getCell(to);
+        if (toCell == null) {
+            throw new IllegalArgumentException("The to coordinate is not on the grid");
+        }
+        path.clear();
+        path.setOrigin(from);
+        int[] cells = findCells(index(fromCell), index(toCell));
+        if (cells == NO_PATH) {
+            return;
+        }
+        for (int cell : cells) {
+            path.add(getCenter(cell));
+        }
+        if (from != to) {
+            path.add(to);
+        }
+    }
+
+    @Override
+    public void findPath(Path path, SpatialElementIfc from, SpatialElementIfc to) {
+        Objects.requireNonNull(from, "The from element must not be null");
+        Objects.requireNonNull(to, "The to element must not be null");
+        findPath(path, from.getPosition(), to.getPosition());
+    }
+
+    /**
+     * Returns the path between the coordinates, throwing an exception when no path exists
+     *
+     * @param from the starting location, must be on the grid
+     * @param to   the goal location, must be on the grid
+     * @return the path
+     */
+    public final Path findPath(CoordinateIfc from, CoordinateIfc to) {
+        Path path = new Path(myGrid);
+        findPath(path, from, to);
+        if (path.isEmpty() && (from != to)) {
+            throw new NoPathFoundException("There is no path from " + from + " to " + to);
+        }
+        return path;
+    }
+
+    /**
+     * @param start the index of the starting cell
+     * @param goal  the index of the goal cell
+     * @return the indices of the cells between the starting and goal cells or NO_PATH
+     */
+    private int[] findCells(int start, int goal) {
+        if (myCacheCapacity == 0) {
+            myNumCacheMisses++;
+            return search(start, goal);
+        }
+        Long key = (long) start * myCenters.length + goal;
+        int[] cells = myCache.get(key);
+        if (cells != null) {
+            myNumCacheHits++;
+            return cells;
+        }
+        myNumCacheMisses++;
+        cells = search(start, goal);
+        myCache.put(key, cells);
+        return cells;
+    }
+
+    private int[] search(int start, int goal) {
+        if (start == goal) {
+            return new int[0];
+        }
+        if (myBlockedCells.get(start) || myBlockedCells.get(goal)) {
+            return NO_PATH;
+        }
+        int n = myCenters.length;
+        double[] g = new double[n];
+        Arrays.fill(g, Double.POSITIVE_INFINITY);
+        int[] parent = new int[n];
+        BitSet closed = new BitSet(n);
+        PriorityQueue<Node> open = new PriorityQueue<>();
+        g[start] = 0.0;
+        parent[start] = -1;
+        open.add(new Node(start, 0.0, estimate(start, goal)));
+        while (!open.isEmpty()) {
+            Node node = open.poll();
+            int i = node.myIndex;
+            if (closed.get(i)) {
+                continue;
+            }
+            if (i == goal) {
+                return toCells(parent, start, goal);
+            }
+            closed.set(i);
+            int row = i / myNumCols;
+            int col = i % myNumCols;
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    if ((dr == 0) && (dc == 0)) {
+                        continue;
+                    }
+                    boolean diagonal = (dr != 0) && (dc != 0);
+                    if (diagonal && (!myDiagonalMoveOption || isBlocked(row + dr, col)
+                            || isBlocked(row, col + dc))) {
+                        continue;
+                    }
+                    int r = row + dr;
+                    int c = col + dc;
+                    if (isBlocked(r, c)) {
+                        continue;
+                    }
+                    int j = r * myNumCols + c;
+                    if (closed.get(j)) {
+                        continue;
+                    }
+                    double step = diagonal ? myDiagonalLength : ((dr != 0) ? myCellHeight : myCellWidth);
+                    double gj = g[i] + step;
+                    if (gj < g[j]) {
+                        g[j] = gj;
+                        parent[j] = i;
+                        open.add(new Node(j, gj, gj + estimate(j, goal)));
+                    }
+                }
+            }
+        }
+        return NO_PATH;
+    }
+
+    private int[] toCells(int[] parent, int start, int goal) {
+        int count = 0;
+        for (int i = parent[goal]; i != start; i = parent[i]) {
+            count++;
+        }
+        int[] cells = new int[count];
+        for (int i = parent[goal]; i != start; i = parent[i]) {
+            count--;
+            cells[count] = i;
+        }
+        return cells;
+    }
+
+    private double estimate(int i, int goal) {
+        double dx = Math.abs(i % myNumCols - goal % myNumCols) * myCellWidth;
+        double dy = Math.abs(i / myNumCols - goal / myNumCols) * myCellHeight;
+        switch (myHeuristic) {
+            case MANHATTAN:
+                return dx + dy;
+            case EUCLIDEAN:
+                return Math.sqrt(dx * dx + dy * dy);
+            default:
+                return 0.0;
+        }
+    }
+
+    /**
+     * @return true if the row and column are off the grid or the cell is blocked
+     */
+    private boolean isBlocked(int row, int col) {
+        if ((row < 0) || (row >= myNumRows) || (col < 0) || (col >= myNumCols)) {
+            return true;
+        }
+        return myBlockedCells.get(row * myNumCols + col);
+    }
+
+    private int index(RectangularCell2D cell) {
+        Objects.requireNonNull(cell, "The cell must not be null");
+        if (cell.getParentRectangularGrid2D() != myGrid) {
+            throw new IllegalArgumentException("The cell is not part of the grid of the path finder");
+        }
+        return cell.getRowIndex() * myNumCols + cell.getColumnIndex();
+    }
+
+    private CoordinateIfc getCenter(int i) {
+        if (myCenters[i] == null) {
+            myCenters[i] = myGrid.getCell(i / myNumCols, i % myNumCols).getCenterCoordinate();
+        }
+        return myCenters[i];
+    }
+
+    private static class Node implements Comparable<Node> {
+
+        private final int myIndex;
+        private final double myCost;
+        private final double myEstimate;
+
+        Node(int index, double cost, double estimate) {
+            myIndex = index;
+            myCost = cost;
+            myEstimate = estimate;
+        }
+
+        @Override
+        public int compareTo(Node other) {
+            int c = Double.compare(myEstimate, other.myEstimate);
+            if (c != 0) {
+                return c;
+            }
+            // prefer the node closer to the goal
+            c = Double.compare(other.myCost, myCost);
+            if (c != 0) {
+                return c;
+            }
+            return Integer.compare(myIndex, other.myIndex);
+        }
+    }
+}
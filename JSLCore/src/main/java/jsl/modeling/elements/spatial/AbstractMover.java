@@ -502,6 +502,15 @@ abstract public class AbstractMover extends SpatialModelElement implements Mover
         return myMovementVelocity;
     }
 
+    /**
+     * The direction of the current or most recent movement as a unit vector
+     *
+     * @return the direction of the movement
+     */
+    public final CoordinateIfc getMovementDirection() {
+        return myDirection;
+    }
+
     @Override
     public final CollisionDetectorIfc getCollisionDetector() {
         return myCollisionDetector;
@@ -940,6 +949,7 @@ abstract public class AbstractMover extends SpatialModelElement implements Mover
             // if no collision, then just schedule the movement
             myCurrentMovementEvent = scheduleEvent(myEndMovementAction,
                     myMovementTime);
+            myCurrentMovementEvent.setRetainedFlag(true);
             myMovingFlag = true;
             beforeMovementStarts();
             notifyObservers(MOVE_STARTED);
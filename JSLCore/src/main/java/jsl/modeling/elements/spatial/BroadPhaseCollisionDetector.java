@@ -0,0 +1,561 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package jsl.modeling.elements.spatial;
+
+import jsl.observers.ObserverIfc;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A collision detector for movers in a spatial model that measures Euclidean distance in
+ * the first two coordinates, i.e. Euclidean2DPlane and RectangularGridSpatialModel2D. Each
+ * registered mover is a disk with a collision radius. When a mover starts a movement, e.g. a
+ * step set by a EuclideanStepBasedMovementController, the movement is checked against the
+ * movements of the other registered movers.
+ * <p>
+ * The broad phase holds the box swept by the current movement of each mover in a uniform grid
+ * of cells, so that only the movers whose boxes share a cell with the new movement are checked.
+ * The narrow phase finds the first time that the disks touch while the checking mover is
+ * moving, assuming that the other mover continues its current movement and then stays at its end.
+ * The detected Collision holds the simulation time and the position of the checking mover at the
+ * time of contact, so a CollisionHandlerIfc can schedule an event for the collision rather than
+ * checking for it repeatedly.
+ * <p>
+ * The detector observes the spatial model so that movers that change their positions without
+ * starting a movement, e.g. when they are initialized, are placed in the correct cells.
+ */
+public class BroadPhaseCollisionDetector implements CollisionDetectorIfc, ObserverIfc {
+
+    /**
+     * The default radius of a mover
+     */
+    public static final double DEFAULT_COLLISION_RADIUS = 0.5;
+
+    /**
+     * The default maximum number of cells covered by a movement before
+     * the movement is checked against every mover
+     */
+    public static final int DEFAULT_MAX_CELLS_PER_MOVER = 64;
+
+    private final SpatialModel mySpatialModel;
+
+    private final double myCellSize;
+
+    private int myMaxCellsPerMover = DEFAULT_MAX_CELLS_PER_MOVER;
+
+    private final Map<AbstractMover, Entry> myEntries;
+
+    private final Map<SpatialElementIfc, Entry> myEntriesByElement;
+
+    private final Map<Long, List<Entry>> myCells;
+
+    /**
+     * The movers whose movements cover too many cells
+     */
+    private final List<Entry> myLargeEntries;
+
+    private int myStamp;
+
+    private long myNumPairsChecked;
+
+    /**
+     * @param spatialModel the spatial model of the movers, must be a Euclidean2DPlane or
+     *                     a RectangularGridSpatialModel2D
+     * @param cellSize     the size of the cells of the grid, should be about the length of
+     *                     a typical movement, must be &gt; 0
+     */
+    public BroadPhaseCollisionDetector(SpatialModel spatialModel, double cellSize) {
+        Objects.requireNonNull(spatialModel, "The spatial model was null");
+        if (!(spatialModel instanceof Euclidean2DPlane) && !(spatialModel instanceof RectangularGridSpatialModel2D)) {
+            throw new IllegalArgumentException("The spatial model must be a Euclidean2DPlane or a RectangularGridSpatialModel2D");
+        }
+        if ((cellSize <= 0.0) || Double.isInfinite(cellSize) || Double.isNaN(cellSize)) {
+            throw new IllegalArgumentException("The cell size must be > 0 and finite");
+        }
+        mySpatialModel = spatialModel;
+        myCellSize = cellSize;
+        myEntries = new LinkedHashMap<>();
+        myEntriesByElement = new HashMap<>();
+        myCells = new HashMap<>();
+        myLargeEntries = new ArrayList<>();
+        spatialModel.addObserver(this);
+    }
+
+    /**
+     * @return the spatial model of the movers
+     */
+    public final SpatialModel getSpatialModel() {
+        return mySpatialModel;
+    }
+
+    /**
+     * @return the size of the cells of the grid
+     */
+    public final double getCellSize() {
+        return myCellSize;
+    }
+
+    /**
+     * @return the maximum number of cells covered by a movement before the movement
+     * is checked against every mover
+     */
+    public final int getMaximumCellsPerMover() {
+        return myMaxCellsPerMover;
+    }
+
+    /**
+     * @param maxCells the maximum number of cells covered by a movement before the movement
+     *                 is checked against every mover, must be &gt; 0
+     */
+    public final void setMaximumCellsPerMover(int maxCells) {
+        if (maxCells <= 0) {
+            throw new IllegalArgumentException("The maximum number of cells must be > 0");
+        }
+        myMaxCellsPerMover = maxCells;
+    }
+
+    /**
+     * @return the number of registered movers
+     */
+    public final int getNumberOfMovers() {
+        return myEntries.size();
+    }
+
+    /**
+     * The number of candidate pairs of movers found by the broad phase, which can be used to
+     * choose the cell size
+     *
+     * @return the number of pairs checked since the detector was created
+     */
+    public final long getNumberOfPairsChecked() {
+        return myNumPairsChecked;
+    }
+
+    /**
+     * Registers the mover with the default collision radius
+     *
+     * @param mover the mover, must be in the spatial model of the detector
+     */
+    public final void register(AbstractMover mover) {
+        register(mover, DEFAULT_COLLISION_RADIUS);
+    }
+
+    /**
+     * Registers the mover and sets the detector as its collision detector. The mover
+     * can be registered again to change its radius.
+     *
+     * @param mover  the mover, must be in the spatial model of the detector
+     * @param radius the collision radius of the mover, must be &gt;= 0
+     */
+    public final void register(AbstractMover mover, double radius) {
+        Objects.requireNonNull(mover, "The mover was null");
+        if (mover.getSpatialModel() != mySpatialModel) {
+            throw new IllegalArgumentException("The mover is not in the spatial model of the detector");
+        }
+        if ((radius < 0.0) || Double.isInfinite(radius) || Double.isNaN(radius)) {
+            throw new IllegalArgumentException("The radius must be >= 0 and finite");
+        }
+        unregister(mover);
+        Entry e = new Entry(mover, radius);
+        myEntries.put(mover, e);
+        myEntriesByElement.put(mover.getSpatialElement(), e);
+        CoordinateIfc p = mover.getPosition();
+        place(e, p.getX1(), p.getX2(), p.getX1(), p.getX2());
+        mover.setCollisionDetector(this);
+    }
+
+    /**
+     * Removes the mover from the detector. If the detector is the collision detector of
+     * the mover, the mover no longer has a collision detector.
+     *
+     * @param mover the mover
+     * @return true if the mover was registered
+     */
+    public final boolean unregister(AbstractMover mover) {
+        Entry e = myEntries.remove(mover);
+        if (e == null) {
+            return false;
+        }
+        myEntriesByElement.remove(mover.getSpatialElement());
+        displace(e);
+        if (mover.getCollisionDetector() == this) {
+            mover.setCollisionDetector(null);
+        }
+        return true;
+    }
+
+    /**
+     * @param mover the mover
+     * @return the collision radius of the mover, or NaN if it is not registered
+     */
+    public final double getCollisionRadius(AbstractMover mover) {
+        Entry e = myEntries.get(mover);
+        return (e == null) ? Double.NaN : e.myRadius;
+    }
+
+    @Override
+    public void update(Object theObserved, Object arg) {
+        SpatialModel model = (SpatialModel) theObserved;
+        if (model.checkSpatialElementPositionChanged()) {
+            Entry e = myEntriesByElement.get(model.getUpdatingSpatialElement());
+            if (e != null) {
+                // the mover is at the end of a movement or was relocated, it stays there
+                // until its next movement is checked
+                CoordinateIfc p = e.myMover.getPosition();
+                place(e, p.getX1(), p.getX2(), p.getX1(), p.getX2());
+            }
+        }
+    }
+
+    @Override
+    public boolean checkForCollision(Collision collision) {
+        AbstractMover mover = (AbstractMover) collision.getMovingElement();
+        Entry e = myEntries.get(mover);
+        if (e == null) {
+            return false;
+        }
+        double now = mover.getTime();
+        Motion a = new Motion();
+        a.setPlanned(mover, now);
+        double x2 = a.myX + a.myVX * (a.myEnd - now);
+        double y2 = a.myY + a.myVY * (a.myEnd - now);
+        displace(e);
+        // find the candidates using the box swept by the movement
+        myStamp++;
+        e.myStamp = myStamp;
+        List<Entry> candidates = new ArrayList<>();
+        double r = e.myRadius;
+        long c1 = cell(Math.min(a.myX, x2) - r);
+        long c2 = cell(Math.max(a.myX, x2) + r);
+        long r1 = cell(Math.min(a.myY, y2) - r);
+        long r2 = cell(Math.max(a.myY, y2) + r);
+        if ((double) (c2 - c1 + 1) * (r2 - r1 + 1) > myMaxCellsPerMover) {
+            candidates.addAll(myEntries.values());
+        } else {
+            for (long c = c1; c <= c2; c++) {
+                for (long row = r1; row <= r2; row++) {
+                    List<Entry> list = myCells.get(key(c, row));
+                    if (list != null) {
+                        addCandidates(list, candidates);
+                    }
+                }
+            }
+            addCandidates(myLargeEntries, candidates);
+        }
+        double minX = Math.min(a.myX, x2) - r;
+        double maxX = Math.max(a.myX, x2) + r;
+        double minY = Math.min(a.myY, y2) - r;
+        double maxY = Math.max(a.myY, y2) + r;
+        // the narrow phase
+        Motion b = new Motion();
+        Entry first = null;
+        double firstTime = Double.POSITIVE_INFINITY;
+        for (Entry other : candidates) {
+            if ((other == e) || (other.myMover.getSpatialModel() != mySpatialModel)) {
+                continue;
+            }
+            myNumPairsChecked++;
+            if ((other.myMaxX < minX) || (other.myMinX > maxX)
+                    || (other.myMaxY < minY) || (other.myMinY > maxY)) {
+                continue;
+            }
+            b.setCurrent(other.myMover, now);
+            double t = firstContact(a, b, r + other.myRadius, now);
+            if (t < firstTime) {
+                firstTime = t;
+                first = other;
+            }
+        }
+        if (first == null) {
+            place(e, a.myX, a.myY, x2, y2);
+            return false;
+        }
+        // the mover does not start the movement
+        place(e, a.myX, a.myY, a.myX, a.myY);
+        double dt = firstTime - now;
+        CoordinateIfc position = mySpatialModel.getCoordinate(a.myX + a.myVX * dt, a.myY + a.myVY * dt);
+        b.setCurrent(first.myMover, now);
+        int type = b.isMovingAt(firstTime) ? Collision.MOVING : Collision.STATIONARY;
+        collision.setCollision(first.myMover.getSpatialElement(), firstTime, position, type);
+        return true;
+    }
+
+    private void addCandidates(List<Entry> list, List<Entry> candidates) {
+        for (Entry other : list) {
+            if (other.myStamp != myStamp) {
+                other.myStamp = myStamp;
+                candidates.add(other);
+            }
+        }
+    }
+
+    /**
+     * Finds the time that the movers first touch while the first mover completes its
+     * current movement, assuming that the second mover completes its current movement
+     * and then stays at its end. Both movers must be registered.
+     *
+     * @param mover the first mover
+     * @param other the second mover
+     * @return the simulation time of the first contact, or positive infinity if they do not touch
+     */
+    public final double findCollisionTime(AbstractMover mover, AbstractMover other) {
+        Entry e1 = myEntries.get(mover);
+        Entry e2 = myEntries.get(other);
+        if ((e1 == null) || (e2 == null)) {
+            throw new IllegalArgumentException("The movers must be registered with the detector");
+        }
+        double now = mover.getTime();
+        Motion a = new Motion();
+        a.setCurrent(mover, now);
+        Motion b = new Motion();
+        b.setCurrent(other, now);
+        return firstContact(a, b, e1.myRadius + e2.myRadius, now);
+    }
+
+    /**
+     * Predicts the time of closest approach of the movers, assuming that both continue
+     * moving with their current velocities. This can be used to schedule a check at the
+     * predicted time.
+     *
+     * @param mover the first mover
+     * @param other the second mover
+     * @return the simulation time of the closest approach, which is the current time if
+     * the movers are not approaching each other
+     */
+    public static double predictTimeOfClosestApproach(AbstractMover mover, AbstractMover other) {
+        double now = mover.getTime();
+        Motion a = new Motion();
+        a.setCurrent(mover, now);
+        Motion b = new Motion();
+        b.setCurrent(other, now);
+        return now + timeOfClosestApproach(a.myX - b.myX, a.myY - b.myY, a.myVX - b.myVX, a.myVY - b.myVY);
+    }
+
+    /**
+     * Computes the time of closest approach of two points that move with constant velocities
+     *
+     * @param position1 the position of the first point
+     * @param velocity1 the velocity of the first point
+     * @param position2 the position of the second point
+     * @param velocity2 the velocity of the second point
+     * @return the time from now of the closest approach, 0 if the points are not approaching each other
+     */
+    public static double timeOfClosestApproach(CoordinateIfc position1, CoordinateIfc velocity1,
+                                               CoordinateIfc position2, CoordinateIfc velocity2) {
+        return timeOfClosestApproach(position1.getX1() - position2.getX1(), position1.getX2() - position2.getX2(),
+                velocity1.getX1() - velocity2.getX1(), velocity1.getX2() - velocity2.getX2());
+    }
+
+    private static double timeOfClosestApproach(double px, double py, double wx, double wy) {
+        double ww = wx * wx + wy * wy;
+        if (ww == 0.0) {
+            return 0.0;
+        }
+        return Math.max(0.0, -(px * wx + py * wy) / ww);
+    }
+
+    /**
+     * Finds the first contact while a moves, in two parts: both moving, then a moving while b
+     * stays at the end of its movement
+     */
+    private static double firstContact(Motion a, Motion b, double distance, double now) {
+        double t1 = Math.min(a.myEnd, b.myEnd);
+        double px = a.myX - b.myX;
+        double py = a.myY - b.myY;
+        double wx = a.myVX - b.myVX;
+        double wy = a.myVY - b.myVY;
+        if (t1 > now) {
+            double t = firstContact(px, py, wx, wy, distance, t1 - now);
+            if (t >= 0.0) {
+                return now + t;
+            }
+        }
+        if (b.myEnd < a.myEnd) {
+            double dt = Math.max(b.myEnd - now, 0.0);
+            px = px + wx * dt;
+            py = py + wy * dt;
+            double t = firstContact(px, py, a.myVX, a.myVY, distance, a.myEnd - now - dt);
+            if (t >= 0.0) {
+                return now + dt + t;
+            }
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * The first time in [0, length] that |p + w t| &lt;= distance while approaching, or -1
+     */
+    private static double firstContact(double px, double py, double wx, double wy, double distance, double length) {
+        double a = wx * wx + wy * wy;
+        double b = px * wx + py * wy;
+        double c = px * px + py * py - distance * distance;
+        if (c <= 0.0) {
+            // already touching, a collision only if they are approaching
+            return (b < 0.0) ? 0.0 : -1.0;
+        }
+        if ((a == 0.0) || (b >= 0.0)) {
+            return -1.0;
+        }
+        double disc = b * b - a * c;
+        if (disc < 0.0) {
+            return -1.0;
+        }
+        double t = (-b - Math.sqrt(disc)) / a;
+        return (t <= length) ? t : -1.0;
+    }
+
+    private void place(Entry e, double x1, double y1, double x2, double y2) {
+        displace(e);
+        double r = e.myRadius;
+        e.myMinX = Math.min(x1, x2) - r;
+        e.myMaxX = Math.max(x1, x2) + r;
+        e.myMinY = Math.min(y1, y2) - r;
+        e.myMaxY = Math.max(y1, y2) + r;
+        e.myC1 = cell(e.myMinX);
+        e.myC2 = cell(e.myMaxX);
+        e.myR1 = cell(e.myMinY);
+        e.myR2 = cell(e.myMaxY);
+        if ((double) (e.myC2 - e.myC1 + 1) * (e.myR2 - e.myR1 + 1) > myMaxCellsPerMover) {
+            e.myLarge = true;
+            myLargeEntries.add(e);
+        } else {
+            for (long c = e.myC1; c <= e.myC2; c++) {
+                for (long row = e.myR1; row <= e.myR2; row++) {
+                    myCells.computeIfAbsent(key(c, row), k -> new ArrayList<>()).add(e);
+                }
+            }
+        }
+        e.myPlaced = true;
+    }
+
+    private void displace(Entry e) {
+        if (!e.myPlaced) {
+            return;
+        }
+        if (e.myLarge) {
+            myLargeEntries.remove(e);
+        } else {
+            for (long c = e.myC1; c <= e.myC2; c++) {
+                for (long row = e.myR1; row <= e.myR2; row++) {
+                    long k = key(c, row);
+                    List<Entry> list = myCells.get(k);
+                    if (list != null) {
+                        list.remove(e);
+                        if (list.isEmpty()) {
+                            myCells.remove(k);
+                        }
+                    }
+                }
+            }
+        }
+        e.myLarge = false;
+        e.myPlaced = false;
+    }
+
+    private long cell(double x) {
+        return (long) Math.floor(x / myCellSize);
+    }
+
+    private static long key(long column, long row) {
+        return (column << 32) | (row & 0xFFFFFFFFL);
+    }
+
+    /**
+     * A registered mover and the cells covered by its current movement
+     */
+    private static final class Entry {
+
+        private final AbstractMover myMover;
+
+        private final double myRadius;
+
+        private double myMinX;
+        private double myMaxX;
+        private double myMinY;
+        private double myMaxY;
+
+        private long myC1;
+        private long myC2;
+        private long myR1;
+        private long myR2;
+
+        private boolean myLarge;
+
+        private boolean myPlaced;
+
+        private int myStamp;
+
+        private Entry(AbstractMover mover, double radius) {
+            myMover = mover;
+            myRadius = radius;
+        }
+    }
+
+    /**
+     * The position at the current time, the velocity and the end time of a movement
+     */
+    private static final class Motion {
+
+        private double myX;
+        private double myY;
+        private double myVX;
+        private double myVY;
+        private double myEnd;
+
+        /**
+         * The movement that has just been set on the mover and starts now
+         */
+        private void setPlanned(AbstractMover mover, double now) {
+            CoordinateIfc p = mover.getPosition();
+            CoordinateIfc d = mover.getMovementDirection();
+            double v = mover.getMovementVelocity();
+            myX = p.getX1();
+            myY = p.getX2();
+            myVX = d.getX1() * v;
+            myVY = d.getX2() * v;
+            myEnd = now + mover.getMovementTime();
+        }
+
+        /**
+         * The movement that the mover is currently making, if any
+         */
+        private void setCurrent(AbstractMover mover, double now) {
+            if (!mover.isMoving()) {
+                CoordinateIfc p = mover.getPosition();
+                myX = p.getX1();
+                myY = p.getX2();
+                myVX = 0.0;
+                myVY = 0.0;
+                myEnd = now;
+                return;
+            }
+            setPlanned(mover, now);
+            double elapsed = now - mover.getMovementStartTime();
+            myX = myX + myVX * elapsed;
+            myY = myY + myVY * elapsed;
+            myEnd = mover.getMovementStartTime() + mover.getMovementTime();
+        }
+
+        private boolean isMovingAt(double time) {
+            return (time < myEnd) && ((myVX != 0.0) || (myVY != 0.0));
+        }
+    }
+}
@@ -0,0 +1,401 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package jsl.modeling.elements.spatial;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Finds the shortest paths on a directed graph of locations using Dijkstra's algorithm.
+ * The nodes of the graph are coordinates of a spatial model and the edges have non-negative
+ * weights, for example travel distances or times along aisles. The weight of an edge
+ * defaults to the distance between its nodes in the spatial model.
+ * <p>
+ * The points of a found path are the nodes after the starting node up to and including
+ * the goal node. These are the coordinates supplied to addNode() and must not be changed.
+ * Locations are matched to the node at the same position using the spatial model's
+ * comparePositions() method. The nodes are indexed by their (x1, x2) position, bucketed
+ * at the spatial model's default position precision, so that finding the node of a
+ * location, such as the position of a spatial element, does not depend on the number of nodes.
+ */
+public class DijkstraPathFinder implements PathFinder {
+
+    private final SpatialModel mySpatialModel;
+    private final List<CoordinateIfc> myNodes;
+    private final Map<PositionKey, List<Integer>> myIndices;
+    private double myIndexPrecision;
+    private final List<List<Edge>> myEdges;
+    private int myNumEdges;
+
+    /**
+     * @param spatialModel the spatial model of the node coordinates, must not be null
+     */
+    public DijkstraPathFinder(SpatialModel spatialModel) {
+        Objects.requireNonNull(spatialModel, "The spatial model must not be null");
+        mySpatialModel = spatialModel;
+        myNodes = new ArrayList<>();
+        myIndices = new HashMap<>();
+        myIndexPrecision = spatialModel.getDefaultPositionPrecision();
+        myEdges = new ArrayList<>();
+    }
+
+    /**
+     * @return the spatial model of the node coordinates
+     */
+    public final SpatialModel getSpatialModel() {
+        return mySpatialModel;
+    }
+
+    /**
+     * @return the number of nodes in the graph
+     */
+    public final int getNumberOfNodes() {
+        return myNodes.size();
+    }
+
+    /**
+     * @return the number of directed edges in the graph
+     */
+    public final int getNumberOfEdges() {
+        return myNumEdges;
+    }
+
+    /**
+     * @param coordinate the coordinate to check
+     * @return true if the graph has a node at the position of the coordinate
+     */
+    public final boolean contains(CoordinateIfc coordinate) {
+        return indexOf(coordinate) >= 0;
+    }
+
+    /**
+     * Adds a node to the graph
+     *
+     * @param node the node, must be valid for the spatial model and not at the position
+     *             of another node
+     */
+    public final void addNode(CoordinateIfc node) {
+        Objects.requireNonNull(node, "The node must not be null");
+        if (!mySpatialModel.isValid(node)) {
+            throw new IllegalArgumentException("The node is not valid for the spatial model");
+        }
+        if (contains(node)) {
+            throw new IllegalArgumentException("The graph already has a node at " + node);
+        }
+        indexNode(node, myNodes.size());
+        myNodes.add(node);
+        myEdges.add(new ArrayList<>());
+    }
+
+    /**
+     * Adds a directed edge weighted by the distance between the nodes in the spatial model.
+     * Nodes that are not already in the graph are added.
+     *
+     * @param from the starting node of the edge
+     * @param to   the ending node of the edge
+     */
+    public final void addEdge(CoordinateIfc from, CoordinateIfc to) {
+        addEdge(from, to, mySpatialModel.distance(from, to));
+    }
+
+    /**
+     * Adds a directed edge. Nodes that are not already in the graph are added.
+     *
+     * @param from   the starting node of the edge
+     * @param to     the ending node of the edge
+     * @param weight the weight of the edge, must be &gt;= 0
+     */
+    public final void addEdge(CoordinateIfc from, CoordinateIfc to, double weight) {
+        if (!(weight >= 0.0)) {
+            throw new IllegalArgumentException("The weight of an edge must be >= 0");
+        }
+        int i = indexOrAdd(from);
+        int j = indexOrAdd(to);
+        if (i == j) {
+            throw new IllegalArgumentException("An edge must connect two different nodes");
+        }
+        myEdges.get(i).add(new Edge(j, weight));
+        myNumEdges++;
+    }
+
+    /**
+     * Adds edges in both directions weighted by the distance between the nodes in the spatial model
+     *
+     * @param node1 the first node
+     * @param node2 the second node
+     */
+    public final void addUndirectedEdge(CoordinateIfc node1, CoordinateIfc node2) {
+        addUndirectedEdge(node1, node2, mySpatialModel.distance(node1, node2));
+    }
+
+    /**
+     * Adds edges in both directions with the same weight
+     *
+     * @param node1  the first node
+     * @param node2  the second node
+     * @param weight the weight of the edges, must be &gt;= 0
+     */
+    public final void addUndirectedEdge(CoordinateIfc node1, CoordinateIfc node2, double weight) {
+        addEdge(node1, node2, weight);
+        addEdge(node2, node1, weight);
+    }
+
+    /**
+     * @param from the starting location, must be a node of the graph
+     * @param to   the goal location, must be a node of the graph
+     * @return the total weight of the edges on the shortest path or Double.POSITIVE_INFINITY
+     * if there is no path
+     */
+    public final double findPathWeight(CoordinateIfc from, CoordinateIfc to) {
+        int goal = requireNode(to);
+        double[] weights = new double[myNodes.size()];
+        search(requireNode(from), goal, weights, new int[myNodes.size()]);
+        return weights[goal];
+    }
+
+    @Override
+    public void findPath(Path path, CoordinateIfc from, CoordinateIfc to) {
+        Objects.requireNonNull(path, "The path must not be null");
+        int start = requireNode(from);
+        int goal = requireNode(to);
+        path.clear();
+        path.setOrigin(from);
+        int n = myNodes.size();
+        int[] parent = new int[n];
+        if (!search(start, goal, new double[n], parent)) {
+            return;
+        }
+        int count = 0;
+        for (int i = goal; i != start; i = parent[i]) {
+            count++;
+        }
+        int[] nodes = new int[count];
+        for (int i = goal; i != start; i = parent[i]) {
+            count--;
+            nodes[count] = i;
+        }
+        for (int i : nodes) {
+            path.add(myNodes.get(i));
+        }
+    }
+
+    @Override
+    public void findPath(Path path, SpatialElementIfc from, SpatialElementIfc to) {
+        Objects.requireNonNull(from, "The from element must not be null");
+        Objects.requireNonNull(to, "The to element must not be null");
+        findPath(path, from.getPosition(), to.getPosition());
+    }
+
+    /**
+     * Returns the path between the nodes, throwing an exception when no path exists
+     *
+     * @param from the starting location, must be a node of the graph
+     * @param to   the goal location, must be a node of the graph
+     * @return the path
+     */
+    public final Path findPath(CoordinateIfc from, CoordinateIfc to) {
+        Path path = new Path(mySpatialModel);
+        findPath(path, from, to);
+        if (path.isEmpty() && (requireNode(from) != requireNode(to))) {
+            throw new NoPathFoundException("There is no path from " + from + " to " + to);
+        }
+        return path;
+    }
+
+    /**
+     * Fills the weights of the shortest paths from the start, stopping when the goal is reached
+     *
+     * @return true if the goal can be reached from the start
+     */
+    private boolean search(int start, int goal, double[] weights, int[] parent) {
+        Arrays.fill(weights, Double.POSITIVE_INFINITY);
+        boolean[] settled = new boolean[weights.length];
+        PriorityQueue<Label> queue = new PriorityQueue<>();
+        weights[start] = 0.0;
+        parent[start] = -1;
+        queue.add(new Label(start, 0.0));
+        while (!queue.isEmpty()) {
+            Label label = queue.poll();
+            int i = label.myNode;
+            if (settled[i]) {
+                continue;
+            }
+            if (i == goal) {
+                return true;
+            }
+            settled[i] = true;
+            for (Edge edge : myEdges.get(i)) {
+                double w = weights[i] + edge.myWeight;
+                if (w < weights[edge.myTo]) {
+                    weights[edge.myTo] = w;
+                    parent[edge.myTo] = i;
+                    queue.add(new Label(edge.myTo, w));
+                }
+            }
+        }
+        return false;
+    }
+
+    private int indexOf(CoordinateIfc coordinate) {
+        if (!mySpatialModel.isValid(coordinate)) {
+            return -1;
+        }
+        if (myIndexPrecision != mySpatialModel.getDefaultPositionPrecision()) {
+            reindex();
+        }
+        long b1 = bucket(coordinate.getX1());
+        long b2 = bucket(coordinate.getX2());
+        // positions that compare as equal are in the same or adjacent buckets
+        for (long i = b1 - 1; i <= b1 + 1; i++) {
+            for (long j = b2 - 1; j <= b2 + 1; j++) {
+                List<Integer> candidates = myIndices.get(new PositionKey(i, j));
+                if (candidates != null) {
+                    for (int k : candidates) {
+                        if (mySpatialModel.comparePositions(myNodes.get(k), coordinate)) {
+                            return k;
+                        }
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Rebuilds the position index after the precision of the spatial model was changed
+     */
+    private void reindex() {
+        myIndexPrecision = mySpatialModel.getDefaultPositionPrecision();
+        myIndices.clear();
+        for (int i = 0; i < myNodes.size(); i++) {
+            indexNode(myNodes.get(i), i);
+        }
+    }
+
+    /**
+     * Nodes that do not compare as equal, for example because the spatial model also
+     * compares x3, may share a bucket, so each bucket holds a list of nodes
+     *
+     * @param node  the node
+     * @param index the index of the node
+     */
+    private void indexNode(CoordinateIfc node, int index) {
+        PositionKey key = new PositionKey(bucket(node.getX1()), bucket(node.getX2()));
+        myIndices.computeIfAbsent(key, k -> new ArrayList<>(1)).add(index);
+    }
+
+    /**
+     * Values that are equal at the relative precision used by the spatial models,
+     * see JSLMath.equal(), fall in the same or adjacent buckets. Values smaller in
+     * magnitude than the precision are in bucket 0, and the other buckets are of
+     * equal width on a log scale.
+     *
+     * @param x the value
+     * @return the bucket of the value
+     */
+    private long bucket(double x) {
+        double p = myIndexPrecision;
+        double a = Math.abs(x);
+        if (a < p) {
+            return 0;
+        }
+        long b = 1 + (long) Math.floor(Math.log(a / p) / -Math.log1p(-p));
+        return (x < 0.0) ? -b : b;
+    }
+
+    private int indexOrAdd(CoordinateIfc node) {
+        Objects.requireNonNull(node, "The node must not be null");
+        int i = indexOf(node);
+        if (i < 0) {
+            addNode(node);
+            i = myNodes.size() - 1;
+        }
+        return i;
+    }
+
+    private int requireNode(CoordinateIfc coordinate) {
+        Objects.requireNonNull(coordinate, "The coordinate must not be null");
+        int i = indexOf(coordinate);
+        if (i < 0) {
+            throw new IllegalArgumentException("The coordinate " + coordinate + " is not a node of the graph");
+        }
+        return i;
+    }
+
+    private static class PositionKey {
+
+        private final long myBucket1;
+        private final long myBucket2;
+
+        PositionKey(long bucket1, long bucket2) {
+            myBucket1 = bucket1;
+            myBucket2 = bucket2;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PositionKey)) {
+                return false;
+            }
+            PositionKey other = (PositionKey) o;
+            return (myBucket1 == other.myBucket1) && (myBucket2 == other.myBucket2);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(myBucket1 * 31 + myBucket2);
+        }
+    }
+
+    private static class Edge {
+
+        private final int myTo;
+        private final double myWeight;
+
+        Edge(int to, double weight) {
+            myTo = to;
+            myWeight = weight;
+        }
+    }
+
+    private static class Label implements Comparable<Label> {
+
+        private final int myNode;
+        private final double myWeight;
+
+        Label(int node, double weight) {
+            myNode = node;
+            myWeight = weight;
+        }
+
+        @Override
+        public int compareTo(Label other) {
+            int c = Double.compare(myWeight, other.myWeight);
+            if (c != 0) {
+                return c;
+            }
+            return Integer.compare(myNode, other.myNode);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package jsl.modeling.elements.spatial;
+
+import java.util.Collection;
+
+/**
+ * A spatial index for a GreatCircleBasedSpatialModel. The cells divide latitude and longitude
+ * into 2^precision intervals each and are identified by a geohash, i.e. the interleaved bits
+ * of the longitude and latitude intervals. A search covers the cells that overlap the
+ * latitude and longitude bounds of the distance, which include all longitudes if the search
+ * contains a pole and wrap around the anti-meridian.
+ */
+public class GeohashSpatialIndex extends SpatialIndex {
+
+    /**
+     * The default number of bits for each of latitude and longitude, about 0.7 by 1.4 degrees
+     */
+    public static final int DEFAULT_PRECISION = 8;
+
+    /**
+     * The maximum number of bits for each of latitude and longitude
+     */
+    public static final int MAX_PRECISION = 30;
+
+    private final GreatCircleBasedSpatialModel myGreatCircleModel;
+
+    private final int myPrecision;
+
+    private final int myNumIntervals;
+
+    /**
+     * Indexes the spatial model using the default precision
+     *
+     * @param spatialModel the spatial model to index, must not be null
+     */
+    public GeohashSpatialIndex(GreatCircleBasedSpatialModel spatialModel) {
+        this(spatialModel, DEFAULT_PRECISION);
+    }
+
+    /**
+     * @param spatialModel the spatial model to index, must not be null
+     * @param precision    the number of bits for each of latitude and longitude, must be
+     *                     in 1 to MAX_PRECISION
+     */
+    public GeohashSpatialIndex(GreatCircleBasedSpatialModel spatialModel, int precision) {
+        super(spatialModel);
+        if ((precision < 1) || (precision > MAX_PRECISION)) {
+            throw new IllegalArgumentException("The precision must be in 1 to " + MAX_PRECISION);
+        }
+        myGreatCircleModel = spatialModel;
+        myPrecision = precision;
+        myNumIntervals = 1 << precision;
+        attach();
+    }
+
+    /**
+     * @return the number of bits for each of latitude and longitude
+     */
+    public final int getPrecision() {
+        return myPrecision;
+    }
+
+    /**
+     * @param coordinate the coordinate, with latitude as the first coordinate and longitude as the second
+     * @return the geohash of the cell that holds the coordinate, using 2*getPrecision() bits
+     */
+    public final long getGeohash(CoordinateIfc coordinate) {
+        return getCellKey(coordinate);
+    }
+
+    @Override
+    protected long getCellKey(CoordinateIfc coordinate) {
+        return geohash(row(coordinate.getX1()), column(coordinate.getX2()));
+    }
+
+    @Override
+    protected boolean addCellKeys(CoordinateIfc coordinate, double distance, int maxKeys, Collection<Long> keys) {
+        // the angle subtended by the distance
+        double angle = distance / (myGreatCircleModel.getCircuityFactor() * myGreatCircleModel.getEarthRadius());
+        if (angle >= Math.PI) {
+            return false;
+        }
+        double lat = coordinate.getX1();
+        double lon = coordinate.getX2();
+        double dLat = Math.toDegrees(angle);
+        double minLat = lat - dLat;
+        double maxLat = lat + dLat;
+        int c1;
+        int c2;
+        if ((minLat <= -90.0) || (maxLat >= 90.0)) {
+            // the search contains a pole
+            c1 = 0;
+            c2 = myNumIntervals - 1;
+        } else {
+            double s = Math.sin(angle) / Math.cos(Math.toRadians(lat));
+            if (s >= 1.0) {
+                c1 = 0;
+                c2 = myNumIntervals - 1;
+            } else {
+                double dLon = Math.toDegrees(Math.asin(s));
+                c1 = (int) Math.floor((lon - dLon + 180.0) * myNumIntervals / 360.0);
+                c2 = (int) Math.floor((lon + dLon + 180.0) * myNumIntervals / 360.0);
+                if (c2 - c1 + 1 >= myNumIntervals) {
+                    c1 = 0;
+                    c2 = myNumIntervals - 1;
+                }
+            }
+        }
+        int r1 = row(Math.max(minLat, -90.0));
+        int r2 = row(Math.min(maxLat, 90.0));
+        if ((double) (c2 - c1 + 1) * (r2 - r1 + 1) > maxKeys) {
+            return false;
+        }
+        for (int c = c1; c <= c2; c++) {
+            // wrap around the anti-meridian
+            int col = Math.floorMod(c, myNumIntervals);
+            for (int r = r1; r <= r2; r++) {
+                keys.add(geohash(r, col));
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected double getInitialSearchDistance() {
+        // the length of a cell along a meridian
+        return myGreatCircleModel.getCircuityFactor() * myGreatCircleModel.getEarthRadius()
+                * Math.toRadians(180.0 / myNumIntervals);
+    }
+
+    private int row(double lat) {
+        int r = (int) Math.floor((lat + 90.0) * myNumIntervals / 180.0);
+        return Math.min(Math.max(r, 0), myNumIntervals - 1);
+    }
+
+    private int column(double lon) {
+        int c = (int) Math.floor((lon + 180.0) * myNumIntervals / 360.0);
+        return Math.min(Math.max(c, 0), myNumIntervals - 1);
+    }
+
+    /**
+     * Interleaves the bits of the column and the row, starting with the column, as in a geohash
+     */
+    private long geohash(int row, int column) {
+        long hash = 0L;
+        for (int i = myPrecision - 1; i >= 0; i--) {
+            hash = (hash << 1) | ((column >>> i) & 1);
+            hash = (hash << 1) | ((row >>> i) & 1);
+        }
+        return hash;
+    }
+}
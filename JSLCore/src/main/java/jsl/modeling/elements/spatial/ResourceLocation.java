@@ -317,4 +317,45 @@ public class ResourceLocation extends SpatialModelElement {
 		return(idleResources);		
 	}
 
+	/** Finds the resource location in the spatial model that is nearest to the supplied location
+	 *  and has at least one idle resource. The spatial index of the spatial model is used
+	 *  if it has one. Returns null if no such resource location is found.
+	 * 
+	 * @param spatialModel the spatial model holding the resource locations, must not be null
+	 * @param location the location, must not be null
+	 * @return the nearest resource location with an idle resource, or null
+	 */
+	public static ResourceLocation findNearestWithIdleResources(SpatialModel spatialModel, CoordinateIfc location){
+		if (spatialModel == null)
+			throw new IllegalArgumentException("The spatial model was null");
+		
+		List<SpatialElementIfc> list = spatialModel.findNearest(location, 1, e -> 
+				(e.getModelElement() instanceof ResourceLocation) 
+				&& (((ResourceLocation) e.getModelElement()).getNumberOfIdleResources() > 0));
+		if (list.isEmpty())
+			return(null);
+		return((ResourceLocation) list.get(0).getModelElement());
+	}
+	
+	/** Finds the resource locations in the spatial model that are within the distance of the 
+	 *  supplied location. The spatial index of the spatial model is used if it has one.
+	 * 
+	 * @param spatialModel the spatial model holding the resource locations, must not be null
+	 * @param location the location, must not be null
+	 * @param distance the distance, must be &gt;= 0
+	 * @return the resource locations, ordered by increasing distance from the location
+	 */
+	public static List<ResourceLocation> findWithinDistance(SpatialModel spatialModel, CoordinateIfc location, 
+			double distance){
+		if (spatialModel == null)
+			throw new IllegalArgumentException("The spatial model was null");
+		
+		List<ResourceLocation> locations = new ArrayList<ResourceLocation>();
+		for(SpatialElementIfc e: spatialModel.findWithinDistance(location, distance, 
+				e -> e.getModelElement() instanceof ResourceLocation)){
+			locations.add((ResourceLocation) e.getModelElement());
+		}
+		return(locations);
+	}
+
 }
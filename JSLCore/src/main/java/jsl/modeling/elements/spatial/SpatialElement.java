@@ -19,6 +19,8 @@ import jsl.simulation.ModelElement;
 import jsl.observers.ObservableComponent;
 import jsl.observers.ObserverIfc;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * A SpatialElement represents an object that is within a spatial model. A
  * spatial element can be in one and only one spatial model at a time. A spatial
@@ -40,9 +42,10 @@ import jsl.observers.ObserverIfc;
 public class SpatialElement implements SpatialElementIfc {
 
     /**
-     * incremented to give a running total of the number of elements created
+     * incremented to give a running total of the number of elements created.
+     * Atomic because models may be built and run concurrently
      */
-    private static int myCounter_;
+    private static final AtomicInteger myCounter_ = new AtomicInteger();
 
     /**
      * An enum to indicate that an element changed its position within a spatial
@@ -208,8 +211,7 @@ public class SpatialElement implements SpatialElementIfc {
         }
 
         // if we get here we know that the coordinate is valid for the spatial model
-        myCounter_ = myCounter_ + 1;
-        myId = myCounter_;
+        myId = myCounter_.incrementAndGet();
         setName(name);
 
         myObservableComponent = new ObservableComponent();
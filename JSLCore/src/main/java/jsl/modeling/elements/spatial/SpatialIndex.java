@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package jsl.modeling.elements.spatial;
+
+import jsl.observers.ObserverIfc;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * An index of the spatial elements of a SpatialModel that supports finding the nearest
+ * elements to a coordinate and the elements within a distance of a coordinate without
+ * checking every element of the spatial model.
+ * <p>
+ * The elements are held in cells that are identified by a key computed from an element's
+ * position. The index observes the spatial model, so that it is maintained incrementally
+ * as elements are added to or removed from the model and as they update their positions.
+ * Only an element that changes its cell causes any work beyond computing its key.
+ * <p>
+ * Creating an index attaches it to the spatial model, which then uses the index for
+ * its findNearest() and findWithinDistance() methods. Subclasses define the cells and
+ * which cells must be searched for a distance.
+ */
+public abstract class SpatialIndex implements ObserverIfc {
+
+    /**
+     * The maximum number of cells searched for a query before the query checks
+     * the occupied cells instead
+     */
+    public static final int DEFAULT_MAX_CELLS_SEARCHED = 4096;
+
+    /**
+     * The spatial model that is indexed
+     */
+    protected final SpatialModel mySpatialModel;
+
+    /**
+     * The elements in each occupied cell
+     */
+    private final Map<Long, List<SpatialElementIfc>> myCells;
+
+    /**
+     * The key of the cell holding each element
+     */
+    private final Map<SpatialElementIfc, Long> myElementKeys;
+
+    private int myMaxCellsSearched = DEFAULT_MAX_CELLS_SEARCHED;
+
+    /**
+     * Indexes the elements in the spatial model and attaches the index to the spatial
+     * model, replacing any index that it had.
+     *
+     * @param spatialModel the spatial model to index, must not be null
+     */
+    protected SpatialIndex(SpatialModel spatialModel) {
+        Objects.requireNonNull(spatialModel, "The spatial model was null");
+        mySpatialModel = spatialModel;
+        myCells = new HashMap<>();
+        myElementKeys = new HashMap<>();
+    }
+
+    /**
+     * Indexes the elements currently in the spatial model and starts observing it. Called
+     * by the constructors of subclasses after their cells have been defined.
+     */
+    protected final void attach() {
+        for (SpatialElement element : mySpatialModel.myElements) {
+            add(element);
+        }
+        mySpatialModel.setSpatialIndex(this);
+    }
+
+    /**
+     * @param coordinate a valid coordinate of the spatial model
+     * @return the key of the cell that contains the coordinate
+     */
+    protected abstract long getCellKey(CoordinateIfc coordinate);
+
+    /**
+     * Adds the keys of the cells that may contain coordinates within the distance of the
+     * supplied coordinate. The keys need only include the cells that are occupied, but
+     * may include more.
+     *
+     * @param coordinate the coordinate at the center of the search
+     * @param distance   the distance of the search
+     * @param maxKeys    the maximum number of keys to add
+     * @param keys       the collection that receives the keys
+     * @return false if more than maxKeys keys would be needed or if the distance covers
+     * the whole spatial model, in which case all occupied cells are searched and the
+     * collection may have been partially filled
+     */
+    protected abstract boolean addCellKeys(CoordinateIfc coordinate, double distance, int maxKeys,
+                                           Collection<Long> keys);
+
+    /**
+     * @return the distance first used when searching for the nearest elements, e.g. the size of a cell
+     */
+    protected abstract double getInitialSearchDistance();
+
+    /**
+     * @return the spatial model that is indexed
+     */
+    public final SpatialModel getSpatialModel() {
+        return mySpatialModel;
+    }
+
+    /**
+     * @return the number of indexed elements
+     */
+    public final int size() {
+        return myElementKeys.size();
+    }
+
+    /**
+     * @return the number of cells that hold at least one element
+     */
+    public final int getNumberOfOccupiedCells() {
+        return myCells.size();
+    }
+
+    /**
+     * @return the maximum number of cells searched for a query before the query checks
+     * the occupied cells instead
+     */
+    public final int getMaximumCellsSearched() {
+        return myMaxCellsSearched;
+    }
+
+    /**
+     * @param maxCells the maximum number of cells searched for a query, must be &gt; 0
+     */
+    public final void setMaximumCellsSearched(int maxCells) {
+        if (maxCells <= 0) {
+            throw new IllegalArgumentException("The maximum number of cells must be > 0");
+        }
+        myMaxCellsSearched = maxCells;
+    }
+
+    /**
+     * @param element the element
+     * @return true if the element is indexed
+     */
+    public final boolean contains(SpatialElementIfc element) {
+        return myElementKeys.containsKey(element);
+    }
+
+    @Override
+    public void update(Object theObserved, Object arg) {
+        SpatialModel model = (SpatialModel) theObserved;
+        SpatialElementIfc element = model.getUpdatingSpatialElement();
+        if (model.checkSpatialElementAdded()) {
+            add(element);
+        } else if (model.checkForSpatialElementRemoved()) {
+            remove(element);
+        } else if (model.checkSpatialElementPositionChanged()) {
+            move(element);
+        }
+    }
+
+    private void add(SpatialElementIfc element) {
+        long key = getCellKey(element.getPosition());
+        Long previous = myElementKeys.put(element, key);
+        if (previous != null) {
+            removeFromCell(element, previous);
+        }
+        myCells.computeIfAbsent(key, k -> new ArrayList<>()).add(element);
+    }
+
+    private void remove(SpatialElementIfc element) {
+        Long key = myElementKeys.remove(element);
+        if (key != null) {
+            removeFromCell(element, key);
+        }
+    }
+
+    private void move(SpatialElementIfc element) {
+        Long key = myElementKeys.get(element);
+        if (key == null) {
+            return;
+        }
+        long next = getCellKey(element.getPosition());
+        if (next != key) {
+            removeFromCell(element, key);
+            myElementKeys.put(element, next);
+            myCells.computeIfAbsent(next, k -> new ArrayList<>()).add(element);
+        }
+    }
+
+    private void removeFromCell(SpatialElementIfc element, long key) {
+        List<SpatialElementIfc> cell = myCells.get(key);
+        if (cell != null) {
+            cell.remove(element);
+            if (cell.isEmpty()) {
+                myCells.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Finds the elements within the distance of the coordinate that satisfy the filter
+     *
+     * @param coordinate the coordinate, must not be null
+     * @param distance   the distance, must be &gt;= 0
+     * @param filter     the condition that the elements must satisfy, must not be null
+     * @return the elements, ordered by increasing distance from the coordinate
+     */
+    public final List<SpatialElementIfc> findWithinDistance(CoordinateIfc coordinate, double distance,
+                                                            Predicate<SpatialElementIfc> filter) {
+        Objects.requireNonNull(coordinate, "The coordinate was null");
+        Objects.requireNonNull(filter, "The filter was null");
+        if (distance < 0.0) {
+            throw new IllegalArgumentException("The distance must be >= 0");
+        }
+        List<Neighbor> found = new ArrayList<>();
+        if (!search(coordinate, distance, filter, found)) {
+            found.removeIf(n -> n.myDistance > distance);
+        }
+        return elements(found, found.size());
+    }
+
+    /**
+     * Finds the k elements nearest to the coordinate that satisfy the filter
+     *
+     * @param coordinate the coordinate, must not be null
+     * @param k          the number of elements to find, must be &gt; 0
+     * @param filter     the condition that the elements must satisfy, must not be null
+     * @return at most k elements, ordered by increasing distance from the coordinate
+     */
+    public final List<SpatialElementIfc> findNearest(CoordinateIfc coordinate, int k,
+                                                     Predicate<SpatialElementIfc> filter) {
+        Objects.requireNonNull(coordinate, "The coordinate was null");
+        Objects.requireNonNull(filter, "The filter was null");
+        if (k <= 0) {
+            throw new IllegalArgumentException("The number of elements must be > 0");
+        }
+        List<Neighbor> found = new ArrayList<>();
+        double distance = getInitialSearchDistance();
+        // widen the search until it holds k elements, any element outside of the
+        // distance is farther than those inside it
+        while (search(coordinate, distance, filter, found) && (found.size() < k)) {
+            found.clear();
+            distance = 2.0 * distance;
+        }
+        return elements(found, k);
+    }
+
+    /**
+     * Fills the list with the elements within the distance that satisfy the filter, or with
+     * all elements that satisfy the filter if the occupied cells were searched
+     *
+     * @return true if the search was limited to the distance
+     */
+    private boolean search(CoordinateIfc coordinate, double distance, Predicate<SpatialElementIfc> filter,
+                           List<Neighbor> found) {
+        Set<Long> keys = new HashSet<>();
+        int maxKeys = Math.min(myMaxCellsSearched, Math.max(1, myCells.size()));
+        if (addCellKeys(coordinate, distance, maxKeys, keys)) {
+            for (Long key : keys) {
+                List<SpatialElementIfc> cell = myCells.get(key);
+                if (cell != null) {
+                    check(coordinate, distance, filter, cell, found);
+                }
+            }
+            return true;
+        }
+        found.clear();
+        for (List<SpatialElementIfc> cell : myCells.values()) {
+            check(coordinate, Double.POSITIVE_INFINITY, filter, cell, found);
+        }
+        return false;
+    }
+
+    private void check(CoordinateIfc coordinate, double distance, Predicate<SpatialElementIfc> filter,
+                       List<SpatialElementIfc> cell, List<Neighbor> found) {
+        for (SpatialElementIfc element : cell) {
+            double d = mySpatialModel.distance(coordinate, element.getPosition());
+            if ((d <= distance) && filter.test(element)) {
+                found.add(new Neighbor(element, d));
+            }
+        }
+    }
+
+    private static List<SpatialElementIfc> elements(List<Neighbor> found, int k) {
+        found.sort(Neighbor.ORDER);
+        int n = Math.min(k, found.size());
+        List<SpatialElementIfc> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            list.add(found.get(i).myElement);
+        }
+        return list;
+    }
+
+    /**
+     * Finds the k elements nearest to the coordinate that satisfy the filter by
+     * checking every element of the spatial model
+     */
+    static List<SpatialElementIfc> findNearest(SpatialModel model, CoordinateIfc coordinate, int k,
+                                               double distance, Predicate<SpatialElementIfc> filter) {
+        List<Neighbor> found = new ArrayList<>();
+        for (SpatialElement element : model.myElements) {
+            double d = model.distance(coordinate, element.getPosition());
+            if ((d <= distance) && filter.test(element)) {
+                found.add(new Neighbor(element, d));
+            }
+        }
+        return elements(found, k);
+    }
+
+    private static final class Neighbor {
+
+        private static final Comparator<Neighbor> ORDER = Comparator.<Neighbor>comparingDouble(n -> n.myDistance)
+                .thenComparingInt(n -> n.myElement.getId());
+
+        private final SpatialElementIfc myElement;
+
+        private final double myDistance;
+
+        private Neighbor(SpatialElementIfc element, double distance) {
+            myElement = element;
+            myDistance = distance;
+        }
+    }
+}
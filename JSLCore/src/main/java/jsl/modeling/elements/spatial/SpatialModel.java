@@ -17,6 +17,8 @@ package jsl.modeling.elements.spatial;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
 
 import jsl.simulation.Model;
 import jsl.observers.ObservableComponent;
@@ -96,6 +98,11 @@ public abstract class SpatialModel implements ObservableIfc, IdentityIfc {
      */
     protected double myDefaultPositionPrecision = JSLMath.getDefaultNumericalPrecision();
 
+    /**
+     * The index used to find nearby elements, null if none
+     */
+    private SpatialIndex mySpatialIndex;
+
     /**
      * Constructs a new spatial model
      *
@@ -312,9 +319,112 @@ public abstract class SpatialModel implements ObservableIfc, IdentityIfc {
         return myElements.contains(element);
     }
 
+    /**
+     * Returns the index used to find the nearest elements and the elements within
+     * a distance, see SpatialIndex
+     *
+     * @return the index, or null if the elements are not indexed
+     */
+    public final SpatialIndex getSpatialIndex() {
+        return mySpatialIndex;
+    }
+
+    /**
+     * Stops using and maintaining the current spatial index, if any. The queries
+     * then check every element of the spatial model.
+     */
+    public final void removeSpatialIndex() {
+        if (mySpatialIndex != null) {
+            deleteObserver(mySpatialIndex);
+            mySpatialIndex = null;
+        }
+    }
+
+    /**
+     * Called when a spatial index is created for this spatial model
+     *
+     * @param index the index, replaces the current index
+     */
+    final void setSpatialIndex(SpatialIndex index) {
+        removeSpatialIndex();
+        mySpatialIndex = index;
+        addObserver(index);
+    }
+
+    /**
+     * Finds the k elements nearest to the coordinate. If the spatial model has a
+     * spatial index, it is used, otherwise every element is checked.
+     *
+     * @param coordinate the coordinate, must not be null
+     * @param k          the number of elements to find, must be &gt; 0
+     * @return at most k elements, ordered by increasing distance from the coordinate
+     */
+    public final List<SpatialElementIfc> findNearest(CoordinateIfc coordinate, int k) {
+        return findNearest(coordinate, k, e -> true);
+    }
+
+    /**
+     * Finds the k elements nearest to the coordinate that satisfy the filter. If the
+     * spatial model has a spatial index, it is used, otherwise every element is checked.
+     *
+     * @param coordinate the coordinate, must not be null
+     * @param k          the number of elements to find, must be &gt; 0
+     * @param filter     the condition that the elements must satisfy, e.g. based on their
+     *                   model element, must not be null
+     * @return at most k elements, ordered by increasing distance from the coordinate
+     */
+    public final List<SpatialElementIfc> findNearest(CoordinateIfc coordinate, int k,
+                                                     Predicate<SpatialElementIfc> filter) {
+        if (mySpatialIndex != null) {
+            return mySpatialIndex.findNearest(coordinate, k, filter);
+        }
+        Objects.requireNonNull(coordinate, "The coordinate was null");
+        Objects.requireNonNull(filter, "The filter was null");
+        if (k <= 0) {
+            throw new IllegalArgumentException("The number of elements must be > 0");
+        }
+        return SpatialIndex.findNearest(this, coordinate, k, Double.POSITIVE_INFINITY, filter);
+    }
+
+    /**
+     * Finds the elements within the distance of the coordinate. If the spatial model has a
+     * spatial index, it is used, otherwise every element is checked.
+     *
+     * @param coordinate the coordinate, must not be null
+     * @param distance   the distance, must be &gt;= 0
+     * @return the elements, ordered by increasing distance from the coordinate
+     */
+    public final List<SpatialElementIfc> findWithinDistance(CoordinateIfc coordinate, double distance) {
+        return findWithinDistance(coordinate, distance, e -> true);
+    }
+
+    /**
+     * Finds the elements within the distance of the coordinate that satisfy the filter. If the
+     * spatial model has a spatial index, it is used, otherwise every element is checked.
+     *
+     * @param coordinate the coordinate, must not be null
+     * @param distance   the distance, must be &gt;= 0
+     * @param filter     the condition that the elements must satisfy, e.g. based on their
+     *                   model element, must not be null
+     * @return the elements, ordered by increasing distance from the coordinate
+     */
+    public final List<SpatialElementIfc> findWithinDistance(CoordinateIfc coordinate, double distance,
+                                                            Predicate<SpatialElementIfc> filter) {
+        if (mySpatialIndex != null) {
+            return mySpatialIndex.findWithinDistance(coordinate, distance, filter);
+        }
+        Objects.requireNonNull(coordinate, "The coordinate was null");
+        Objects.requireNonNull(filter, "The filter was null");
+        if (distance < 0.0) {
+            throw new IllegalArgumentException("The distance must be >= 0");
+        }
+        return SpatialIndex.findNearest(this, coordinate, Integer.MAX_VALUE, distance, filter);
+    }
+
     /**
      * Returns a reference to the most recent spatial element that notified the
-     * spatial model of an update change. Null if no such element. Subclasses
+     * spatial model of an update change, or that was added to or removed from the
+     * spatial model. Null if no such element. Subclasses
      * are responsible for setting this within the updatePosition() method This
      * method can be used by observers to ask the SpatialModel for the element
      * that updated its position.
@@ -391,6 +501,7 @@ public abstract class SpatialModel implements ObservableIfc, IdentityIfc {
     protected void addSpatialElement(SpatialElement element) {
 //        System.out.println("In SpatialModel: addSpatialElement()");
         myElements.add(element);
+        setUpdatingElement(element);
         setObserverState(ADDED_ELEMENT);
         notifyObservers(this, null);
     }
@@ -419,6 +530,7 @@ public abstract class SpatialModel implements ObservableIfc, IdentityIfc {
         boolean found = myElements.remove(element);
 
         if (found == true) {
+            setUpdatingElement(element);
             setObserverState(REMOVED_ELEMENT);
             notifyObservers(this, null);
         }
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package jsl.modeling.elements.spatial;
+
+import java.util.Collection;
+
+/**
+ * A spatial index that divides the plane into rectangular cells of equal size. It can be used
+ * with spatial models that measure Euclidean distance in the first two coordinates, i.e.
+ * Euclidean2DPlane and RectangularGridSpatialModel2D. The cells should be about the size of
+ * the typical search distance. Only the occupied cells are stored, so the plane need not be bounded.
+ */
+public class UniformGridSpatialIndex extends SpatialIndex {
+
+    private final double myCellWidth;
+
+    private final double myCellHeight;
+
+    /**
+     * The largest distance between two coordinates of the spatial model, infinite if the
+     * spatial model is unbounded
+     */
+    private final double myMaxDistance;
+
+    /**
+     * Indexes the grid using cells the size of the cells of the grid
+     *
+     * @param grid the spatial model to index, must not be null
+     */
+    public UniformGridSpatialIndex(RectangularGridSpatialModel2D grid) {
+        this(grid, grid.getCellWidth(), grid.getCellHeight());
+    }
+
+    /**
+     * @param spatialModel the spatial model to index, must be a Euclidean2DPlane or
+     *                     a RectangularGridSpatialModel2D
+     * @param cellWidth    the width of the cells, must be &gt; 0
+     * @param cellHeight   the height of the cells, must be &gt; 0
+     */
+    public UniformGridSpatialIndex(SpatialModel spatialModel, double cellWidth, double cellHeight) {
+        super(spatialModel);
+        if (spatialModel instanceof RectangularGridSpatialModel2D) {
+            RectangularGridSpatialModel2D grid = (RectangularGridSpatialModel2D) spatialModel;
+            myMaxDistance = Math.hypot(grid.getWidth(), grid.getHeight());
+        } else if (spatialModel instanceof Euclidean2DPlane) {
+            myMaxDistance = Double.POSITIVE_INFINITY;
+        } else {
+            throw new IllegalArgumentException("The spatial model must be a Euclidean2DPlane or a RectangularGridSpatialModel2D");
+        }
+        if ((cellWidth <= 0.0) || Double.isInfinite(cellWidth) || Double.isNaN(cellWidth)) {
+            throw new IllegalArgumentException("The cell width must be > 0 and finite");
+        }
+        if ((cellHeight <= 0.0) || Double.isInfinite(cellHeight) || Double.isNaN(cellHeight)) {
+            throw new IllegalArgumentException("The cell height must be > 0 and finite");
+        }
+        myCellWidth = cellWidth;
+        myCellHeight = cellHeight;
+        attach();
+    }
+
+    /**
+     * @return the width of the cells
+     */
+    public final double getCellWidth() {
+        return myCellWidth;
+    }
+
+    /**
+     * @return the height of the cells
+     */
+    public final double getCellHeight() {
+        return myCellHeight;
+    }
+
+    @Override
+    protected long getCellKey(CoordinateIfc coordinate) {
+        return key(column(coordinate.getX1()), row(coordinate.getX2()));
+    }
+
+    @Override
+    protected boolean addCellKeys(CoordinateIfc coordinate, double distance, int maxKeys, Collection<Long> keys) {
+        if (distance >= myMaxDistance) {
+            return false;
+        }
+        double x = coordinate.getX1();
+        double y = coordinate.getX2();
+        // the cells that overlap the square that contains the circle of the distance
+        long c1 = column(x - distance);
+        long c2 = column(x + distance);
+        long r1 = row(y - distance);
+        long r2 = row(y + distance);
+        if ((double) (c2 - c1 + 1) * (r2 - r1 + 1) > maxKeys) {
+            return false;
+        }
+        for (long c = c1; c <= c2; c++) {
+            for (long r = r1; r <= r2; r++) {
+                keys.add(key((int) c, (int) r));
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected double getInitialSearchDistance() {
+        return Math.max(myCellWidth, myCellHeight);
+    }
+
+    private int column(double x) {
+        return (int) Math.floor(x / myCellWidth);
+    }
+
+    private int row(double y) {
+        return (int) Math.floor(y / myCellHeight);
+    }
+
+    private static long key(int column, int row) {
+        return ((long) column << 32) | (row & 0xFFFFFFFFL);
+    }
+}
@@ -19,6 +19,9 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 
+import jsl.modeling.elements.spatial.CoordinateIfc;
+import jsl.modeling.elements.spatial.SpatialElementIfc;
+import jsl.modeling.elements.spatial.SpatialModel;
 import jsl.simulation.ModelElement;
 import jsl.modeling.queue.QObject;
 import jsl.modeling.elements.variable.TimeWeighted;
@@ -135,6 +138,58 @@ public class TransporterSet extends ModelElement {
 
     }
 
+    /** Selects the idle transporter from this TransporterSet that is nearest to the supplied
+     *  location. Returns null if there are no idle transporters.  The transporters are assumed
+     *  to be in the same spatial model. If that spatial model has a SpatialIndex, the index is used
+     *  to find the transporter, otherwise the distance to each idle transporter is checked.
+     *
+     *  Like selectIdleTransporter(), this method only recommends an idle transporter.
+     *
+     * @param location the location that needs a transporter, must not be null
+     * @return the nearest idle transporter, or null
+     */
+    public Transporter selectNearestIdleTransporter(CoordinateIfc location) {
+        if (location == null) {
+            throw new IllegalArgumentException("The supplied location was null!");
+        }
+
+        if (myIdleTransporters.isEmpty()) {
+            return (null);
+        }
+
+        SpatialModel sm = myIdleTransporters.get(0).getSpatialModel();
+        if (sm.getSpatialIndex() != null) {
+            List<SpatialElementIfc> list = sm.findNearest(location, 1, this::isIdleMember);
+            if (!list.isEmpty()) {
+                return ((Transporter) list.get(0).getModelElement());
+            }
+        }
+
+        Transporter nearest = null;
+        double min = Double.POSITIVE_INFINITY;
+        for (Transporter t : myIdleTransporters) {
+            double d = t.distanceTo(location);
+            if (d < min) {
+                min = d;
+                nearest = t;
+            }
+        }
+        return (nearest);
+    }
+
+    /** Checks if the spatial element represents an idle transporter of this set
+     *
+     * @param element the element
+     * @return true if the element represents an idle transporter of this set
+     */
+    private boolean isIdleMember(SpatialElementIfc element) {
+        if (!(element.getModelElement() instanceof Transporter)) {
+            return (false);
+        }
+        Transporter t = (Transporter) element.getModelElement();
+        return (t.isIdle() && t.myTransporterSets.contains(this));
+    }
+
     /** Returns the current transportation selection rule or null if none
      * 
      * @return
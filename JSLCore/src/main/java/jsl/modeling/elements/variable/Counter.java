@@ -398,6 +398,19 @@ public class Counter extends Aggregatable implements CounterActionIfc, DefaultRe
         }
     }
 
+    /**
+     * Sets the value of the counter to the value observed at the end of a
+     * replication that was executed by another instance of the model, e.g. by a
+     * ParallelSimulation worker. No limit checking occurs and no observers
+     * are notified.
+     *
+     * @param value the value of the counter at the end of the replication
+     */
+    public final void replayValue(double value) {
+        myPrevValue = myValue;
+        myValue = value;
+    }
+
     /**
      * Sets the default reporting option. True means the response will appear on
      * default reports
@@ -357,6 +357,8 @@ public class LevelResponse extends SchedulingElement {
         if (hasObservationInterval()) {
             myObservationIntervalStartEvent = scheduleEvent(new StartObservationIntervalAction(), myObservationIntervalStartTime);
             myObservationIntervalEndEvent = scheduleEvent(new EndObservationIntervalAction(), myObservationIntervalStartTime + myObservationIntervalDuration);
+            myObservationIntervalStartEvent.setRetainedFlag(true);
+            myObservationIntervalEndEvent.setRetainedFlag(true);
         }
     }
 
@@ -181,6 +181,26 @@ public class RandomVariable extends ModelElement implements RandomIfc, RandomEle
         return myInitialRandomSource.getRandomNumberStream();
     }
 
+    /** Changes the stream for the *initial random source* to the stream associated
+     * with the supplied number from the model's stream provider
+     *
+     * @param streamNumber a stream number, 1, 2, etc.
+     */
+    @Override
+    public void setRandomNumberStream(int streamNumber) {
+        setRandomNumberStream(getModel().getRNStreamProvider().rnStream(streamNumber));
+    }
+
+    /**
+     *
+     * @return the stream number allocated to the initial random source by the model's stream
+     * provider. This will return -1 if the stream was not provided by the model's stream provider
+     */
+    @Override
+    public int getStreamNumber() {
+        return getModel().getRNStreamProvider().getStreamNumber(getRandomNumberStream());
+    }
+
     @Override
     public final boolean getResetStartStreamOption() {
         return myResetStartStreamOption;
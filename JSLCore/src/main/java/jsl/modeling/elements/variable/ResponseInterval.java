@@ -374,6 +374,7 @@ public class ResponseInterval extends SchedulingElement {
         }
         myScheduledFlag = true;
         myStartEvent = scheduleEvent(myStartAction, startTime, START_EVENT_PRIORITY);
+        myStartEvent.setRetainedFlag(true);
     }
 
     /**
@@ -482,6 +483,7 @@ public class ResponseInterval extends SchedulingElement {
             }
             //System.out.println(getTime() + " > scheduling interval to end at " + (getTime() + getDuration()));
             myEndEvent = scheduleEvent(myEndAction, getDuration(), END_EVENT_PRIORITY);
+            myEndEvent.setRetainedFlag(true);
         }
 
     }
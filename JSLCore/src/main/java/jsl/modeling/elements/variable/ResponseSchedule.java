@@ -471,6 +471,7 @@ public class ResponseSchedule extends SchedulingElement {
             }
             myScheduledFlag = true;
             myStartEvent = scheduleEvent(myStartAction, timeToStart, START_EVENT_PRIORITY);
+            myStartEvent.setRetainedFlag(true);
         }
     }
 
@@ -17,11 +17,17 @@ package jsl.modeling.elements.variable;
 
 import jsl.simulation.ExperimentGetIfc;
 import jsl.simulation.ModelElement;
+import jsl.utilities.statistic.QuantileSketch;
 import jsl.utilities.statistic.Statistic;
 import jsl.utilities.statistic.StatisticAccessorIfc;
 import jsl.utilities.statistic.WeightedStatistic;
 import jsl.utilities.statistic.WeightedStatisticIfc;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  *
  */
@@ -71,6 +77,30 @@ public class ResponseVariable extends Variable implements
      */
     protected ResponseVariable myAcrossIntervalResponse;
 
+    /**
+     * The within replication quantile sketch, null unless turned on
+     *
+     */
+    protected QuantileSketch myWithinRepSketch;
+
+    /**
+     * The quantile sketch over the observations of all replications
+     *
+     */
+    protected QuantileSketch myAcrossRepSketch;
+
+    /**
+     * The probabilities of the quantiles tracked across replications
+     *
+     */
+    protected double[] mySketchProbabilities;
+
+    /**
+     * The across replication statistics for the within replication quantiles
+     *
+     */
+    protected Statistic[] myAcrossRepQuantileStats;
+
     /**
      * Time of last update interval
      */
@@ -197,6 +227,91 @@ public class ResponseVariable extends Variable implements
         }
     }
 
+    /**
+     * Turns on the collection of a quantile sketch using the default compression
+     * and the default quantiles (0.5, 0.9, 0.99, 0.999)
+     *
+     */
+    public final void turnOnQuantileSketch() {
+        turnOnQuantileSketch(QuantileSketch.DEFAULT_COMPRESSION, QuantileSketch.DEFAULT_QUANTILES);
+    }
+
+    /**
+     * Turns on the collection of a quantile sketch of the observations within each
+     * replication. At the end of each replication the supplied quantiles of the
+     * replication are collected into across replication statistics and the sketch is
+     * merged into a sketch over all replications. Must be called before the experiment.
+     *
+     * @param compression the compression of the sketch, must be at least 10
+     * @param probabilities the probabilities of the quantiles to track across
+     * replications, each must be in (0,1)
+     */
+    public final void turnOnQuantileSketch(double compression, double... probabilities) {
+        if (probabilities == null || probabilities.length == 0) {
+            throw new IllegalArgumentException("There must be at least one quantile to track");
+        }
+        for (double p : probabilities) {
+            if ((p <= 0.0) || (p >= 1.0)) {
+                throw new IllegalArgumentException("The quantile probabilities must be in (0,1)");
+            }
+        }
+        myWithinRepSketch = new QuantileSketch(compression, getName());
+        myAcrossRepSketch = new QuantileSketch(compression, getName());
+        mySketchProbabilities = Arrays.copyOf(probabilities, probabilities.length);
+        myAcrossRepQuantileStats = new Statistic[probabilities.length];
+        for (int i = 0; i < probabilities.length; i++) {
+            myAcrossRepQuantileStats[i] = new Statistic(getName() + ":P"
+                    + new BigDecimal(Double.toString(probabilities[i])).movePointRight(2).stripTrailingZeros().toPlainString());
+        }
+    }
+
+    /**
+     * Turns off the collection of the quantile sketch
+     *
+     */
+    public final void turnOffQuantileSketch() {
+        myWithinRepSketch = null;
+        myAcrossRepSketch = null;
+        mySketchProbabilities = null;
+        myAcrossRepQuantileStats = null;
+    }
+
+    /**
+     * The within replication quantile sketch, or null if the sketch has
+     * not been turned on
+     *
+     * @return the sketch or null
+     */
+    public final QuantileSketch getWithinReplicationQuantileSketch() {
+        return myWithinRepSketch;
+    }
+
+    /**
+     * The quantile sketch over the observations of all completed replications, or null
+     * if the sketch has not been turned on. Sketches from parallel runs of the same
+     * experiment can be combined with QuantileSketch.merge()
+     *
+     * @return the sketch or null
+     */
+    public final QuantileSketch getAcrossReplicationQuantileSketch() {
+        return myAcrossRepSketch;
+    }
+
+    /**
+     * The across replication statistics of the within replication quantiles in the
+     * order of the probabilities supplied when the sketch was turned on, e.g. the
+     * statistics on the 0.99 quantile of each replication
+     *
+     * @return the statistics, empty if the sketch has not been turned on
+     */
+    public final List<StatisticAccessorIfc> getAcrossReplicationQuantileStatistics() {
+        List<StatisticAccessorIfc> list = new ArrayList<>();
+        if (myAcrossRepQuantileStats != null) {
+            list.addAll(Arrays.asList(myAcrossRepQuantileStats));
+        }
+        return list;
+    }
+
     /**
      * If the time interval collection is turned on a ResponseVariable is
      * created for capturing statistics across the intervals. This returns this
@@ -327,6 +442,36 @@ public class ResponseVariable extends Variable implements
         myWithinRepStats.reset();
     }
 
+    /**
+     * Sets the within replication statistics to the state of the supplied
+     * statistics. This is used to replay a replication that was executed by
+     * another instance of the model, e.g. by a ParallelSimulation worker, so that
+     * the after replication actions see the results of that replication.
+     *
+     * @param stat the within replication statistics of the replication, must not be null
+     */
+    public final void replayWithinReplicationStatistic(WeightedStatisticIfc stat) {
+        myWithinRepStats.copyState(stat);
+    }
+
+    /**
+     * Sets the within replication quantile sketch to hold the observations of the
+     * supplied sketch. This is used to replay a replication that was executed by
+     * another instance of the model. The state of the supplied sketch is copied exactly.
+     * Does nothing if the sketch has not been turned on.
+     *
+     * @param sketch the within replication sketch of the replication, may be null
+     */
+    public final void replayWithinReplicationQuantileSketch(QuantileSketch sketch) {
+        if (myWithinRepSketch != null) {
+            if (sketch != null) {
+                myWithinRepSketch.copyState(sketch);
+            } else {
+                myWithinRepSketch.reset();
+            }
+        }
+    }
+
     @Override
     protected void removedFromModel() {
         super.removedFromModel();
@@ -334,6 +479,7 @@ public class ResponseVariable extends Variable implements
         myAcrossRepStats = null;
         myWithinIntervalStats = null;
         myAcrossIntervalResponse = null;
+        turnOffQuantileSketch();
     }
 
     @Override
@@ -352,6 +498,9 @@ public class ResponseVariable extends Variable implements
         if (myWithinIntervalStats != null) {
             myWithinIntervalStats.collect(getValue(), getWeight());
         }
+        if (myWithinRepSketch != null) {
+            myWithinRepSketch.collect(getValue(), getWeight());
+        }
     }
 
     @Override
@@ -400,6 +549,13 @@ public class ResponseVariable extends Variable implements
         if (myWithinIntervalStats != null) {
             myWithinIntervalStats.reset();
         }
+        if (myWithinRepSketch != null) {
+            myWithinRepSketch.reset();
+            myAcrossRepSketch.reset();
+            for (Statistic s : myAcrossRepQuantileStats) {
+                s.reset();
+            }
+        }
         myLastUpdateTime = 0.0;
         myTimeOfWarmUp = 0.0;
     }
@@ -411,6 +567,9 @@ public class ResponseVariable extends Variable implements
         if (myWithinIntervalStats != null) {
             myWithinIntervalStats.reset();
         }
+        if (myWithinRepSketch != null) {
+            myWithinRepSketch.reset();
+        }
         myLastUpdateTime = 0.0;
         myTimeOfWarmUp = 0.0;
     }
@@ -420,6 +579,9 @@ public class ResponseVariable extends Variable implements
         super.warmUp();
         myTimeOfWarmUp = getTime();
         myWithinRepStats.reset();
+        if (myWithinRepSketch != null) {
+            myWithinRepSketch.reset();
+        }
     }
 
     @Override
@@ -434,6 +596,12 @@ public class ResponseVariable extends Variable implements
                 myAcrossRepStats.collect(myWithinRepStats.getAverage());
             }
         }
+        if ((myWithinRepSketch != null) && (myWithinRepSketch.getCount() > 0)) {
+            for (int i = 0; i < mySketchProbabilities.length; i++) {
+                myAcrossRepQuantileStats[i].collect(myWithinRepSketch.quantile(mySketchProbabilities[i]));
+            }
+            myAcrossRepSketch.merge(myWithinRepSketch);
+        }
     }
 
     /**
@@ -423,6 +423,7 @@ public class TWBatchingElement extends SchedulingElement {
     @Override
     protected void initialize() {
         myBatchEvent = scheduleEvent(myEventHandler, myTimeBtwBatches, myBatchEventPriority);
+        myBatchEvent.setRetainedFlag(true);
     }
 
     /**
@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package jsl.modeling.queue;
+
+import java.util.AbstractSequentialList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A doubly linked list whose links are held by the QObjects themselves. Because
+ * each QObject knows its neighbors, adding or removing at either end and removing
+ * a particular QObject take constant time, and contains() takes constant time
+ * because each QObject knows its queue. Access by index walks the list from the
+ * nearer end. Used by Queue to hold the items for the FIFO, LIFO, and RANDOM
+ * disciplines when the fast removal option is on.
+ *
+ * @param <T> the type of QObject held
+ */
+final class LinkedQObjectList<T extends QObject> extends AbstractSequentialList<T> {
+
+    private final Queue<?> myQueue;
+
+    private QObject myFirst;
+
+    private QObject myLast;
+
+    private int mySize;
+
+    /**
+     * @param queue the queue that the QObjects must be in to be held by this list
+     */
+    LinkedQObjectList(Queue<?> queue) {
+        myQueue = queue;
+    }
+
+    /**
+     * @param queue the queue that the QObjects must be in to be held by this list
+     * @param c     the elements to add, in iteration order
+     */
+    LinkedQObjectList(Queue<?> queue, Collection<? extends T> c) {
+        this(queue);
+        for (T e : c) {
+            linkBefore(e, null);
+        }
+    }
+
+    @Override
+    public boolean add(T e) {
+        linkBefore(e, null);
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!contains(o)) {
+            return false;
+        }
+        unlink((QObject) o);
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof QObject)) {
+            return false;
+        }
+        QObject qo = (QObject) o;
+        // a QObject is held by the list of its queue while it is in the queue
+        return (qo.getQueue() == myQueue) && ((qo == myFirst) || (qo.getPreviousQObject() != null));
+    }
+
+    @Override
+    public void clear() {
+        QObject x = myFirst;
+        while (x != null) {
+            QObject next = x.getNextQObject();
+            x.setPreviousQObject(null);
+            x.setNextQObject(null);
+            x = next;
+        }
+        myFirst = null;
+        myLast = null;
+        mySize = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return mySize;
+    }
+
+    @Override
+    public ListIterator<T> listIterator(int index) {
+        if ((index < 0) || (index > mySize)) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + mySize);
+        }
+        return new Itr(index);
+    }
+
+    private QObject node(int index) {
+        if (index < (mySize >> 1)) {
+            QObject x = myFirst;
+            for (int i = 0; i < index; i++) {
+                x = x.getNextQObject();
+            }
+            return x;
+        } else {
+            QObject x = myLast;
+            for (int i = mySize - 1; i > index; i--) {
+                x = x.getPreviousQObject();
+            }
+            return x;
+        }
+    }
+
+    /**
+     * @param e    the QObject to link
+     * @param succ the QObject to link in front of, null means at the end
+     */
+    private void linkBefore(QObject e, QObject succ) {
+        QObject pred = (succ == null) ? myLast : succ.getPreviousQObject();
+        e.setPreviousQObject(pred);
+        e.setNextQObject(succ);
+        if (pred == null) {
+            myFirst = e;
+        } else {
+            pred.setNextQObject(e);
+        }
+        if (succ == null) {
+            myLast = e;
+        } else {
+            succ.setPreviousQObject(e);
+        }
+        mySize++;
+        modCount++;
+    }
+
+    private void unlink(QObject e) {
+        QObject pred = e.getPreviousQObject();
+        QObject succ = e.getNextQObject();
+        if (pred == null) {
+            myFirst = succ;
+        } else {
+            pred.setNextQObject(succ);
+        }
+        if (succ == null) {
+            myLast = pred;
+        } else {
+            succ.setPreviousQObject(pred);
+        }
+        e.setPreviousQObject(null);
+        e.setNextQObject(null);
+        mySize--;
+        modCount++;
+    }
+
+    private class Itr implements ListIterator<T> {
+
+        private QObject myNext;
+
+        private QObject myLastReturned;
+
+        private int myNextIndex;
+
+        private int myExpectedModCount = modCount;
+
+        Itr(int index) {
+            myNext = (index == mySize) ? null : node(index);
+            myNextIndex = index;
+        }
+
+        private void checkForComodification() {
+            if (modCount != myExpectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return myNextIndex < mySize;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            checkForComodification();
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            myLastReturned = myNext;
+            myNext = myNext.getNextQObject();
+            myNextIndex++;
+            return (T) myLastReturned;
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return myNextIndex > 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T previous() {
+            checkForComodification();
+            if (!hasPrevious()) {
+                throw new NoSuchElementException();
+            }
+            myNext = (myNext == null) ? myLast : myNext.getPreviousQObject();
+            myLastReturned = myNext;
+            myNextIndex--;
+            return (T) myLastReturned;
+        }
+
+        @Override
+        public int nextIndex() {
+            return myNextIndex;
+        }
+
+        @Override
+        public int previousIndex() {
+            return myNextIndex - 1;
+        }
+
+        @Override
+        public void remove() {
+            checkForComodification();
+            if (myLastReturned == null) {
+                throw new IllegalStateException();
+            }
+            QObject lastNext = myLastReturned.getNextQObject();
+            unlink(myLastReturned);
+            if (myNext == myLastReturned) {
+                myNext = lastNext;
+            } else {
+                myNextIndex--;
+            }
+            myLastReturned = null;
+            myExpectedModCount++;
+        }
+
+        @Override
+        public void set(T e) {
+            throw new UnsupportedOperationException("The elements of a queue cannot be replaced");
+        }
+
+        @Override
+        public void add(T e) {
+            checkForComodification();
+            myLastReturned = null;
+            linkBefore(e, myNext);
+            myNextIndex++;
+            myExpectedModCount++;
+        }
+    }
+}
@@ -22,6 +22,7 @@ import jsl.simulation.StateAccessorIfc;
 import jsl.utilities.GetValueIfc;
 
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * QObject can be used as a base class for objects that need to be placed in
@@ -34,9 +35,9 @@ public class QObject implements GetNameIfc, Comparable<QObject> {
 
     /**
      * incremented to give a running total of the number of model QObject
-     * created
+     * created. Atomic because models may be built and run concurrently
      */
-    private static long myCounter_;
+    private static final AtomicLong myCounter_ = new AtomicLong();
 
     /**
      * The id of the QObject, currently if the QObject is the ith QObject
@@ -69,6 +70,19 @@ public class QObject implements GetNameIfc, Comparable<QObject> {
      */
     private Queue myQueue;
 
+    /**
+     * The position of the QObject within the data structure of its queue, if
+     * the queue keeps track of positions, -1 otherwise
+     */
+    private int myQueueIndex = -1;
+
+    /**
+     * The QObjects before and after this QObject, if its queue links
+     * its items together, null otherwise
+     */
+    private QObject myPreviousQObject;
+    private QObject myNextQObject;
+
     /**
      * A reference to an object that can be attached to the QObject when queued
      */
@@ -276,8 +290,7 @@ public class QObject implements GetNameIfc, Comparable<QObject> {
         if (time < 0){
             throw new IllegalArgumentException("The creation time must be > 0.0");
         }
-        myCounter_ = myCounter_ + 1;
-        myId = myCounter_;
+        myId = myCounter_.incrementAndGet();
         setName(name);
         myPriority = 1;
         setQueue(null);
@@ -376,6 +389,48 @@ public class QObject implements GetNameIfc, Comparable<QObject> {
         myQueue = queue;
     }
 
+    /**
+     * @return the position of the QObject within the data structure of its queue
+     */
+    final int getQueueIndex() {
+        return myQueueIndex;
+    }
+
+    /**
+     * @param index the position of the QObject within the data structure of its queue
+     */
+    final void setQueueIndex(int index) {
+        myQueueIndex = index;
+    }
+
+    /**
+     * @return the QObject before this QObject in its queue, if linked
+     */
+    final QObject getPreviousQObject() {
+        return myPreviousQObject;
+    }
+
+    /**
+     * @param qObject the QObject before this QObject in its queue
+     */
+    final void setPreviousQObject(QObject qObject) {
+        myPreviousQObject = qObject;
+    }
+
+    /**
+     * @return the QObject after this QObject in its queue, if linked
+     */
+    final QObject getNextQObject() {
+        return myNextQObject;
+    }
+
+    /**
+     * @param qObject the QObject after this QObject in its queue
+     */
+    final void setNextQObject(QObject qObject) {
+        myNextQObject = qObject;
+    }
+
     /**
      * Sets an object that can be attached to the QObject
      *
@@ -18,7 +18,6 @@ package jsl.modeling.queue;
 import jsl.simulation.ModelElement;
 import jsl.modeling.elements.RandomElementIfc;
 import jsl.utilities.random.rng.RNStreamIfc;
-import jsl.utilities.random.rvariable.JSLRandom;
 
 import java.util.*;
 import java.util.function.Predicate;
@@ -33,8 +32,19 @@ import java.util.function.Predicate;
  * last-in, last-out behavior. RankedDiscipline ensures that each new element is
  * added such that the priority is maintained from smallest first to largest
  * priority last using the compareTo method of the QObject. Ties in priority
- * give preference to time of creation, then to order of creation.
+ * give preference to time of entering the queue, then to order of creation.
  * RandomDiscipline causes the elements to be randomly selected (uniformly).
+ * <p>
+ * The FIFO, LIFO, and RANDOM disciplines hold the elements in a circular array.
+ * The RANKED discipline holds the elements in a binary heap, so that adding,
+ * removing the next element, changing a priority, and removing a particular
+ * element take O(log n) time. For a ranked queue, access by index (other than
+ * the first) and iteration use a sorted copy of the heap that is only made when needed.
+ * If the fast removal option is on, the FIFO, LIFO, and RANDOM disciplines instead
+ * link the elements together through the QObjects, so that removing a particular
+ * element takes constant time, at the cost of access by index taking O(n) time.
+ * For all disciplines, contains() takes constant time because each QObject knows
+ * the queue that it is in.
  *
  * @param <T> queues must hold sub-types of QObject
  */
@@ -64,6 +74,11 @@ public class Queue<T extends QObject> extends ModelElement implements
      */
     protected List<T> myList;
 
+    /**
+     * An unmodifiable view of the items that follows myList when it is replaced
+     */
+    private final List<T> myUnmodifiableList = new UnmodifiableListView();
+
     /**
      * The current QueueDiscipline for this Queue.
      */
@@ -76,6 +91,12 @@ public class Queue<T extends QObject> extends ModelElement implements
     private QueueDiscipline myInitialDiscipline;
     protected Discipline myInitDiscipline;
 
+    /**
+     * Indicates whether the FIFO, LIFO, and RANDOM disciplines link the
+     * elements together to allow constant time removal of any element
+     */
+    private boolean myFastRemovalOption = false;
+
     /**
      * Holds the listeners for this queue's enqueue and removeNext method use
      */
@@ -144,9 +165,10 @@ public class Queue<T extends QObject> extends ModelElement implements
      */
     public Queue(ModelElement parent, String name, Discipline discipline, boolean statOption) {
         super(parent, name);
-        myList = new LinkedList<>();
+        myList = new RingBufferList<>();
         setInitialDiscipline(discipline);
         myDiscipline = myInitialDiscipline;
+        myDiscipline.switchDiscipline();
         myCurDiscipline = discipline;
         if (statOption) {
             myResponses = new QueueResponse<>(this);
@@ -271,10 +293,34 @@ public class Queue<T extends QObject> extends ModelElement implements
 
     /**
      *
-     * @return a unmodifiable view of the underlying list for the Queue
+     * @return a unmodifiable view of the underlying list for the Queue, the view
+     * remains current when the discipline is changed
      */
     public final List<T> getUnmodifiableList() {
-        return Collections.unmodifiableList(myList);
+        return myUnmodifiableList;
+    }
+
+    /**
+     * If true, the FIFO, LIFO, and RANDOM disciplines link the elements together
+     * through the QObjects, so that remove(T) takes constant time, which is useful
+     * when items renege or jockey from long queues. Access by index, e.g.
+     * peekAt(), takes O(n) time when the option is on. The RANKED discipline
+     * is not affected. The ordering of the queue and its statistics do not
+     * depend on this option.
+     *
+     * @param flag true means link the elements together, false means hold them in
+     *             a circular array, the default
+     */
+    public final void setFastRemovalOption(boolean flag) {
+        myFastRemovalOption = flag;
+        myDiscipline.switchDiscipline();
+    }
+
+    /**
+     * @return true if the fast removal option is on
+     */
+    public final boolean getFastRemovalOption() {
+        return myFastRemovalOption;
     }
 
     /**
@@ -507,7 +553,7 @@ public class Queue<T extends QObject> extends ModelElement implements
         if (qObj == null) {
             throw new IllegalArgumentException("The QObject qObj must be non-null");
         }
-        return (myList.contains(qObj));
+        return (qObj.getQueue() == this);
     }
 
     /**
@@ -684,7 +730,7 @@ public class Queue<T extends QObject> extends ModelElement implements
             throw new IllegalArgumentException("The QObject qObj must be non-null");
         }
 
-        if (myList.remove(qObj)) {
+        if ((qObj.getQueue() == this) && myList.remove(qObj)) {
             if (waitStats) {
                 myStatus = Status.DEQUEUED;
             } else {
@@ -1017,6 +1063,53 @@ public class Queue<T extends QObject> extends ModelElement implements
         return myDiscipline.getRandomness();
     }
 
+    /**
+     * Delegates to the current list of items, so that the view is not left holding
+     * the old list when the list is replaced by a change of discipline
+     */
+    private class UnmodifiableListView extends AbstractList<T> {
+
+        @Override
+        public T get(int index) {
+            return myList.get(index);
+        }
+
+        @Override
+        public int size() {
+            return myList.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return myList.isEmpty();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return myList.contains(o);
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            return myList.indexOf(o);
+        }
+
+        @Override
+        public int lastIndexOf(Object o) {
+            return myList.lastIndexOf(o);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return Collections.unmodifiableList(myList).iterator();
+        }
+
+        @Override
+        public ListIterator<T> listIterator(int index) {
+            return Collections.unmodifiableList(myList).listIterator(index);
+        }
+    }
+
     private class QueueListIterator implements ListIterator<T> {
 
         protected ListIterator<T> myIterator;
@@ -1104,8 +1197,17 @@ public class Queue<T extends QObject> extends ModelElement implements
          * ensure that the underlying queue is in a state that allows it to be
          * managed by this queue discipline
          * <p>
+         * By default, the items are held in a circular array, or
+         * in a linked list if the fast removal option is on
          */
         protected void switchDiscipline() {
+            if (getFastRemovalOption()) {
+                if (!(myList instanceof LinkedQObjectList)) {
+                    myList = new LinkedQObjectList<>(Queue.this, myList);
+                }
+            } else if (!(myList instanceof RingBufferList)) {
+                myList = new RingBufferList<>(myList);
+            }
         }
 
         /**
@@ -1183,64 +1285,46 @@ public class Queue<T extends QObject> extends ModelElement implements
 
     private class RankedDiscipline extends QueueDiscipline {
 
+        private RankedHeapList<T> myHeap;
+
         @Override
         protected void add(T qObject) {
-
-            // nothing in queue, just add it, and return
-            if (myList.isEmpty()) {
-                myList.add(qObject);
-                return;
-            }
-
-            // might as well check for worse case, if larger than the largest then put it at the end and return
-            if (qObject.compareTo(myList.get(myList.size() - 1)) >= 0) {
-                myList.add(qObject);
-                return;
-            }
-
-            // now iterate through the list
-            for (ListIterator<T> i = myList.listIterator(); i.hasNext();) {
-                if (qObject.compareTo(i.next()) < 0) {
-                    // next() move the iterator forward, if it is < what was returned by next(), then it
-                    // must be inserted at the previous index
-                    myList.add(i.previousIndex(), qObject);
-                    return;
-                }
-            }
-
+            myHeap.add(qObject);
         }
 
         @Override
         protected T peekNext() {
-            if (myList.isEmpty()) {
+            if (myHeap.isEmpty()) {
                 return null;
             }
-            return myList.get(0);
+            return myHeap.get(0);
         }
 
         @Override
         protected T removeNext() {
-            if (myList.isEmpty()) {
+            if (myHeap.isEmpty()) {
                 return null;
             }
-            return myList.remove(0);
+            return myHeap.remove(0);
         }
 
         /**
          * Since regardless of the former queue discipline, the ranked queue
          * discipline must ensure that the underlying queue is in a ranked state
-         * after the change over.
+         * after the change over. The heap is always rebuilt because priorities
+         * may have changed under the former discipline.
          * <p>
          */
         @Override
         protected void switchDiscipline() {
-            Collections.sort(myList);
+            myHeap = new RankedHeapList<>(myList);
+            myList = myHeap;
         }
 
         @Override
         protected void changePriority(QObject qObject, int priority) {
             super.changePriority(qObject, priority);
-            Collections.sort(myList);
+            myHeap.update(qObject);
         }
 
     }
@@ -1250,7 +1334,7 @@ public class Queue<T extends QObject> extends ModelElement implements
         private boolean myResetStartStreamOption = true;
         private boolean myResetNextSubStreamOption = true;
         private int myNext;
-        private RNStreamIfc myStream = JSLRandom.nextRNStream();
+        private RNStreamIfc myStream = getModel().getRNStreamProvider().nextRNStream();
 
         @Override
         protected void add(T qObject) {
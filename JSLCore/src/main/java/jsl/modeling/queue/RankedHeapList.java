@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package jsl.modeling.queue;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A list whose elements are held in a binary heap ordered by QObject.compareTo().
+ * The first element (index 0) is the smallest. Adding, removing, and changing the
+ * priority of an element take O(log n) time and contains() takes constant time
+ * because each QObject records its position within the heap. Access to any other
+ * index, and iteration, uses a sorted copy of the heap that is made only when needed.
+ * Used by Queue to hold the items for the RANKED discipline.
+ *
+ * @param <T> the type of QObject held
+ */
+final class RankedHeapList<T extends QObject> extends AbstractList<T> {
+
+    private QObject[] myHeap;
+
+    private int mySize;
+
+    /**
+     * A sorted copy of the heap, null if it needs to be remade
+     */
+    private QObject[] mySorted;
+
+    RankedHeapList() {
+        myHeap = new QObject[16];
+    }
+
+    /**
+     * @param c the elements to add
+     */
+    RankedHeapList(Collection<? extends T> c) {
+        myHeap = new QObject[Math.max(16, c.size())];
+        for (T e : c) {
+            e.setQueueIndex(mySize);
+            myHeap[mySize++] = e;
+        }
+        for (int i = (mySize >>> 1) - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    @Override
+    public boolean add(T e) {
+        if (mySize == myHeap.length) {
+            myHeap = Arrays.copyOf(myHeap, mySize * 2);
+        }
+        e.setQueueIndex(mySize);
+        myHeap[mySize] = e;
+        siftUp(mySize);
+        mySize++;
+        mySorted = null;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void add(int index, T element) {
+        throw new UnsupportedOperationException("Elements of a ranked queue are placed by priority");
+    }
+
+    @Override
+    public T set(int index, T element) {
+        throw new UnsupportedOperationException("Elements of a ranked queue are placed by priority");
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        checkIndex(index);
+        if (index == 0) {
+            return (T) myHeap[0];
+        }
+        return (T) sorted()[index];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T remove(int index) {
+        checkIndex(index);
+        QObject e = (index == 0) ? myHeap[0] : sorted()[index];
+        removeAt(e.getQueueIndex());
+        return (T) e;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int i = heapIndexOf(o);
+        if (i < 0) {
+            return false;
+        }
+        removeAt(i);
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return heapIndexOf(o) >= 0;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        int i = heapIndexOf(o);
+        if (i < 0) {
+            return -1;
+        }
+        if (i == 0) {
+            return 0;
+        }
+        return Arrays.binarySearch(sorted(), 0, mySize, (QObject) o);
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < mySize; i++) {
+            myHeap[i].setQueueIndex(-1);
+            myHeap[i] = null;
+        }
+        mySize = 0;
+        mySorted = null;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return mySize;
+    }
+
+    /**
+     * Restores the ordering after the priority of the element was changed
+     *
+     * @param qObject the element whose priority changed
+     */
+    void update(QObject qObject) {
+        int i = heapIndexOf(qObject);
+        if (i < 0) {
+            return;
+        }
+        siftUp(i);
+        siftDown(qObject.getQueueIndex());
+        mySorted = null;
+        modCount++;
+    }
+
+    private void checkIndex(int index) {
+        if ((index < 0) || (index >= mySize)) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + mySize);
+        }
+    }
+
+    private int heapIndexOf(Object o) {
+        if (!(o instanceof QObject)) {
+            return -1;
+        }
+        int i = ((QObject) o).getQueueIndex();
+        if ((i >= 0) && (i < mySize) && (myHeap[i] == o)) {
+            return i;
+        }
+        return -1;
+    }
+
+    private QObject[] sorted() {
+        if (mySorted == null) {
+            mySorted = Arrays.copyOf(myHeap, mySize);
+            Arrays.sort(mySorted);
+        }
+        return mySorted;
+    }
+
+    private void removeAt(int i) {
+        QObject e = myHeap[i];
+        int last = mySize - 1;
+        if (i != last) {
+            QObject moved = myHeap[last];
+            myHeap[i] = moved;
+            moved.setQueueIndex(i);
+            myHeap[last] = null;
+            mySize--;
+            siftDown(i);
+            if (myHeap[i] == moved) {
+                siftUp(i);
+            }
+        } else {
+            myHeap[last] = null;
+            mySize--;
+        }
+        e.setQueueIndex(-1);
+        mySorted = null;
+        modCount++;
+    }
+
+    private void siftUp(int i) {
+        QObject e = myHeap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            QObject p = myHeap[parent];
+            if (e.compareTo(p) >= 0) {
+                break;
+            }
+            myHeap[i] = p;
+            p.setQueueIndex(i);
+            i = parent;
+        }
+        myHeap[i] = e;
+        e.setQueueIndex(i);
+    }
+
+    private void siftDown(int i) {
+        QObject e = myHeap[i];
+        int half = mySize >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if ((right < mySize) && (myHeap[right].compareTo(myHeap[child]) < 0)) {
+                child = right;
+            }
+            if (e.compareTo(myHeap[child]) <= 0) {
+                break;
+            }
+            myHeap[i] = myHeap[child];
+            myHeap[i].setQueueIndex(i);
+            i = child;
+        }
+        myHeap[i] = e;
+        e.setQueueIndex(i);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package jsl.modeling.queue;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * A list backed by a circular array. Adding or removing at either end takes
+ * constant time and access by index takes constant time. Adding or removing in
+ * the middle shifts the elements on the shorter side. Used by Queue to hold the
+ * items for the FIFO, LIFO, and RANDOM disciplines.
+ *
+ * @param <E> the type of element held
+ */
+final class RingBufferList<E> extends AbstractList<E> implements RandomAccess {
+
+    private Object[] myElements;
+
+    private int myHead;
+
+    private int mySize;
+
+    RingBufferList() {
+        myElements = new Object[16];
+    }
+
+    /**
+     * @param c the elements to add, in iteration order
+     */
+    RingBufferList(Collection<? extends E> c) {
+        this();
+        addAll(c);
+    }
+
+    private int physical(int index) {
+        return (myHead + index) & (myElements.length - 1);
+    }
+
+    private void checkIndex(int index, int bound) {
+        if ((index < 0) || (index >= bound)) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + mySize);
+        }
+    }
+
+    private void ensureCapacity() {
+        if (mySize < myElements.length) {
+            return;
+        }
+        Object[] a = new Object[myElements.length * 2];
+        for (int i = 0; i < mySize; i++) {
+            a[i] = myElements[physical(i)];
+        }
+        myElements = a;
+        myHead = 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        checkIndex(index, mySize);
+        return (E) myElements[physical(index)];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E set(int index, E element) {
+        checkIndex(index, mySize);
+        int p = physical(index);
+        E old = (E) myElements[p];
+        myElements[p] = element;
+        return old;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        checkIndex(index, mySize + 1);
+        ensureCapacity();
+        if (index < mySize / 2) {
+            // shift the front elements toward the front
+            myHead = (myHead - 1) & (myElements.length - 1);
+            for (int k = 0; k < index; k++) {
+                myElements[physical(k)] = myElements[physical(k + 1)];
+            }
+        } else {
+            // shift the back elements toward the back
+            for (int k = mySize; k > index; k--) {
+                myElements[physical(k)] = myElements[physical(k - 1)];
+            }
+        }
+        myElements[physical(index)] = element;
+        mySize++;
+        modCount++;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(int index) {
+        checkIndex(index, mySize);
+        E e = (E) myElements[physical(index)];
+        if (index < mySize / 2) {
+            for (int k = index; k > 0; k--) {
+                myElements[physical(k)] = myElements[physical(k - 1)];
+            }
+            myElements[myHead] = null;
+            myHead = (myHead + 1) & (myElements.length - 1);
+        } else {
+            for (int k = index; k < mySize - 1; k++) {
+                myElements[physical(k)] = myElements[physical(k + 1)];
+            }
+            myElements[physical(mySize - 1)] = null;
+        }
+        mySize--;
+        modCount++;
+        return e;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < mySize; i++) {
+            myElements[physical(i)] = null;
+        }
+        myHead = 0;
+        mySize = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return mySize;
+    }
+}
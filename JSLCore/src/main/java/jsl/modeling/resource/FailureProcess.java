@@ -496,6 +496,7 @@ abstract public class FailureProcess extends SchedulingElement {
      */
     protected final void scheduleStartOfProcess(double time) {
         myStartEvent = schedule(this::startEvent).havingPriority(getPriority()).in(time).units();
+        myStartEvent.setRetainedFlag(true);
     }
 
     private void startEvent(JSLEvent event) {
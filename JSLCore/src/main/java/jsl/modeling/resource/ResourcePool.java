@@ -47,6 +47,12 @@ import java.util.*;
  * unitFailed(), unitBecameInactive() in order to react to state
  * changes on individual resource units.
  *
+ * The pool indexes its units by state as they notify it of state changes so
+ * that the number of idle, busy, failed, and inactive units are available
+ * without scanning the units, and idle units can be selected in pool order,
+ * cyclically, by longest idle, or by least utilized.
+ * See ResourceUnitSelectionRules.
+ *
  * The utilization of the pool is defined as the average number busy divided by
  * the average number active. The average number active is the number of units
  * minus the average number of inactive units and average number of failed units.
@@ -69,6 +75,44 @@ public class ResourcePool extends ModelElement implements RandomElementIfc {
     protected boolean myResetNextSubStreamOption;
     protected final ResponseVariable myUtilization;
 
+    private static final int IDLE = 0;
+    private static final int BUSY = 1;
+    private static final int FAILED = 2;
+    private static final int INACTIVE = 3;
+    private static final int OTHER = 4;
+
+    /**
+     * The index entry of each unit, by unit
+     */
+    private final Map<ResourceUnit, UnitIndex> myUnitIndex;
+
+    /**
+     * The number of units in each of the states
+     */
+    private final int[] myStateCounts;
+
+    /**
+     * The positions (within myResources) of the currently idle units
+     */
+    private final BitSet myIdlePositions;
+
+    /**
+     * Idle units ordered by the time that they entered the idle state,
+     * created on first use
+     */
+    private TreeSet<UnitIndex> myLongestIdle;
+
+    /**
+     * Idle units ordered by their total time busy, created on first use
+     */
+    private TreeSet<UnitIndex> myLeastUtilized;
+
+    /**
+     * Indicates that the idle orderings need to be rebuilt because
+     * the state collection of the units has been reset
+     */
+    private boolean myIdleOrderingsStale;
+
     /**
      * Statistics option is false by default
      *
@@ -114,7 +158,10 @@ public class ResourcePool extends ModelElement implements RandomElementIfc {
                         boolean statOption, String name) {
         super(parent, name);
         myRUObserver = new ResourceUnitObserver();
-        myResources = new LinkedList<>();
+        myResources = new ArrayList<>();
+        myUnitIndex = new HashMap<>();
+        myStateCounts = new int[OTHER + 1];
+        myIdlePositions = new BitSet();
         addAll(units);
         myNumBusy = new TimeWeighted(this, getName() + ":NumBusy");
         myNumIdle = new TimeWeighted(this, getName() + ":NumIdle");
@@ -194,52 +241,28 @@ public class ResourcePool extends ModelElement implements RandomElementIfc {
      * @return the number of currently idle units
      */
     public final int getNumIdle() {
-        int n = 0;
-        for (ResourceUnit ru : myResources) {
-            if (ru.isIdle()) {
-                n++;
-            }
-        }
-        return n;
+        return myStateCounts[IDLE];
     }
 
     /**
      * @return the number of currently busy units
      */
     public final int getNumBusy() {
-        int n = 0;
-        for (ResourceUnit ru : myResources) {
-            if (ru.isBusy()) {
-                n++;
-            }
-        }
-        return n;
+        return myStateCounts[BUSY];
     }
 
     /**
      * @return the number of currently failed units
      */
     public final int getNumFailed() {
-        int n = 0;
-        for (ResourceUnit ru : myResources) {
-            if (ru.isFailed()) {
-                n++;
-            }
-        }
-        return n;
+        return myStateCounts[FAILED];
     }
 
     /**
      * @return the number of currently inactive units
      */
     public final int getNumInactive() {
-        int n = 0;
-        for (ResourceUnit ru : myResources) {
-            if (ru.isInactive()) {
-                n++;
-            }
-        }
-        return n;
+        return myStateCounts[INACTIVE];
     }
 
     /**
@@ -324,7 +347,7 @@ public class ResourcePool extends ModelElement implements RandomElementIfc {
      * @return true if in the pool
      */
     public final boolean contains(ResourceUnit unit) {
-        return myResources.contains(unit);
+        return myUnitIndex.containsKey(unit);
     }
 
     /**
@@ -373,11 +396,17 @@ public class ResourcePool extends ModelElement implements RandomElementIfc {
         if (unit == null) {
             throw new IllegalArgumentException("The resource unit was null!");
         }
-        if (myResources.contains(unit)) {
+        if (myUnitIndex.containsKey(unit)) {
             throw new IllegalArgumentException("The resource unit was already added!");
         }
+        UnitIndex index = new UnitIndex(unit, myResources.size());
+        myUnitIndex.put(unit, index);
+        myResources.add(unit);
+        index.myState = OTHER;
+        myStateCounts[OTHER]++;
+        updateIndex(index);
         unit.addObserver(myRUObserver);
-        return myResources.add(unit);
+        return true;
     }
 
     /**
@@ -403,14 +432,9 @@ public class ResourcePool extends ModelElement implements RandomElementIfc {
      */
     public ResourceUnit selectResourceUnit() {
         if (mySelectionRule != null) {
-            return mySelectionRule.selectAvailableResource(myResources);
-        }
-        for (ResourceUnit ru : myResources) {
-            if (ru.isIdle()) {
-                return ru;
-            }
+            return mySelectionRule.selectAvailableResource(this);
         }
-        return null;
+        return findFirstIdle();
     }
 
     /**
@@ -436,7 +460,7 @@ public class ResourcePool extends ModelElement implements RandomElementIfc {
     @Override
     public RNStreamIfc getRandomNumberStream() {
         if (myRNG == null) {
-            myRNG = JSLRandom.nextRNStream();
+            myRNG = getModel().getRNStreamProvider().nextRNStream();
         }
         return myRNG;
     }
@@ -451,11 +475,9 @@ public class ResourcePool extends ModelElement implements RandomElementIfc {
      * @return returns a list of idle resource units. It may be empty
      */
     public List<ResourceUnit> findIdleResourceUnits() {
-        List<ResourceUnit> list = new ArrayList<>();
-        for (ResourceUnit ru : myResources) {
-            if (ru.isIdle()) {
-                list.add(ru);
-            }
+        List<ResourceUnit> list = new ArrayList<>(getNumIdle());
+        for (int i = myIdlePositions.nextSetBit(0); i >= 0; i = myIdlePositions.nextSetBit(i + 1)) {
+            list.add(myResources.get(i));
         }
         return list;
     }
@@ -464,12 +486,106 @@ public class ResourcePool extends ModelElement implements RandomElementIfc {
      * @return the first idle resource found or null
      */
     public ResourceUnit findFirstIdle() {
-        for (ResourceUnit ru : myResources) {
-            if (ru.isIdle()) {
-                return ru;
-            }
+        int i = myIdlePositions.nextSetBit(0);
+        if (i < 0) {
+            return null;
+        }
+        return myResources.get(i);
+    }
+
+    /**
+     * Finds the first idle unit that follows the supplied unit in the order
+     * of the pool, wrapping around to the start of the pool. The supplied
+     * unit is returned only if it is the only idle unit.
+     *
+     * @param unit the unit to search after, if null or not in the pool the
+     *             search starts at the beginning of the pool
+     * @return the next idle resource or null
+     */
+    public final ResourceUnit findNextIdle(ResourceUnit unit) {
+        UnitIndex index = (unit == null) ? null : myUnitIndex.get(unit);
+        int i = findNextIdlePosition((index == null) ? -1 : index.myPosition);
+        return (i < 0) ? null : myResources.get(i);
+    }
+
+    /**
+     * @param position the position in the pool to search after, -1 to start
+     *                 at the beginning of the pool
+     * @return the position of the next idle unit, wrapping around to the start
+     * of the pool, or -1 if no unit is idle
+     */
+    final int findNextIdlePosition(int position) {
+        int i = myIdlePositions.nextSetBit(position + 1);
+        if (i < 0) {
+            i = myIdlePositions.nextSetBit(0);
+        }
+        return i;
+    }
+
+    /**
+     * Finds the idle unit that has been idle the longest, that is, the idle
+     * unit with the earliest time of entering the idle state. Ties are broken
+     * by the order of the pool.
+     *
+     * @return the longest idle resource or null
+     */
+    public final ResourceUnit findLongestIdle() {
+        if (getNumIdle() == 0) {
+            return null;
+        }
+        if (myLongestIdle == null) {
+            myLongestIdle = new TreeSet<>(LONGEST_IDLE);
+            fillIdleOrdering(myLongestIdle);
+        }
+        checkIdleOrderings();
+        return myLongestIdle.first().myUnit;
+    }
+
+    /**
+     * Finds the idle unit that has been utilized the least, that is, the idle
+     * unit with the smallest total time busy. Ties are broken by the order of
+     * the pool.
+     *
+     * @return the least utilized idle resource or null
+     */
+    public final ResourceUnit findLeastUtilizedIdle() {
+        if (getNumIdle() == 0) {
+            return null;
+        }
+        if (myLeastUtilized == null) {
+            myLeastUtilized = new TreeSet<>(LEAST_UTILIZED);
+            fillIdleOrdering(myLeastUtilized);
+        }
+        checkIdleOrderings();
+        return myLeastUtilized.first().myUnit;
+    }
+
+    /**
+     * Rebuilds the idle orderings if the units have reset their state
+     * collection since the orderings were built
+     */
+    private void checkIdleOrderings() {
+        if (!myIdleOrderingsStale) {
+            return;
+        }
+        myIdleOrderingsStale = false;
+        for (int i = myIdlePositions.nextSetBit(0); i >= 0; i = myIdlePositions.nextSetBit(i + 1)) {
+            myUnitIndex.get(myResources.get(i)).captureIdleKeys();
+        }
+        if (myLongestIdle != null) {
+            myLongestIdle.clear();
+            fillIdleOrdering(myLongestIdle);
+        }
+        if (myLeastUtilized != null) {
+            myLeastUtilized.clear();
+            fillIdleOrdering(myLeastUtilized);
+        }
+    }
+
+    private void fillIdleOrdering(TreeSet<UnitIndex> ordering) {
+        for (int i = myIdlePositions.nextSetBit(0); i >= 0; i = myIdlePositions.nextSetBit(i + 1)) {
+            ordering.add(myUnitIndex.get(myResources.get(i)));
         }
-        return null;
     }
 
     @Override
@@ -568,6 +684,21 @@ public class ResourcePool extends ModelElement implements RandomElementIfc {
 
     }
 
+    @Override
+    protected void initialize() {
+        super.initialize();
+        if (mySelectionRule != null) {
+            mySelectionRule.resetSelections();
+        }
+    }
+
+    @Override
+    protected void warmUp() {
+        super.warmUp();
+        // the units reset their state times, the idle orderings are rebuilt on next use
+        myIdleOrderingsStale = true;
+    }
+
     /**
      * This method should be overridden by subclasses that need actions
      * performed when the replication ends and prior to the calling of
@@ -612,12 +743,94 @@ public class ResourcePool extends ModelElement implements RandomElementIfc {
         protected void update(ModelElement m, Object arg) {
             super.update(m, arg);
             ResourceUnit ru = (ResourceUnit) m;
+            UnitIndex index = myUnitIndex.get(ru);
+            if (index != null) {
+                updateIndex(index);
+            }
             collectStateStatistics(ru);
             resourceUnitChanged(ru);
         }
 
     }
 
+    /**
+     * Moves the unit's index entry to the partition for its current state
+     *
+     * @param index the index entry of the unit
+     */
+    private void updateIndex(UnitIndex index) {
+        ResourceUnit ru = index.myUnit;
+        int state;
+        if (ru.isIdle()) {
+            state = IDLE;
+        } else if (ru.isBusy()) {
+            state = BUSY;
+        } else if (ru.isFailed()) {
+            state = FAILED;
+        } else if (ru.isInactive()) {
+            state = INACTIVE;
+        } else {
+            state = OTHER;
+        }
+        if (index.myState == IDLE) {
+            // leaving idle, or re-entering idle with new keys
+            myIdlePositions.clear(index.myPosition);
+            if (myLongestIdle != null) {
+                myLongestIdle.remove(index);
+            }
+            if (myLeastUtilized != null) {
+                myLeastUtilized.remove(index);
+            }
+        }
+        myStateCounts[index.myState]--;
+        myStateCounts[state]++;
+        index.myState = state;
+        if (state == IDLE) {
+            index.captureIdleKeys();
+            myIdlePositions.set(index.myPosition);
+            if (myLongestIdle != null) {
+                myLongestIdle.add(index);
+            }
+            if (myLeastUtilized != null) {
+                myLeastUtilized.add(index);
+            }
+        }
+    }
+
+    /**
+     * The state of a unit as known by the pool, along with the keys used to
+     * order the unit while it is idle. The keys do not change while a unit
+     * is idle, so they are captured when the unit enters the idle state.
+     */
+    private static final class UnitIndex {
+
+        private final ResourceUnit myUnit;
+        private final int myPosition;
+        private int myState;
+        private double myTimeEnteredIdle;
+        private double myTotalTimeBusy;
+
+        UnitIndex(ResourceUnit unit, int position) {
+            myUnit = unit;
+            myPosition = position;
+        }
+
+        void captureIdleKeys() {
+            myTimeEnteredIdle = myUnit.getTimeEnteredIdle();
+            myTotalTimeBusy = myUnit.getTotalTimeBusy();
+        }
+    }
+
+    private static final Comparator<UnitIndex> LONGEST_IDLE = (u1, u2) -> {
+        int c = Double.compare(u1.myTimeEnteredIdle, u2.myTimeEnteredIdle);
+        return (c != 0) ? c : Integer.compare(u1.myPosition, u2.myPosition);
+    };
+
+    private static final Comparator<UnitIndex> LEAST_UTILIZED = (u1, u2) -> {
+        int c = Double.compare(u1.myTotalTimeBusy, u2.myTotalTimeBusy);
+        return (c != 0) ? c : Integer.compare(u1.myPosition, u2.myPosition);
+    };
+
     /**
      * Partials out unit changes to unitBecameIdle(), unitBecameBusy(),
      * unitFailed(), unitBecameInactive()
@@ -234,8 +234,10 @@ public class ResourceSingleFailureEvent extends SchedulingElement {
      */
     protected final void scheduleFailure(double time) {
         myStartEvent = schedule(this::startEvent).havingPriority(JSLEvent.DEFAULT_PRIORITY - 7).in(time).units();
+        myStartEvent.setRetainedFlag(true);
         double endTime = time + getDuration();
         myEndEvent = schedule(this::endEvent).havingPriority(JSLEvent.DEFAULT_PRIORITY + 1).in(endTime).units();
+        myEndEvent.setRetainedFlag(true);
     }
 
     /**
@@ -1252,6 +1252,7 @@ public class ResourceUnit extends SchedulingElement implements SeizeableIfc {
         myCurrentRequest.resume(getTime());
         double time = myCurrentRequest.getTimeRemaining() * myCurrentRequest.getTimeUnits();
         myCurrentRequestEvent = scheduleEvent(myEndRequestUsageAction, time);
+        myCurrentRequestEvent.setRetainedFlag(true);
     }
 
     /**
@@ -1359,6 +1360,7 @@ public class ResourceUnit extends SchedulingElement implements SeizeableIfc {
         setState(myFailedState);
         myCurrentDownTimeEvent = scheduleEvent(myEndDownTimeAction,
                 myCurrentFailureNotice.getDuration());
+        myCurrentDownTimeEvent.setRetainedFlag(true);
     }
 
     /**
@@ -1384,6 +1386,7 @@ public class ResourceUnit extends SchedulingElement implements SeizeableIfc {
         double time = myCurrentRequest.getTimeRemaining() * myCurrentRequest.getTimeUnits();
         if (Double.isFinite(time)) {
             myCurrentRequestEvent = scheduleEvent(myEndRequestUsageAction, time);
+            myCurrentRequestEvent.setRetainedFlag(true);
         }
     }
 
@@ -1393,6 +1396,7 @@ public class ResourceUnit extends SchedulingElement implements SeizeableIfc {
         setState(myInactiveState);
         myCurrentInactivePeriodEvent = scheduleEvent(myEndInactivePeriodAction,
                 myCurrentInactivePeriodNotice.getInactiveTime());
+        myCurrentInactivePeriodEvent.setRetainedFlag(true);
     }
 
     /**
@@ -1535,11 +1539,14 @@ public class ResourceUnit extends SchedulingElement implements SeizeableIfc {
      */
     protected void inactivateWhileInactive(InactivePeriodNotice notice) {
         myCurrentInactivePeriodNotice.cancel();
-        myCurrentInactivePeriodEvent.setCanceledFlag(true);
+        if (myCurrentInactivePeriodEvent.isScheduled()) {
+            cancelEvent(myCurrentInactivePeriodEvent);
+        }
         myCurrentInactivePeriodNotice = notice;
         myCurrentInactivePeriodNotice.activate();
         myCurrentInactivePeriodEvent = scheduleEvent(myEndInactivePeriodAction,
                 myCurrentInactivePeriodNotice.getInactiveTime());
+        myCurrentInactivePeriodEvent.setRetainedFlag(true);
     }
 
     /**
@@ -1603,8 +1610,8 @@ public class ResourceUnit extends SchedulingElement implements SeizeableIfc {
      */
     protected void preemptCancelableRequest() {
         myCurrentRequest.preempt(getTime());
-        if (myCurrentRequestEvent != null) {
-            myCurrentRequestEvent.setCanceledFlag(true);
+        if ((myCurrentRequestEvent != null) && myCurrentRequestEvent.isScheduled()) {
+            cancelEvent(myCurrentRequestEvent);
         }
         myCurrentRequestEvent = null;
         myCurrentRequest = null;
@@ -1619,8 +1626,8 @@ public class ResourceUnit extends SchedulingElement implements SeizeableIfc {
         myPreemptedRequest = myCurrentRequest;
         myCurrentRequest.preempt(getTime());
         // cancel the event of current request
-        if (myCurrentRequestEvent != null) {
-            myCurrentRequestEvent.setCanceledFlag(true);
+        if ((myCurrentRequestEvent != null) && myCurrentRequestEvent.isScheduled()) {
+            cancelEvent(myCurrentRequestEvent);
         }
         myCurrentRequestEvent = null;
         myCurrentRequest = null;
@@ -1793,8 +1800,8 @@ public class ResourceUnit extends SchedulingElement implements SeizeableIfc {
                         + "to release is not the current busy request of the resource.");
             }
             // must be current request, cancel the event
-            if (myCurrentRequestEvent != null) {
-                myCurrentRequestEvent.setCanceledFlag(true);
+            if ((myCurrentRequestEvent != null) && myCurrentRequestEvent.isScheduled()) {
+                cancelEvent(myCurrentRequestEvent);
             }
             // act like request was completed naturally
             completeRequest(request);
@@ -1811,8 +1818,8 @@ public class ResourceUnit extends SchedulingElement implements SeizeableIfc {
             } else {
 
                 // request is current request, cancel the event
-                if (myCurrentRequestEvent != null) {
-                    myCurrentRequestEvent.setCanceledFlag(true);
+                if ((myCurrentRequestEvent != null) && myCurrentRequestEvent.isScheduled()) {
+                    cancelEvent(myCurrentRequestEvent);
                 }
                 myCurrentRequestEvent = null;
                 myCurrentRequest = null;
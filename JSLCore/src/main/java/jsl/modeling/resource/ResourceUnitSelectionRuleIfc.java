@@ -32,4 +32,25 @@ public interface ResourceUnitSelectionRuleIfc {
      * @return the selected ResourceUnit or null
      */
     public ResourceUnit selectAvailableResource(List<ResourceUnit> list);
+
+    /**
+     * Selects an available resource from the pool. By default, the rule is
+     * applied to the pool's list of units. Rules that can make use of the
+     * pool's idle unit indexes (e.g. ResourcePool.findLongestIdle()) should
+     * override this method to avoid examining every unit in the pool.
+     *
+     * @param pool the pool to select from
+     * @return the selected ResourceUnit or null
+     */
+    default ResourceUnit selectAvailableResource(ResourcePool pool) {
+        return selectAvailableResource(pool.myResources);
+    }
+
+    /**
+     * Called by a ResourcePool when each replication is initialized. Rules that
+     * remember previous selections should forget them so that replications
+     * are independent. By default, does nothing.
+     */
+    default void resetSelections() {
+    }
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package jsl.modeling.resource;
+
+import java.util.List;
+
+/**
+ * Provides common rules for selecting an idle resource unit. When used by a
+ * ResourcePool, the rules select from the pool's idle unit indexes rather
+ * than examining every unit of the pool.
+ *
+ * @author rossetti
+ */
+public final class ResourceUnitSelectionRules {
+
+    private ResourceUnitSelectionRules() {
+    }
+
+    /**
+     * @return a rule that selects the idle unit with the least total time busy
+     */
+    public static ResourceUnitSelectionRuleIfc leastUtilized() {
+        return new LeastUtilized();
+    }
+
+    /**
+     * @return a rule that selects the idle unit that has been idle the longest
+     */
+    public static ResourceUnitSelectionRuleIfc longestIdle() {
+        return new LongestIdle();
+    }
+
+    /**
+     * The returned rule remembers the last unit that it selected and
+     * thus should not be shared by pools.
+     *
+     * @return a rule that selects idle units in turn, starting after the
+     * previously selected unit
+     */
+    public static ResourceUnitSelectionRuleIfc cyclic() {
+        return new Cyclic();
+    }
+
+    /**
+     * Selects the idle unit with the least total time busy, ties are broken
+     * by the order of the units
+     */
+    public static class LeastUtilized implements ResourceUnitSelectionRuleIfc {
+
+        @Override
+        public ResourceUnit selectAvailableResource(List<ResourceUnit> list) {
+            ResourceUnit selected = null;
+            for (ResourceUnit ru : list) {
+                if (ru.isIdle()) {
+                    if ((selected == null) || (ru.getTotalTimeBusy() < selected.getTotalTimeBusy())) {
+                        selected = ru;
+                    }
+                }
+            }
+            return selected;
+        }
+
+        @Override
+        public ResourceUnit selectAvailableResource(ResourcePool pool) {
+            return pool.findLeastUtilizedIdle();
+        }
+    }
+
+    /**
+     * Selects the idle unit with the earliest time of entering the idle
+     * state, ties are broken by the order of the units
+     */
+    public static class LongestIdle implements ResourceUnitSelectionRuleIfc {
+
+        @Override
+        public ResourceUnit selectAvailableResource(List<ResourceUnit> list) {
+            ResourceUnit selected = null;
+            for (ResourceUnit ru : list) {
+                if (ru.isIdle()) {
+                    if ((selected == null) || (ru.getTimeEnteredIdle() < selected.getTimeEnteredIdle())) {
+                        selected = ru;
+                    }
+                }
+            }
+            return selected;
+        }
+
+        @Override
+        public ResourceUnit selectAvailableResource(ResourcePool pool) {
+            return pool.findLongestIdle();
+        }
+    }
+
+    /**
+     * Selects the first idle unit that follows the previously selected unit,
+     * wrapping around to the start of the units
+     */
+    public static class Cyclic implements ResourceUnitSelectionRuleIfc {
+
+        /**
+         * The position of the previously selected unit, -1 if none
+         */
+        private int myLastPosition = -1;
+
+        @Override
+        public ResourceUnit selectAvailableResource(List<ResourceUnit> list) {
+            int n = list.size();
+            int start = (myLastPosition < n) ? myLastPosition : -1;
+            for (int k = 1; k <= n; k++) {
+                int i = (start + k) % n;
+                ResourceUnit ru = list.get(i);
+                if (ru.isIdle()) {
+                    myLastPosition = i;
+                    return ru;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public ResourceUnit selectAvailableResource(ResourcePool pool) {
+            int start = (myLastPosition < pool.getNumUnits()) ? myLastPosition : -1;
+            int i = pool.findNextIdlePosition(start);
+            if (i < 0) {
+                return null;
+            }
+            myLastPosition = i;
+            return pool.myResources.get(i);
+        }
+
+        @Override
+        public void resetSelections() {
+            myLastPosition = -1;
+        }
+    }
+}
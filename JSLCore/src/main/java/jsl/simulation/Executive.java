@@ -25,6 +25,7 @@ import jsl.observers.textfile.IPLogReport;
 import jsl.utilities.IdentityIfc;
 
 import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -49,6 +50,9 @@ import java.util.Optional;
  * been called. If the run() method is called without calling initialize() the
  * calendar and conditional actions are cleared.
  *
+ * To reduce the creation of events, the Executive can recycle events that have
+ * been executed. See setEventRecyclingOption().
+ *
  * If an ending event is not scheduled using the scheduleEndEvent() method and
  * no real clock time execution limit has been set, then a default message will
  * be sent to JSL.LOGGER.warning(). This message can be turned off by calling
@@ -182,6 +186,33 @@ public class Executive implements IdentityIfc, ObservableIfc, IterativeProcessIf
 
     private Simulation mySimulation;
 
+    /**
+     * When the recycling guard is on, recycled events are held for at least
+     * this many recycled events before being reused
+     */
+    private static final int RECYCLING_GUARD_DELAY = 1024;
+
+    /**
+     * A flag to indicate whether or not executed events are reused
+     */
+    private boolean myEventRecyclingOption = false;
+
+    /**
+     * A flag to indicate whether or not recycled events are held before reuse
+     * so that the use of references to recycled events can be detected
+     */
+    private boolean myEventRecyclingGuardOption = false;
+
+    /**
+     * Holds the events that can be reused
+     */
+    private final ArrayDeque<JSLEvent> myEventPool = new ArrayDeque<>();
+
+    /**
+     * A counter that tracks the number of scheduled events that were reused
+     */
+    private long myNumEventsReused;
+
     public Executive() {
         this(null, null);
     }
@@ -339,7 +370,9 @@ public class Executive implements IdentityIfc, ObservableIfc, IterativeProcessIf
      * originally scheduled event time. Then and only then does it become
      * unscheduled at which time the event can be rescheduled. If a client needs
      * to reschedule a canceled event prior to the originally scheduled event
-     * time, then just use scheduleEvent() to make a new event.
+     * time, then just use scheduleEvent() to make a new event. If the event
+     * calendar removes canceled events, e.g. IndexedHeapEventCalendar, then the
+     * event becomes unscheduled when it is canceled.
      *
      * @param <T> the type of the event message
      * @param event The event that needs rescheduling, cannot be null and cannot already be scheduled
@@ -348,6 +381,7 @@ public class Executive implements IdentityIfc, ObservableIfc, IterativeProcessIf
      */
     public final <T> void reschedule(JSLEvent<T> event, double time) {
         Objects.requireNonNull(event, "The supplied event was null");
+        event.checkRecycled();
         if (event.isScheduled()) {
             throw new IllegalArgumentException("Attempted to reschedule an already scheduled event.");
         }
@@ -374,8 +408,8 @@ public class Executive implements IdentityIfc, ObservableIfc, IterativeProcessIf
     public final <T> JSLEvent<T> scheduleEvent(EventActionIfc<T> listener,
             double time, int priority, T message, String name, ModelElement theElementScheduling) {
 
-        // create the event
-        JSLEvent<T> event = new JSLEvent<>();
+        // create the event, or reuse a recycled event
+        JSLEvent<T> event = newEvent();
 
         // prepare the event
         event.setName(name);
@@ -396,10 +430,39 @@ public class Executive implements IdentityIfc, ObservableIfc, IterativeProcessIf
      * @param e A reference to the event to be canceled.
      */
     public final void cancel(JSLEvent e) {
+        e.checkRecycled();
         if (!e.isScheduled()) {
             throw new IllegalArgumentException("Attempted to cancel an unscheduled event.");
         }
-        myEventCalendar.cancel(e);
+        if (myEventCalendar.remove(e)) {
+            // the calendar removed the event, thus it is no longer scheduled
+            e.setCanceledFlag(true);
+            e.setScheduledFlag(false);
+        } else {
+            myEventCalendar.cancel(e);
+        }
+    }
+
+    /**
+     * Changes the time of an already scheduled event. The event is removed from the
+     * event calendar and scheduled again at the new time, without creating a new event.
+     * This requires an event calendar that can remove events, e.g. IndexedHeapEventCalendar.
+     *
+     * @param <T> the type of the event message
+     * @param event The event that needs rescheduling, cannot be null and must be scheduled
+     * @param time represents the inter-event time, i.e. the interval from the
+     * current time to when the event will need to occur. Cannot be negative
+     */
+    public final <T> void rescheduleInPlace(JSLEvent<T> event, double time) {
+        Objects.requireNonNull(event, "The supplied event was null");
+        if (!event.isScheduled()) {
+            throw new IllegalArgumentException("Attempted to reschedule in place an unscheduled event.");
+        }
+        if (!myEventCalendar.remove(event)) {
+            throw new IllegalStateException("The event calendar does not support the removal of events.");
+        }
+        event.setScheduledFlag(false);
+        reschedule(event, time);
     }
 
     /**
@@ -524,7 +587,8 @@ public class Executive implements IdentityIfc, ObservableIfc, IterativeProcessIf
 
     /**
      * Returns a reference to the last executed event or null if no events have
-     * been executed or no more events
+     * been executed or no more events. If the event recycling option is on, the
+     * event may be recycled when the next event is executed.
      *
      * @return the last event executed
      */
@@ -532,6 +596,100 @@ public class Executive implements IdentityIfc, ObservableIfc, IterativeProcessIf
         return myLastExecutedEvent;
     }
 
+    /**
+     * Turns on or off the recycling of events. When on, events that have been
+     * executed, or removed from the calendar as canceled, are reused by
+     * scheduleEvent() rather than creating new events. Events whose retained
+     * flag is set are never reused. Thus, any reference to an event that is kept
+     * after the event has been scheduled must be to an event that has
+     * had setRetainedFlag(true) called. Turning the option off clears the recycled events.
+     *
+     * @param flag true means events will be recycled
+     */
+    public final void setEventRecyclingOption(boolean flag) {
+        myEventRecyclingOption = flag;
+        if (!flag) {
+            myEventPool.clear();
+        }
+    }
+
+    /**
+     * @return true if events are recycled
+     */
+    public final boolean getEventRecyclingOption() {
+        return myEventRecyclingOption;
+    }
+
+    /**
+     * Turns on or off the guard for event recycling. When on, recycled events
+     * are held for a while before being reused, and any attempt to cancel,
+     * reschedule, or change the canceled flag of a held event causes a JSLEventException.
+     * This helps to detect code that keeps references to events without setting their
+     * retained flag.
+     *
+     * @param flag true means the guard is on
+     */
+    public final void setEventRecyclingGuardOption(boolean flag) {
+        myEventRecyclingGuardOption = flag;
+    }
+
+    /**
+     * @return true if the guard for event recycling is on
+     */
+    public final boolean getEventRecyclingGuardOption() {
+        return myEventRecyclingGuardOption;
+    }
+
+    /**
+     * @return the number of scheduled events that were recycled events
+     */
+    public final long getNumberOfReusedEvents() {
+        return myNumEventsReused;
+    }
+
+    /**
+     * @return the number of recycled events available for reuse
+     */
+    public final int getNumberOfRecycledEvents() {
+        return myEventPool.size();
+    }
+
+    /**
+     * @param <T> the type of the event message
+     * @return a recycled event if one is available, otherwise a new event
+     */
+    @SuppressWarnings("unchecked")
+    private <T> JSLEvent<T> newEvent() {
+        int delay = myEventRecyclingGuardOption ? RECYCLING_GUARD_DELAY : 0;
+        if (myEventRecyclingOption && (myEventPool.size() > delay)) {
+            JSLEvent<T> event = myEventPool.pollFirst();
+            event.reuse();
+            myNumEventsReused = myNumEventsReused + 1;
+            return event;
+        }
+        return new JSLEvent<>();
+    }
+
+    /**
+     * Holds the event for reuse if recycling is on and the event is not
+     * scheduled or retained
+     *
+     * @param event the event, may be null
+     */
+    private void recycle(JSLEvent event) {
+        if (!myEventRecyclingOption || (event == null)) {
+            return;
+        }
+        if (event.isScheduled() || event.getRetainedFlag() || event.isRecycled()) {
+            return;
+        }
+        if (event == myLastExecutedEvent) {
+            myLastExecutedEvent = null;
+        }
+        event.recycle();
+        myEventPool.addLast(event);
+    }
+
     /**
      * Initialize the executive, making it ready to run events This clears any
      * events in the calendar and prepares for execution
@@ -773,12 +931,16 @@ public class Executive implements IdentityIfc, ObservableIfc, IterativeProcessIf
                     myCurrentTime = event.getTime();
                     myObserverState = BEFORE_EVENT;
                     notifyObservers(event);
+                    // the previously executed event is no longer needed
+                    recycle(myLastExecutedEvent);
                     event.execute();
                     myLastExecutedEvent = event;
                     myNumEventsExecuted = myNumEventsExecuted + 1;
                     myObserverState = AFTER_EVENT;
                     notifyObservers(event);
                     performCPhase();
+                } else {
+                    recycle(event);
                 }
             }
         } catch (RuntimeException e) {
@@ -878,6 +1040,7 @@ public class Executive implements IdentityIfc, ObservableIfc, IterativeProcessIf
         myEndEvent = scheduleEvent(new EndEventAction(), time,
                 JSLEvent.DEFAULT_END_REPLICATION_EVENT_PRIORITY, null,
                 "End Replication", theElement);
+        myEndEvent.setRetainedFlag(true);
         return myEndEvent;
     }
 
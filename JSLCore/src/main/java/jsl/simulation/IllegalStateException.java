@@ -40,4 +40,13 @@ public class IllegalStateException extends RuntimeException
     public IllegalStateException(String m){
         super(m);
     }
+
+    /**
+     *
+     * @param m the exception message
+     * @param cause the cause of the exception
+     */
+    public IllegalStateException(String m, Throwable cause){
+        super(m, cause);
+    }
 }
\ No newline at end of file
@@ -115,6 +115,19 @@ public class JSLEvent<T> implements Comparable<JSLEvent>, GetNameIfc {
      */
     private ModelElement myModelElement;
 
+    private int myCalendarIndex = -1;
+
+    /**
+     * Whether or not a reference to the event is kept after it is scheduled. A
+     * retained event is never recycled by the Executive.
+     */
+    private boolean myRetainedFlag;
+
+    /**
+     * Whether or not the event is currently held for reuse by the Executive
+     */
+    private boolean myRecycledFlag;
+
     /**
      * Constructs an instance of an event. This constructor has package scope
      * because only the Executive class can make events. The methods
@@ -218,6 +231,7 @@ public class JSLEvent<T> implements Comparable<JSLEvent>, GetNameIfc {
      *
      */
     public final void setCanceledFlag(boolean b) {
+        checkRecycled();
         myCancelledFlag = b;
     }
 
@@ -407,6 +421,26 @@ public class JSLEvent<T> implements Comparable<JSLEvent>, GetNameIfc {
         myPriority = p;
     }
 
+    /**
+     * The position of the event within the data structure of the event calendar.
+     * Used by calendars that support the removal of events, e.g. IndexedHeapEventCalendar.
+     *
+     * @return the index of the event in the calendar, or -1 if the calendar has not assigned one
+     */
+    public final int getCalendarIndex() {
+        return myCalendarIndex;
+    }
+
+    /**
+     * Sets the position of the event within the data structure of the event calendar.
+     * Should only be called by implementations of CalendarIfc.
+     *
+     * @param index the index of the event in the calendar, -1 means not in the calendar
+     */
+    public final void setCalendarIndex(int index) {
+        myCalendarIndex = index;
+    }
+
     /**
      * Called by the Executive class to cause the EventAction to have it's
      * action method invoked
@@ -476,4 +510,69 @@ public class JSLEvent<T> implements Comparable<JSLEvent>, GetNameIfc {
         }
 
     }
+
+    /**
+     * Indicates to the Executive that a reference to the event is kept after
+     * the event is scheduled, e.g. to cancel or reschedule the event. When the
+     * event recycling option of the Executive is on, events that are not retained
+     * are reused after they have been executed or removed as canceled.
+     *
+     * @param flag true means that the event will not be recycled
+     */
+    public final void setRetainedFlag(boolean flag) {
+        myRetainedFlag = flag;
+    }
+
+    /**
+     * @return true if the event will not be recycled by the Executive
+     */
+    public final boolean getRetainedFlag() {
+        return myRetainedFlag;
+    }
+
+    /**
+     * @return true if the event is being held for reuse by the Executive. Such
+     * an event must not be used.
+     */
+    public final boolean isRecycled() {
+        return myRecycledFlag;
+    }
+
+    /**
+     * Throws a JSLEventException if the event is being held for reuse, which indicates
+     * that a reference to the event was kept without setting its retained flag
+     */
+    final void checkRecycled() {
+        if (myRecycledFlag) {
+            throw new JSLEventException("Attempted to use a recycled event. Call setRetainedFlag(true) on events whose references are kept.");
+        }
+    }
+
+    /**
+     * Clears the state of the event so that it can be held for reuse, package
+     * scope because only the Executive recycles events
+     */
+    final void recycle() {
+        myMessage = null;
+        myAction = null;
+        myName = null;
+        myTime = 0.0;
+        myPriority = 0;
+        myId = 0;
+        myType = DEFAULT_TYPE;
+        myCancelledFlag = false;
+        myScheduledFlag = false;
+        myEntity = null;
+        myModelElement = null;
+        myCalendarIndex = -1;
+        myRecycledFlag = true;
+    }
+
+    /**
+     * Marks a recycled event as in use again, package scope because only the
+     * Executive reuses events
+     */
+    final void reuse() {
+        myRecycledFlag = false;
+    }
 }
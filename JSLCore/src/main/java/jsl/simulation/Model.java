@@ -21,6 +21,8 @@ import jsl.modeling.elements.entity.EntityType;
 import jsl.modeling.elements.spatial.SpatialModel;
 import jsl.modeling.elements.variable.*;
 import jsl.observers.ObserverIfc;
+import jsl.utilities.random.rng.RNStreamProviderIfc;
+import jsl.utilities.random.rvariable.JSLRandom;
 import jsl.utilities.random.rvariable.RVParameterSetter;
 import jsl.utilities.reporting.JSL;
 import jsl.utilities.statistic.StatisticAccessorIfc;
@@ -79,6 +81,12 @@ public class Model extends ModelElement {
      */
     private boolean myElementAddedAfterReplicationStartedWarningOption = true;
 
+    /**
+     * Indicates that the pre-order traversal labels of the model element hierarchy
+     * must be recomputed because elements were added or removed
+     */
+    private boolean myTraversalStaleFlag = true;
+
     /**
      * The simulation that is running the model
      *
@@ -102,6 +110,11 @@ public class Model extends ModelElement {
      */
     private RVParameterSetter myRVParameterSetter;
 
+    /**
+     * the stream provider for the model, if used
+     */
+    private RNStreamProviderIfc myRNStreamProvider;
+
 //    /**
 //     *
 //     * @return
@@ -906,6 +919,7 @@ public class Model extends ModelElement {
         if (modelElement == null) {
             throw new IllegalArgumentException("The ModelElement must be non-null.");
         }
+        myTraversalStaleFlag = true;
 
         if (getSimulation()!= null){
             if (getSimulation().isRunning()){
@@ -982,6 +996,7 @@ public class Model extends ModelElement {
         if (modelElement == null) {
             throw new IllegalArgumentException("The ModelElement must be non-null.");
         }
+        myTraversalStaleFlag = true;
 
         String key = modelElement.getName();
 
@@ -1142,6 +1157,46 @@ public class Model extends ModelElement {
         return myRVParameterSetter;
     }
 
+    /**
+     * Sets the stream provider for the model. While the simulation of the model
+     * executes, the provider is bound to the executing thread so that any streams
+     * allocated through JSLRandom come from the model's provider. To build the
+     * model elements using the provider, construct them within
+     * JSLRandom.runWithRNStreamProvider(). A model with its own provider has stream
+     * numbering that does not depend on other models, even if the models execute on
+     * different threads.
+     *
+     * @param provider the provider, may be null to use JSLRandom's current provider
+     */
+    public final void setRNStreamProvider(RNStreamProviderIfc provider) {
+        myRNStreamProvider = provider;
+    }
+
+    /**
+     * @return the stream provider supplied for the model, or if not supplied,
+     * the provider currently used by JSLRandom
+     */
+    public final RNStreamProviderIfc getRNStreamProvider() {
+        if (myRNStreamProvider == null) {
+            return JSLRandom.getRNStreamProvider();
+        }
+        return myRNStreamProvider;
+    }
+
+    /**
+     * Executes the action with the model's stream provider, if supplied, bound
+     * to the calling thread. Called from Simulation.ReplicationExecutionProcess
+     *
+     * @param action the action to execute
+     */
+    final void runWithRNStreamProvider(Runnable action) {
+        if (myRNStreamProvider == null) {
+            action.run();
+        } else {
+            JSLRandom.runWithRNStreamProvider(myRNStreamProvider, action);
+        }
+    }
+
     /**
      *  Called from Simulation.ReplicationExecutionProcess.initializeIterations()
      *  Represents what to do to set up an experiment
@@ -1258,6 +1313,20 @@ public class Model extends ModelElement {
 
     }
 
+    /**
+     * Called from ParallelSimulation to replay a replication that was executed
+     * by a worker. The response variables and counters take on the results of the
+     * replication and then the after replication actions of the model elements
+     * are performed.
+     *
+     * @param result the results of the replication
+     */
+    final void replayReplication(ReplicationResult result) {
+        result.replay(getResponseVariables(), getCounters());
+        // do all model element afterReplication() actions
+        afterReplication_();
+    }
+
     protected void afterExperiment(Experiment e) {
         // do all model element afterExperiment() actions
         afterExperiment_();
@@ -1289,5 +1358,16 @@ public class Model extends ModelElement {
      */
     final void markPreOrderTraversalModelElementHierarchy(){
         markPreOrderTraversalTree(0);
+        myTraversalStaleFlag = false;
+    }
+
+    /** Labels the model element hierarchy if elements were added or removed since
+     *  it was last labeled. Called when the traversal labels of an element are read,
+     *  so that a model that has not been run, e.g. one used to record results, has labels.
+     */
+    final void checkPreOrderTraversalModelElementHierarchy(){
+        if (myTraversalStaleFlag) {
+            markPreOrderTraversalModelElementHierarchy();
+        }
     }
 }
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package jsl.simulation;
+
+/**
+ * A functional interface for building the model elements of a model. A
+ * ParallelSimulation uses the builder to construct identical copies of a model,
+ * one for the master simulation and one for each of its workers. Thus, the
+ * builder must construct the same model elements, in the same order, each time
+ * that it is called and it should not depend on shared mutable state.
+ */
+@FunctionalInterface
+public interface ModelBuilderIfc {
+
+    /**
+     * Builds the model elements of the supplied model
+     *
+     * @param model the model to build, will not be null
+     */
+    void build(Model model);
+}
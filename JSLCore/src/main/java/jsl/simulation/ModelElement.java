@@ -40,6 +40,7 @@ import jsl.utilities.random.rvariable.ConstantRV;
 
 import java.lang.IllegalStateException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The ModelElement represents elements within the simulation model that can
@@ -70,9 +71,9 @@ public abstract class ModelElement implements IdentityIfc, ObservableIfc {
 
     /**
      * incremented to give a running total of the number of model elements
-     * created
+     * created. Atomic because models may be built and run concurrently
      */
-    private static int myCounter_;
+    private static final AtomicInteger myCounter_ = new AtomicInteger();
 
     /**
      * A constant for the default batch havingPriority
@@ -425,8 +426,7 @@ public abstract class ModelElement implements IdentityIfc, ObservableIfc {
      * @param name the name of the model element
      */
     private void constructorCalls_(String name) {
-        myCounter_ = myCounter_ + 1;
-        myId = myCounter_;
+        myId = myCounter_.incrementAndGet();
         setName(name);
         setStringLabel(getName());
         myObservableComponent = new ObservableComponent();
@@ -2199,6 +2199,7 @@ public abstract class ModelElement implements IdentityIfc, ObservableIfc {
             myWarmUpEvent = getExecutive().scheduleEvent(myWarmUpActionListener,
                     getLengthOfWarmUp(), myWarmUpPriority, null,
                     getName() + " Warm Up", this);
+            myWarmUpEvent.setRetainedFlag(true);
             myWarmUpEvent.setModelElement(this);
             setWarmUpOption(false); // no longer depends on parent's warm up
         }
@@ -2210,6 +2211,7 @@ public abstract class ModelElement implements IdentityIfc, ObservableIfc {
             myTimedUpdateEvent = getExecutive().scheduleEvent(myTimedUpdateActionListener,
                     getTimedUpdateInterval(), myTimedUpdatePriority, null,
                     getName() + " TimedUpdate", this);
+            myTimedUpdateEvent.setRetainedFlag(true);
             myTimedUpdateEvent.setModelElement(this);
         }
 
@@ -3210,6 +3212,9 @@ public abstract class ModelElement implements IdentityIfc, ObservableIfc {
      * model element based on the Model as the root node (label = 1)
      */
     public final int getLeftPreOrderTraversalCount(){
+        if (getModel() != null) {
+            getModel().checkPreOrderTraversalModelElementHierarchy();
+        }
         return myLeftCount;
     }
 
@@ -3219,6 +3224,9 @@ public abstract class ModelElement implements IdentityIfc, ObservableIfc {
      * model element based on the Model as the root node (label = 1)
      */
     public final int getRightPreOrderTraversalCount(){
+        if (getModel() != null) {
+            getModel().checkPreOrderTraversalModelElementHierarchy();
+        }
         return myRightCount;
     }
 }
@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package jsl.simulation;
+
+import jsl.utilities.random.rng.RNStreamProvider;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A simulation that executes its replications in parallel. The model is
+ * constructed by a ModelBuilderIfc, once for this (master) simulation and
+ * once for each worker. Each worker is an ordinary Simulation that runs one
+ * replication at a time on its own thread. Each model has its own stream provider,
+ * which is bound to the thread executing the model. Before running replication r, a worker
+ * positions the streams of its model at the sub-stream that replication r would
+ * have used had the replications been executed sequentially, including the
+ * handling of antithetic replications. Because every model is built using a new
+ * stream provider, the models use the same streams, and thus the replications are
+ * identical to those of a sequential run of the same model that uses its own provider.
+ * <p>
+ * The results of the replications (the within replication statistics of the
+ * response variables and the final values of the counters) are replayed into this
+ * simulation's model in replication order. Thus, observers of this simulation's
+ * model (e.g. ReplicationDataCollector, ExperimentDataCollector, or a database
+ * observer) see the replications in the same order and with the same values as
+ * for a sequential run. Other model element state is not replayed, and statistical
+ * batching is not supported.
+ * <p>
+ * The experiment, controls, and random variable parameters of this simulation
+ * are copied to the workers at the start of each experiment. Changes to the model
+ * should be made through the builder, the controls, or the random variable
+ * parameter setter. The experiment must use the advance to next sub-stream
+ * option or the antithetic option.
+ */
+public class ParallelSimulation extends Simulation {
+
+    /**
+     * The simulations that execute the replications
+     */
+    private final List<Simulation> myWorkers;
+
+    /**
+     * The number of sub-streams consumed by previous experiments
+     */
+    private int mySubStreamOffset = 0;
+
+    /**
+     * Runs the workers during an experiment
+     */
+    private ExecutorService myExecutorService;
+
+    /**
+     * The results of the replications of the current experiment, indexed by replication - 1
+     */
+    private List<CompletableFuture<ReplicationResult>> myResults;
+
+    /**
+     * The next replication to be assigned to a worker
+     */
+    private AtomicInteger myNextReplication;
+
+    /**
+     * Indicates that the workers should not start any more replications
+     */
+    private volatile boolean myStopWorkersFlag;
+
+    /**
+     * Creates a parallel simulation using one worker per available processor
+     *
+     * @param builder the builder of the model, must not be null
+     */
+    public ParallelSimulation(ModelBuilderIfc builder) {
+        this(null, builder, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param simName    the name of the simulation
+     * @param builder    the builder of the model, must not be null
+     * @param numWorkers the number of workers, must be &gt; 0
+     */
+    public ParallelSimulation(String simName, ModelBuilderIfc builder, int numWorkers) {
+        this(simName, null, builder, numWorkers);
+    }
+
+    /**
+     * @param simName               the name of the simulation
+     * @param pathToOutputDirectory the path to the output directory for the simulation files
+     * @param builder               the builder of the model, must not be null
+     * @param numWorkers            the number of workers, must be &gt; 0
+     */
+    public ParallelSimulation(String simName, Path pathToOutputDirectory, ModelBuilderIfc builder, int numWorkers) {
+        super(simName, pathToOutputDirectory, null);
+        Objects.requireNonNull(builder, "The supplied model builder was null");
+        if (numWorkers <= 0) {
+            throw new IllegalArgumentException("The number of workers must be > 0");
+        }
+        buildModel(builder, getModel());
+        Path workerDir = getOutputDirectoryPath().resolve("workers");
+        List<Simulation> workers = new ArrayList<>();
+        for (int k = 1; k <= numWorkers; k++) {
+            String name = getName() + "_Worker_" + k;
+            Simulation worker = new Simulation(name, workerDir.resolve(name), null);
+            worker.setRepLengthWarningMessageOption(false);
+            buildModel(builder, worker.getModel());
+            workers.add(worker);
+        }
+        myWorkers = Collections.unmodifiableList(workers);
+    }
+
+    /**
+     * Gives the model its own stream provider and builds the model using the
+     * provider so that every model built by the builder is assigned the same streams
+     *
+     * @param builder the builder
+     * @param model   the model to build
+     */
+    private static void buildModel(ModelBuilderIfc builder, Model model) {
+        model.setRNStreamProvider(new RNStreamProvider());
+        model.runWithRNStreamProvider(() -> builder.build(model));
+    }
+
+    /**
+     * @return the number of workers
+     */
+    public final int getNumberOfWorkers() {
+        return myWorkers.size();
+    }
+
+    @Override
+    void replicationsStarting() {
+        ExperimentGetIfc e = getExperiment();
+        boolean antithetic = e.getAntitheticOption();
+        if (!antithetic && !e.getAdvanceNextSubStreamOption()) {
+            throw new IllegalStateException("A parallel simulation requires the advance to next sub-stream option or the antithetic option");
+        }
+        if (e.getResetStartStreamOption()) {
+            mySubStreamOffset = 0;
+        } else {
+            mySubStreamOffset = mySubStreamOffset + e.getNumberOfStreamAdvancesPriorToRunning();
+        }
+        Experiment workerExp = new Experiment(e.getExperimentName());
+        workerExp.setNumberOfReplications(1);
+        workerExp.setLengthOfReplication(e.getLengthOfReplication());
+        workerExp.setLengthOfWarmUp(e.getLengthOfWarmUp());
+        workerExp.setReplicationInitializationOption(e.getReplicationInitializationOption());
+        if (e.getMaximumAllowedExecutionTimePerReplication() > 0) {
+            workerExp.setMaximumExecutionTimePerReplication(e.getMaximumAllowedExecutionTimePerReplication());
+        }
+        // the workers position their own streams prior to each replication
+        workerExp.setResetStartStreamOption(false);
+        workerExp.setAdvanceNextSubStreamOption(false);
+        e.getControls().ifPresent(workerExp::useControls);
+        Map<String, Map<String, Double>> parameters = getModel().getRVParameterSetter().getParametersAsDoubles();
+        for (Simulation worker : myWorkers) {
+            worker.setExperiment(workerExp);
+            worker.getModel().getRVParameterSetter().changeParameters(parameters);
+        }
+        int numReps = e.getNumberOfReplications();
+        myResults = new ArrayList<>(numReps);
+        for (int i = 0; i < numReps; i++) {
+            myResults.add(new CompletableFuture<>());
+        }
+        myNextReplication = new AtomicInteger(1);
+        myStopWorkersFlag = false;
+        myExecutorService = Executors.newFixedThreadPool(myWorkers.size(), r -> {
+            Thread t = new Thread(r, getName() + "_WorkerThread");
+            t.setDaemon(true);
+            return t;
+        });
+        int base = mySubStreamOffset;
+        for (Simulation worker : myWorkers) {
+            myExecutorService.execute(() -> runWorker(worker, base, antithetic, numReps));
+        }
+    }
+
+    /**
+     * Runs replications on the supplied worker until there are no more to run
+     *
+     * @param worker     the worker
+     * @param base       the sub-stream used by the first replication
+     * @param antithetic true if the replications are antithetic pairs
+     * @param numReps    the number of replications in the experiment
+     */
+    private void runWorker(Simulation worker, int base, boolean antithetic, int numReps) {
+        Model model = worker.getModel();
+        int current = -1;
+        int r;
+        while (!myStopWorkersFlag && ((r = myNextReplication.getAndIncrement()) <= numReps)) {
+            CompletableFuture<ReplicationResult> result = myResults.get(r - 1);
+            try {
+                int subStream = base + (antithetic ? (r - 1) / 2 : r - 1);
+                if ((current >= 0) && (subStream >= current)) {
+                    model.resetStartSubStream();
+                    model.advanceSubstreams(subStream - current);
+                } else {
+                    model.resetStartStream();
+                    model.advanceSubstreams(subStream);
+                }
+                current = subStream;
+                if (antithetic && ((r % 2) == 0)) {
+                    model.turnOnAntithetic();
+                } else {
+                    model.turnOffAntithetic();
+                }
+                worker.run();
+                result.complete(new ReplicationResult(r, model.getResponseVariables(), model.getCounters()));
+            } catch (RuntimeException ex) {
+                result.completeExceptionally(ex);
+                // the worker's state is unknown, so start over on its next replication
+                current = -1;
+            } catch (Error ex) {
+                // the replication must be completed so that the master thread does not wait
+                // for it forever, the error then ends the worker
+                result.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+    }
+
+    @Override
+    void executeReplication() {
+        int r = getCurrentReplicationNumber();
+        ReplicationResult result;
+        try {
+            result = myResults.get(r - 1).join();
+        } catch (CompletionException ex) {
+            stopWorkers();
+            throw new IllegalStateException("Replication " + r + " failed within a parallel worker", ex.getCause());
+        }
+        getModel().replayReplication(result);
+    }
+
+    @Override
+    void replicationsEnded() {
+        stopWorkers();
+        ExperimentGetIfc e = getExperiment();
+        int n = e.getCurrentReplicationNumber();
+        if (e.getAntitheticOption()) {
+            mySubStreamOffset = mySubStreamOffset + (n + 1) / 2;
+        } else {
+            mySubStreamOffset = mySubStreamOffset + n;
+        }
+    }
+
+    /**
+     * Stops the workers from starting any further replications
+     */
+    private void stopWorkers() {
+        myStopWorkersFlag = true;
+        if (myExecutorService != null) {
+            myExecutorService.shutdownNow();
+            myExecutorService = null;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package jsl.simulation;
+
+import jsl.modeling.elements.variable.Counter;
+import jsl.modeling.elements.variable.ResponseVariable;
+import jsl.utilities.statistic.QuantileSketch;
+import jsl.utilities.statistic.WeightedStatistic;
+
+import java.util.List;
+
+/**
+ * Holds the end of replication state of the response variables and counters of
+ * a model. Used by ParallelSimulation to move the results of a replication
+ * from a worker's model to the master's model. The response variables and counters
+ * are matched by their position within the model's lists, which is the same
+ * for models that were constructed by the same ModelBuilderIfc.
+ */
+final class ReplicationResult {
+
+    private final int myReplicationNumber;
+
+    private final WeightedStatistic[] myWithinRepStats;
+
+    private final QuantileSketch[] myWithinRepSketches;
+
+    private final double[] myCounterValues;
+
+    /**
+     * Captures the current state of the supplied response variables and counters
+     *
+     * @param replicationNumber the replication that produced the results
+     * @param responses         the response variables of the model
+     * @param counters          the counters of the model
+     */
+    ReplicationResult(int replicationNumber, List<ResponseVariable> responses, List<Counter> counters) {
+        myReplicationNumber = replicationNumber;
+        myWithinRepStats = new WeightedStatistic[responses.size()];
+        myWithinRepSketches = new QuantileSketch[responses.size()];
+        for (int i = 0; i < myWithinRepStats.length; i++) {
+            myWithinRepStats[i] = new WeightedStatistic();
+            myWithinRepStats[i].copyState(responses.get(i).getWithinReplicationStatistic());
+            QuantileSketch sketch = responses.get(i).getWithinReplicationQuantileSketch();
+            if (sketch != null) {
+                myWithinRepSketches[i] = sketch.newInstance();
+            }
+        }
+        myCounterValues = new double[counters.size()];
+        for (int i = 0; i < myCounterValues.length; i++) {
+            myCounterValues[i] = counters.get(i).getValue();
+        }
+    }
+
+    /**
+     * @return the replication that produced the results
+     */
+    int getReplicationNumber() {
+        return myReplicationNumber;
+    }
+
+    /**
+     * Sets the state of the supplied response variables and counters to the
+     * captured results
+     *
+     * @param responses the response variables to receive the results
+     * @param counters  the counters to receive the results
+     */
+    void replay(List<ResponseVariable> responses, List<Counter> counters) {
+        if ((responses.size() != myWithinRepStats.length) || (counters.size() != myCounterValues.length)) {
+            throw new IllegalStateException("The results of replication " + myReplicationNumber
+                    + " do not match the structure of the model");
+        }
+        for (int i = 0; i < myWithinRepStats.length; i++) {
+            responses.get(i).replayWithinReplicationStatistic(myWithinRepStats[i]);
+            responses.get(i).replayWithinReplicationQuantileSketch(myWithinRepSketches[i]);
+        }
+        for (int i = 0; i < myCounterValues.length; i++) {
+            counters.get(i).replayValue(myCounterValues[i]);
+        }
+    }
+}
@@ -1037,6 +1037,33 @@ public class Simulation implements ObservableIfc, IterativeProcessIfc,
     protected void afterReplication() {
     }
 
+    /**
+     * Called from ReplicationExecutionProcess.initializeIterations() after the
+     * model has been set up for the experiment and before any replications are executed.
+     * Used by ParallelSimulation to start its workers.
+     */
+    void replicationsStarting() {
+    }
+
+    /**
+     * Executes the current replication. Called from ReplicationExecutionProcess.runStep()
+     * between beforeReplication() and afterReplication(). ParallelSimulation replaces this
+     * to replay replications that were executed by its workers.
+     */
+    void executeReplication() {
+        myExecutive.initialize();
+        myModel.setUpReplication();
+        myExecutive.executeAllEvents();
+        myModel.afterReplication(myExperiment);
+    }
+
+    /**
+     * Called from ReplicationExecutionProcess.endIterations() before the model's
+     * after experiment actions. Used by ParallelSimulation to stop its workers.
+     */
+    void replicationsEnded() {
+    }
+
     @Override
     public final boolean isExecutionTimeExceeded() {
         return myReplicationExecutionProcess.isExecutionTimeExceeded();
@@ -1075,11 +1102,16 @@ public class Simulation implements ObservableIfc, IterativeProcessIfc,
         @Override
         protected final void initializeIterations() {
             super.initializeIterations();
+            myModel.runWithRNStreamProvider(this::initializeExperiment);
+        }
+
+        private void initializeExperiment() {
             myExecutive.setTerminationWarningMessageOption(false);
             myExperiment.resetCurrentReplicationNumber();
             beforeExperiment();
             myModel.markPreOrderTraversalModelElementHierarchy();
             myModel.setUpExperiment();
+            replicationsStarting();
             if (getRepLengthWarningMessageOption()) {
                 if (Double.isInfinite(myExperiment.getLengthOfReplication())) {
                     if (getMaximumAllowedExecutionTimePerReplication() == 0) {
@@ -1098,9 +1130,14 @@ public class Simulation implements ObservableIfc, IterativeProcessIfc,
 
         @Override
         protected final void endIterations() {
+            myModel.runWithRNStreamProvider(this::endExperiment);
+            super.endIterations();
+        }
+
+        private void endExperiment() {
+            replicationsEnded();
             myModel.afterExperiment(myExperiment);
             afterExperiment();
-            super.endIterations();
         }
 
         @Override
@@ -1125,15 +1162,16 @@ public class Simulation implements ObservableIfc, IterativeProcessIfc,
             if (tpr > 0) {
                 myExecutive.setMaximumExecutionTime(tpr);
             }
-            beforeReplication();
-            myExecutive.initialize();
-            myModel.setUpReplication();
-            myExecutive.executeAllEvents();
-            myModel.afterReplication(myExperiment);
-            afterReplication();
+            myModel.runWithRNStreamProvider(this::runReplication);
             if (getGarbageCollectAfterReplicationFlag()) {
                 System.gc();
             }
         }
+
+        private void runReplication() {
+            beforeReplication();
+            executeReplication();
+            afterReplication();
+        }
     }
 }
@@ -15,6 +15,8 @@
  */
 package jsl.utilities;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**  A class to assist with the naming and numbering of objects.  The number
  *  cannot change, but the name can be changed.
  *
@@ -24,7 +26,7 @@ public class Identity implements IdentityIfc {
 
     /** A counter to count the number of objects created to assign "unique" ids
      */
-    private static int myIdCounter_;
+    private static final AtomicInteger myIdCounter_ = new AtomicInteger();
 
     /** The name of this object
      */
@@ -46,8 +48,7 @@ public class Identity implements IdentityIfc {
      * @param name the name to be used for the identity, can be null
      */
     public Identity(String name) {
-        myIdCounter_ = myIdCounter_ + 1;
-        myId = myIdCounter_;
+        myId = myIdCounter_.incrementAndGet();
         setName(name);
     }
 
@@ -23,6 +23,15 @@ public class MC1DIntegration extends MCExperiment {
     protected final RVariableIfc mySampler;
     protected RVariableIfc myAntitheticSampler;
 
+    /**
+     * The maximum number of samples drawn at once during the micro replications
+     */
+    private static final int BLOCK_SIZE = 1024;
+
+    private double[] mySamples;
+
+    private double[] myAntitheticSamples;
+
     /**
      *
      * @param function the representation of h(x), must not be null
@@ -62,12 +71,33 @@ public class MC1DIntegration extends MCExperiment {
 
     @Override
     protected double replication(int r) {
+        // the samples are drawn in blocks at the start of each block of micro replications
+        int i = (r - 1) % BLOCK_SIZE;
+        if (i == 0) {
+            drawSamples(Math.min(BLOCK_SIZE, getMicroRepSampleSize() - r + 1));
+        }
         if (isAntitheticOptionOn()) {
-            double y1 = myFunction.fx(mySampler.sample());
-            double y2 = myFunction.fx(myAntitheticSampler.sample());
+            double y1 = myFunction.fx(mySamples[i]);
+            double y2 = myFunction.fx(myAntitheticSamples[i]);
             return (y1 + y2) / 2.0;
         } else {
-            return myFunction.fx(mySampler.sample());
+            return myFunction.fx(mySamples[i]);
+        }
+    }
+
+    /**
+     * Fills the sample arrays using the bulk sampling of the samplers
+     *
+     * @param n the number of samples needed
+     */
+    private void drawSamples(int n) {
+        if ((mySamples == null) || (mySamples.length != n)) {
+            mySamples = new double[n];
+            myAntitheticSamples = new double[n];
+        }
+        mySampler.sample(mySamples);
+        if (isAntitheticOptionOn()) {
+            myAntitheticSampler.sample(myAntitheticSamples);
         }
     }
 
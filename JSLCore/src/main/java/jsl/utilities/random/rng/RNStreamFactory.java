@@ -453,6 +453,68 @@ public class RNStreamFactory extends Identity {
             return u;
         }
 
+        /**
+         * Fills the array with the same numbers as len calls to randU01(). The
+         * recursion is performed on the state held in long variables, which avoids
+         * the floating point divisions of U01().
+         *
+         * @param dst the array to fill
+         * @param off the index of the first element to fill
+         * @param len the number of elements to fill
+         */
+        @Override
+        public final void randU01(double[] dst, int off, int len) {
+            Objects.checkFromIndexSize(off, len, dst.length);
+            if (len == 0) {
+                return;
+            }
+            final long m1L = (long) m1;
+            final long m2L = (long) m2;
+            final long a12L = (long) a12;
+            final long a13nL = (long) a13n;
+            final long a21L = (long) a21;
+            final long a23nL = (long) a23n;
+            long s0 = (long) Cg0, s1 = (long) Cg1, s2 = (long) Cg2;
+            long s3 = (long) Cg3, s4 = (long) Cg4, s5 = (long) Cg5;
+            final int end = off + len;
+            for (int i = off; i < end; i++) {
+                /* Component 1 */
+                long p1 = (a12L * s1 - a13nL * s0) % m1L;
+                if (p1 < 0) {
+                    p1 += m1L;
+                }
+                s0 = s1;
+                s1 = s2;
+                s2 = p1;
+                /* Component 2 */
+                long p2 = (a21L * s5 - a23nL * s3) % m2L;
+                if (p2 < 0) {
+                    p2 += m2L;
+                }
+                s3 = s4;
+                s4 = s5;
+                s5 = p2;
+                /* Combination */
+                long d = p1 - p2;
+                if (d <= 0) {
+                    d += m1L;
+                }
+                dst[i] = d * norm;
+            }
+            Cg0 = s0;
+            Cg1 = s1;
+            Cg2 = s2;
+            Cg3 = s3;
+            Cg4 = s4;
+            Cg5 = s5;
+            if (anti) {
+                for (int i = off; i < end; i++) {
+                    dst[i] = 1 - dst[i];
+                }
+            }
+            myPrevU = dst[end - 1];
+        }
+
         @Override
         public final double getPrevU01() {
             return myPrevU;
@@ -17,6 +17,8 @@
 
 package jsl.utilities.random.rng;
 
+import java.util.Objects;
+
 /**
  * Represents a random number stream with stream control
  *
@@ -34,4 +36,20 @@ public interface RNStreamIfc extends RandU01Ifc, RNStreamControlIfc,
      * @return The integer pseudo random number
      */
     int randInt(int i, int j);
+
+    /**
+     * Fills the array with pseudo-random numbers in (0,1), exactly as if randU01()
+     * had been called len times. Implementations may override this to generate the
+     * numbers more efficiently.
+     *
+     * @param dst the array to fill
+     * @param off the index of the first element to fill
+     * @param len the number of elements to fill
+     */
+    default void randU01(double[] dst, int off, int len) {
+        Objects.checkFromIndexSize(off, len, dst.length);
+        for (int i = off; i < off + len; i++) {
+            dst[i] = randU01();
+        }
+    }
 }
@@ -29,6 +29,10 @@ import java.util.List;
  * streams many times. Conceptually this provider could have a possibly infinite number of streams,
  * which would have bad memory implications.  Thus, the reason for the warning.
  * The default stream if not set is the first stream.
+ * <p>
+ * The methods that allocate streams are synchronized so that a provider can be
+ * shared across threads. To obtain stream numbering that does not depend on the
+ * scheduling of the threads, give each model its own provider.
  */
 public final class RNStreamProvider implements RNStreamProviderIfc {
 
@@ -91,7 +95,7 @@ public final class RNStreamProvider implements RNStreamProviderIfc {
     }
 
     @Override
-    public RNStreamIfc nextRNStream() {
+    public synchronized RNStreamIfc nextRNStream() {
         RNStreamIfc stream = myStreamFactory.getStream();
         myStreams.add(stream);
         if (myStreams.size() > myStreamNumberWarningLimit) {
@@ -102,12 +106,12 @@ public final class RNStreamProvider implements RNStreamProviderIfc {
     }
 
     @Override
-    public int lastRNStreamNumber() {
+    public synchronized int lastRNStreamNumber() {
         return myStreams.size();
     }
 
     @Override
-    public RNStreamIfc rnStream(int i) {
+    public synchronized RNStreamIfc rnStream(int i) {
         if (i > lastRNStreamNumber()) {
             RNStreamIfc stream = null;
             for (int j = lastRNStreamNumber(); j <= i; j++) {
@@ -119,7 +123,7 @@ public final class RNStreamProvider implements RNStreamProviderIfc {
     }
 
     @Override
-    public int getStreamNumber(RNStreamIfc stream) {
+    public synchronized int getStreamNumber(RNStreamIfc stream) {
         if (myStreams.indexOf(stream) == -1) {
             return -1;
         }
@@ -127,12 +131,12 @@ public final class RNStreamProvider implements RNStreamProviderIfc {
     }
 
     @Override
-    public void advanceStreamMechanism(int n) {
+    public synchronized void advanceStreamMechanism(int n) {
         myStreamFactory.advanceSeeds(n);
     }
 
     @Override
-    public void resetRNStreamSequence() {
+    public synchronized void resetRNStreamSequence() {
         myStreams.clear();
         myStreamFactory.resetFactorySeed();
     }
@@ -152,7 +156,7 @@ public final class RNStreamProvider implements RNStreamProviderIfc {
      *
      * @return the array of seed values for the current state
      */
-    public final long[] getCurrentSeed() {
+    public final synchronized long[] getCurrentSeed() {
         return myStreamFactory.getFactorySeed();
     }
 
@@ -169,7 +173,7 @@ public final class RNStreamProvider implements RNStreamProviderIfc {
      * @param seed the seeds
      *
      */
-    public final void setInitialSeed(long[] seed) {
+    public final synchronized void setInitialSeed(long[] seed) {
         myStreamFactory.setFactorySeed(seed);
         //return myStreamFactory.setFactorySeed(seed);
     }
@@ -16,11 +16,15 @@
 package jsl.utilities.random.robj;
 
 import jsl.utilities.random.rng.RNStreamIfc;
+import jsl.utilities.random.rvariable.AliasTable;
 import jsl.utilities.random.rvariable.JSLRandom;
 
 import java.util.*;
 
 /** Randomly selects the elements in the list according to a supplied CDF across the items
+ *  By default, the element is selected by inverting the CDF with a binary search.
+ *  If the AcceptanceRejection algorithm type is supplied, the element is selected in
+ *  constant time by the alias method, see AliasTable.
  *
  * @param <T> the type of elements in the list
  */
@@ -32,6 +36,16 @@ public class DEmpiricalList<T> implements RElementIfc<T> {
 
     protected RNStreamIfc myRNG;
 
+    /**
+     * The algorithm used to select the elements
+     */
+    private final JSLRandom.AlgoType myAlgoType;
+
+    /**
+     * Null unless the alias method is used
+     */
+    private final AliasTable myAliasTable;
+
     /**
      *
      * @param elements the list of elements, must not be null
@@ -48,6 +62,18 @@ public class DEmpiricalList<T> implements RElementIfc<T> {
      * @param rng the underlying random number stream to use for randomness
      */
     public DEmpiricalList(List<T> elements, double[] cdf, RNStreamIfc rng) {
+        this(elements, cdf, rng, JSLRandom.AlgoType.Inverse);
+    }
+
+    /**
+     *
+     * @param elements the list of elements, must not be null
+     * @param cdf an array holding the cumulative probabilities across the elements in the list
+     * @param rng the underlying random number stream to use for randomness
+     * @param type the algorithm, AcceptanceRejection uses the alias method, which cannot
+     *             be used for antithetic variates, if null then inverse transform is used
+     */
+    public DEmpiricalList(List<T> elements, double[] cdf, RNStreamIfc rng, JSLRandom.AlgoType type) {
         Objects.requireNonNull(rng, "The RNStreamIfc was null");
         if (elements == null) {
             throw new IllegalArgumentException("The list of elements was null");
@@ -55,12 +81,21 @@ public class DEmpiricalList<T> implements RElementIfc<T> {
         if (cdf == null) {
             throw new IllegalArgumentException("The list of probabilities was null");
         }
-        if (elements.size() < cdf.length) {
-            throw new IllegalArgumentException("The number of objects was less than the number of probabilities.");
+        if (!JSLRandom.isValidCDF(cdf)) {
+            throw new IllegalArgumentException("The supplied cdf was not valid");
+        }
+        if (elements.size() != cdf.length) {
+            throw new IllegalArgumentException("The number of objects was not equal to the number of probabilities.");
         }
         myElements = new ArrayList<T>(elements);
         myCDF = Arrays.copyOf(cdf, cdf.length);
         myRNG = rng;
+        myAlgoType = (type == null) ? JSLRandom.AlgoType.Inverse : type;
+        if (myAlgoType == JSLRandom.AlgoType.AcceptanceRejection) {
+            myAliasTable = new AliasTable(myCDF);
+        } else {
+            myAliasTable = null;
+        }
 
     }
 
@@ -71,9 +106,22 @@ public class DEmpiricalList<T> implements RElementIfc<T> {
         return Arrays.copyOf(myCDF, myCDF.length);
     }
 
+    /**
+     * @return the algorithm used to select the elements
+     */
+    public final JSLRandom.AlgoType getAlgoType() {
+        return myAlgoType;
+    }
+
     @Override
     public T getRandomElement() {
-        return JSLRandom.randomlySelect(myElements, myCDF, myRNG);
+        if (myCDF.length == 1) {
+            return myElements.get(0);
+        }
+        if (myAliasTable != null) {
+            return myElements.get(myAliasTable.index(myRNG));
+        }
+        return myElements.get(JSLRandom.searchCDF(myCDF, myRNG.randU01()));
     }
 
     @Override
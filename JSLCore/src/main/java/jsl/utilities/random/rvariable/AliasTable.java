@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package jsl.utilities.random.rvariable;
+
+import jsl.utilities.random.rng.RNStreamIfc;
+
+import java.util.Objects;
+
+/**
+ * An alias table (Walker 1977, Vose 1991) for selecting an index 0, 1, ..., n-1
+ * according to a discrete distribution in constant time. The table is built once
+ * in O(n) time from the supplied CDF. Each selection uses a single uniform
+ * random number, but the mapping from the uniform to the index is not monotone, so
+ * the alias method should not be used when antithetic variates or the synchronization
+ * of common random numbers via inversion is required.
+ */
+public final class AliasTable {
+
+    private final double[] myProb;
+
+    private final int[] myAlias;
+
+    /**
+     * @param cdf a valid cdf, see JSLRandom.isValidCDF()
+     */
+    public AliasTable(double[] cdf) {
+        Objects.requireNonNull(cdf, "The supplied cdf was null");
+        if (!JSLRandom.isValidCDF(cdf)) {
+            throw new IllegalArgumentException("The supplied cdf was not valid");
+        }
+        int n = cdf.length;
+        myProb = new double[n];
+        myAlias = new int[n];
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int ns = 0;
+        int nl = 0;
+        double prev = 0.0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = (cdf[i] - prev) * n;
+            prev = cdf[i];
+            if (scaled[i] < 1.0) {
+                small[ns++] = i;
+            } else {
+                large[nl++] = i;
+            }
+        }
+        while ((ns > 0) && (nl > 0)) {
+            int s = small[--ns];
+            int l = large[--nl];
+            myProb[s] = scaled[s];
+            myAlias[s] = l;
+            scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+            if (scaled[l] < 1.0) {
+                small[ns++] = l;
+            } else {
+                large[nl++] = l;
+            }
+        }
+        // what remains has probability 1 up to round off
+        while (nl > 0) {
+            int l = large[--nl];
+            myProb[l] = 1.0;
+            myAlias[l] = l;
+        }
+        while (ns > 0) {
+            int s = small[--ns];
+            myProb[s] = 1.0;
+            myAlias[s] = s;
+        }
+    }
+
+    /**
+     * @return the number of outcomes in the table
+     */
+    public int size() {
+        return myProb.length;
+    }
+
+    /**
+     * @param u a number in (0,1)
+     * @return the selected index, 0, 1, ..., size() - 1
+     */
+    public int index(double u) {
+        double x = u * myProb.length;
+        int i = (int) x;
+        if (i >= myProb.length) {
+            i = myProb.length - 1;
+        }
+        if ((x - i) < myProb[i]) {
+            return i;
+        }
+        return myAlias[i];
+    }
+
+    /**
+     * @param rng the source of randomness, must not be null
+     * @return the selected index, 0, 1, ..., size() - 1
+     */
+    public int index(RNStreamIfc rng) {
+        return index(rng.randU01());
+    }
+}
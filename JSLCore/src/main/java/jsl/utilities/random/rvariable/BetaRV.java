@@ -30,6 +30,11 @@ public final class BetaRV extends ParameterizedRV {
 
     private final double mylnBetaA1A2;
 
+    /**
+     * The algorithm used to generate the random variates
+     */
+    private final JSLRandom.AlgoType myAlgoType;
+
     public BetaRV(double alpha1, double alpha2) {
         this(alpha1, alpha2, JSLRandom.nextRNStream());
     }
@@ -39,7 +44,19 @@ public final class BetaRV extends ParameterizedRV {
     }
 
     public BetaRV(double alpha1, double alpha2, RNStreamIfc rng) {
+        this(alpha1, alpha2, rng, JSLRandom.AlgoType.Inverse);
+    }
+
+    /**
+     * @param alpha1 must be greater than 0.0
+     * @param alpha2 must be greater than 0.0
+     * @param rng  must not be null
+     * @param type the algorithm, AcceptanceRejection is faster but cannot be used
+     *             for antithetic variates, if null then inverse transform is used
+     */
+    public BetaRV(double alpha1, double alpha2, RNStreamIfc rng, JSLRandom.AlgoType type) {
         super(rng);
+        myAlgoType = (type == null) ? JSLRandom.AlgoType.Inverse : type;
         if (alpha1 <= 0) {
             throw new IllegalArgumentException("The 1st shape parameter must be > 0");
         }
@@ -56,7 +73,7 @@ public final class BetaRV extends ParameterizedRV {
      * @return a new instance with same parameter value
      */
     public BetaRV newInstance(RNStreamIfc rng) {
-        return new BetaRV(getAlpha1(), getAlpha2(), rng);
+        return new BetaRV(getAlpha1(), getAlpha2(), rng, myAlgoType);
     }
 
     @Override
@@ -83,7 +100,17 @@ public final class BetaRV extends ParameterizedRV {
 
     @Override
     protected double generate() {
-        return Beta.stdBetaInvCDF(myRNStream.randU01(), myAlpha1, myAlpha1, mylnBetaA1A2);
+        if (myAlgoType == JSLRandom.AlgoType.AcceptanceRejection) {
+            return JSLRandom.rBeta(myAlpha1, myAlpha2, myRNStream, myAlgoType);
+        }
+        return Beta.stdBetaInvCDF(myRNStream.randU01(), myAlpha1, myAlpha2, mylnBetaA1A2);
+    }
+
+    /**
+     * @return the algorithm used to generate the random variates
+     */
+    public JSLRandom.AlgoType getAlgoType() {
+        return myAlgoType;
     }
 
     /**
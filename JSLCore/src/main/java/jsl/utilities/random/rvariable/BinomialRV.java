@@ -27,6 +27,11 @@ public final class BinomialRV extends ParameterizedRV {
 
     private final int myNumTrials;
 
+    /**
+     * The algorithm used to generate the random variates
+     */
+    private final JSLRandom.AlgoType myAlgoType;
+
     /**
      * @param probOfSuccess  the probability of success, must be in (0,1)
      * @param numTrials the number of trials, must be greater than 0
@@ -50,6 +55,17 @@ public final class BinomialRV extends ParameterizedRV {
      * @param stream    the stream from the stream provider to use
      */
     public BinomialRV(double probOfSuccess, int numTrials, RNStreamIfc stream) {
+        this(probOfSuccess, numTrials, stream, JSLRandom.AlgoType.Inverse);
+    }
+
+    /**
+     * @param probOfSuccess  the probability of success, must be in (0,1)
+     * @param numTrials the number of trials, must be greater than 0
+     * @param stream    the stream from the stream provider to use
+     * @param type      the algorithm, AcceptanceRejection uses BTPE when n*min(p,1-p) is at least 30
+     *                  and cannot be used for antithetic variates, if null then inverse transform is used
+     */
+    public BinomialRV(double probOfSuccess, int numTrials, RNStreamIfc stream, JSLRandom.AlgoType type) {
         super(stream);
         if ((probOfSuccess < 0.0) || (probOfSuccess > 1.0)) {
             throw new IllegalArgumentException("Success Probability must be [0,1]");
@@ -59,6 +75,7 @@ public final class BinomialRV extends ParameterizedRV {
         }
         myProbSuccess = probOfSuccess;
         myNumTrials = numTrials;
+        myAlgoType = (type == null) ? JSLRandom.AlgoType.Inverse : type;
     }
 
     /**
@@ -66,7 +83,7 @@ public final class BinomialRV extends ParameterizedRV {
      * @return a new instance with same parameter value
      */
     public BinomialRV newInstance(RNStreamIfc rng) {
-        return new BinomialRV(this.myProbSuccess, this.myNumTrials, rng);
+        return new BinomialRV(this.myProbSuccess, this.myNumTrials, rng, myAlgoType);
     }
 
     @Override
@@ -97,7 +114,14 @@ public final class BinomialRV extends ParameterizedRV {
 
     @Override
     protected double generate() {
-        return JSLRandom.rBinomial(myProbSuccess, myNumTrials, myRNStream);
+        return JSLRandom.rBinomial(myProbSuccess, myNumTrials, myRNStream, myAlgoType);
+    }
+
+    /**
+     * @return the algorithm used to generate the random variates
+     */
+    public JSLRandom.AlgoType getAlgoType() {
+        return myAlgoType;
     }
 
     /**
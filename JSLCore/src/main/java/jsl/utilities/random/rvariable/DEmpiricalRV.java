@@ -26,12 +26,26 @@ import java.util.Arrays;
  * must have valid probability elements and last element equal to 1.
  * Every element must be greater than or equal to the previous element in the CDF array.
  * That is, monotonically increasing.
+ * <p>
+ * By default, the value is selected by inverting the CDF with a binary search.
+ * If the AcceptanceRejection algorithm type is supplied, the value is selected in
+ * constant time by the alias method, see AliasTable.
  */
 public final class DEmpiricalRV extends ParameterizedRV {
 
     private final double[] myValues;
     private final double[] myCDF;
 
+    /**
+     * The algorithm used to select the values
+     */
+    private final JSLRandom.AlgoType myAlgoType;
+
+    /**
+     * Null unless the alias method is used
+     */
+    private final AliasTable myAliasTable;
+
     /**
      * Randomly selects from the array using the supplied cdf
      *
@@ -64,6 +78,20 @@ public final class DEmpiricalRV extends ParameterizedRV {
      * @param rng    the source of randomness
      */
     public DEmpiricalRV(double[] values, double[] cdf, RNStreamIfc rng) {
+        this(values, cdf, rng, JSLRandom.AlgoType.Inverse);
+    }
+
+    /**
+     * Randomly selects from the array using the supplied cdf
+     *
+     * @param values array to select from
+     * @param cdf    the cumulative probability associated with each element of
+     *               array
+     * @param rng    the source of randomness
+     * @param type   the algorithm, AcceptanceRejection uses the alias method, which cannot
+     *               be used for antithetic variates, if null then inverse transform is used
+     */
+    public DEmpiricalRV(double[] values, double[] cdf, RNStreamIfc rng, JSLRandom.AlgoType type) {
         super(rng);
         if (rng == null) {
             throw new IllegalArgumentException("The supplied RngIfc was null");
@@ -82,6 +110,12 @@ public final class DEmpiricalRV extends ParameterizedRV {
         }
         myValues = Arrays.copyOf(values, values.length);
         myCDF = Arrays.copyOf(cdf, cdf.length);
+        myAlgoType = (type == null) ? JSLRandom.AlgoType.Inverse : type;
+        if (myAlgoType == JSLRandom.AlgoType.AcceptanceRejection) {
+            myAliasTable = new AliasTable(myCDF);
+        } else {
+            myAliasTable = null;
+        }
     }
 
     /**
@@ -89,7 +123,14 @@ public final class DEmpiricalRV extends ParameterizedRV {
      * @return a new instance with same parameter value
      */
     public DEmpiricalRV newInstance(RNStreamIfc rng) {
-        return new DEmpiricalRV(this.myValues, this.myCDF, rng);
+        return new DEmpiricalRV(this.myValues, this.myCDF, rng, myAlgoType);
+    }
+
+    /**
+     * @return the algorithm used to select the values
+     */
+    public JSLRandom.AlgoType getAlgoType() {
+        return myAlgoType;
     }
 
     /**
@@ -119,14 +160,10 @@ public final class DEmpiricalRV extends ParameterizedRV {
         if (myCDF.length == 1) {
             return myValues[0];
         }
-        int i = 0;
-        double value = myValues[i];
-        double u = myRNStream.randU01();
-        while (myCDF[i] <= u) {
-            i = i + 1;
-            value = myValues[i];
+        if (myAliasTable != null) {
+            return myValues[myAliasTable.index(myRNStream)];
         }
-        return value;
+        return myValues[JSLRandom.searchCDF(myCDF, myRNStream.randU01())];
     }
 
     /**
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package jsl.utilities.random.rvariable;
+
+import jsl.utilities.distributions.Binomial;
+import jsl.utilities.distributions.Poisson;
+import jsl.utilities.math.JSLMath;
+import jsl.utilities.random.rng.RNStreamIfc;
+
+/**
+ * Rejection based generation of Poisson and binomial random variates with
+ * constant expected time. For small means, inverse transform is used because it is
+ * fast enough and the rejection algorithms are not valid there.
+ * <p>
+ * Poisson: PTRS, Hormann, W. (1993). The transformed rejection method for generating
+ * Poisson random variables. Insurance: Mathematics and Economics, 12(1), 39-45.
+ * <p>
+ * Binomial: BTPE, Kachitvichyanukul, V. and Schmeiser, B. W. (1988). Binomial random
+ * variate generation. Communications of the ACM, 31(2), 216-222.
+ */
+final class DiscreteRejection {
+
+    /**
+     * PTRS is used when the mean is at least this value
+     */
+    static final double POISSON_THRESHOLD = 10.0;
+
+    /**
+     * BTPE is used when n*min(p, 1-p) is at least this value
+     */
+    static final double BINOMIAL_THRESHOLD = 30.0;
+
+    private DiscreteRejection() {
+    }
+
+    /**
+     * @param mean the mean, must be greater than 0
+     * @param rng  the source of randomness
+     * @return the Poisson random variate
+     */
+    static int poisson(double mean, RNStreamIfc rng) {
+        if (mean < POISSON_THRESHOLD) {
+            return Poisson.poissonInvCDF(rng.randU01(), mean);
+        }
+        double slam = Math.sqrt(mean);
+        double loglam = Math.log(mean);
+        double b = 0.931 + 2.53 * slam;
+        double a = -0.059 + 0.02483 * b;
+        double invalpha = 1.1239 + 1.1328 / (b - 3.4);
+        double vr = 0.9277 - 3.6224 / (b - 2.0);
+        while (true) {
+            double u = rng.randU01() - 0.5;
+            double v = rng.randU01();
+            double us = 0.5 - Math.abs(u);
+            double k = Math.floor((2.0 * a / us + b) * u + mean + 0.43);
+            if ((us >= 0.07) && (v <= vr)) {
+                return (int) k;
+            }
+            if ((k < 0.0) || ((us < 0.013) && (v > us))) {
+                continue;
+            }
+            double lhs = Math.log(v * invalpha / (a / (us * us) + b));
+            double rhs = -mean + k * loglam - JSLMath.logFactorial((int) k);
+            if (lhs <= rhs) {
+                return (int) k;
+            }
+        }
+    }
+
+    /**
+     * @param pSuccess the probability of success, must be in (0,1)
+     * @param nTrials  the number of trials, must be greater than 0
+     * @param rng      the source of randomness
+     * @return the binomial random variate
+     */
+    static int binomial(double pSuccess, int nTrials, RNStreamIfc rng) {
+        double r = Math.min(pSuccess, 1.0 - pSuccess);
+        if (nTrials * r < BINOMIAL_THRESHOLD) {
+            return Binomial.binomialInvCDF(rng.randU01(), nTrials, pSuccess);
+        }
+        int y = btpe(r, nTrials, rng);
+        if (pSuccess > 0.5) {
+            y = nTrials - y;
+        }
+        return y;
+    }
+
+    /**
+     * @param r the probability of success, must be less than or equal to 0.5
+     * @param n the number of trials
+     * @param rng the source of randomness
+     * @return the binomial random variate
+     */
+    private static int btpe(double r, int n, RNStreamIfc rng) {
+        double q = 1.0 - r;
+        double nrq = n * r * q;
+        double fm = n * r + r;
+        long m = (long) Math.floor(fm);
+        double p1 = Math.floor(2.195 * Math.sqrt(nrq) - 4.6 * q) + 0.5;
+        double xm = m + 0.5;
+        double xl = xm - p1;
+        double xr = xm + p1;
+        double c = 0.134 + 20.5 / (15.3 + m);
+        double a = (fm - xl) / (fm - xl * r);
+        double laml = a * (1.0 + a / 2.0);
+        a = (xr - fm) / (xr * q);
+        double lamr = a * (1.0 + a / 2.0);
+        double p2 = p1 * (1.0 + 2.0 * c);
+        double p3 = p2 + c / laml;
+        double p4 = p3 + c / lamr;
+        while (true) {
+            double u = rng.randU01() * p4;
+            double v = rng.randU01();
+            long y;
+            if (u <= p1) {
+                // triangular region, accept immediately
+                return (int) Math.floor(xm - p1 * v + u);
+            } else if (u <= p2) {
+                // parallelogram region
+                double x = xl + (u - p1) / c;
+                v = v * c + 1.0 - Math.abs(m - x + 0.5) / p1;
+                if (v > 1.0) {
+                    continue;
+                }
+                y = (long) Math.floor(x);
+            } else if (u <= p3) {
+                // left exponential tail
+                y = (long) Math.floor(xl + Math.log(v) / laml);
+                if (y < 0) {
+                    continue;
+                }
+                v = v * (u - p2) * laml;
+            } else {
+                // right exponential tail
+                y = (long) Math.floor(xr - Math.log(v) / lamr);
+                if (y > n) {
+                    continue;
+                }
+                v = v * (u - p3) * lamr;
+            }
+            long k = Math.abs(y - m);
+            if ((k <= 20) || (k >= nrq / 2.0 - 1.0)) {
+                // explicit evaluation of f(y)/f(m)
+                double s = r / q;
+                double aa = s * (n + 1.0);
+                double f = 1.0;
+                if (m < y) {
+                    for (long i = m + 1; i <= y; i++) {
+                        f = f * (aa / i - s);
+                    }
+                } else if (m > y) {
+                    for (long i = y + 1; i <= m; i++) {
+                        f = f / (aa / i - s);
+                    }
+                }
+                if (v <= f) {
+                    return (int) y;
+                }
+                continue;
+            }
+            // squeeze using upper and lower bounds on log(f(y))
+            double rho = (k / nrq) * ((k * (k / 3.0 + 0.625) + 0.1666666666666) / nrq + 0.5);
+            double t = -k * k / (2.0 * nrq);
+            double alv = Math.log(v);
+            if (alv < t - rho) {
+                return (int) y;
+            }
+            if (alv > t + rho) {
+                continue;
+            }
+            double x1 = y + 1.0;
+            double f1 = m + 1.0;
+            double z = n + 1.0 - m;
+            double w = n - y + 1.0;
+            // log(f(y)/f(m)) by Stirling's formula, the corrections of y + 1 and n - y + 1
+            // are subtracted (the published listing adds all four)
+            double bound = xm * Math.log(f1 / x1) + (n - m + 0.5) * Math.log(z / w)
+                    + (y - m) * Math.log(w * r / (x1 * q))
+                    + stirling(f1) + stirling(z) - stirling(x1) - stirling(w);
+            if (alv <= bound) {
+                return (int) y;
+            }
+        }
+    }
+
+    /**
+     * @param x the value
+     * @return the correction term of Stirling's approximation used by BTPE
+     */
+    private static double stirling(double x) {
+        double x2 = x * x;
+        return (13860.0 - (462.0 - (132.0 - (99.0 - 140.0 / x2) / x2) / x2) / x2) / x / 166320.0;
+    }
+}
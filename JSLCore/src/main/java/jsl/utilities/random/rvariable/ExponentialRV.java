@@ -25,6 +25,11 @@ public final class ExponentialRV extends ParameterizedRV {
 
     private final double mean;
 
+    /**
+     * The algorithm used to generate the random variates
+     */
+    private final JSLRandom.AlgoType myAlgoType;
+
     /**
      * Defaults to mean = 1.0
      */
@@ -54,7 +59,18 @@ public final class ExponentialRV extends ParameterizedRV {
      * @param rng  must be null
      */
     public ExponentialRV(double mean, RNStreamIfc rng) {
+        this(mean, rng, JSLRandom.AlgoType.Inverse);
+    }
+
+    /**
+     * @param mean must be greater than 0.0
+     * @param rng  must not be null
+     * @param type the algorithm, AcceptanceRejection is faster but cannot be used
+     *             for antithetic variates, if null then inverse transform is used
+     */
+    public ExponentialRV(double mean, RNStreamIfc rng, JSLRandom.AlgoType type) {
         super(rng);
+        myAlgoType = (type == null) ? JSLRandom.AlgoType.Inverse : type;
         if (mean <= 0.0) {
             throw new IllegalArgumentException("Exponential mean must be > 0.0");
         }
@@ -66,7 +82,7 @@ public final class ExponentialRV extends ParameterizedRV {
      * @return a new instance with same parameter value
      */
     public ExponentialRV newInstance(RNStreamIfc rng) {
-        return new ExponentialRV(this.mean, rng);
+        return new ExponentialRV(this.mean, rng, myAlgoType);
     }
 
     @Override
@@ -85,7 +101,26 @@ public final class ExponentialRV extends ParameterizedRV {
 
     @Override
     protected double generate() {
-        return JSLRandom.rExponential(mean, myRNStream);
+        return JSLRandom.rExponential(mean, myRNStream, myAlgoType);
+    }
+
+    /**
+     * @return the algorithm used to generate the random variates
+     */
+    public JSLRandom.AlgoType getAlgoType() {
+        return myAlgoType;
+    }
+
+    @Override
+    protected void generate(double[] values) {
+        if (myAlgoType == JSLRandom.AlgoType.AcceptanceRejection) {
+            super.generate(values);
+            return;
+        }
+        myRNStream.randU01(values, 0, values.length);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = -mean * Math.log(1.0 - values[i]);
+        }
     }
 
     /**
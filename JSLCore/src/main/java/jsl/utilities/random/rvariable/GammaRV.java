@@ -26,6 +26,11 @@ public final class GammaRV extends ParameterizedRV {
 
     private final Gamma myGamma;
 
+    /**
+     * The algorithm used to generate the random variates
+     */
+    private final JSLRandom.AlgoType myAlgoType;
+
     public GammaRV(double shape, double scale) {
         this(shape, scale, JSLRandom.nextRNStream());
     }
@@ -35,7 +40,19 @@ public final class GammaRV extends ParameterizedRV {
     }
 
     public GammaRV(double shape, double scale, RNStreamIfc rng) {
+        this(shape, scale, rng, JSLRandom.AlgoType.Inverse);
+    }
+
+    /**
+     * @param shape must be greater than 0.0
+     * @param scale must be greater than 0.0
+     * @param rng  must not be null
+     * @param type the algorithm, AcceptanceRejection is faster but cannot be used
+     *             for antithetic variates, if null then inverse transform is used
+     */
+    public GammaRV(double shape, double scale, RNStreamIfc rng, JSLRandom.AlgoType type) {
         super(rng);
+        myAlgoType = (type == null) ? JSLRandom.AlgoType.Inverse : type;
         myGamma = new Gamma(shape, scale);
     }
 
@@ -44,7 +61,7 @@ public final class GammaRV extends ParameterizedRV {
      * @return a new instance with same parameter value
      */
     public GammaRV newInstance(RNStreamIfc rng) {
-        return new GammaRV(this.getShape(), this.getScale(), rng);
+        return new GammaRV(this.getShape(), this.getScale(), rng, myAlgoType);
     }
 
     @Override
@@ -75,9 +92,19 @@ public final class GammaRV extends ParameterizedRV {
 
     @Override
     protected double generate() {
+        if (myAlgoType == JSLRandom.AlgoType.AcceptanceRejection) {
+            return JSLRandom.rGamma(getShape(), getScale(), myRNStream, myAlgoType);
+        }
         return myGamma.invCDF(myRNStream.randU01());
     }
 
+    /**
+     * @return the algorithm used to generate the random variates
+     */
+    public JSLRandom.AlgoType getAlgoType() {
+        return myAlgoType;
+    }
+
     /**
      * The parameter names are "shape" and "scale"
      *
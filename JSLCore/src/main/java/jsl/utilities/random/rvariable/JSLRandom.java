@@ -37,11 +37,17 @@ import static jsl.utilities.distributions.Normal.stdNormalInvCDF;
  * distribution. The user has the option of supplying a RNStreamIfc as the source of
  * the randomness. Methods that do not have a RNStreamIfc parameter use,
  * getDefaultRNStream() as the source of randomness. That is, they all <b>share</b> the same
- * stream, which is the default stream from the default random number stream factory.
+ * stream, which is the default stream from the current random number stream provider.
  * The user has the option of supplying a stream number to identify the stream
  * from the underlying stream provider. By default, stream 1 is the default stream
  * for the default provider. Stream 2 refers to the 2nd stream, etc.
  * <p>
+ * The current stream provider is the provider bound to the calling thread, if any, otherwise
+ * the provider shared by all threads. A provider can be bound to the calling thread
+ * using runWithRNStreamProvider(). This permits models executing on different threads to
+ * allocate streams from their own providers so that the numbering of the streams
+ * does not depend on the scheduling of the threads.
+ * <p>
  * Also provides a number of methods for sampling with and without replacement
  * from arrays and lists as well as creating permutations of arrays and lists.
  *
@@ -49,10 +55,21 @@ import static jsl.utilities.distributions.Normal.stdNormalInvCDF;
  */
 public class JSLRandom {
 
+    /**
+     * The algorithm used to generate a random variate. Inverse uses the inverse
+     * transform technique, which is needed for antithetic variates and the synchronization
+     * of common random numbers. AcceptanceRejection uses a faster technique that is based
+     * on acceptance-rejection, e.g. the ziggurat method for the normal and exponential
+     * distributions and Marsaglia and Tsang (2000) for the gamma distribution. For
+     * selection from discrete empirical distributions, Inverse uses a binary search
+     * of the CDF and AcceptanceRejection uses the alias method, see AliasTable.
+     */
     public enum AlgoType {Inverse, AcceptanceRejection}
 
     private static RNStreamProviderIfc myStreamProvider = new RNStreamProvider();
 
+    private static final ThreadLocal<RNStreamProviderIfc> myThreadStreamProvider = new ThreadLocal<>();
+
     private JSLRandom() {
     }
 
@@ -67,18 +84,48 @@ public class JSLRandom {
     }
 
     /**
-     * @return the provider that is currently being used for all JSLRandom method calls
+     * @return the provider that is currently being used for JSLRandom method calls on the
+     * calling thread. This is the provider bound to the calling thread, if any, otherwise
+     * the provider shared by all threads
      */
     public static RNStreamProviderIfc getRNStreamProvider() {
+        RNStreamProviderIfc provider = myThreadStreamProvider.get();
+        if (provider != null) {
+            return provider;
+        }
         return myStreamProvider;
     }
 
+    /**
+     * Binds the supplied stream provider to the calling thread while the supplied action
+     * executes. While the action executes, all JSLRandom method calls on the calling thread
+     * use the supplied provider. The previous binding, if any, is restored afterwards.
+     *
+     * @param streamProvider the stream provider to use, must not be null
+     * @param action         the action to execute, must not be null
+     */
+    public static void runWithRNStreamProvider(RNStreamProviderIfc streamProvider, Runnable action) {
+        Objects.requireNonNull(streamProvider, "The stream provider cannot be null");
+        Objects.requireNonNull(action, "The action cannot be null");
+        RNStreamProviderIfc previous = myThreadStreamProvider.get();
+        myThreadStreamProvider.set(streamProvider);
+        try {
+            action.run();
+        } finally {
+            if (previous == null) {
+                myThreadStreamProvider.remove();
+            } else {
+                myThreadStreamProvider.set(previous);
+            }
+        }
+    }
+
     /**
      * @return gets the next stream of pseudo random numbers from the default random
      * number stream provider
      */
     public static RNStreamIfc nextRNStream() {
-        return myStreamProvider.nextRNStream();
+        return getRNStreamProvider().nextRNStream();
     }
 
     /**
@@ -86,7 +133,7 @@ public class JSLRandom {
      * @return the number associated with the provided stream or -1 if the stream was not provided by the default provider
      */
     public static int getStreamNumber(RNStreamIfc stream) {
-        return myStreamProvider.getStreamNumber(stream);
+        return getRNStreamProvider().getStreamNumber(stream);
     }
 
     /**
@@ -94,14 +141,14 @@ public class JSLRandom {
      * @return the stream associated with the stream number from the underlying stream provider
      */
     public static RNStreamIfc rnStream(int streamNum) {
-        return myStreamProvider.rnStream(streamNum);
+        return getRNStreamProvider().rnStream(streamNum);
     }
 
     /**
      * @return the default stream from the default random number stream provider
      */
     public static RNStreamIfc getDefaultRNStream() {
-        return myStreamProvider.defaultRNStream();
+        return getRNStreamProvider().defaultRNStream();
     }
 
     /**
@@ -125,7 +172,7 @@ public class JSLRandom {
      * @return the random value
      */
     public static double rBernoulli(double pSuccess, int streamNum) {
-        return rBernoulli(pSuccess, myStreamProvider.rnStream(streamNum));
+        return rBernoulli(pSuccess, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -162,7 +209,7 @@ public class JSLRandom {
      * @return the random value
      */
     public static int rBinomial(double pSuccess, int nTrials, int streamNum) {
-        return rBinomial(pSuccess, nTrials, myStreamProvider.rnStream(streamNum));
+        return rBinomial(pSuccess, nTrials, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -182,6 +229,28 @@ public class JSLRandom {
         return Binomial.binomialInvCDF(stream.randU01(), nTrials, pSuccess);
     }
 
+    /**
+     * @param pSuccess the probability of success, must be in (0,1)
+     * @param nTrials  the number of trials, must be greater than 0
+     * @param stream   the RNStreamIfc, must not be null
+     * @param type     if AcceptanceRejection, then BTPE is used when n*min(p,1-p) is
+     *                 at least 30, if null then inverse transform is the default
+     * @return the random value
+     */
+    public static int rBinomial(double pSuccess, int nTrials, RNStreamIfc stream, AlgoType type) {
+        if (type != AlgoType.AcceptanceRejection) {
+            return rBinomial(pSuccess, nTrials, stream);
+        }
+        Objects.requireNonNull(stream, "The supplied RNStreamIfc was null");
+        if (nTrials <= 0) {
+            throw new IllegalArgumentException("Number of trials must be >= 1");
+        }
+        if ((pSuccess <= 0.0) || (pSuccess >= 1.0)) {
+            throw new IllegalArgumentException("Success Probability must be (0,1)");
+        }
+        return DiscreteRejection.binomial(pSuccess, nTrials, stream);
+    }
+
     /**
      * @param mean the mean of the Poisson, must be greater than 0
      * @return the random value
@@ -196,7 +265,7 @@ public class JSLRandom {
      * @return the random value
      */
     public static int rPoisson(double mean, int streamNum) {
-        return rPoisson(mean, myStreamProvider.rnStream(streamNum));
+        return rPoisson(mean, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -209,6 +278,24 @@ public class JSLRandom {
         return Poisson.poissonInvCDF(rng.randU01(), mean);
     }
 
+    /**
+     * @param mean the mean of the Poisson, must be greater than 0
+     * @param rng  the RNStreamIfc, must not be null
+     * @param type if AcceptanceRejection, then PTRS is used when the mean is at least 10,
+     *             if null then inverse transform is the default
+     * @return the random value
+     */
+    public static int rPoisson(double mean, RNStreamIfc rng, AlgoType type) {
+        if (type != AlgoType.AcceptanceRejection) {
+            return rPoisson(mean, rng);
+        }
+        Objects.requireNonNull(rng, "The supplied RNStreamIfc was null");
+        if (mean <= 0.0) {
+            throw new IllegalArgumentException("Mean must be > 0)");
+        }
+        return DiscreteRejection.poisson(mean, rng);
+    }
+
     /**
      * Generates a discrete uniform over the range
      *
@@ -229,7 +316,7 @@ public class JSLRandom {
      * @return the random value
      */
     public static int rDUniform(int minimum, int maximum, int streamNum) {
-        return rDUniform(minimum, maximum, myStreamProvider.rnStream(streamNum));
+        return rDUniform(minimum, maximum, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -259,7 +346,7 @@ public class JSLRandom {
      * @return the random value
      */
     public static int rGeometric(double pSuccess, int streamNum) {
-        return rGeometric(pSuccess, myStreamProvider.rnStream(streamNum));
+        return rGeometric(pSuccess, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -292,7 +379,7 @@ public class JSLRandom {
      * @return the random value
      */
     public static int rNegBinomial(double pSuccess, double rSuccesses, int streamNum) {
-        return rNegBinomial(pSuccess, rSuccesses, myStreamProvider.rnStream(streamNum));
+        return rNegBinomial(pSuccess, rSuccesses, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -306,6 +393,32 @@ public class JSLRandom {
         return NegativeBinomial.negBinomialInvCDF(rng.randU01(), pSuccess, rSuccesses);
     }
 
+    /**
+     * @param pSuccess   the probability of success, must be in (0,1)
+     * @param rSuccesses number of trials until rth success
+     * @param rng        the RNStreamIfc, must not be null
+     * @param type       if AcceptanceRejection, then the value is generated as a Poisson with
+     *                   a gamma distributed mean, if null then inverse transform is the default
+     * @return the random value
+     */
+    public static int rNegBinomial(double pSuccess, double rSuccesses, RNStreamIfc rng, AlgoType type) {
+        if (type != AlgoType.AcceptanceRejection) {
+            return rNegBinomial(pSuccess, rSuccesses, rng);
+        }
+        Objects.requireNonNull(rng, "The supplied RNStreamIfc was null");
+        if (rSuccesses <= 0) {
+            throw new IllegalArgumentException("The number of successes must be > 0");
+        }
+        if ((pSuccess <= 0.0) || (pSuccess >= 1.0)) {
+            throw new IllegalArgumentException("Success Probability must be in (0,1)");
+        }
+        double mean = rARGamma(rSuccesses, (1.0 - pSuccess) / pSuccess, rng);
+        if (mean <= 0.0) {
+            return 0;
+        }
+        return DiscreteRejection.poisson(mean, rng);
+    }
+
     /**
      * Generates a continuous U(0,1) using the default stream
      *
@@ -355,7 +468,7 @@ public class JSLRandom {
      * @return the random value
      */
     public static double rUniform(double minimum, double maximum, int streamNum) {
-        return rUniform(minimum, maximum, myStreamProvider.rnStream(streamNum));
+        return rUniform(minimum, maximum, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -421,7 +534,7 @@ public class JSLRandom {
      * @return the random value
      */
     public static double rNormal(double mean, double variance, int streamNum) {
-        return rNormal(mean, variance, myStreamProvider.rnStream(streamNum));
+        return rNormal(mean, variance, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -440,6 +553,25 @@ public class JSLRandom {
         return (z * stdDev + mean);
     }
 
+    /**
+     * @param mean     the mean of the normal
+     * @param variance the variance of the normal, must be greater than 0
+     * @param rng      the RNStreamIfc, must not null
+     * @param type     the algorithm, AcceptanceRejection uses the ziggurat method,
+     *                 if null then inverse transform is the default
+     * @return the random value
+     */
+    public static double rNormal(double mean, double variance, RNStreamIfc rng, AlgoType type) {
+        if (type != AlgoType.AcceptanceRejection) {
+            return rNormal(mean, variance, rng);
+        }
+        Objects.requireNonNull(rng, "The supplied RNStreamIfc was null");
+        if (variance <= 0) {
+            throw new IllegalArgumentException("Variance must be positive");
+        }
+        return (Ziggurat.normal(rng) * Math.sqrt(variance) + mean);
+    }
+
     /**
      * @param mean     the mean of the lognormal, must be greater than 0
      * @param variance the variance of the lognormal, must be greater than 0
@@ -456,7 +588,7 @@ public class JSLRandom {
      * @return the random value
      */
     public static double rLogNormal(double mean, double variance, int streamNum) {
-        return rLogNormal(mean, variance, myStreamProvider.rnStream(streamNum));
+        return rLogNormal(mean, variance, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -482,6 +614,33 @@ public class JSLRandom {
         return (Math.exp(x));
     }
 
+    /**
+     * @param mean     the mean of the lognormal, must be greater than 0
+     * @param variance the variance of the lognormal, must be greater than 0
+     * @param rng      the RNStreamIfc, must not null
+     * @param type     the algorithm, AcceptanceRejection uses the ziggurat method for
+     *                 the underlying normal, if null then inverse transform is the default
+     * @return the random value
+     */
+    public static double rLogNormal(double mean, double variance, RNStreamIfc rng, AlgoType type) {
+        if (type != AlgoType.AcceptanceRejection) {
+            return rLogNormal(mean, variance, rng);
+        }
+        Objects.requireNonNull(rng, "The supplied RNStreamIfc was null");
+        if (mean <= 0) {
+            throw new IllegalArgumentException("Mean must be positive");
+        }
+        if (variance <= 0) {
+            throw new IllegalArgumentException("Variance must be positive");
+        }
+        double z = Ziggurat.normal(rng);
+        double d = variance + mean * mean;
+        double t = mean * mean;
+        double normalMu = Math.log((t) / Math.sqrt(d));
+        double normalSigma = Math.sqrt(Math.log(d / t));
+        return (Math.exp(z * normalSigma + normalMu));
+    }
+
     /**
      * @param shape the shape, must be greater than 0
      * @param scale the scale, must be greater than 0
@@ -498,7 +657,7 @@ public class JSLRandom {
      * @return the random value
      */
     public static double rWeibull(double shape, double scale, int streamNum) {
-        return rWeibull(shape, scale, myStreamProvider.rnStream(streamNum));
+        return rWeibull(shape, scale, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -543,7 +702,7 @@ public class JSLRandom {
      * @return the random value
      */
     public static double rExponential(double mean, int streamNum) {
-        return rExponential(mean, myStreamProvider.rnStream(streamNum));
+        return rExponential(mean, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -560,6 +719,24 @@ public class JSLRandom {
         return (-mean * Math.log(1.0 - u));
     }
 
+    /**
+     * @param mean the mean, must be greater than 0.0
+     * @param rng  the RNStreamIfc, must not null
+     * @param type the algorithm, AcceptanceRejection uses the ziggurat method,
+     *             if null then inverse transform is the default
+     * @return the random value
+     */
+    public static double rExponential(double mean, RNStreamIfc rng, AlgoType type) {
+        if (type != AlgoType.AcceptanceRejection) {
+            return rExponential(mean, rng);
+        }
+        Objects.requireNonNull(rng, "The supplied RNStreamIfc was null");
+        if (mean <= 0.0) {
+            throw new IllegalArgumentException("Exponential mean must be > 0.0");
+        }
+        return (mean * Ziggurat.exponential(rng));
+    }
+
     /**
      * @param alpha1 alpha1 parameter
      * @param alpha2 alpha2 parameter
@@ -582,7 +759,7 @@ public class JSLRandom {
      */
     public static double rJohnsonB(double alpha1, double alpha2,
                                    double min, double max, int streamNum) {
-        return rJohnsonB(alpha1, alpha2, min, max, myStreamProvider.rnStream(streamNum));
+        return rJohnsonB(alpha1, alpha2, min, max, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -624,7 +801,7 @@ public class JSLRandom {
      * @return the generated value
      */
     public static double rLogLogistic(double shape, double scale, int streamNum) {
-        return rLogLogistic(shape, scale, myStreamProvider.rnStream(streamNum));
+        return rLogLogistic(shape, scale, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -661,7 +838,7 @@ public class JSLRandom {
      */
     public static double rTriangular(double min, double mode,
                                      double max, int streamNum) {
-        return rTriangular(min, mode, max, myStreamProvider.rnStream(streamNum));
+        return rTriangular(min, mode, max, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -738,7 +915,7 @@ public class JSLRandom {
      * @return the generated value
      */
     public static double rGamma(double shape, double scale, int streamNum, AlgoType type) {
-        return rGamma(shape, scale, myStreamProvider.rnStream(streamNum), type);
+        return rGamma(shape, scale, getRNStreamProvider().rnStream(streamNum), type);
     }
 
     /**
@@ -892,7 +1069,7 @@ public class JSLRandom {
      * @return the random value
      */
     public static double rChiSquared(double dof, int streamNum) {
-        return rChiSquared(dof, myStreamProvider.rnStream(streamNum));
+        return rChiSquared(dof, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -924,7 +1101,7 @@ public class JSLRandom {
      * @return the generated value
      */
     public static double rPearsonType5(double shape, double scale, int streamNum) {
-        return rPearsonType5(shape, scale, myStreamProvider.rnStream(streamNum));
+        return rPearsonType5(shape, scale, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -962,7 +1139,7 @@ public class JSLRandom {
      * @return the random value
      */
     public static double rBeta(double alpha1, double alpha2, int streamNum) {
-        return rBeta(alpha1, alpha2, myStreamProvider.rnStream(streamNum));
+        return rBeta(alpha1, alpha2, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -977,6 +1154,29 @@ public class JSLRandom {
         return Beta.stdBetaInvCDF(rng.randU01(), alpha1, alpha2);
     }
 
+    /**
+     * This beta is restricted to the range of (0,1)
+     *
+     * @param alpha1 alpha1 parameter, must be greater than 0
+     * @param alpha2 alpha2 parameter, must be greater than 0
+     * @param rng    the RNStreamIfc
+     * @param type   the algorithm, AcceptanceRejection uses the ratio of gamma random
+     *               variates generated by acceptance-rejection, if null then inverse transform is the default
+     * @return the random value
+     */
+    public static double rBeta(double alpha1, double alpha2, RNStreamIfc rng, AlgoType type) {
+        if (type != AlgoType.AcceptanceRejection) {
+            return rBeta(alpha1, alpha2, rng);
+        }
+        Objects.requireNonNull(rng, "The supplied RNStreamIfc was null");
+        if (alpha1 <= 0 || alpha2 <= 0) {
+            throw new IllegalArgumentException("The shape parameters must be > 0");
+        }
+        double y1 = rARGammaScaleEQ1(alpha1, rng);
+        double y2 = rARGammaScaleEQ1(alpha2, rng);
+        return y1 / (y1 + y2);
+    }
+
     /**
      * This beta is restricted to the range of (minimum,maximum)
      *
@@ -1003,7 +1203,7 @@ public class JSLRandom {
      */
     public static double rBetaG(double alpha1, double alpha2,
                                 double minimum, double maximum, int streamNum) {
-        return rBetaG(alpha1, alpha2, minimum, maximum, myStreamProvider.rnStream(streamNum));
+        return rBetaG(alpha1, alpha2, minimum, maximum, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -1051,7 +1251,7 @@ public class JSLRandom {
      */
     public static double rPearsonType6(double alpha1, double alpha2,
                                        double beta, int streamNum) {
-        return rPearsonType6(alpha1, alpha2, beta, myStreamProvider.rnStream(streamNum));
+        return rPearsonType6(alpha1, alpha2, beta, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -1093,7 +1293,7 @@ public class JSLRandom {
      * @return the random value
      */
     public static double rLaplace(double mean, double scale, int streamNum) {
-        return rLaplace(mean, scale, myStreamProvider.rnStream(streamNum));
+        return rLaplace(mean, scale, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -1132,7 +1332,7 @@ public class JSLRandom {
      * @return the randomly selected value
      */
     public static int randomlySelect(int[] array, int streamNum) {
-        return randomlySelect(array, myStreamProvider.rnStream(streamNum));
+        return randomlySelect(array, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -1172,7 +1372,7 @@ public class JSLRandom {
      * @return the randomly selected value
      */
     public static double randomlySelect(double[] array, int streamNum) {
-        return randomlySelect(array, myStreamProvider.rnStream(streamNum));
+        return randomlySelect(array, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -1214,7 +1414,7 @@ public class JSLRandom {
      * @return the randomly selected value
      */
     public static double randomlySelect(double[] array, double[] cdf, int streamNum) {
-        return randomlySelect(array, cdf, myStreamProvider.rnStream(streamNum));
+        return randomlySelect(array, cdf, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -1240,15 +1440,8 @@ public class JSLRandom {
             return array[0];
         }
 
-        int i = 0;
-        double value = array[i];
-        double u = rng.randU01();
-        while (cdf[i] <= u) {
-            i = i + 1;
-            value = array[i];
-        }
-
-        return value;
+        int i = searchCDF(cdf, rng.randU01());
+        return array[i];
 
     }
 
@@ -1274,7 +1467,7 @@ public class JSLRandom {
      * @return the randomly selected value
      */
     public static int randomlySelect(int[] array, double[] cdf, int streamNum) {
-        return randomlySelect(array, cdf, myStreamProvider.rnStream(streamNum));
+        return randomlySelect(array, cdf, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -1300,15 +1493,8 @@ public class JSLRandom {
             return array[0];
         }
 
-        int i = 0;
-        int value = array[i];
-        double u = rng.randU01();
-        while (cdf[i] <= u) {
-            i = i + 1;
-            value = array[i];
-        }
-
-        return value;
+        int i = searchCDF(cdf, rng.randU01());
+        return array[i];
 
     }
 
@@ -1336,7 +1522,7 @@ public class JSLRandom {
      * @return the randomly selected value
      */
     public static <T> T randomlySelect(List<T> list, double[] cdf, int streamNum) {
-        return randomlySelect(list, cdf, myStreamProvider.rnStream(streamNum));
+        return randomlySelect(list, cdf, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -1367,16 +1553,32 @@ public class JSLRandom {
             return list.get(0);
         }
 
-        int i = 0;
-        T value = list.get(i);
-        double u = rng.randU01();
-        while (cdf[i] <= u) {
-            i = i + 1;
-            value = list.get(i);
-        }
+        int i = searchCDF(cdf, rng.randU01());
+        return list.get(i);
 
-        return value;
+    }
 
+    /**
+     * Uses a binary search to find the smallest index i such that u is less than cdf[i].
+     * This is the inverse transform for a discrete distribution and selects the same
+     * index as a linear search through the cdf.
+     *
+     * @param cdf a valid cdf, see isValidCDF(), not checked
+     * @param u   a number in (0,1)
+     * @return the selected index
+     */
+    public static int searchCDF(double[] cdf, double u) {
+        int lo = 0;
+        int hi = cdf.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cdf[mid] <= u) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
     }
 
     /**
@@ -1472,7 +1674,7 @@ public class JSLRandom {
      * @return the randomly selected element
      */
     public static <T> T randomlySelect(List<T> list, int streamNum) {
-        return randomlySelect(list, myStreamProvider.rnStream(streamNum));
+        return randomlySelect(list, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -1518,7 +1720,7 @@ public class JSLRandom {
      * @param streamNum the stream number from the stream provider to use
      */
     public static void permutation(double[] x, int streamNum) {
-        permutation(x, myStreamProvider.rnStream(streamNum));
+        permutation(x, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -1553,7 +1755,7 @@ public class JSLRandom {
      * @param streamNum  the stream number from the stream provider to use
      */
     public static void sampleWithoutReplacement(double[] x, int sampleSize, int streamNum) {
-        sampleWithoutReplacement(x, sampleSize, myStreamProvider.rnStream(streamNum));
+        sampleWithoutReplacement(x, sampleSize, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -1618,7 +1820,7 @@ public class JSLRandom {
      * @param streamNum the stream number from the stream provider to use
      */
     public static void permutation(int[] x, int streamNum) {
-        permutation(x, myStreamProvider.rnStream(streamNum));
+        permutation(x, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -1653,7 +1855,7 @@ public class JSLRandom {
      * @param streamNum  the stream number from the stream provider to use
      */
     public static void sampleWithoutReplacement(int[] x, int sampleSize, int streamNum) {
-        sampleWithoutReplacement(x, sampleSize, myStreamProvider.rnStream(streamNum));
+        sampleWithoutReplacement(x, sampleSize, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -1699,7 +1901,7 @@ public class JSLRandom {
      * @param streamNum the stream number from the stream provider to use
      */
     public static void permutation(boolean[] x, int streamNum) {
-        permutation(x, myStreamProvider.rnStream(streamNum));
+        permutation(x, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -1734,7 +1936,7 @@ public class JSLRandom {
      * @param streamNum  the stream number from the stream provider to use
      */
     public static void sampleWithoutReplacement(boolean[] x, int sampleSize, int streamNum) {
-        sampleWithoutReplacement(x, sampleSize, myStreamProvider.rnStream(streamNum));
+        sampleWithoutReplacement(x, sampleSize, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -1780,7 +1982,7 @@ public class JSLRandom {
      * @param streamNum the stream number from the stream provider to use
      */
     public static <T> void permutation(T[] x, int streamNum) {
-        permutation(x, myStreamProvider.rnStream(streamNum));
+        permutation(x, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -1815,7 +2017,7 @@ public class JSLRandom {
      * @param streamNum  the stream number from the stream provider to use
      */
     public static <T> void sampleWithoutReplacement(T[] x, int sampleSize, int streamNum) {
-        sampleWithoutReplacement(x, sampleSize, myStreamProvider.rnStream(streamNum));
+        sampleWithoutReplacement(x, sampleSize, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -1862,7 +2064,7 @@ public class JSLRandom {
      * @param streamNum the stream number from the stream provider to use
      */
     public static <T> void permutation(List<T> x, int streamNum) {
-        permutation(x, myStreamProvider.rnStream(streamNum));
+        permutation(x, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -1900,7 +2102,7 @@ public class JSLRandom {
      * @param streamNum  the stream number from the stream provider to use
      */
     public static <T> void sampleWithoutReplacement(List<T> x, int sampleSize, int streamNum) {
-        sampleWithoutReplacement(x, sampleSize, myStreamProvider.rnStream(streamNum));
+        sampleWithoutReplacement(x, sampleSize, getRNStreamProvider().rnStream(streamNum));
     }
 
     /**
@@ -16,6 +16,7 @@
 
 package jsl.utilities.random.rvariable;
 
+import jsl.utilities.distributions.Normal;
 import jsl.utilities.random.rng.RNStreamIfc;
 
 /**
@@ -27,6 +28,11 @@ public final class LognormalRV extends ParameterizedRV {
 
     private final double myVar;
 
+    /**
+     * The algorithm used to generate the random variates
+     */
+    private final JSLRandom.AlgoType myAlgoType;
+
     public LognormalRV(double mean, double variance) {
         this(mean, variance, JSLRandom.nextRNStream());
     }
@@ -36,7 +42,19 @@ public final class LognormalRV extends ParameterizedRV {
     }
 
     public LognormalRV(double mean, double variance, RNStreamIfc rng) {
+        this(mean, variance, rng, JSLRandom.AlgoType.Inverse);
+    }
+
+    /**
+     * @param mean must be greater than 0.0
+     * @param variance must be greater than 0.0
+     * @param rng  must not be null
+     * @param type the algorithm, AcceptanceRejection is faster but cannot be used
+     *             for antithetic variates, if null then inverse transform is used
+     */
+    public LognormalRV(double mean, double variance, RNStreamIfc rng, JSLRandom.AlgoType type) {
         super(rng);
+        myAlgoType = (type == null) ? JSLRandom.AlgoType.Inverse : type;
         if (mean <= 0) {
             throw new IllegalArgumentException("Mean must be positive");
         }
@@ -53,7 +71,7 @@ public final class LognormalRV extends ParameterizedRV {
      * @return a new instance with same parameter value
      */
     public LognormalRV newInstance(RNStreamIfc rng) {
-        return new LognormalRV(this.myMean, this.myVar, rng);
+        return new LognormalRV(this.myMean, this.myVar, rng, myAlgoType);
     }
 
     @Override
@@ -80,7 +98,31 @@ public final class LognormalRV extends ParameterizedRV {
 
     @Override
     protected double generate() {
-        return JSLRandom.rLogNormal(myMean, myVar, myRNStream);
+        return JSLRandom.rLogNormal(myMean, myVar, myRNStream, myAlgoType);
+    }
+
+    /**
+     * @return the algorithm used to generate the random variates
+     */
+    public JSLRandom.AlgoType getAlgoType() {
+        return myAlgoType;
+    }
+
+    @Override
+    protected void generate(double[] values) {
+        if (myAlgoType == JSLRandom.AlgoType.AcceptanceRejection) {
+            super.generate(values);
+            return;
+        }
+        myRNStream.randU01(values, 0, values.length);
+        double d = myVar + myMean * myMean;
+        double t = myMean * myMean;
+        double normalMu = Math.log((t) / Math.sqrt(d));
+        double normalSigma = Math.sqrt(Math.log(d / t));
+        for (int i = 0; i < values.length; i++) {
+            double z = Normal.stdNormalInvCDF(values[i]);
+            values[i] = Math.exp(z * normalSigma + normalMu);
+        }
     }
 
     /**
@@ -27,6 +27,11 @@ public final class NegativeBinomialRV extends ParameterizedRV {
 
     private final double myNumSuccesses;
 
+    /**
+     * The algorithm used to generate the random variates
+     */
+    private final JSLRandom.AlgoType myAlgoType;
+
     /**
      * @param prob       the probability of success, must be in (0,1)
      * @param numSuccess number of trials until rth success
@@ -50,6 +55,17 @@ public final class NegativeBinomialRV extends ParameterizedRV {
      * @param stream     the stream from the stream provider to use
      */
     public NegativeBinomialRV(double prob, double numSuccess, RNStreamIfc stream) {
+        this(prob, numSuccess, stream, JSLRandom.AlgoType.Inverse);
+    }
+
+    /**
+     * @param prob       the probability of success, must be in (0,1)
+     * @param numSuccess number of trials until rth success
+     * @param stream     the stream from the stream provider to use
+     * @param type       the algorithm, AcceptanceRejection generates a Poisson with a gamma distributed
+     *                   mean and cannot be used for antithetic variates, if null then inverse transform is used
+     */
+    public NegativeBinomialRV(double prob, double numSuccess, RNStreamIfc stream, JSLRandom.AlgoType type) {
         super(stream);
         if ((prob <= 0.0) || (prob >= 1.0)) {
             throw new IllegalArgumentException("Success Probability must be (0,1)");
@@ -59,6 +75,7 @@ public final class NegativeBinomialRV extends ParameterizedRV {
         }
         myProbSuccess = prob;
         myNumSuccesses = numSuccess;
+        myAlgoType = (type == null) ? JSLRandom.AlgoType.Inverse : type;
     }
 
     /**
@@ -66,7 +83,7 @@ public final class NegativeBinomialRV extends ParameterizedRV {
      * @return a new instance with same parameter value
      */
     public NegativeBinomialRV newInstance(RNStreamIfc stream) {
-        return new NegativeBinomialRV(this.myProbSuccess, this.myNumSuccesses, stream);
+        return new NegativeBinomialRV(this.myProbSuccess, this.myNumSuccesses, stream, myAlgoType);
     }
 
     @Override
@@ -98,7 +115,14 @@ public final class NegativeBinomialRV extends ParameterizedRV {
 
     @Override
     protected double generate() {
-        return JSLRandom.rNegBinomial(myProbSuccess, myNumSuccesses, myRNStream);
+        return JSLRandom.rNegBinomial(myProbSuccess, myNumSuccesses, myRNStream, myAlgoType);
+    }
+
+    /**
+     * @return the algorithm used to generate the random variates
+     */
+    public JSLRandom.AlgoType getAlgoType() {
+        return myAlgoType;
     }
 
     /**
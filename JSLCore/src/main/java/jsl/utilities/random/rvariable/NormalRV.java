@@ -16,6 +16,7 @@
 
 package jsl.utilities.random.rvariable;
 
+import jsl.utilities.distributions.Normal;
 import jsl.utilities.random.rng.RNStreamIfc;
 
 /**
@@ -31,6 +32,11 @@ public final class NormalRV extends ParameterizedRV {
 
     private boolean nextNormalFlag = false;
 
+    /**
+     * The algorithm used to generate the random variates
+     */
+    private final JSLRandom.AlgoType myAlgoType;
+
     /**
      * N(0,1)
      */
@@ -47,7 +53,19 @@ public final class NormalRV extends ParameterizedRV {
     }
 
     public NormalRV(double mean, double variance, RNStreamIfc rng) {
+        this(mean, variance, rng, JSLRandom.AlgoType.Inverse);
+    }
+
+    /**
+     * @param mean the mean
+     * @param variance must be greater than 0.0
+     * @param rng  must not be null
+     * @param type the algorithm, AcceptanceRejection is faster but cannot be used
+     *             for antithetic variates, if null then inverse transform is used
+     */
+    public NormalRV(double mean, double variance, RNStreamIfc rng, JSLRandom.AlgoType type) {
         super(rng);
+        myAlgoType = (type == null) ? JSLRandom.AlgoType.Inverse : type;
         myMean = mean;
         if (variance <= 0) {
             throw new IllegalArgumentException("Variance must be positive");
@@ -60,7 +78,7 @@ public final class NormalRV extends ParameterizedRV {
      * @return a new instance with same parameter value
      */
     public NormalRV newInstance(RNStreamIfc rng) {
-        return new NormalRV(this.myMean, this.myVar, rng);
+        return new NormalRV(this.myMean, this.myVar, rng, myAlgoType);
     }
 
     @Override
@@ -94,7 +112,27 @@ public final class NormalRV extends ParameterizedRV {
 
     @Override
     protected double generate() {
-        return JSLRandom.rNormal(myMean, myVar, myRNStream);
+        return JSLRandom.rNormal(myMean, myVar, myRNStream, myAlgoType);
+    }
+
+    /**
+     * @return the algorithm used to generate the random variates
+     */
+    public JSLRandom.AlgoType getAlgoType() {
+        return myAlgoType;
+    }
+
+    @Override
+    protected void generate(double[] values) {
+        if (myAlgoType == JSLRandom.AlgoType.AcceptanceRejection) {
+            super.generate(values);
+            return;
+        }
+        myRNStream.randU01(values, 0, values.length);
+        double stdDev = Math.sqrt(myVar);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Normal.stdNormalInvCDF(values[i]) * stdDev + myMean;
+        }
     }
 
     /**
@@ -25,6 +25,11 @@ public final class PoissonRV extends ParameterizedRV {
 
     private final double mean;
 
+    /**
+     * The algorithm used to generate the random variates
+     */
+    private final JSLRandom.AlgoType myAlgoType;
+
     public PoissonRV(double mean) {
         this(mean, JSLRandom.nextRNStream());
     }
@@ -34,11 +39,22 @@ public final class PoissonRV extends ParameterizedRV {
     }
 
     public PoissonRV(double mean, RNStreamIfc rng) {
+        this(mean, rng, JSLRandom.AlgoType.Inverse);
+    }
+
+    /**
+     * @param mean must be greater than 0.0
+     * @param rng  must not be null
+     * @param type the algorithm, AcceptanceRejection uses PTRS for means of at least 10 and
+     *             cannot be used for antithetic variates, if null then inverse transform is used
+     */
+    public PoissonRV(double mean, RNStreamIfc rng, JSLRandom.AlgoType type) {
         super(rng);
         if (mean <= 0.0) {
             throw new IllegalArgumentException("Poisson mean must be > 0.0");
         }
         this.mean = mean;
+        myAlgoType = (type == null) ? JSLRandom.AlgoType.Inverse : type;
     }
 
     /**
@@ -46,7 +62,7 @@ public final class PoissonRV extends ParameterizedRV {
      * @return a new instance with same parameter value
      */
     public PoissonRV newInstance(RNStreamIfc rng) {
-        return new PoissonRV(this.mean, rng);
+        return new PoissonRV(this.mean, rng, myAlgoType);
     }
 
     @Override
@@ -65,7 +81,14 @@ public final class PoissonRV extends ParameterizedRV {
 
     @Override
     protected double generate() {
-        return JSLRandom.rPoisson(mean, myRNStream);
+        return JSLRandom.rPoisson(mean, myRNStream, myAlgoType);
+    }
+
+    /**
+     * @return the algorithm used to generate the random variates
+     */
+    public JSLRandom.AlgoType getAlgoType() {
+        return myAlgoType;
     }
 
     /**
@@ -84,6 +84,38 @@ abstract public class RVariable implements RVariableIfc, IdentityIfc {
         return x;
     }
 
+    @Override
+    public double[] sample(int sampleSize) {
+        double[] x = new double[sampleSize];
+        sample(x);
+        return x;
+    }
+
+    @Override
+    public void sample(double[] values) {
+        if (values == null) {
+            throw new IllegalArgumentException("The supplied array was null");
+        }
+        if (values.length == 0) {
+            return;
+        }
+        generate(values);
+        setPreviousValue(values[values.length - 1]);
+    }
+
+    /** Fills the array with randomly generated variates. By default, this calls
+     *  generate() for each element. Sub-classes can override this to generate
+     *  the variates from a bulk draw of the underlying stream, but must produce
+     *  the same values as repeated calls to generate().
+     *
+     * @param values the array to fill, not null
+     */
+    protected void generate(double[] values) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = generate();
+        }
+    }
+
     @Override
     public final double getValue(){
         return sample();
@@ -86,6 +86,15 @@ public final class UniformRV extends ParameterizedRV {
         return JSLRandom.rUniform(min, max, myRNStream);
     }
 
+    @Override
+    protected void generate(double[] values) {
+        myRNStream.randU01(values, 0, values.length);
+        double range = max - min;
+        for (int i = 0; i < values.length; i++) {
+            values[i] = min + range * values[i];
+        }
+    }
+
     /**
      * The parameter names are "min" and "max"
      *
@@ -82,6 +82,15 @@ public final class WeibullRV extends ParameterizedRV {
         return JSLRandom.rWeibull(myShape, myScale, myRNStream);
     }
 
+    @Override
+    protected void generate(double[] values) {
+        myRNStream.randU01(values, 0, values.length);
+        double p = 1.0 / myShape;
+        for (int i = 0; i < values.length; i++) {
+            values[i] = myScale * Math.pow(-Math.log(1.0 - values[i]), p);
+        }
+    }
+
     /**
      * The parameter names are "shape" and "scale"
      *
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package jsl.utilities.random.rvariable;
+
+import jsl.utilities.random.rng.RNStreamIfc;
+
+/**
+ * Generates standard normal and standard exponential random variates using the
+ * ziggurat method of Marsaglia and Tsang (2000), in the form given by Doornik (2005),
+ * "An Improved Ziggurat Method to Generate Normal Random Samples".
+ * <p>
+ * Most variates require a single pseudo-random number and no evaluation of
+ * log() or exp(). The layer and the position within the layer are both taken from
+ * the same pseudo-random number. The generated values are not a monotone function of
+ * the pseudo-random numbers, so the inverse transform method should be used when
+ * antithetic variates or the synchronization of common random numbers is needed.
+ */
+final class Ziggurat {
+
+    private static final int NORMAL_LAYERS = 128;
+
+    /**
+     * The start of the tail of the normal distribution
+     */
+    private static final double NORMAL_R = 3.442619855899;
+
+    /**
+     * The area of each layer for the normal distribution
+     */
+    private static final double NORMAL_V = 9.91256303526217e-3;
+
+    private static final int EXPONENTIAL_LAYERS = 256;
+
+    /**
+     * The start of the tail of the exponential distribution
+     */
+    private static final double EXPONENTIAL_R = 7.697117470131487;
+
+    /**
+     * The area of each layer for the exponential distribution
+     */
+    private static final double EXPONENTIAL_V = 3.949659822581572e-3;
+
+    private static final double[] NX = new double[NORMAL_LAYERS + 1];
+    private static final double[] NF = new double[NORMAL_LAYERS + 1];
+    private static final double[] NR = new double[NORMAL_LAYERS];
+
+    private static final double[] EX = new double[EXPONENTIAL_LAYERS + 1];
+    private static final double[] EF = new double[EXPONENTIAL_LAYERS + 1];
+    private static final double[] ER = new double[EXPONENTIAL_LAYERS];
+
+    static {
+        // layer i has right edge X[i] and covers f(X[i]) to f(X[i+1]), layer 0 includes the tail
+        double f = Math.exp(-0.5 * NORMAL_R * NORMAL_R);
+        NX[0] = NORMAL_V / f;
+        NX[1] = NORMAL_R;
+        NX[NORMAL_LAYERS] = 0.0;
+        for (int i = 2; i < NORMAL_LAYERS; i++) {
+            NX[i] = Math.sqrt(-2.0 * Math.log(NORMAL_V / NX[i - 1] + f));
+            f = Math.exp(-0.5 * NX[i] * NX[i]);
+        }
+        for (int i = 0; i <= NORMAL_LAYERS; i++) {
+            NF[i] = Math.exp(-0.5 * NX[i] * NX[i]);
+        }
+        for (int i = 0; i < NORMAL_LAYERS; i++) {
+            NR[i] = NX[i + 1] / NX[i];
+        }
+
+        f = Math.exp(-EXPONENTIAL_R);
+        EX[0] = EXPONENTIAL_V / f;
+        EX[1] = EXPONENTIAL_R;
+        EX[EXPONENTIAL_LAYERS] = 0.0;
+        for (int i = 2; i < EXPONENTIAL_LAYERS; i++) {
+            EX[i] = -Math.log(EXPONENTIAL_V / EX[i - 1] + f);
+            f = Math.exp(-EX[i]);
+        }
+        for (int i = 0; i <= EXPONENTIAL_LAYERS; i++) {
+            EF[i] = Math.exp(-EX[i]);
+        }
+        for (int i = 0; i < EXPONENTIAL_LAYERS; i++) {
+            ER[i] = EX[i + 1] / EX[i];
+        }
+    }
+
+    private Ziggurat() {
+    }
+
+    /**
+     * @param rng the source of pseudo-random numbers
+     * @return a N(0,1) random variate
+     */
+    static double normal(RNStreamIfc rng) {
+        for (; ; ) {
+            // the low 7 bits select the layer, the next bit the sign
+            double t = rng.randU01() * (2 * NORMAL_LAYERS);
+            int k = (int) t;
+            int i = k & (NORMAL_LAYERS - 1);
+            double u = t - k;
+            double x = u * NX[i];
+            boolean negative = (k & NORMAL_LAYERS) != 0;
+            if (u < NR[i]) {
+                return negative ? -x : x;
+            }
+            if (i == 0) {
+                return negative ? -normalTail(rng) : normalTail(rng);
+            }
+            // in the wedge between the layer and the density
+            double y = NF[i] + rng.randU01() * (NF[i + 1] - NF[i]);
+            if (y < Math.exp(-0.5 * x * x)) {
+                return negative ? -x : x;
+            }
+        }
+    }
+
+    /**
+     * Marsaglia (1964) method for the tail beyond NORMAL_R
+     */
+    private static double normalTail(RNStreamIfc rng) {
+        double x, y;
+        do {
+            x = -Math.log(rng.randU01()) / NORMAL_R;
+            y = -Math.log(rng.randU01());
+        } while (2.0 * y < x * x);
+        return NORMAL_R + x;
+    }
+
+    /**
+     * @param rng the source of pseudo-random numbers
+     * @return an exponential random variate with mean 1
+     */
+    static double exponential(RNStreamIfc rng) {
+        for (; ; ) {
+            double t = rng.randU01() * EXPONENTIAL_LAYERS;
+            int i = (int) t;
+            double u = t - i;
+            double x = u * EX[i];
+            if (u < ER[i]) {
+                return x;
+            }
+            if (i == 0) {
+                // the tail is memoryless
+                return EXPONENTIAL_R - Math.log(rng.randU01());
+            }
+            double y = EF[i] + rng.randU01() * (EF[i + 1] - EF[i]);
+            if (y < Math.exp(-x)) {
+                return x;
+            }
+        }
+    }
+}
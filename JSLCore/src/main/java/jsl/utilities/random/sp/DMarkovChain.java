@@ -21,6 +21,7 @@
 package jsl.utilities.random.sp;
 
 import jsl.utilities.random.rng.RNStreamIfc;
+import jsl.utilities.random.rvariable.AliasTable;
 import jsl.utilities.random.rvariable.JSLRandom;
 import jsl.utilities.statistic.IntegerFrequency;
 
@@ -33,6 +34,9 @@ import java.util.Objects;
  *  cdf[0] holds the array of transition probabilities for transition to each state {p11, p12, p13, .., p1n} for state 1
  *  cdf[1] holds the array of transition probabilities for transition to each state {p21, p22, p23, .., p2n} for state 2
  *  etc.
+ *  By default, the transitions are generated by inverting the CDFs with a binary search.
+ *  If the AcceptanceRejection algorithm type is supplied, the transitions are generated in
+ *  constant time by the alias method, see AliasTable.
  * @author rossetti
  */
 public class DMarkovChain {
@@ -45,6 +49,13 @@ public class DMarkovChain {
 
     private final double[][] myCDFs;
 
+    /**
+     * Null unless the alias method is used
+     */
+    private final AliasTable[] myAliasTables;
+
+    private final JSLRandom.AlgoType myAlgoType;
+
     /**
      * myRNStream provides a reference to the underlying stream of random numbers
      */
@@ -64,6 +75,17 @@ public class DMarkovChain {
      * @param rng          the random number stream
      */
     public DMarkovChain(int initialState, double[][] prob, RNStreamIfc rng) {
+        this(initialState, prob, rng, JSLRandom.AlgoType.Inverse);
+    }
+
+    /**
+     * @param initialState the initial starting state as an integer
+     * @param prob         the transition probability array, holds the probabilities across the states
+     * @param rng          the random number stream
+     * @param type         the algorithm, AcceptanceRejection uses the alias method, which cannot
+     *                     be used for antithetic variates, if null then inverse transform is used
+     */
+    public DMarkovChain(int initialState, double[][] prob, RNStreamIfc rng, JSLRandom.AlgoType type) {
         Objects.requireNonNull(prob, "The array was null");
         Objects.requireNonNull(rng, "The RNStreamIfc was null");
         myRNG = rng;
@@ -76,6 +98,15 @@ public class DMarkovChain {
             myCDFs[r] = JSLRandom.makeCDF(prob[r]);
             myStates[r] = r + 1;
         }
+        myAlgoType = (type == null) ? JSLRandom.AlgoType.Inverse : type;
+        if (myAlgoType == JSLRandom.AlgoType.AcceptanceRejection) {
+            myAliasTables = new AliasTable[myCDFs.length];
+            for (int r = 0; r < myCDFs.length; r++) {
+                myAliasTables[r] = new AliasTable(myCDFs[r]);
+            }
+        } else {
+            myAliasTables = null;
+        }
         setInitialState(initialState);
         reset();
     }
@@ -130,10 +161,27 @@ public class DMarkovChain {
      * @return the next state
      */
     public final int next() {
-        myState = JSLRandom.randomlySelect(myStates, myCDFs[myState - 1], myRNG);
+        int i;
+        if (myCDFs[myState - 1].length == 1) {
+            // a single outcome does not use a random number
+            i = 0;
+        } else if (myAliasTables != null) {
+            i = myAliasTables[myState - 1].index(myRNG);
+        } else {
+            i = JSLRandom.searchCDF(myCDFs[myState - 1], myRNG.randU01());
+        }
+        myState = myStates[i];
         return myState;
     }
 
+    /**
+     *
+     * @return the algorithm used to generate the transitions
+     */
+    public final JSLRandom.AlgoType getAlgoType() {
+        return myAlgoType;
+    }
+
     public final RNStreamIfc getRandomNumberGenerator() {
         return (myRNG);
     }
@@ -356,6 +356,97 @@ public class BatchStatistic extends AbstractStatistic {
         myBMStatistic.setConfidenceLevel(alpha);
     }
 
+    /**
+     * Merges the supplied batch statistic into this batch statistic, as if the observations of
+     * the other had been collected by this batch statistic after its own observations. The other's
+     * batch means, followed by its partially filled batch, are added to the batches of this
+     * statistic, rebatching as needed. This reproduces sequential collection provided that none of
+     * the other's batches straddles a batch boundary of this statistic, which holds, for example, when
+     * this statistic has no partially filled batch and its current batch size is at least the other's.
+     * The supplied batch statistic is not changed.
+     *
+     * @param other the batch statistic to merge, must not be null, must have the same batching parameters
+     * @throws IllegalArgumentException if the batching parameters differ or the batches cannot be aligned
+     */
+    public final void merge(BatchStatistic other) {
+        Objects.requireNonNull(other, "The batch statistic to merge was null");
+        if ((myMinNumBatches != other.myMinNumBatches) || (myMinBatchSize != other.myMinBatchSize)
+                || (myMaxNumBatchesMultiple != other.myMaxNumBatchesMultiple)) {
+            throw new IllegalArgumentException("The batch statistic to merge has different batching parameters");
+        }
+        if (!canMerge(other)) {
+            throw new IllegalArgumentException("The batches of the batch statistic to merge do not align with this batch statistic");
+        }
+        if (getSaveOption() && other.getSaveOption()) {
+            save(other.getSavedData());
+        }
+        myNumMissing = myNumMissing + other.myNumMissing;
+        if (other.myTotNumObs == 0.0) {
+            return;
+        }
+        for (int i = 1; i <= other.myNumBatches; i++) {
+            myStatistic.merge(batchOf(other.bm[i], other.myCurrentBatchSize));
+            if (myStatistic.getCount() == myCurrentBatchSize) {
+                collectBatch();
+            }
+        }
+        myStatistic.merge(other.myStatistic);
+        if (myStatistic.getCount() == myCurrentBatchSize) {
+            collectBatch();
+        }
+        myTotNumObs = myTotNumObs + other.myTotNumObs;
+        myValue = other.myValue;
+    }
+
+    /**
+     * Walks through the batch sizes that merging would produce without changing any state
+     *
+     * @param other the batch statistic to merge
+     * @return true if each batch of the other fits within a batch of this statistic
+     */
+    private boolean canMerge(BatchStatistic other) {
+        double filled = myStatistic.getCount();
+        int size = myCurrentBatchSize;
+        int numBatches = myNumBatches;
+        for (int i = 0; i <= other.myNumBatches; i++) {
+            // the last chunk is the other's partially filled batch
+            double w = (i < other.myNumBatches) ? other.myCurrentBatchSize : other.myStatistic.getCount();
+            if (filled + w > size) {
+                return false;
+            }
+            filled = filled + w;
+            if (filled == size) {
+                filled = 0.0;
+                numBatches++;
+                if (numBatches == myMaxNumBatches) {
+                    size = size * myMaxNumBatchesMultiple;
+                    numBatches = myMaxNumBatches / myMaxNumBatchesMultiple;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Only the count and the average of the returned statistic are meaningful, which is all
+     * that is needed to form batch means
+     *
+     * @param mean the batch mean
+     * @param size the batch size
+     * @return a statistic summarizing a batch of size observations with the given mean
+     */
+    private static Statistic batchOf(double mean, int size) {
+        Statistic s = new Statistic();
+        s.num = size;
+        s.moments[0] = size;
+        s.moments[1] = mean;
+        s.min = mean;
+        s.max = mean;
+        s.firstx = mean;
+        s.myValue = mean;
+        return s;
+    }
+
     @Override
     public final void reset() {
         myNumMissing = 0.0;
@@ -18,6 +18,9 @@ package jsl.utilities.statistic;
 import jsl.utilities.math.*;
 import jsl.utilities.random.rvariable.ExponentialRV;
 
+import java.util.Objects;
+import java.util.stream.Collector;
+
 /** A Histogram tabulates data into bins.  The user must specify the lower limit
  *  of the first bin, the width of the bins, and the number of bins.  Alternatively,
  *  the user can use the static methods makeHistogram() to specify the range of the data
@@ -234,6 +237,50 @@ public class Histogram extends AbstractStatistic {
         return (int) Math.floor((x - myFirstBinLL) / myBinWidth);
     }
 
+    /**
+     * Merges the supplied histogram into this histogram by adding its bin, underflow,
+     * overflow, and missing counts and merging the statistics on the observations
+     * within the bins. The histograms must have the same bins. The supplied histogram is not changed.
+     * Saved data is appended if both histograms are saving data.
+     *
+     * @param other the histogram to merge into this histogram, must not be null
+     */
+    public void merge(Histogram other) {
+        Objects.requireNonNull(other, "The histogram to merge was null");
+        if ((myNumBins != other.myNumBins) || (myFirstBinLL != other.myFirstBinLL)
+                || (myBinWidth != other.myBinWidth)) {
+            throw new IllegalArgumentException("The histogram to merge does not have the same bins");
+        }
+        if (getSaveOption() && other.getSaveOption()) {
+            save(other.getSavedData());
+        }
+        myNumMissing = myNumMissing + other.myNumMissing;
+        myUnderFlowCount = myUnderFlowCount + other.myUnderFlowCount;
+        myOverFlowCount = myOverFlowCount + other.myOverFlowCount;
+        for (int i = 0; i < myCountData.length; i++) {
+            myCountData[i] = myCountData[i] + other.myCountData[i];
+        }
+        myStatistic.merge(other.myStatistic);
+    }
+
+    /**
+     * A Collector for a stream of values that produces a Histogram with the
+     * supplied bins. Partial histograms from a parallel stream are combined with merge().
+     *
+     * @param firstBinLL the lower limit of the first bin
+     * @param numBins    the number of bins
+     * @param binWidth   the width of the bins
+     * @return the collector
+     */
+    public static Collector<Double, ?, Histogram> collector(double firstBinLL, int numBins, double binWidth) {
+        return Collector.of(() -> new Histogram(firstBinLL, numBins, binWidth),
+                (h, x) -> h.collect(x.doubleValue()),
+                (a, b) -> {
+                    a.merge(b);
+                    return a;
+                });
+    }
+
     @Override
     public void reset() {
         myNumMissing = 0.0;
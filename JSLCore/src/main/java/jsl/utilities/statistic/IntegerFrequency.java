@@ -21,6 +21,7 @@
 package jsl.utilities.statistic;
 
 import java.util.*;
+import java.util.stream.Collector;
 
 import jsl.utilities.JSLArrayUtil;
 import jsl.utilities.distributions.DEmpiricalCDF;
@@ -35,6 +36,13 @@ import jsl.utilities.reporting.JSL;
  * There could be space/time performance issues if
  * the number of different values presented is large.
  * <p>
+ * With the dense option on, the counts for a contiguous range of values are
+ * held in a primitive array indexed by value, so that collecting a value in the
+ * range does not allocate. The range grows on demand (up to DEFAULT_MAX_DENSE_SIZE
+ * values) and values that cannot be covered by the range are held in the sparse
+ * cells. If the limits span no more than DEFAULT_MAX_DENSE_SIZE values the
+ * array is allocated over the limits when the frequency is created.
+ * <p>
  * This class can be useful for tabulating a
  * discrete histogram over the values (integers) presented.
  *
@@ -42,11 +50,43 @@ import jsl.utilities.reporting.JSL;
  */
 public class IntegerFrequency {
 
+    /**
+     * The maximum number of values covered by the dense count array
+     */
+    public static final int DEFAULT_MAX_DENSE_SIZE = 1 << 16;
+
+    /**
+     * The number of values covered by the dense count array when it is first
+     * allocated on demand
+     */
+    public static final int DEFAULT_INITIAL_DENSE_SIZE = 64;
+
     /**
      * A Cell represents a value, count pairing
      */
     private Map<Cell, Cell> myCells;
 
+    /**
+     * Indicates whether the dense count array is used
+     */
+    private final boolean myDenseOption;
+
+    /**
+     * The counts for values myDenseOrigin, myDenseOrigin + 1, ...,
+     * null until needed
+     */
+    private long[] myDenseCounts;
+
+    /**
+     * The value associated with index 0 of the dense counts
+     */
+    private int myDenseOrigin;
+
+    /**
+     * The number of non-zero elements of the dense counts
+     */
+    private int myNumDenseCells;
+
     /**
      * Collects statistical information
      */
@@ -114,6 +154,17 @@ public class IntegerFrequency {
      * @param name a name for the instance
      */
     public IntegerFrequency(int lowerLimit, int upperLimit, String name) {
+        this(lowerLimit, upperLimit, name, false);
+    }
+
+    /**
+     *
+     * @param lowerLimit the defined lower limit of the integers, values less than this are not tabulated
+     * @param upperLimit the defined upper limit of the integers, values less than this are not tabulated
+     * @param name a name for the instance
+     * @param denseOption true means counts are held in an array indexed by value
+     */
+    public IntegerFrequency(int lowerLimit, int upperLimit, String name, boolean denseOption) {
         if (lowerLimit >= upperLimit) {
             throw new IllegalArgumentException("The lower limit must be < the upper limit");
         }
@@ -123,7 +174,19 @@ public class IntegerFrequency {
         myStatistic = new Statistic(name);
         myTemp = new Cell();
         myCells = new HashMap<Cell, Cell>();
+        myDenseOption = denseOption;
+        if (denseOption && ((long) upperLimit - lowerLimit + 1 <= DEFAULT_MAX_DENSE_SIZE)) {
+            myDenseOrigin = lowerLimit;
+            myDenseCounts = new long[upperLimit - lowerLimit + 1];
+        }
+    }
 
+    /**
+     *
+     * @return true if counts are held in an array indexed by value
+     */
+    public final boolean getDenseOption() {
+        return myDenseOption;
     }
 
     /**
@@ -164,15 +227,99 @@ public class IntegerFrequency {
         if (i > myUpperLimit) {
             myOverFlowCount = myOverFlowCount + 1;
         }
-        // myLowerLimit <= x <= myUpperLimit
-        myTemp.myValue = i;
+        if (isInDenseRange(i)) {
+            int k = i - myDenseOrigin;
+            if (myDenseCounts[k] == 0) {
+                myNumDenseCells = myNumDenseCells + 1;
+            }
+            myDenseCounts[k] = myDenseCounts[k] + 1;
+        } else {
+            addCount(i, 1);
+        }
+    }
+
+    /**
+     * Adds the count to the cell for the value, growing the dense counts if possible
+     *
+     * @param value the value
+     * @param count the count to add
+     */
+    private void addCount(int value, int count) {
+        if (isInDenseRange(value) || growDenseRange(value)) {
+            int k = value - myDenseOrigin;
+            if (myDenseCounts[k] == 0) {
+                myNumDenseCells = myNumDenseCells + 1;
+            }
+            myDenseCounts[k] = myDenseCounts[k] + count;
+            return;
+        }
+        myTemp.myValue = value;
         Cell c = myCells.get(myTemp);
         if (c == null) {
-            c = new Cell(i);
+            c = new Cell(value);
+            c.myCount = count;
             myCells.put(c, c);
         } else {
-            c.myCount = c.myCount + 1;
+            c.myCount = c.myCount + count;
+        }
+    }
+
+    /**
+     * @param x the value
+     * @return true if the value is covered by the dense counts
+     */
+    private boolean isInDenseRange(int x) {
+        return (myDenseCounts != null) && (x >= myDenseOrigin)
+                && ((long) x - myDenseOrigin < myDenseCounts.length);
+    }
+
+    /**
+     * Grows the dense counts so that they cover the value. The covered range is
+     * doubled toward the value, kept within the limits, and any sparse cells that fall
+     * within the new range are moved into the dense counts.
+     *
+     * @param x the value to cover
+     * @return true if the dense counts now cover the value, false if the value should be
+     * held in the sparse cells
+     */
+    private boolean growDenseRange(int x) {
+        if (!myDenseOption || (x < myLowerLimit) || (x > myUpperLimit)) {
+            return false;
+        }
+        long lo = x;
+        long hi = x;
+        long capacity = DEFAULT_INITIAL_DENSE_SIZE;
+        if (myDenseCounts != null) {
+            lo = Math.min(lo, myDenseOrigin);
+            hi = Math.max(hi, (long) myDenseOrigin + myDenseCounts.length - 1);
+            capacity = 2L * myDenseCounts.length;
+        }
+        long span = hi - lo + 1;
+        if (span > DEFAULT_MAX_DENSE_SIZE) {
+            return false;
+        }
+        long extra = Math.min(Math.max(capacity, span), DEFAULT_MAX_DENSE_SIZE) - span;
+        if ((myDenseCounts != null) && (x < myDenseOrigin)) {
+            lo = Math.max(lo - extra, myLowerLimit);
+        } else {
+            hi = Math.min(hi + extra, myUpperLimit);
+        }
+        long[] counts = new long[(int) (hi - lo + 1)];
+        if (myDenseCounts != null) {
+            System.arraycopy(myDenseCounts, 0, counts, (int) (myDenseOrigin - lo), myDenseCounts.length);
+        }
+        myDenseCounts = counts;
+        myDenseOrigin = (int) lo;
+        Iterator<Cell> iterator = myCells.keySet().iterator();
+        while (iterator.hasNext()) {
+            Cell c = iterator.next();
+            if (isInDenseRange(c.myValue)) {
+                myDenseCounts[c.myValue - myDenseOrigin] = c.myCount;
+                myNumDenseCells = myNumDenseCells + 1;
+                iterator.remove();
+            }
         }
+        return true;
     }
 
     /**
@@ -194,6 +341,48 @@ public class IntegerFrequency {
         }
     }
 
+    /**
+     * Merges the supplied frequency into this frequency by adding the counts of each
+     * cell, the underflow and overflow counts, and merging the statistics on the values.
+     * The frequencies must have the same limits. The supplied frequency is not changed.
+     *
+     * @param other the frequency to merge into this frequency, must not be null
+     */
+    public void merge(IntegerFrequency other) {
+        Objects.requireNonNull(other, "The frequency to merge was null");
+        if ((myLowerLimit != other.myLowerLimit) || (myUpperLimit != other.myUpperLimit)) {
+            throw new IllegalArgumentException("The frequency to merge does not have the same limits");
+        }
+        myUnderFlowCount = myUnderFlowCount + other.myUnderFlowCount;
+        myOverFlowCount = myOverFlowCount + other.myOverFlowCount;
+        if (other.myDenseCounts != null) {
+            for (int k = 0; k < other.myDenseCounts.length; k++) {
+                if (other.myDenseCounts[k] > 0) {
+                    addCount(other.myDenseOrigin + k, (int) other.myDenseCounts[k]);
+                }
+            }
+        }
+        for (Cell oc : other.myCells.keySet()) {
+            addCount(oc.myValue, oc.myCount);
+        }
+        myStatistic.merge(other.myStatistic);
+    }
+
+    /**
+     * A Collector for a stream of integers that produces an IntegerFrequency. Partial
+     * frequencies from a parallel stream are combined with merge(). For an IntStream use
+     * {@code stream.collect(IntegerFrequency::new, IntegerFrequency::collect, IntegerFrequency::merge)}.
+     *
+     * @return the collector
+     */
+    public static Collector<Integer, ?, IntegerFrequency> collector() {
+        return Collector.of(IntegerFrequency::new, (f, i) -> f.collect(i.intValue()),
+                (a, b) -> {
+                    a.merge(b);
+                    return a;
+                });
+    }
+
     /**
      * Resets the statistical collection
      */
@@ -202,6 +391,10 @@ public class IntegerFrequency {
         myUnderFlowCount = 0;
         myStatistic.reset();
         myCells.clear();
+        if (myDenseCounts != null) {
+            Arrays.fill(myDenseCounts, 0);
+            myNumDenseCells = 0;
+        }
     }
 
     /**
@@ -229,11 +422,11 @@ public class IntegerFrequency {
      * @return the array of values observed or an empty array
      */
     public final int[] getValues() {
-        if (myCells.isEmpty()) {
+        if (getNumberOfCells() == 0) {
             return new int[0];
         }
         SortedSet<Cell> cellSet = getCells();
-        int[] v = new int[myCells.size()];
+        int[] v = new int[cellSet.size()];
         int i = 0;
         for (Cell c : cellSet) {
             v[i] = c.myValue;
@@ -249,11 +442,11 @@ public class IntegerFrequency {
      * @return the array of frequencies observed or an empty array
      */
     public final int[] getFrequencies() {
-        if (myCells.isEmpty()) {
+        if (getNumberOfCells() == 0) {
             return new int[0];
         }
         SortedSet<Cell> cellSet = getCells();
-        int[] v = new int[myCells.size()];
+        int[] v = new int[cellSet.size()];
         int i = 0;
         for (Cell c : cellSet) {
             v[i] = c.myCount;
@@ -269,11 +462,11 @@ public class IntegerFrequency {
      * @return the array of proportions observed or an empty array
      */
     public final double[] getProportions() {
-        if (myCells.isEmpty()) {
+        if (getNumberOfCells() == 0) {
             return new double[0];
         }
         SortedSet<Cell> cellSet = getCells();
-        double[] v = new double[myCells.size()];
+        double[] v = new double[cellSet.size()];
         int i = 0;
         for (Cell c : cellSet) {
             v[i] = c.myProportion;
@@ -289,7 +482,7 @@ public class IntegerFrequency {
      * @return the cumulative frequency
      */
     public final int getCumulativeFrequency(int i) {
-        if (myCells.isEmpty()) {
+        if (getNumberOfCells() == 0) {
             return 0;
         }
         SortedSet<Cell> cellSet = getCells();
@@ -311,7 +504,7 @@ public class IntegerFrequency {
      * @return the cumulative proportion
      */
     public final double getCumulativeProportion(int i) {
-        if (myCells.isEmpty()) {
+        if (getNumberOfCells() == 0) {
             return 0;
         }
         double n = getTotalCount();
@@ -326,11 +519,11 @@ public class IntegerFrequency {
      * @return the array or an empty array
      */
     public final int[][] getValueFrequencies() {
-        if (myCells.isEmpty()) {
+        if (getNumberOfCells() == 0) {
             return new int[0][0];
         }
         SortedSet<Cell> cellSet = getCells();
-        int[][] v = new int[2][myCells.size()];
+        int[][] v = new int[2][cellSet.size()];
         int i = 0;
         for (Cell c : cellSet) {
             v[0][i] = c.myValue;
@@ -349,11 +542,11 @@ public class IntegerFrequency {
      * @return the array or an empty array
      */
     public final double[][] getValueProportions() {
-        if (myCells.isEmpty()) {
+        if (getNumberOfCells() == 0) {
             return new double[0][0];
         }
         SortedSet<Cell> cellSet = getCells();
-        double[][] v = new double[2][myCells.size()];
+        double[][] v = new double[2][cellSet.size()];
         int i = 0;
         for (Cell c : cellSet) {
             v[0][i] = c.myValue;
@@ -372,11 +565,11 @@ public class IntegerFrequency {
      * @return the array or an empty array
      */
     public final double[][] getValueCumulativeProportions() {
-        if (myCells.isEmpty()) {
+        if (getNumberOfCells() == 0) {
             return new double[0][0];
         }
         SortedSet<Cell> cellSet = getCells();
-        double[][] v = new double[2][myCells.size()];
+        double[][] v = new double[2][cellSet.size()];
         int i = 0;
         double sum = 0.0;
         for (Cell c : cellSet) {
@@ -394,7 +587,7 @@ public class IntegerFrequency {
      * @return the number of cells tabulated
      */
     public final int getNumberOfCells() {
-        return myCells.size();
+        return myCells.size() + myNumDenseCells;
     }
 
     /**
@@ -414,6 +607,9 @@ public class IntegerFrequency {
      * @return the frequency
      */
     public final int getFrequency(int x) {
+        if (isInDenseRange(x)) {
+            return (int) myDenseCounts[x - myDenseOrigin];
+        }
         myTemp.myValue = x;
         Cell c = myCells.get(myTemp);
         if (c == null) {
@@ -431,13 +627,12 @@ public class IntegerFrequency {
      * @return the proportion
      */
     public final double getProportion(int x) {
-        myTemp.myValue = x;
-        Cell c = myCells.get(myTemp);
-        if (c == null) {
+        int count = getFrequency(x);
+        if (count == 0) {
             return 0;
         } else {
             double n = getTotalCount();
-            return c.myCount / n;
+            return count / n;
         }
     }
 
@@ -490,11 +685,21 @@ public class IntegerFrequency {
      */
     protected final SortedSet<Cell> getCells() {
         SortedSet<Cell> cellSet = new TreeSet<Cell>();
+        double n = getTotalCount();
         for (Cell c : myCells.keySet()) {
-            double n = getTotalCount();
             c.myProportion = c.myCount / n;
             cellSet.add(c);
         }
+        if (myDenseCounts != null) {
+            for (int k = 0; k < myDenseCounts.length; k++) {
+                if (myDenseCounts[k] > 0) {
+                    Cell c = new Cell(myDenseOrigin + k);
+                    c.myCount = (int) myDenseCounts[k];
+                    c.myProportion = c.myCount / n;
+                    cellSet.add(c);
+                }
+            }
+        }
         return (cellSet);
     }
 
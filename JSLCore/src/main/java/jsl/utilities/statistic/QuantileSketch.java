@@ -0,0 +1,542 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package jsl.utilities.statistic;
+
+import jsl.utilities.Identity;
+import jsl.utilities.IdentityIfc;
+
+import java.util.Objects;
+
+/**
+ * A bounded memory, mergeable estimator of the quantiles of the (possibly weighted)
+ * observations presented to it via the collect() methods. The observations are summarized
+ * by a merging t-digest: a sorted set of centroids (mean, weight) whose sizes are limited
+ * by a logistic scale function so that the centroids near the tails are small. This
+ * makes the estimates of extreme quantiles (e.g. 0.99, 0.999) accurate while the number
+ * of centroids remains bounded by about the compression parameter, regardless of the
+ * number of observations.
+ * <p>
+ * Observations are buffered and merged into the centroids when the buffer fills or
+ * when an estimate is requested. The minimum and maximum are tracked exactly. Two sketches
+ * (e.g. from different replications or parallel runs) can be combined with merge().
+ * <p>
+ * If the observed data point is infinite or NaN, or the weight is negative, infinite
+ * or NaN, then the observation is not recorded and the number of missing observations
+ * is incremented. An observation with a weight of 0.0, such as a time weighted value
+ * that held for no time, is ignored without being counted as missing.
+ */
+public class QuantileSketch implements CollectorIfc, IdentityIfc {
+
+    /**
+     * The default compression, larger values give more accurate estimates using more
+     * centroids
+     */
+    public static final double DEFAULT_COMPRESSION = 100.0;
+
+    /**
+     * The quantiles reported by default: 0.5, 0.9, 0.99, 0.999
+     */
+    public static final double[] DEFAULT_QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final Identity myIdentity;
+
+    private final double myCompression;
+
+    /**
+     * The centroid means in increasing order and their weights
+     */
+    private final double[] myMeans;
+    private final double[] myWeights;
+    private int myNumCentroids;
+
+    /**
+     * Observations that have not been merged into the centroids
+     */
+    private final double[] myBufferValues;
+    private final double[] myBufferWeights;
+    private int myNumBuffered;
+
+    /**
+     * Working space for merging the buffer and the centroids
+     */
+    private final double[] myMergeMeans;
+    private final double[] myMergeWeights;
+
+    private double myTotalWeight;
+    private double myBufferedWeight;
+    private double myCount;
+    private double myNumMissing;
+    private double myMin;
+    private double myMax;
+
+    /**
+     * Uses the default compression
+     */
+    public QuantileSketch() {
+        this(DEFAULT_COMPRESSION, null);
+    }
+
+    /**
+     * Uses the default compression
+     *
+     * @param name the name of the sketch
+     */
+    public QuantileSketch(String name) {
+        this(DEFAULT_COMPRESSION, name);
+    }
+
+    /**
+     * @param compression the compression, must be at least 10
+     */
+    public QuantileSketch(double compression) {
+        this(compression, null);
+    }
+
+    /**
+     * @param compression the compression, must be at least 10
+     * @param name        the name of the sketch
+     */
+    public QuantileSketch(double compression, String name) {
+        if (compression < 10.0) {
+            throw new IllegalArgumentException("The compression must be >= 10");
+        }
+        myIdentity = new Identity(name);
+        myCompression = compression;
+        int capacity = 2 * (int) Math.ceil(compression) + 10;
+        int bufferSize = 5 * (int) Math.ceil(compression);
+        myMeans = new double[capacity];
+        myWeights = new double[capacity];
+        myBufferValues = new double[bufferSize];
+        myBufferWeights = new double[bufferSize];
+        myMergeMeans = new double[capacity + bufferSize];
+        myMergeWeights = new double[capacity + bufferSize];
+        reset();
+    }
+
+    /**
+     * Creates a sketch with the same compression and name, holding the same observations
+     *
+     * @return the new instance
+     */
+    public final QuantileSketch newInstance() {
+        QuantileSketch s = new QuantileSketch(myCompression, getName());
+        s.copyState(this);
+        return s;
+    }
+
+    /**
+     * Sets the internal state of this sketch to an exact copy of the state of the
+     * supplied sketch, without recompressing. The name and id of this sketch are not changed.
+     *
+     * @param other the sketch whose state should be copied, must not be null and must
+     *              have the same compression as this sketch
+     */
+    public final void copyState(QuantileSketch other) {
+        Objects.requireNonNull(other, "The sketch to copy was null");
+        if (other.myCompression != myCompression) {
+            throw new IllegalArgumentException("The sketch to copy must have the same compression");
+        }
+        if (other == this) {
+            return;
+        }
+        System.arraycopy(other.myMeans, 0, myMeans, 0, other.myNumCentroids);
+        System.arraycopy(other.myWeights, 0, myWeights, 0, other.myNumCentroids);
+        myNumCentroids = other.myNumCentroids;
+        System.arraycopy(other.myBufferValues, 0, myBufferValues, 0, other.myNumBuffered);
+        System.arraycopy(other.myBufferWeights, 0, myBufferWeights, 0, other.myNumBuffered);
+        myNumBuffered = other.myNumBuffered;
+        myTotalWeight = other.myTotalWeight;
+        myBufferedWeight = other.myBufferedWeight;
+        myCount = other.myCount;
+        myNumMissing = other.myNumMissing;
+        myMin = other.myMin;
+        myMax = other.myMax;
+    }
+
+    @Override
+    public final String getName() {
+        return myIdentity.getName();
+    }
+
+    /**
+     * @param str the name
+     */
+    public final void setName(String str) {
+        myIdentity.setName(str);
+    }
+
+    @Override
+    public final int getId() {
+        return myIdentity.getId();
+    }
+
+    /**
+     * @return the compression of the sketch
+     */
+    public final double getCompression() {
+        return myCompression;
+    }
+
+    @Override
+    public final void collect(double x) {
+        collect(x, 1.0);
+    }
+
+    /**
+     * @param x      the value to collect, a Double.NaN or infinite double is considered missing data
+     * @param weight the weight associated with the value, a Double.NaN or infinite double, or
+     *               weight less than 0 is considered missing data, a weight of 0 is ignored
+     */
+    public final void collect(double x, double weight) {
+        if (Double.isNaN(x) || Double.isInfinite(x) || Double.isNaN(weight) || Double.isInfinite(weight) || (weight < 0.0)) {
+            myNumMissing++;
+            return;
+        }
+        if (weight == 0.0) {
+            // e.g. a time weighted value that did not persist for any time
+            return;
+        }
+        myCount++;
+        add(x, weight);
+    }
+
+    /**
+     * Merges the observations summarized by the supplied sketch into this sketch.
+     * The supplied sketch is not changed.
+     *
+     * @param other the sketch to merge, must not be null
+     */
+    public final void merge(QuantileSketch other) {
+        Objects.requireNonNull(other, "The sketch to merge was null");
+        if (other == this) {
+            throw new IllegalArgumentException("A sketch cannot be merged with itself");
+        }
+        // the count determines the compression of the re-added centroids
+        myCount = myCount + other.myCount;
+        for (int i = 0; i < other.myNumCentroids; i++) {
+            add(other.myMeans[i], other.myWeights[i]);
+        }
+        for (int i = 0; i < other.myNumBuffered; i++) {
+            add(other.myBufferValues[i], other.myBufferWeights[i]);
+        }
+        myMin = Math.min(myMin, other.myMin);
+        myMax = Math.max(myMax, other.myMax);
+        myNumMissing = myNumMissing + other.myNumMissing;
+    }
+
+    @Override
+    public final void reset() {
+        myNumCentroids = 0;
+        myNumBuffered = 0;
+        myTotalWeight = 0.0;
+        myBufferedWeight = 0.0;
+        myCount = 0.0;
+        myNumMissing = 0.0;
+        myMin = Double.POSITIVE_INFINITY;
+        myMax = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * @return the number of observations collected
+     */
+    public final double getCount() {
+        return myCount;
+    }
+
+    /**
+     * @return the sum of the weights of the observations collected
+     */
+    public final double getTotalWeight() {
+        return myTotalWeight + myBufferedWeight;
+    }
+
+    /**
+     * @return the number of missing observations
+     */
+    public final double getNumberMissing() {
+        return myNumMissing;
+    }
+
+    /**
+     * @return the minimum of the observations, Double.POSITIVE_INFINITY if none
+     */
+    public final double getMin() {
+        return myMin;
+    }
+
+    /**
+     * @return the maximum of the observations, Double.NEGATIVE_INFINITY if none
+     */
+    public final double getMax() {
+        return myMax;
+    }
+
+    /**
+     * @return the number of centroids used to summarize the observations
+     */
+    public final int getNumberOfCentroids() {
+        compress();
+        return myNumCentroids;
+    }
+
+    /**
+     * Estimates the p-th quantile of the observations. The estimate interpolates
+     * between the centroids, with the minimum and maximum as the end points.
+     *
+     * @param p the probability, must be in [0,1]
+     * @return the estimated quantile, or Double.NaN if no observations have been collected
+     */
+    public final double quantile(double p) {
+        if ((p < 0.0) || (p > 1.0)) {
+            throw new IllegalArgumentException("The probability must be in [0,1]");
+        }
+        compress();
+        if (myNumCentroids == 0) {
+            return Double.NaN;
+        }
+        if (myNumCentroids == 1) {
+            return p == 0.0 ? myMin : (p == 1.0 ? myMax : myMeans[0]);
+        }
+        double index = p * myTotalWeight;
+        double left = myWeights[0] / 2.0;
+        if (index <= left) {
+            return interpolate(myMin, myMeans[0], index / left);
+        }
+        int n = myNumCentroids - 1;
+        double right = myWeights[n] / 2.0;
+        if (index >= myTotalWeight - right) {
+            return interpolate(myMeans[n], myMax, (index - myTotalWeight + right) / right);
+        }
+        double w = left;
+        for (int i = 0; i < n; i++) {
+            double dw = (myWeights[i] + myWeights[i + 1]) / 2.0;
+            if (w + dw >= index) {
+                return interpolate(myMeans[i], myMeans[i + 1], (index - w) / dw);
+            }
+            w = w + dw;
+        }
+        return myMeans[n];
+    }
+
+    /**
+     * @param probabilities the probabilities, each must be in [0,1]
+     * @return the estimated quantiles, in the order of the probabilities
+     */
+    public final double[] quantiles(double[] probabilities) {
+        Objects.requireNonNull(probabilities, "The probabilities were null");
+        double[] q = new double[probabilities.length];
+        for (int i = 0; i < q.length; i++) {
+            q[i] = quantile(probabilities[i]);
+        }
+        return q;
+    }
+
+    /**
+     * Estimates the proportion of the (weighted) observations that are less than or equal to x
+     *
+     * @param x the value
+     * @return the estimated proportion, or Double.NaN if no observations have been collected
+     */
+    public final double cdf(double x) {
+        compress();
+        if (myNumCentroids == 0) {
+            return Double.NaN;
+        }
+        if (x < myMin) {
+            return 0.0;
+        }
+        if (x >= myMax) {
+            return 1.0;
+        }
+        if (myNumCentroids == 1) {
+            return (x - myMin) / (myMax - myMin);
+        }
+        double left = myWeights[0] / 2.0;
+        if (x < myMeans[0]) {
+            return fraction(x, myMin, myMeans[0]) * left / myTotalWeight;
+        }
+        int n = myNumCentroids - 1;
+        double w = left;
+        for (int i = 0; i < n; i++) {
+            double dw = (myWeights[i] + myWeights[i + 1]) / 2.0;
+            if (x < myMeans[i + 1]) {
+                return (w + fraction(x, myMeans[i], myMeans[i + 1]) * dw) / myTotalWeight;
+            }
+            w = w + dw;
+        }
+        double right = myWeights[n] / 2.0;
+        return (w + fraction(x, myMeans[n], myMax) * right) / myTotalWeight;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Quantile Sketch ").append(getName()).append(System.lineSeparator());
+        sb.append("Compression = ").append(myCompression).append(System.lineSeparator());
+        sb.append("Count = ").append(getCount()).append(System.lineSeparator());
+        sb.append("Total weight = ").append(getTotalWeight()).append(System.lineSeparator());
+        sb.append("Number of centroids = ").append(getNumberOfCentroids()).append(System.lineSeparator());
+        sb.append("Min = ").append(getMin()).append(System.lineSeparator());
+        sb.append("Max = ").append(getMax()).append(System.lineSeparator());
+        for (double p : DEFAULT_QUANTILES) {
+            sb.append("Quantile(").append(p).append(") = ").append(quantile(p)).append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    private void add(double x, double w) {
+        if (myNumBuffered == myBufferValues.length) {
+            compress();
+        }
+        myBufferValues[myNumBuffered] = x;
+        myBufferWeights[myNumBuffered] = w;
+        myNumBuffered++;
+        myBufferedWeight = myBufferedWeight + w;
+        if (x < myMin) {
+            myMin = x;
+        }
+        if (x > myMax) {
+            myMax = x;
+        }
+    }
+
+    /**
+     * Merges the buffered observations into the centroids
+     */
+    private void compress() {
+        if (myNumBuffered == 0) {
+            return;
+        }
+        sort(myBufferValues, myBufferWeights, 0, myNumBuffered - 1);
+        // merge the sorted buffer and the sorted centroids
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while ((i < myNumCentroids) || (j < myNumBuffered)) {
+            if ((j == myNumBuffered) || ((i < myNumCentroids) && (myMeans[i] <= myBufferValues[j]))) {
+                myMergeMeans[n] = myMeans[i];
+                myMergeWeights[n] = myWeights[i];
+                i++;
+            } else {
+                myMergeMeans[n] = myBufferValues[j];
+                myMergeWeights[n] = myBufferWeights[j];
+                j++;
+            }
+            n++;
+        }
+        double total = myTotalWeight + myBufferedWeight;
+        double normalizer = myCompression / (4.0 * Math.log(Math.max(1.0, myCount / myCompression)) + 24.0);
+        // sweep, combining neighbours while the centroid spans at most one unit of the scale function
+        int k = 0;
+        double mean = myMergeMeans[0];
+        double weight = myMergeWeights[0];
+        double weightSoFar = 0.0;
+        double kLeft = scale(0.0, normalizer);
+        for (int m = 1; m < n; m++) {
+            double w = myMergeWeights[m];
+            double kRight = scale((weightSoFar + weight + w) / total, normalizer);
+            // the capacity check only matters for extremely uneven weights
+            if ((kRight - kLeft <= 1.0) || (k == myMeans.length - 1)) {
+                weight = weight + w;
+                mean = mean + (myMergeMeans[m] - mean) * w / weight;
+            } else {
+                myMeans[k] = mean;
+                myWeights[k] = weight;
+                k++;
+                weightSoFar = weightSoFar + weight;
+                kLeft = scale(weightSoFar / total, normalizer);
+                mean = myMergeMeans[m];
+                weight = w;
+            }
+        }
+        myMeans[k] = mean;
+        myWeights[k] = weight;
+        myNumCentroids = k + 1;
+        myTotalWeight = total;
+        myNumBuffered = 0;
+        myBufferedWeight = 0.0;
+    }
+
+    /**
+     * The logistic scale function, which limits the size of a centroid to be about
+     * proportional to q(1-q) so that the relative accuracy is maintained in the tails
+     *
+     * @param q the cumulative proportion
+     * @param normalizer the scaling for the compression and the number of observations
+     * @return the scaled value
+     */
+    private static double scale(double q, double normalizer) {
+        return normalizer * Math.log(q / (1.0 - q));
+    }
+
+    private static double interpolate(double a, double b, double f) {
+        f = Math.min(1.0, Math.max(0.0, f));
+        return a + f * (b - a);
+    }
+
+    private static double fraction(double x, double a, double b) {
+        if (b <= a) {
+            return 1.0;
+        }
+        return (x - a) / (b - a);
+    }
+
+    /**
+     * Sorts the keys, and the values along with them, from lo to hi inclusive
+     */
+    private static void sort(double[] keys, double[] values, int lo, int hi) {
+        while (hi - lo > 16) {
+            double pivot = keys[(lo + hi) >>> 1];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (keys[i] < pivot) {
+                    i++;
+                }
+                while (keys[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(keys, values, i, j);
+                    i++;
+                    j--;
+                }
+            }
+            // recurse on the smaller part to bound the stack depth
+            if (j - lo < hi - i) {
+                sort(keys, values, lo, j);
+                lo = i;
+            } else {
+                sort(keys, values, i, hi);
+                hi = j;
+            }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            for (int j = i; (j > lo) && (keys[j - 1] > keys[j]); j--) {
+                swap(keys, values, j - 1, j);
+            }
+        }
+    }
+
+    private static void swap(double[] keys, double[] values, int i, int j) {
+        double t = keys[i];
+        keys[i] = keys[j];
+        keys[j] = t;
+        t = values[i];
+        values[i] = values[j];
+        values[j] = t;
+    }
+}
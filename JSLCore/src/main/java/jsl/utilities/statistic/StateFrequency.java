@@ -33,6 +33,11 @@ public class StateFrequency implements IdentityIfc {
 
     private final Set<State> myStates;
 
+    /**
+     * The states indexed by their number
+     */
+    private final State[] myStateArray;
+
     private int myLastValue;
 
     private State myLastState;
@@ -47,10 +52,12 @@ public class StateFrequency implements IdentityIfc {
         }
         myIdentity = new Identity();
         myStates = new LinkedHashSet<>();
+        myStateArray = new State[numStates];
         for (int i=0; i< numStates; i++){
-            myStates.add(new State(i));
+            myStateArray[i] = new State(i);
+            myStates.add(myStateArray[i]);
         }
-        myFreq = new IntegerFrequency(0, numStates - 1, getName());
+        myFreq = new IntegerFrequency(0, numStates - 1, getName(), true);
         myTransCnts = new int[numStates][numStates];
     }
 
@@ -115,8 +122,11 @@ public class StateFrequency implements IdentityIfc {
      *              it is not tabulated (i.e. it is ignored)
      */
     public void collect(State state){
-        if (myStates.contains(state)){
-            int newValue = state.getNumber();
+        if (state == null){
+            return;
+        }
+        int newValue = state.getNumber();
+        if ((newValue >= 0) && (newValue < myStateArray.length) && (myStateArray[newValue] == state)){
             if (myFreq.getTotalCount() > 0){
                 // there was a previous value collected, update the transition counts
                 myTransCnts[myLastValue][newValue]++;
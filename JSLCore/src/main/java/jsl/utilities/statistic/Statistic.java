@@ -17,6 +17,8 @@ package jsl.utilities.statistic;
 
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.stream.Collector;
+import java.util.stream.DoubleStream;
 
 import jsl.utilities.distributions.Normal;
 import jsl.utilities.distributions.StudentT;
@@ -120,6 +122,32 @@ public class Statistic extends AbstractStatistic {
         return (s);
     }
 
+    /**
+     * Returns a statistic that summarizes the values of the stream. If the stream
+     * is parallel, the partial statistics are combined with merge().
+     *
+     * @param stream the values to compute statistics for, must not be null
+     * @return a Statistic summarizing the data
+     */
+    public static Statistic collectStatistics(DoubleStream stream) {
+        Objects.requireNonNull(stream, "The stream was null");
+        return stream.collect(Statistic::new, Statistic::collect, Statistic::merge);
+    }
+
+    /**
+     * A Collector for a stream of values that produces a Statistic. Partial statistics
+     * from a parallel stream are combined with merge().
+     *
+     * @return the collector
+     */
+    public static Collector<Double, ?, Statistic> collector() {
+        return Collector.of(Statistic::new, (s, x) -> s.collect(x.doubleValue()),
+                (a, b) -> {
+                    a.merge(b);
+                    return a;
+                });
+    }
+
     /**
      * Creates a instance of Statistic that is a copy of the supplied Statistic
      * All internal state is the same (including whether the collection is
@@ -642,6 +670,69 @@ public class Statistic extends AbstractStatistic {
         myValue = x;
     }
 
+    /**
+     * Merges the supplied statistic into this statistic, as if the observations of the
+     * other statistic had been collected by this statistic after its own observations.
+     * The count, average, central moments (and thus the variance, skewness, and kurtosis),
+     * min, max, and the lag-1 sums are combined exactly using the pairwise updates of
+     * Chan, Golub, and LeVeque as extended to higher moments by Pebay. The supplied
+     * statistic is not changed.  Saved data is appended if both statistics are saving data.
+     *
+     * @param other the statistic to merge into this statistic, must not be null
+     */
+    public void merge(Statistic other) {
+        Objects.requireNonNull(other, "The statistic to merge was null");
+        myNumMissing = myNumMissing + other.myNumMissing;
+        if (getSaveOption() && other.getSaveOption()) {
+            save(other.getSavedData());
+        }
+        double nB = other.moments[0];
+        if (nB == 0.0) {
+            return;
+        }
+        double nA = moments[0];
+        if (nA == 0.0) {
+            num = other.num;
+            myJsum = other.myJsum;
+            sumxx = other.sumxx;
+            firstx = other.firstx;
+            System.arraycopy(other.moments, 0, moments, 0, moments.length);
+        } else {
+            double n = nA + nB;
+            double delta = other.moments[1] - moments[1];
+            double d2 = delta * delta;
+            double m2A = nA * moments[2];
+            double m3A = nA * moments[3];
+            double m4A = nA * moments[4];
+            double m2B = nB * other.moments[2];
+            double m3B = nB * other.moments[3];
+            double m4B = nB * other.moments[4];
+            double m2 = m2A + m2B + d2 * nA * nB / n;
+            double m3 = m3A + m3B + d2 * delta * nA * nB * (nA - nB) / (n * n)
+                    + 3.0 * delta * (nA * m2B - nB * m2A) / n;
+            double m4 = m4A + m4B + d2 * d2 * nA * nB * (nA * nA - nA * nB + nB * nB) / (n * n * n)
+                    + 6.0 * d2 * (nA * nA * m2B + nB * nB * m2A) / (n * n)
+                    + 4.0 * delta * (nA * m3B - nB * m3A) / n;
+            // the other's observations are numbered after this statistic's observations
+            myJsum = myJsum + other.myJsum + num * other.getSum();
+            // the last observation of this statistic precedes the first of the other
+            sumxx = sumxx + other.sumxx + myValue * other.firstx;
+            num = num + other.num;
+            moments[0] = n;
+            moments[1] = moments[1] + delta * nB / n;
+            moments[2] = m2 / n;
+            moments[3] = m3 / n;
+            moments[4] = m4 / n;
+        }
+        if (other.min < min) {
+            min = other.min;
+        }
+        if (other.max > max) {
+            max = other.max;
+        }
+        myValue = other.myValue;
+    }
+
     @Override
     public void reset() {
         myValue = Double.NaN;
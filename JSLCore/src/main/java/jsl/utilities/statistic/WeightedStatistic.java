@@ -17,6 +17,8 @@ package jsl.utilities.statistic;
 
 import jsl.utilities.Identity;
 
+import java.util.Objects;
+
 /**
  * Collects a basic weighted statistical summary.  If the observation or the weight is
  * infinite or NaN, then the observation is not recorded and the number of missing observations
@@ -206,6 +208,54 @@ public class WeightedStatistic implements CollectorIfc, WeightedStatisticIfc {
         return (s);
     }
 
+    /**
+     * Merges the supplied statistic into this statistic, as if the observations of the
+     * other statistic had been collected by this statistic after its own observations.
+     * The sums, counts, min, and max are combined exactly. The supplied statistic is not changed.
+     *
+     * @param stat the statistic to merge into this statistic, must not be null
+     */
+    public final void merge(WeightedStatisticIfc stat) {
+        Objects.requireNonNull(stat, "The supplied statistic was null");
+        myNumMissing = myNumMissing + stat.getNumberMissing();
+        if (stat.getCount() == 0.0) {
+            return;
+        }
+        num = num + stat.getCount();
+        sumw = sumw + stat.getSumOfWeights();
+        wsum = wsum + stat.getWeightedSum();
+        wsumsq = wsumsq + stat.getWeightedSumOfSquares();
+        uwsum = uwsum + stat.getUnWeightedSum();
+        if (stat.getMin() < min) {
+            min = stat.getMin();
+        }
+        if (stat.getMax() > max) {
+            max = stat.getMax();
+        }
+        myValue = stat.getLastValue();
+        myWeight = stat.getLastWeight();
+    }
+
+    /**
+     * Sets the internal state of this statistic to the same values as the
+     * supplied statistic. The name and id of this statistic are not changed.
+     *
+     * @param stat the statistic whose state should be copied, must not be null
+     */
+    public final void copyState(WeightedStatisticIfc stat) {
+        Objects.requireNonNull(stat, "The supplied statistic was null");
+        max = stat.getMax();
+        min = stat.getMin();
+        num = stat.getCount();
+        sumw = stat.getSumOfWeights();
+        wsum = stat.getWeightedSum();
+        wsumsq = stat.getWeightedSumOfSquares();
+        myValue = stat.getLastValue();
+        myWeight = stat.getLastWeight();
+        uwsum = stat.getUnWeightedSum();
+        myNumMissing = stat.getNumberMissing();
+    }
+
     @Override
     public void collect(double value) {
         collect(value, 1.0);
@@ -31,12 +31,16 @@ import jsl.utilities.statistic.BatchStatistic;
 import jsl.utilities.statistic.Statistic;
 
 import java.io.*;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.StringJoiner;
+import java.util.stream.IntStream;
 
 /**
  * This class knows how to process data collected by the WelchDataFileCollector
@@ -59,14 +63,35 @@ import java.util.StringJoiner;
  * Unless specifically redirected, files produced by the operation of this class are stored in the same directory
  * (getBaseDirectory()) that the wdf is stored as specified by the supplied WelchFileMetaDataBean information.
  *
+ * The wdf file is memory mapped. When no observers are attached, the Welch averages are computed
+ * in parallel blocks of observations, sweeping each replication's contiguous data within a block.
+ *
  * @author rossetti
  */
-public class WelchDataFileAnalyzer implements ObservableIfc {
+public class WelchDataFileAnalyzer implements ObservableIfc, AutoCloseable {
 
     public static final int NUMBYTES = 8;
 
     public static final int MIN_BATCH_SIZE = 10;
 
+    /**
+     * The number of doubles in each mapped segment of the data file, 2^27 doubles (1 GB)
+     */
+    private static final int SEGMENT_SHIFT = 27;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    /**
+     * The number of observations averaged across the replications by each parallel task
+     */
+    private static final int BLOCK_SIZE = 1 << 14;
+
+    /**
+     * The number of Welch averages held in memory at a time when streaming them to a file
+     * or statistic
+     */
+    private static final int BULK_SIZE = 1 << 20;
+
     protected final WelchFileMetaDataBean myWFMDBean;
 
     protected String myBaseName;
@@ -89,8 +114,32 @@ public class WelchDataFileAnalyzer implements ObservableIfc {
 
     protected final Path myPathToWDF;
 
+    /**
+     * The data file opened for random access.
+     *
+     * @deprecated the analyzer reads the data through the memory mapped segments,
+     * this is only kept open for subclasses and is closed by close()
+     */
+    @Deprecated
     protected RandomAccessFile myWDFDataFile;
 
+    /**
+     * The mapped segments of the data file, empty after the analyzer is closed
+     */
+    protected DoubleBuffer[] mySegments;
+
+    /**
+     * The number of doubles in the data file
+     */
+    protected final long myNumDoubles;
+
+    /**
+     * The index in the data file of the first observation of each replication
+     */
+    protected final long[] myRepOffsets;
+
+    private long myPosition;
+
     private double myLastDataPoint = Double.NaN;
 
     private long myLastObsIndex = Long.MIN_VALUE;
@@ -116,16 +165,57 @@ public class WelchDataFileAnalyzer implements ObservableIfc {
         // get the path to the data file
         String strPath = bean.getPathToFile();
         myPathToWDF = Paths.get(strPath);
-        File wdfDataFile = myPathToWDF.toFile();
+        myRepOffsets = new long[myObsCounts.length];
+        for (int j = 1; j < myObsCounts.length; j++) {
+            myRepOffsets[j] = myRepOffsets[j - 1] + myObsCounts[j - 1];
+        }
         // connect the analyzer to the data in the file
+        DoubleBuffer[] segments = new DoubleBuffer[0];
+        long numDoubles = 0;
+        try (FileChannel channel = FileChannel.open(myPathToWDF, StandardOpenOption.READ)) {
+            numDoubles = channel.size() / NUMBYTES;
+            int numSegments = Math.toIntExact((numDoubles + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+            segments = new DoubleBuffer[numSegments];
+            for (int k = 0; k < numSegments; k++) {
+                long start = (long) k * SEGMENT_SIZE;
+                long size = Math.min(SEGMENT_SIZE, numDoubles - start);
+                segments[k] = channel.map(FileChannel.MapMode.READ_ONLY, start * NUMBYTES, size * NUMBYTES)
+                        .asDoubleBuffer();
+            }
+        } catch (IOException ex) {
+            String str = "Problem mapping the welch data file " + myPathToWDF.toAbsolutePath();
+            JSL.getInstance().LOGGER.error(str, ex);
+            segments = new DoubleBuffer[0];
+            numDoubles = 0;
+        }
+        mySegments = segments;
+        myNumDoubles = numDoubles;
         try {
-            myWDFDataFile = new RandomAccessFile(wdfDataFile, "r");
+            myWDFDataFile = new RandomAccessFile(myPathToWDF.toFile(), "r");
         } catch (IOException ex) {
-            String str = "Problem creating RandomAccessFile for " + wdfDataFile.getAbsolutePath();
+            String str = "Problem creating RandomAccessFile for " + myPathToWDF.toAbsolutePath();
             JSL.getInstance().LOGGER.error(str, ex);
         }
     }
 
+    /**
+     * Releases the mapped segments and the file. The analyzer cannot read
+     * the data file after it is closed.
+     */
+    @Override
+    public void close() {
+        // the mapped regions are released when they are no longer referenced
+        mySegments = new DoubleBuffer[0];
+        if (myWDFDataFile != null) {
+            try {
+                myWDFDataFile.close();
+            } catch (IOException ex) {
+                JSL.getInstance().LOGGER.error("Problem closing the welch data file " + myPathToWDF.toAbsolutePath(), ex);
+            }
+            myWDFDataFile = null;
+        }
+    }
+
     /**
      *
      * @param pathToWelchFileMetaDataBeanJson must not be null, must be JSON, must represent WelchFileMetaDataBean
@@ -231,7 +321,7 @@ public class WelchDataFileAnalyzer implements ObservableIfc {
         File wpdf = JSLFileUtil.makeFile(path);
         try {
             FileOutputStream fout = new FileOutputStream(wpdf);
-            DataOutputStream out = new DataOutputStream(fout);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fout));
             writeWelchPlotData(out, numObs);
         } catch (IOException ex) {
             JSL.getInstance().LOGGER.error("Unable to make welch data plot file ", ex);
@@ -252,11 +342,15 @@ public class WelchDataFileAnalyzer implements ObservableIfc {
         Objects.requireNonNull(out, "The DataOutputStream was null");
         long n = Math.min(numObs, myMinObsCount);
         Statistic s = new Statistic();
-        for (long i = 1; i <= n; i++) {
-            double x = getAcrossReplicationAverage(i);
-            s.collect(x);
-            out.writeDouble(x);
-            out.writeDouble(s.getAverage());
+        double[] block = new double[(int) Math.min(Math.max(n, 0), BULK_SIZE)];
+        for (long i = 1; i <= n; i = i + block.length) {
+            int m = fillWelchAverages(i, n, block);
+            for (int k = 0; k < m; k++) {
+                double x = block[k];
+                s.collect(x);
+                out.writeDouble(x);
+                out.writeDouble(s.getAverage());
+            }
         }
         out.flush();
         out.close();
@@ -329,12 +423,16 @@ public class WelchDataFileAnalyzer implements ObservableIfc {
         out.print(",");
         out.println("CumAvg");
         Statistic s = new Statistic();
-        for (long i = 1; i <= n; i++) {
-            double x = getAcrossReplicationAverage(i);
-            s.collect(x);
-            out.print(x);
-            out.print(",");
-            out.println(s.getAverage());
+        double[] block = new double[(int) Math.min(Math.max(n, 0), BULK_SIZE)];
+        for (long i = 1; i <= n; i = i + block.length) {
+            int m = fillWelchAverages(i, n, block);
+            for (int k = 0; k < m; k++) {
+                double x = block[k];
+                s.collect(x);
+                out.print(x);
+                out.print(",");
+                out.println(s.getAverage());
+            }
         }
         out.flush();
         out.close();
@@ -448,10 +546,8 @@ public class WelchDataFileAnalyzer implements ObservableIfc {
         } else {
             n = Math.toIntExact(myMinObsCount);
         }
-        double[] x = new double[n];
-        for (int i = 1; i <= n; i++) {
-            x[i - 1] = getAcrossReplicationAverage(i);
-        }
+        double[] x = new double[Math.max(n, 0)];
+        fillWelchAverages(1, n, x);
         return x;
     }
 
@@ -485,6 +581,25 @@ public class WelchDataFileAnalyzer implements ObservableIfc {
      */
     public final double[] getCumulativeWelchAverages(int numObs){
         double[] avgs = getWelchAveragesNE(numObs);
+        return cumulativeAverages(avgs);
+    }
+
+    /**
+     * Returns the Welch averages and their cumulative averages. The first row holds the
+     * Welch averages and the second row the cumulative averages. Since the number of observations
+     * in the file may be very large, this may have memory implications.
+     *
+     * Squelches any IOExceptions
+     *
+     * @param numObs the number of observations to get
+     * @return the array of data
+     */
+    public final double[][] getWelchPlotData(int numObs){
+        double[] avgs = getWelchAveragesNE(numObs);
+        return new double[][]{avgs, cumulativeAverages(avgs)};
+    }
+
+    private static double[] cumulativeAverages(double[] avgs) {
         double[] cumAvgs = new double[avgs.length];
         Statistic s = new Statistic();
         for (int i=0; i< avgs.length; i++){
@@ -581,8 +696,12 @@ public class WelchDataFileAnalyzer implements ObservableIfc {
         }
         int k = deletePt + 1;
         BatchStatistic b = new BatchStatistic(minNumBatches, minBatchSize, maxNBMultiple);
-        for (long i = k; i <= myMinObsCount; i++) {
-            b.collect(getAcrossReplicationAverage(i));
+        double[] block = new double[(int) Math.min(Math.max(myMinObsCount - k + 1, 0), BULK_SIZE)];
+        for (long i = k; i <= myMinObsCount; i = i + block.length) {
+            int m = fillWelchAverages(i, myMinObsCount, block);
+            for (int j = 0; j < m; j++) {
+                b.collect(block[j]);
+            }
         }
         return b;
     }
@@ -651,6 +770,59 @@ public class WelchDataFileAnalyzer implements ObservableIfc {
         return myAcrossRepStat.getAverage();
     }
 
+    /**
+     * Fills the array with the across replication averages of observations start, start + 1, ...
+     * up to the array's length or observation last, whichever comes first. If observers are attached
+     * the observations are read one at a time so that the observers are notified of each one;
+     * otherwise the averages are computed in a parallel pass over the mapped data.
+     *
+     * @param start the first observation, 1 based
+     * @param last  the last observation that may be included
+     * @param avgs  the array to fill
+     * @return the number of averages filled
+     * @throws IOException if the data file does not hold the observations
+     */
+    private int fillWelchAverages(long start, long last, double[] avgs) throws IOException {
+        int n = (int) Math.min(avgs.length, last - start + 1);
+        if (n <= 0) {
+            return 0;
+        }
+        if (countObservers() > 0) {
+            for (int i = 0; i < n; i++) {
+                avgs[i] = getAcrossReplicationAverage(start + i);
+            }
+            return n;
+        }
+        int nReps = myRepOffsets.length;
+        if ((nReps == 0) || (myRepOffsets[nReps - 1] + myObsCounts[nReps - 1] > myNumDoubles)) {
+            throw new IOException("The welch data file " + myPathToWDF + " does not hold all of the observations");
+        }
+        int numBlocks = (n + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        IntStream.range(0, numBlocks).parallel().forEach(b -> {
+            int from = b * BLOCK_SIZE;
+            int to = Math.min(from + BLOCK_SIZE, n);
+            int[] counts = new int[to - from];
+            Arrays.fill(avgs, from, to, 0.0);
+            // each replication's observations are contiguous in the file
+            for (int j = 0; j < nReps; j++) {
+                long base = myRepOffsets[j] + start - 1;
+                for (int i = from; i < to; i++) {
+                    double x = read(base + i);
+                    // missing values are skipped as Statistic does
+                    if (!Double.isNaN(x) && !Double.isInfinite(x)) {
+                        avgs[i] = avgs[i] + x;
+                        counts[i - from]++;
+                    }
+                }
+            }
+            for (int i = from; i < to; i++) {
+                int c = counts[i - from];
+                avgs[i] = (c > 0) ? avgs[i] / c : Double.NaN;
+            }
+        });
+        return n;
+    }
+
     /**
      * Fills the supplied array with a row of observations across the
      * replications
@@ -705,7 +877,11 @@ public class WelchDataFileAnalyzer implements ObservableIfc {
      * @throws IOException if there was trouble with the file
      */
     public final double get() throws IOException {
-        myLastDataPoint = myWDFDataFile.readDouble();
+        if ((myPosition < 0) || (myPosition >= myNumDoubles)) {
+            throw new IOException("Attempted to read beyond the end of the welch data file " + myPathToWDF);
+        }
+        myLastDataPoint = read(myPosition);
+        myPosition++;
         myObsComponent.notifyObservers(this, null);
         return myLastDataPoint;
     }
@@ -719,7 +895,14 @@ public class WelchDataFileAnalyzer implements ObservableIfc {
      * @throws IOException if there was trouble with the file
      */
     public final void setPosition(long i, int j) throws IOException {
-        myWDFDataFile.seek(getPosition(i, j));
+        myPosition = getPosition(i, j) / NUMBYTES;
+    }
+
+    private double read(long index) {
+        if ((mySegments.length == 0) && (myNumDoubles > 0)) {
+            throw new IllegalStateException("The welch data file analyzer has been closed");
+        }
+        return mySegments[(int) (index >>> SEGMENT_SHIFT)].get((int) (index & SEGMENT_MASK));
     }
 
     /**
@@ -738,11 +921,7 @@ public class WelchDataFileAnalyzer implements ObservableIfc {
         }
         myLastObsIndex = i;
         myLastRepIndex = j;
-        long pos = 0;
-        for (int n = 0; n < j - 1; n++) {
-            pos = pos + myObsCounts[n];
-        }
-        pos = pos + (i - 1);
+        long pos = myRepOffsets[j - 1] + (i - 1);
         return pos * NUMBYTES;
     }
 
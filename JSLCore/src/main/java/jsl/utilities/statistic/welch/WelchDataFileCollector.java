@@ -8,17 +8,35 @@ import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Objects;
 
 public class WelchDataFileCollector extends AbstractWelchDataCollector {
 
+    /**
+     * The default size, in bytes, of the buffer that holds observations before they
+     * are written to the data file
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
     protected File myDataFile;
 
-    //TODO does not have to be RandomAccessFile
+    /**
+     * The data file. The buffered observations are written through its channel as
+     * big-endian doubles, the same layout as RandomAccessFile.writeDouble(). Call
+     * flush() before writing to the file directly.
+     */
     protected RandomAccessFile myData;
 
+    /**
+     * Holds observations until the buffer is full, the replication ends, or the
+     * collector is cleaned up
+     */
+    protected final ByteBuffer myBuffer;
+
     protected File myMetaDataFile;
     protected PrintWriter myMetaData;
 
@@ -26,7 +44,23 @@ public class WelchDataFileCollector extends AbstractWelchDataCollector {
     private final String myFileName;
 
     public WelchDataFileCollector(Path pathToDirectory, StatisticType statisticType, String name, double batchSize) {
+        this(pathToDirectory, statisticType, name, batchSize, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param pathToDirectory the directory to hold the files
+     * @param statisticType   the type of statistic
+     * @param name            the name of the data
+     * @param batchSize       the batch size
+     * @param bufferSize      the size of the write buffer in bytes, must be at least 8
+     */
+    public WelchDataFileCollector(Path pathToDirectory, StatisticType statisticType, String name, double batchSize,
+                                  int bufferSize) {
         super(statisticType, name, batchSize);
+        if (bufferSize < Double.BYTES) {
+            throw new IllegalArgumentException("The buffer size must be at least " + Double.BYTES + " bytes");
+        }
+        myBuffer = ByteBuffer.allocateDirect(bufferSize - (bufferSize % Double.BYTES));
         Objects.requireNonNull(pathToDirectory, "The path to the directory was null!");
         // make the directory
         try {
@@ -43,14 +77,38 @@ public class WelchDataFileCollector extends AbstractWelchDataCollector {
         myDataFile = JSLFileUtil.makeFile(pathToDirectory.resolve(myFileName + ".wdf"));
         myMetaDataFile = JSLFileUtil.makeFile(pathToDirectory.resolve(myFileName + ".json"));
         myMetaData = JSLFileUtil.makePrintWriter(myMetaDataFile);
+        openDataFile();
+    }
+
+    private void openDataFile() {
         try {
             myData = new RandomAccessFile(myDataFile, "rw");
+            myData.setLength(0);
         } catch (IOException ex) {
             String str = "Problem creating RandomAccessFile for " + myDataFile.getAbsolutePath();
             JSL.getInstance().LOGGER.error(str, ex);
         }
     }
 
+    /**
+     * Writes any buffered observations to the data file
+     */
+    public final void flush() {
+        if ((myData == null) || !myData.getChannel().isOpen()) {
+            return;
+        }
+        myBuffer.flip();
+        try {
+            FileChannel channel = myData.getChannel();
+            while (myBuffer.hasRemaining()) {
+                channel.write(myBuffer);
+            }
+        } catch (IOException ex) {
+            JSL.getInstance().LOGGER.error("Unable to write observations in welch data file ", ex);
+        }
+        myBuffer.clear();
+    }
+
     /**
      * The directory for the files
      *
@@ -75,6 +133,7 @@ public class WelchDataFileCollector extends AbstractWelchDataCollector {
      * @return a WelchDataFileAnalyzer
      */
     public WelchDataFileAnalyzer makeWelchDataFileAnalyzer() {
+        flush();
         return new WelchDataFileAnalyzer(makeWelchFileMetaDataBean());
     }
 
@@ -183,15 +242,11 @@ public class WelchDataFileCollector extends AbstractWelchDataCollector {
     }
 
     private void writeObservation(double observation) {
-        try {
-            myData.writeDouble(observation);
-            myRepStat.collect(observation);
-//            if (myStatType == StatisticType.TIME_PERSISTENT){
-//                JSL.out.println(observation);
-//            }
-        } catch (IOException ex) {
-            JSL.getInstance().LOGGER.error("Unable to write observation in welch data file ", ex);
+        if (!myBuffer.hasRemaining()) {
+            flush();
         }
+        myBuffer.putDouble(observation);
+        myRepStat.collect(observation);
     }
 
     public WelchFileMetaDataBean makeWelchFileMetaDataBean() {
@@ -214,8 +269,38 @@ public class WelchDataFileCollector extends AbstractWelchDataCollector {
         return bean.toJSON();
     }
 
+    @Override
+    public void setUpCollector() {
+        super.setUpCollector();
+        // a new experiment starts a new data file
+        myBuffer.clear();
+        if ((myData == null) || !myData.getChannel().isOpen()) {
+            openDataFile();
+        } else {
+            try {
+                myData.setLength(0);
+            } catch (IOException ex) {
+                JSL.getInstance().LOGGER.error("Unable to truncate welch data file ", ex);
+            }
+        }
+    }
+
+    @Override
+    public void endReplication() {
+        super.endReplication();
+        flush();
+    }
+
     @Override
     public void cleanUpCollector() {
+        flush();
+        try {
+            if (myData != null) {
+                myData.close();
+            }
+        } catch (IOException ex) {
+            JSL.getInstance().LOGGER.error("Unable to close welch data file ", ex);
+        }
         myMetaData.println(getWelchFileMetaDataBeanAsJson());
     }
 }
@@ -19,6 +19,8 @@ package jslx.dbutilities;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
 import com.google.common.primitives.Doubles;
+import jsl.controls.experiments.SimulationParameters;
+import jsl.controls.experiments.SimulationRun;
 import jsl.simulation.Model;
 import jsl.simulation.ModelElement;
 import jsl.simulation.Simulation;
@@ -36,6 +38,7 @@ import jsl.utilities.statistic.*;
 import org.jooq.DSLContext;
 import org.jooq.Record12;
 import org.jooq.Result;
+import org.jooq.UpdatableRecord;
 import org.jooq.SQLDialect;
 import org.jooq.conf.RenderNameCase;
 import org.jooq.conf.RenderNameStyle;
@@ -107,6 +110,10 @@ public class JSLDatabase {
     private final DatabaseIfc myDb;
     protected SimulationRunRecord myCurrentSimRunRecord;
     private SimulationDatabaseObserver mySimulationObserver;
+    private boolean myWriteBehindOption;
+    private int myWriteBehindBatchSize = 500;
+    private int myWriteBehindQueueCapacity = 10000;
+    private WriteBehindRecordWriter myWriteBehindWriter;
 
     /**
      * Creates an instance of a JSLDatabase. Assumes that a schema called getJSLSchemaName() exists
@@ -344,16 +351,121 @@ public class JSLDatabase {
         db.dropSchema(getJSLSchemaName(), JSLTableNames, JSLViewNames);
     }
 
+    /**
+     * @return true if the replication results are written by a separate thread
+     */
+    public final boolean getWriteBehindOption() {
+        return myWriteBehindOption;
+    }
+
+    /**
+     * When the write behind option is true, the within replication and batch
+     * statistics collected after each replication are placed on a bounded queue and
+     * inserted into the database by a separate writer thread so that the simulation
+     * does not wait on the database. The simulation waits only if the queue is full.
+     * All queued records are written before the across replication statistics
+     * are inserted at the end of the experiment. The option takes effect at the
+     * start of the next experiment.
+     *
+     * @param flag true means use a writer thread, the default is false
+     */
+    public final void setWriteBehindOption(boolean flag) {
+        myWriteBehindOption = flag;
+    }
+
+    /**
+     * @return the maximum number of records in each batch insert made by the writer thread
+     */
+    public final int getWriteBehindBatchSize() {
+        return myWriteBehindBatchSize;
+    }
+
+    /**
+     * @param batchSize the maximum number of records in each batch insert made by
+     *                  the writer thread, must be at least 1, the default is 500
+     */
+    public final void setWriteBehindBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be at least 1");
+        }
+        myWriteBehindBatchSize = batchSize;
+    }
+
+    /**
+     * @return the maximum number of records that may wait to be written
+     */
+    public final int getWriteBehindQueueCapacity() {
+        return myWriteBehindQueueCapacity;
+    }
+
+    /**
+     * @param capacity the maximum number of records that may wait to be written
+     *                 before the simulation waits for the writer thread, must be at least 1,
+     *                 the default is 10000
+     */
+    public final void setWriteBehindQueueCapacity(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The queue capacity must be at least 1");
+        }
+        myWriteBehindQueueCapacity = capacity;
+    }
+
+    /**
+     * Waits until all the records queued for the writer thread have been written.
+     * Does nothing if the write behind option was not in effect for the current experiment.
+     */
+    public final void flushWriteBehind() {
+        if (myWriteBehindWriter != null) {
+            myWriteBehindWriter.flush();
+        }
+    }
+
     /**
      * Called by the JSLDatabaseObserver before the simulation experiment is run
      * @param simulation the simulation
      */
     protected void beforeExperiment(Simulation simulation) {
+        closeWriteBehindWriter();
         // insert the new simulation run into the database
         insertSimulationRunRecord(simulation);
         // add the model elements associated with this run to the database
         List<ModelElement> currMEList = simulation.getModel().getModelElements();
         insertModelElements(currMEList);
+        if (getWriteBehindOption()) {
+            myWriteBehindWriter = new WriteBehindRecordWriter(myDb.getDSLContext(),
+                    myWriteBehindBatchSize, myWriteBehindQueueCapacity,
+                    myDb.getLabel() + "_WriteBehindThread");
+        }
+    }
+
+    /**
+     * Writes any remaining queued records and stops the writer thread
+     */
+    private void closeWriteBehindWriter() {
+        if (myWriteBehindWriter != null) {
+            try {
+                myWriteBehindWriter.close();
+            } finally {
+                myWriteBehindWriter = null;
+            }
+        }
+    }
+
+    /**
+     * Stores the newly created records, either immediately using a batch, or
+     * by queueing them for the writer thread if the write behind option is in effect
+     *
+     * @param records the records to store
+     */
+    protected void storeRecords(List<? extends UpdatableRecord<?>> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        if (myWriteBehindWriter != null) {
+            myWriteBehindWriter.put(records);
+        } else {
+            myDb.getDSLContext().batchStore(records).execute();
+        }
     }
 
     /**
@@ -380,6 +492,8 @@ public class JSLDatabase {
      * @param simulation the simulation
      */
     protected void afterExperiment(Simulation simulation) {
+        // the queued replication records must be written before the run is finalized
+        closeWriteBehindWriter();
         finalizeCurrentSimulationRunRecord(simulation);
         List<ResponseVariable> rvs = simulation.getModel().getResponseVariables();
         List<Counter> counters = simulation.getModel().getCounters();
@@ -431,6 +545,95 @@ public class JSLDatabase {
         myCurrentSimRunRecord.store();
     }
 
+    /**
+     * Inserts the results of a SimulationRun, e.g. a design point of a ScenarioSweep that
+     * was executed on another instance of the model. The run is recorded under the supplied
+     * simulation name with the name of the run as the experiment name, replacing any previous
+     * record with the same names. The response data of the run is recorded as the within
+     * replication averages of the response variables, the within replication values of the
+     * counters, and the across replication statistics of both. The current simulation run
+     * record is not changed.
+     *
+     * @param simName the name of the simulation, must not be null
+     * @param model   a model built by the same builder as the model of the run, used for the
+     *                model elements, must not be null
+     * @param run     the completed run, must not be null and must have response data
+     */
+    public final void insertSimulationRun(String simName, Model model, SimulationRun run) {
+        Objects.requireNonNull(simName, "The simulation name was null");
+        Objects.requireNonNull(model, "The model was null");
+        Objects.requireNonNull(run, "The simulation run was null");
+        if ((run.responseData == null) || !run.responseData.containsKey("replication")) {
+            throw new IllegalArgumentException("The simulation run " + run.name + " does not have response data");
+        }
+        DSLContext create = myDb.getDSLContext();
+        deleteSimulationRunRecord(simName, run.name);
+        double[] reps = run.responseData.get("replication");
+        SimulationRunRecord record = create.newRecord(SIMULATION_RUN);
+        record.setSimName(simName);
+        record.setModelName(model.getName());
+        record.setExpName(run.name);
+        record.setExpStartTimeStamp(new Timestamp(System.currentTimeMillis()).toLocalDateTime());
+        record.setNumReps(reps.length);
+        record.setLastRep(reps.length);
+        record.setHasMoreReps(false);
+        SimulationParameters p = run.parameters;
+        if (p != null) {
+            if ((p.lengthOfReplication != null) && !Double.isNaN(p.lengthOfReplication)
+                    && !Double.isInfinite(p.lengthOfReplication)) {
+                record.setLengthOfRep(p.lengthOfReplication);
+            }
+            if (p.lengthOfWarmup != null) {
+                record.setLengthOfWarmUp(p.lengthOfWarmup);
+            }
+            record.setAntitheticOption(p.useAntithetic);
+            record.setNumStreamAdvances(p.firstReplication);
+        }
+        record.store();
+        Integer simId = record.getId();
+        List<ModelElementRecord> elementRecords = new ArrayList<>();
+        for (ModelElement element : model.getModelElements()) {
+            elementRecords.add(newModelElementRecord(element, simId));
+        }
+        create.batchStore(elementRecords).execute();
+        List<UpdatableRecord<?>> records = new ArrayList<>();
+        for (Map.Entry<String, double[]> entry : run.responseData.entrySet()) {
+            ModelElement element = model.getModelElement(entry.getKey());
+            double[] values = entry.getValue();
+            if (element instanceof ResponseVariable) {
+                for (int i = 0; i < values.length; i++) {
+                    WithinRepStatRecord r = create.newRecord(WITHIN_REP_STAT);
+                    r.setElementIdFk(element.getId());
+                    r.setSimRunIdFk(simId);
+                    r.setRepNum((int) reps[i] + 1);
+                    r.setStatName(entry.getKey());
+                    if (!Double.isNaN(values[i]) && !Double.isInfinite(values[i])) {
+                        r.setAverage(values[i]);
+                    }
+                    records.add(r);
+                }
+            } else if (element instanceof Counter) {
+                for (int i = 0; i < values.length; i++) {
+                    WithinRepCounterStatRecord r = create.newRecord(WITHIN_REP_COUNTER_STAT);
+                    r.setElementIdFk(element.getId());
+                    r.setSimRunIdFk(simId);
+                    r.setRepNum((int) reps[i] + 1);
+                    r.setStatName(entry.getKey());
+                    if (!Double.isNaN(values[i]) && !Double.isInfinite(values[i])) {
+                        r.setLastValue(values[i]);
+                    }
+                    records.add(r);
+                }
+            } else {
+                continue;
+            }
+            records.add(newAcrossRepStatRecord(element, simId, new Statistic(entry.getKey(), values)));
+        }
+        create.batchStore(records).execute();
+        record.setExpEndTimeStamp(new Timestamp(System.currentTimeMillis()).toLocalDateTime());
+        record.store();
+    }
+
     /**
      * The list must be ordered according to parent-child, so that parents occur before
      * their children in the list
@@ -486,7 +689,7 @@ public class JSLDatabase {
                 records.add(withinRepStatRecord);
             }
         }
-        myDb.getDSLContext().batchStore(records).execute();
+        storeRecords(records);
     }
 
     /**
@@ -552,7 +755,7 @@ public class JSLDatabase {
                 records.add(statRecord);
             }
         }
-        myDb.getDSLContext().batchStore(records).execute();
+        storeRecords(records);
     }
 
     /**
@@ -713,7 +916,7 @@ public class JSLDatabase {
                 records.add(batchStatRecord);
             }
         }
-        myDb.getDSLContext().batchStore(records).execute();
+        storeRecords(records);
     }
 
     /**
@@ -734,7 +937,7 @@ public class JSLDatabase {
                 records.add(batchStatRecord);
             }
         }
-        myDb.getDSLContext().batchStore(records).execute();
+        storeRecords(records);
     }
 
     /**
@@ -139,6 +139,26 @@ public class JSLDatabaseObserver {
         myClearDataBeforeExperimentOption = clearDataBeforeExperimentOption;
     }
 
+    /**
+     * @return true if replication results are written to the database by a separate thread
+     */
+    public final boolean getWriteBehindOption() {
+        return myDb.getWriteBehindOption();
+    }
+
+    /**
+     * Sets the write behind option of the underlying JSLDatabase. When true, the
+     * results of each replication are queued and written by a separate thread so
+     * that the simulation does not wait on the database. All queued results are
+     * written at the end of the experiment. See JSLDatabase.setWriteBehindBatchSize()
+     * and JSLDatabase.setWriteBehindQueueCapacity().
+     *
+     * @param flag true means use a writer thread, the default is false
+     */
+    public final void setWriteBehindOption(boolean flag) {
+        myDb.setWriteBehindOption(flag);
+    }
+
     /**
      * Tells the observer to stop observing the Simulation Model
      */
@@ -0,0 +1,59 @@
+package jslx.dbutilities;
+
+import jsl.controls.experiments.ScenarioSweep;
+import jsl.controls.experiments.ScenarioSweepListenerIfc;
+import jsl.controls.experiments.SimulationRun;
+import jsl.simulation.Model;
+import jsl.simulation.ModelBuilderIfc;
+import jsl.simulation.Simulation;
+import jsl.utilities.random.rng.RNStreamProvider;
+import jsl.utilities.random.rvariable.JSLRandom;
+
+import java.util.Objects;
+
+/**
+ * Writes the results of the design points of a ScenarioSweep to a JSLDatabase as the
+ * design points complete. Each design point is recorded as a simulation run with the
+ * name of the sweep as the simulation name and the name of the run of the design point,
+ * e.g. Sweep_DP3, as the experiment name. Thus, the design points can be compared using
+ * the views and the multiple comparison methods of the database.
+ * <p>
+ * A design point that is executed again, e.g. when a sweep is resumed, replaces its
+ * previous records. Design points that failed are not written.
+ */
+public class ScenarioSweepDatabaseWriter implements ScenarioSweepListenerIfc {
+
+    private final JSLDatabase myDb;
+
+    private final Model myModel;
+
+    /**
+     * @param db      the database to write to, must not be null
+     * @param builder the builder of the model of the sweep, used to build the model elements
+     *                of the runs, must not be null
+     */
+    public ScenarioSweepDatabaseWriter(JSLDatabase db, ModelBuilderIfc builder) {
+        Objects.requireNonNull(db, "The database was null");
+        Objects.requireNonNull(builder, "The model builder was null");
+        myDb = db;
+        Simulation sim = new Simulation(getClass().getSimpleName());
+        myModel = sim.getModel();
+        myModel.setRNStreamProvider(new RNStreamProvider());
+        JSLRandom.runWithRNStreamProvider(myModel.getRNStreamProvider(), () -> builder.build(myModel));
+    }
+
+    /**
+     * @return the database
+     */
+    public final JSLDatabase getJSLDatabase() {
+        return myDb;
+    }
+
+    @Override
+    public void designPointCompleted(ScenarioSweep sweep, int designPoint, SimulationRun run) {
+        if ((run.functionError != null) && !run.functionError.isEmpty()) {
+            return;
+        }
+        myDb.insertSimulationRun(sweep.getName(), myModel, run);
+    }
+}
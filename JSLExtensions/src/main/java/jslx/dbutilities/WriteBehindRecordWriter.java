@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package jslx.dbutilities;
+
+import jsl.utilities.reporting.JSL;
+import org.jooq.DSLContext;
+import org.jooq.TableRecord;
+import org.jooq.exception.DataAccessException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes table records to a database from a separate thread. Records are
+ * placed on a bounded queue and a writer thread removes them and inserts them
+ * using JDBC batches of up to the batch size. When the queue is full,
+ * the thread placing the records waits until the writer has made room, which limits
+ * the number of records held in memory.
+ * <p>
+ * The records must be complete when they are placed on the queue because
+ * they are written at some later time. If a batch cannot be written, its records
+ * are written one at a time so that only the failing records are lost, and the writer
+ * continues with the records that follow. The first error that occurs while writing is
+ * reported once by the next call to put(), flush(), or close().
+ */
+final class WriteBehindRecordWriter {
+
+    private final DSLContext myDSLContext;
+    private final BlockingQueue<TableRecord<?>> myQueue;
+    private final int myBatchSize;
+    private final Thread myThread;
+    private final Object myLock = new Object();
+    private long myNumPut;
+    private long myNumProcessed;
+    private volatile boolean myCloseFlag;
+    private final AtomicReference<RuntimeException> myError = new AtomicReference<>();
+
+    /**
+     * @param context       the context used to insert the records, must not be null
+     * @param batchSize     the maximum number of records in a batch insert, must be at least 1
+     * @param queueCapacity the maximum number of records waiting to be written, must be at least 1
+     * @param name          the name of the writer thread
+     */
+    WriteBehindRecordWriter(DSLContext context, int batchSize, int queueCapacity, String name) {
+        Objects.requireNonNull(context, "The DSLContext was null");
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be at least 1");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("The queue capacity must be at least 1");
+        }
+        myDSLContext = context;
+        myBatchSize = batchSize;
+        myQueue = new ArrayBlockingQueue<>(queueCapacity);
+        myThread = new Thread(this::drain, name);
+        myThread.setDaemon(true);
+        myThread.start();
+    }
+
+    /**
+     * @return the maximum number of records in a batch insert
+     */
+    int getBatchSize() {
+        return myBatchSize;
+    }
+
+    /**
+     * Places the records on the queue, waiting for space if the queue is full. If an
+     * earlier write failed or the thread is interrupted while waiting, the records that
+     * have not yet been queued are not written.
+     *
+     * @param records the records to write
+     */
+    void put(Collection<? extends TableRecord<?>> records) {
+        checkError();
+        if (myCloseFlag) {
+            throw new IllegalStateException("The writer has been closed");
+        }
+        try {
+            for (TableRecord<?> r : records) {
+                while (!myQueue.offer(r, 100, TimeUnit.MILLISECONDS)) {
+                    // the writer may have failed while we were waiting
+                    checkError();
+                }
+                // only count the records that were queued so that flush() does not
+                // wait for records that were never placed on the queue
+                synchronized (myLock) {
+                    myNumPut = myNumPut + 1;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessException("Interrupted while waiting to queue records", e);
+        }
+    }
+
+    /**
+     * Waits until all the records that have been placed on the queue have been written,
+     * or have failed to be written
+     */
+    void flush() {
+        synchronized (myLock) {
+            while ((myNumProcessed < myNumPut) && myThread.isAlive()) {
+                try {
+                    myLock.wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new DataAccessException("Interrupted while waiting for records to be written", e);
+                }
+            }
+        }
+        checkError();
+    }
+
+    /**
+     * Flushes the remaining records and stops the writer thread
+     */
+    void close() {
+        try {
+            flush();
+        } finally {
+            myCloseFlag = true;
+            myThread.interrupt();
+            try {
+                myThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void checkError() {
+        RuntimeException e = myError.getAndSet(null);
+        if (e != null) {
+            throw e;
+        }
+    }
+
+    private void drain() {
+        List<TableRecord<?>> batch = new ArrayList<>(myBatchSize);
+        while (!myCloseFlag) {
+            try {
+                batch.add(myQueue.take());
+            } catch (InterruptedException e) {
+                // interrupted by close()
+                break;
+            }
+            myQueue.drainTo(batch, myBatchSize - 1);
+            try {
+                myDSLContext.batchInsert(batch).execute();
+            } catch (RuntimeException e) {
+                JSL.getInstance().LOGGER.error("Unable to write {} records in the write behind thread", batch.size(), e);
+                insertEach(batch);
+            }
+            synchronized (myLock) {
+                myNumProcessed = myNumProcessed + batch.size();
+                myLock.notifyAll();
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Inserts the records of a failed batch one at a time, remembering the first error
+     *
+     * @param batch the records of the batch
+     */
+    private void insertEach(List<TableRecord<?>> batch) {
+        for (TableRecord<?> r : batch) {
+            try {
+                r.attach(myDSLContext.configuration());
+                r.insert();
+            } catch (RuntimeException e) {
+                JSL.getInstance().LOGGER.error("Unable to write record {} in the write behind thread", r, e);
+                myError.compareAndSet(null, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package jslx.excel;
+
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Loader;
+import org.jooq.Record;
+import org.jooq.Table;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A sheet contents handler that streams the rows of an Excel sheet into a database
+ * table. Rows are converted to the types of the table's fields as they are parsed and
+ * are inserted in batches so that the sheet is never held in memory all at once.
+ *
+ * @author rossetti
+ */
+class ExcelSheetToTable implements SheetContentsHandler {
+
+    private final DSLContext myDSLContext;
+    private final Table<? extends Record> myTable;
+    private final Field<?>[] myFields;
+    private final boolean mySkipFirstRow;
+    private final int myBatchSize;
+    private final List<Object[]> myBatch;
+    private Object[] myRow;
+    private boolean myFirstRowSkipped;
+    private int myCurrentCol = -1;
+    private long myNumRowsWritten;
+    private long myNumErrors;
+
+    /**
+     * @param dslContext   the context for the database holding the table, must not be null
+     * @param table        the table to write to, must not be null
+     * @param skipFirstRow true means the first row of the sheet is skipped
+     * @param batchSize    the number of rows inserted per batch, must be at least 1
+     */
+    ExcelSheetToTable(DSLContext dslContext, Table<? extends Record> table, boolean skipFirstRow, int batchSize) {
+        if (dslContext == null) {
+            throw new IllegalArgumentException("The DSLContext was null");
+        }
+        if (table == null) {
+            throw new IllegalArgumentException("The Table was null");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be at least 1");
+        }
+        myDSLContext = dslContext;
+        myTable = table;
+        myFields = table.fields();
+        mySkipFirstRow = skipFirstRow;
+        myBatchSize = batchSize;
+        myBatch = new ArrayList<>(batchSize);
+    }
+
+    /**
+     * A formatter that reports numeric cells as their raw values rather than as they are displayed,
+     * so that no precision is lost, and without an exponent so that numbers read into text fields
+     * appear as they were entered.  Date formatted cells are reported in the form yyyy-MM-dd HH:mm:ss.
+     *
+     * @return the formatter to use when parsing the sheet
+     */
+    static DataFormatter newRawValueFormatter() {
+        return new DataFormatter() {
+            @Override
+            public String formatRawCellContents(double value, int formatIndex, String formatString) {
+                if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                    return ExcelUtil.DATE_TIME_FORMATTER.format(DateUtil.getJavaDate(value).toInstant());
+                }
+                return ExcelUtil.formatNumericCellValue(value);
+            }
+        };
+    }
+
+    @Override
+    public void startRow(int rowNum) {
+        myCurrentCol = -1;
+        myRow = new Object[myFields.length];
+    }
+
+    @Override
+    public void endRow(int rowNum) {
+        if (mySkipFirstRow && !myFirstRowSkipped) {
+            myFirstRowSkipped = true;
+            return;
+        }
+        myBatch.add(myRow);
+        if (myBatch.size() >= myBatchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+        int col = myCurrentCol + 1;
+        if (cellReference != null) {
+            col = new CellReference(cellReference).getCol();
+        }
+        myCurrentCol = col;
+        if ((col >= myFields.length) || (formattedValue == null)) {
+            return;
+        }
+        String s = formattedValue.trim();
+        if (s.isEmpty()) {
+            return;
+        }
+        Field<?> field = myFields[col];
+        if (field.getDataType().isString()) {
+            int fieldLength = field.getDataType().length();
+            if ((fieldLength > 0) && (s.length() > fieldLength)) {
+                ExcelUtil.LOG.warn("The cell {} was truncated to {} characters for field {}", s, fieldLength, field.getName());
+                s = s.substring(0, fieldLength - 1);
+            }
+            myRow[col] = s;
+        } else {
+            myRow[col] = field.getDataType().convert(s);
+        }
+    }
+
+    @Override
+    public void headerFooter(String text, boolean isHeader, String tagName) {
+    }
+
+    /**
+     * Inserts any rows that are waiting in the current batch
+     */
+    void flush() {
+        if (myBatch.isEmpty()) {
+            return;
+        }
+        try {
+            Loader<? extends Record> loader = myDSLContext.loadInto(myTable).batchAll()
+                    .loadArrays(myBatch.iterator()).fields(myFields).execute();
+            myNumErrors = myNumErrors + loader.errors().size();
+            myNumRowsWritten = myNumRowsWritten + loader.stored();
+        } catch (IOException e) {
+            ExcelUtil.LOG.error("There was a problem loading rows into table {}", myTable.getName(), e);
+            throw new IllegalStateException("There was a problem loading rows into table " + myTable.getName(), e);
+        }
+        myBatch.clear();
+    }
+
+    /**
+     * @return the number of rows that were stored in the table
+     */
+    long getNumRowsWritten() {
+        return myNumRowsWritten;
+    }
+
+    /**
+     * @return the number of rows that the loader reported as errors
+     */
+    long getNumErrors() {
+        return myNumErrors;
+    }
+}
@@ -30,6 +30,7 @@ import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
 import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.WorkbookUtil;
 import org.apache.poi.util.XMLHelper;
@@ -39,6 +40,7 @@ import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
 import org.apache.poi.xssf.model.StylesTable;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jooq.Cursor;
 import org.jooq.Field;
 import org.jooq.Record;
 import org.jooq.Result;
@@ -72,6 +74,27 @@ public class ExcelUtil {
 
     public final static int DEFAULT_MAX_CHAR_IN_CELL = 512;
 
+    /**
+     * The number of rows fetched from the database at a time when a table is streamed to a sheet
+     */
+    public final static int DEFAULT_FETCH_SIZE = 1000;
+
+    /**
+     * The number of rows inserted at a time when a sheet is written into a table
+     */
+    public final static int DEFAULT_BATCH_SIZE = 1000;
+
+    /**
+     * The number of rows that a streaming workbook keeps in memory before flushing them to disk
+     */
+    public final static int DEFAULT_ROW_ACCESS_WINDOW = 100;
+
+    /**
+     * The default maximum number of rows, including the header row, that are written to a sheet
+     * before the output continues on a new sheet. This is the Excel 2007 row limit.
+     */
+    public final static int DEFAULT_MAX_ROWS_PER_SHEET = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
     final static DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
             .withZone(ZoneId.systemDefault());
     /**
@@ -79,6 +102,22 @@ public class ExcelUtil {
      */
     private static int myEnumCounter_;
 
+    /**
+     * Checks the maximum number of rows, including the header row, written to a sheet before the
+     * output continues on a new sheet
+     *
+     * @param maxRowsPerSheet the maximum number of rows, must be at least 2 and no more than the Excel row limit
+     */
+    private static void checkMaxRowsPerSheet(int maxRowsPerSheet) {
+        if (maxRowsPerSheet < 2) {
+            throw new IllegalArgumentException("The maximum number of rows per sheet must be at least 2");
+        }
+        if (maxRowsPerSheet > DEFAULT_MAX_ROWS_PER_SHEET) {
+            throw new IllegalArgumentException("The maximum number of rows per sheet must not exceed "
+                    + DEFAULT_MAX_ROWS_PER_SHEET);
+        }
+    }
+
     /**
      * Runs writeDBAsExcelWorkbook() to write the supplied database to an Excel workbook with one sheet for
      * every table, squelching all exceptions. The workbook will have the same
@@ -167,6 +206,10 @@ public class ExcelUtil {
      * every table. This will produce an Excel file with the supplied name in
      * the current working directory. Each sheet of the workbook will have
      * the field names as the first row in the sheet.
+     * <p>
+     * The workbook is streamed: table rows are read with a lazy cursor and only a window
+     * of rows is held in memory. Tables with more rows than fit on a sheet are
+     * continued on additional sheets.
      *
      * @param db             the database to read data from, must not be null
      * @param tableNames     the list of names of tables in the database to write to Excel, must not be null
@@ -175,6 +218,24 @@ public class ExcelUtil {
      */
     public static void writeDBAsExcelWorkbook(DatabaseIfc db, List<String> tableNames, Path pathToWorkbook)
             throws IOException {
+        writeDBAsExcelWorkbook(db, tableNames, pathToWorkbook, DEFAULT_MAX_ROWS_PER_SHEET);
+    }
+
+    /**
+     * Writes the supplied database to an Excel workbook with one sheet for
+     * every table, continuing a table on additional sheets when it has more
+     * rows than the supplied maximum. See writeDBAsExcelWorkbook(DatabaseIfc, List, Path).
+     *
+     * @param db              the database to read data from, must not be null
+     * @param tableNames      the list of names of tables in the database to write to Excel, must not be null
+     * @param pathToWorkbook  the name of the workbook that was made
+     * @param maxRowsPerSheet the maximum number of rows, including the header row, written to a sheet,
+     *                        must be at least 2 and no more than DEFAULT_MAX_ROWS_PER_SHEET
+     * @throws IOException io exception
+     */
+    public static void writeDBAsExcelWorkbook(DatabaseIfc db, List<String> tableNames, Path pathToWorkbook,
+                                              int maxRowsPerSheet) throws IOException {
+        checkMaxRowsPerSheet(maxRowsPerSheet);
         //  if null make the name of the workbook the same as the database name
         if (pathToWorkbook == null) {
             Path currentDir = Paths.get(".");
@@ -187,13 +248,17 @@ public class ExcelUtil {
         // XSSFWorkbook workbook = new XSSFWorkbook();
         // using SXSSFWorkbook to speed up processing
         // https://poi.apache.org/components/spreadsheet/how-to.html#sxssf
-        SXSSFWorkbook workbook = new SXSSFWorkbook(100);
-        fillWorkbookFromDatabase(db, tableNames, workbook);
-        FileOutputStream out = new FileOutputStream(pathToWorkbook.toFile());
-        workbook.write(out);
-        workbook.close();
-        out.close();
-        workbook.dispose();
+        SXSSFWorkbook workbook = new SXSSFWorkbook(DEFAULT_ROW_ACCESS_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            fillWorkbookFromDatabase(db, tableNames, workbook, maxRowsPerSheet);
+            try (FileOutputStream out = new FileOutputStream(pathToWorkbook.toFile())) {
+                workbook.write(out);
+            }
+        } finally {
+            workbook.close();
+            workbook.dispose();
+        }
     }
 
     /**
@@ -208,7 +273,23 @@ public class ExcelUtil {
      * @param workbook   the workbook to fill, must not be null
      */
     public static void fillWorkbookFromDatabase(DatabaseIfc db, List<String> tableNames, Workbook workbook) {
-        Objects.requireNonNull(db, "The supplied Workbook reference was null");
+        fillWorkbookFromDatabase(db, tableNames, workbook, DEFAULT_MAX_ROWS_PER_SHEET);
+    }
+
+    /**
+     * Fills the supplied workbook from the database with one sheet for every table, continuing
+     * a table on additional sheets when it has more rows than the supplied maximum.
+     * See fillWorkbookFromDatabase(DatabaseIfc, List, Workbook).
+     *
+     * @param db              the database to read data from, must not be null
+     * @param tableNames      the list of names of tables in the database to write to the workbook, must not be null
+     * @param workbook        the workbook to fill, must not be null
+     * @param maxRowsPerSheet the maximum number of rows, including the header row, written to a sheet,
+     *                        must be at least 2 and no more than DEFAULT_MAX_ROWS_PER_SHEET
+     */
+    public static void fillWorkbookFromDatabase(DatabaseIfc db, List<String> tableNames, Workbook workbook,
+                                                int maxRowsPerSheet) {
+        Objects.requireNonNull(workbook, "The supplied Workbook reference was null");
         Objects.requireNonNull(db, "The supplied DatabaseIfc reference was null");
         Objects.requireNonNull(tableNames, "The supplied list of table names was null");
         if (tableNames.isEmpty()) {
@@ -240,7 +321,7 @@ public class ExcelUtil {
             // stopped auto sizing to speed up processing
             //sheet.trackAllColumnsForAutoSizing();
             LOG.info("Writing table {} to workbook sheet.", sheetName);
-            writeTableAsExcelSheet(db, tableName, sheet);
+            writeTableAsExcelSheet(db, tableName, sheet, maxRowsPerSheet);
         }
     }
 
@@ -267,6 +348,10 @@ public class ExcelUtil {
      * sheets in the workbook and the names of the tables that need to be written. They are in the
      * order that is required for entering data so that no integrity constraints are violated. The
      * underlying workbook is closed after the operation.
+     * <p>
+     * The sheets are parsed as a stream and their rows are inserted in batches, so that
+     * the workbook is never held in memory all at once.
+     * Sheets named tableName_2, tableName_3, etc. that continue a table are also written.
      *
      * @param pathToWorkbook the path to the workbook. Must be valid workbook with .xlsx extension
      * @param skipFirstRow   if true the first row of each sheet is skipped
@@ -277,17 +362,108 @@ public class ExcelUtil {
     public static void writeWorkbookToDatabase(Path pathToWorkbook, boolean skipFirstRow, DatabaseIfc db,
                                                List<String> tableNames) throws IOException {
 
-        XSSFWorkbook workbook = openExistingXSSFWorkbookReadOnly(pathToWorkbook);
-        if (workbook == null) {
-            throw new IOException("There was a problem opening the workbook!");
+        Objects.requireNonNull(pathToWorkbook, "The path to the workbook must not be null");
+        Objects.requireNonNull(db, "The database was null!");
+        Objects.requireNonNull(tableNames, "The list of table names was null!");
+        if (!Files.exists(pathToWorkbook)) {
+            throw new IOException("The workbook " + pathToWorkbook + " does not exist!");
+        }
+        OPCPackage pkg;
+        try {
+            pkg = OPCPackage.open(pathToWorkbook.toFile(), PackageAccess.READ);
+        } catch (InvalidFormatException e) {
+            LOG.error("The workbook has an invalid format. See Apache POI InvalidFormatException");
+            throw new IOException("There was a problem opening the workbook!", e);
         }
         LOG.info("Writing workbook {} to database {}", pathToWorkbook, db.getLabel());
-        writeWorkbookToDatabase(workbook, skipFirstRow, db, tableNames);
-        workbook.close();
+        try {
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            XSSFReader xssfReader = new XSSFReader(pkg);
+            StylesTable styles = xssfReader.getStylesTable();
+            for (String tableName : tableNames) {
+                if (!db.containsTable(tableName)) {
+                    LOG.warn("Attempting to write sheet {} to database {}, the table {} does not exist",
+                            tableName, db.getLabel(), tableName);
+                    continue;
+                }
+                if (!writeSheetToTable(xssfReader, styles, strings, skipFirstRow, tableName, tableName, db)) {
+                    LOG.info("Skipping table {} no corresponding sheet in workbook", tableName);
+                    continue;
+                }
+                int k = 2;
+                while (writeSheetToTable(xssfReader, styles, strings, skipFirstRow,
+                        continuationSheetName(tableName, k), tableName, db)) {
+                    k++;
+                }
+            }
+        } catch (SAXException e) {
+            LOG.error("SAX parser appears to be broken - {}", e.getMessage());
+            throw new IOException("SAX parser appears to be broken - " + e.getMessage());
+        } catch (OpenXML4JException e) {
+            LOG.error("The workbook seems to have a format problem - {}", e.getMessage());
+            throw new IOException("The workbook seems to have a format problem - " + e.getMessage());
+        } finally {
+            pkg.revert();
+        }
         LOG.info("Closed workbook {} ", pathToWorkbook);
         LOG.info("Completed writing workbook {} to database {}", pathToWorkbook, db.getLabel());
     }
 
+    /**
+     * Streams the named sheet into the table, inserting the rows in batches.
+     *
+     * @param xssfReader   the reader for the workbook's parts
+     * @param styles       the styles table of the workbook
+     * @param strings      the shared strings table of the workbook
+     * @param skipFirstRow true means skip the first row of the sheet
+     * @param sheetName    the name of the sheet
+     * @param tableName    the name of the table, which must exist in the database
+     * @param db           the database containing the table
+     * @return true if the workbook had the sheet, false if nothing was written
+     * @throws IOException an io exception
+     * @throws InvalidFormatException if the sheets of the workbook could not be read
+     */
+    private static boolean writeSheetToTable(XSSFReader xssfReader, StylesTable styles,
+                                             ReadOnlySharedStringsTable strings, boolean skipFirstRow,
+                                             String sheetName, String tableName, DatabaseIfc db)
+            throws IOException, InvalidFormatException {
+        XSSFReader.SheetIterator iter = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+        while (iter.hasNext()) {
+            try (InputStream stream = iter.next()) {
+                if (!iter.getSheetName().equals(sheetName)) {
+                    continue;
+                }
+                LOG.info("Reading sheet {} for table {} in database {}", sheetName, tableName, db.getLabel());
+                ExcelSheetToTable handler = new ExcelSheetToTable(db.getDSLContext(), db.getTable(tableName),
+                        skipFirstRow, DEFAULT_BATCH_SIZE);
+                processXSSFSheet(styles, strings, handler, ExcelSheetToTable.newRawValueFormatter(), stream);
+                handler.flush();
+                if (handler.getNumErrors() > 0) {
+                    LOG.warn("There were {} rows of sheet {} that could not be loaded into table {}",
+                            handler.getNumErrors(), sheetName, tableName);
+                }
+                LOG.info("Wrote {} rows of sheet {} for table {} into database {}", handler.getNumRowsWritten(),
+                        sheetName, tableName, db.getLabel());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param baseName the name of the first sheet holding a table
+     * @param sheetCnt the number of the sheet, 2 or more
+     * @return the name of the sheet that continues the table after the first sheet is full
+     */
+    static String continuationSheetName(String baseName, int sheetCnt) {
+        String suffix = "_" + sheetCnt;
+        int maxLength = 31 - suffix.length();
+        if (baseName.length() > maxLength) {
+            baseName = baseName.substring(0, maxLength);
+        }
+        return baseName + suffix;
+    }
+
     /**
      * IO exceptions are squelched in this method.  If there is a problem, then null is returned.
      * Opens an Apache POI XSSFWorkbook instance. The user is responsible for closing the workbook
@@ -343,6 +519,7 @@ public class ExcelUtil {
      * Writes the sheets of the workbook into database tables. The list of names is the names of the
      * sheets in the workbook and the names of the tables that need to be written. They are in the
      * order that is required for entering data so that no integrity constraints are violated.
+     * Sheets named tableName_2, tableName_3, etc. that continue a table are also written.
      *
      * @param wb           the workbook to copy from
      * @param skipFirstRow if true the first row of each sheet is skipped
@@ -362,6 +539,11 @@ public class ExcelUtil {
                 continue;
             }
             writeSheetToTable(sheet, skipFirstRow, tableName, db);
+            int k = 2;
+            while ((sheet = wb.getSheet(continuationSheetName(tableName, k))) != null) {
+                writeSheetToTable(sheet, skipFirstRow, tableName, db);
+                k++;
+            }
         }
     }
 
@@ -420,9 +602,25 @@ public class ExcelUtil {
         final Table<? extends Record> table = db.getTable(tableName);
         final Field<?>[] fields = table.fields();
         LOG.info("Reading sheet {} for table {} in database {}", sheet.getSheetName(), tableName, db.getLabel());
-        //TODO could this be a performance bottleneck? all in memory??
-        final List<Object[]> lists = readSheetAsListOfObjects(sheet, fields, skipFirstRow);
-        db.getDSLContext().loadInto(table).batchAll().loadArrays(lists.iterator()).fields(fields).execute();
+        final Iterator<Row> rowIterator = sheet.rowIterator();
+        if (skipFirstRow) {
+            if (rowIterator.hasNext()) {
+                rowIterator.next();
+            }
+        }
+        // convert the rows as the loader asks for them rather than materializing the whole sheet
+        Iterator<Object[]> arrays = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rowIterator.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                return readRowAsObjectArray(rowIterator.next(), fields);
+            }
+        };
+        db.getDSLContext().loadInto(table).batchAfter(DEFAULT_BATCH_SIZE).loadArrays(arrays).fields(fields).execute();
         LOG.info("Wrote sheet {} for table {} into database {}", sheet.getSheetName(), tableName, db.getLabel());
     }
 
@@ -630,13 +828,15 @@ public class ExcelUtil {
             Object obj = null;
             if (cell != null) {
                 obj = readCellAsObject(cell);
+                if ((obj instanceof Double) && fields[i].getDataType().isString()) {
+                    obj = formatNumericCellValue((Double) obj);
+                }
                 if (obj instanceof String) {
                     int fieldLength = fields[i].getDataType().length();
                     String s = (String) obj;
-                    if (s.length() > fieldLength) {
-                        s = s.substring(0, fieldLength - 1);
-                        obj = s;
-                        LOG.warn("The cell {} was truncated to {} characters for field {}", cell.getStringCellValue(), fieldLength, fields[i].getName());
+                    if ((fieldLength > 0) && (s.length() > fieldLength)) {
+                        obj = s.substring(0, fieldLength - 1);
+                        LOG.warn("The cell {} was truncated to {} characters for field {}", s, fieldLength, fields[i].getName());
                     }
                 }
             }
@@ -798,6 +998,20 @@ public class ExcelUtil {
         }
     }
 
+    /**
+     * Formats the value of a numeric cell without an exponent, e.g. 10000000 rather than 1.0E7, and
+     * without a fractional part for whole numbers. No precision is lost.
+     *
+     * @param value the value of the cell
+     * @return the value as it would be entered in the cell
+     */
+    static String formatNumericCellValue(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return Double.toString(value);
+        }
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+
     /**
      * Reads the Excel cell and translates it into a Java object
      *
@@ -826,13 +1040,30 @@ public class ExcelUtil {
 
     /**
      * Writes a table from the database to the Excel sheet. Includes the field names as the first row of
-     * the sheet.
+     * the sheet. The rows are read with a lazy cursor, DEFAULT_FETCH_SIZE rows at a time.  If the table
+     * has more rows than fit on the sheet, then the rows are continued on new sheets named sheetName_2,
+     * sheetName_3, etc., each with its own header row.
      *
      * @param db        the database containing the table, must not be null
      * @param tableName the table to read from, must not be null
      * @param sheet     the Excel sheet to write to, must not be null
      */
     public static void writeTableAsExcelSheet(DatabaseIfc db, String tableName, Sheet sheet) {
+        writeTableAsExcelSheet(db, tableName, sheet, DEFAULT_MAX_ROWS_PER_SHEET);
+    }
+
+    /**
+     * Writes a table from the database to the Excel sheet, continuing on new sheets when the table has
+     * more rows than the supplied maximum. See writeTableAsExcelSheet(DatabaseIfc, String, Sheet).
+     *
+     * @param db              the database containing the table, must not be null
+     * @param tableName       the table to read from, must not be null
+     * @param sheet           the Excel sheet to write to, must not be null
+     * @param maxRowsPerSheet the maximum number of rows, including the header row, written to a sheet,
+     *                        must be at least 2 and no more than DEFAULT_MAX_ROWS_PER_SHEET
+     */
+    public static void writeTableAsExcelSheet(DatabaseIfc db, String tableName, Sheet sheet, int maxRowsPerSheet) {
+        checkMaxRowsPerSheet(maxRowsPerSheet);
         Objects.requireNonNull(db, "The database must not be null");
         Objects.requireNonNull(sheet, "The workbook sheet must not be null");
         Objects.requireNonNull(tableName, "The table name must not be null");
@@ -841,12 +1072,12 @@ public class ExcelUtil {
             LOG.warn("The supplied table name {} is not in database {}", tableName, db.getLabel());
             return;
         }
-        Result<Record> records = db.selectAll(tableName);
-        if (records == null) {
-            LOG.warn("The supplied table name {} resulted in a null Result<Record> nothing was written", tableName);
-            return;
+        Table<? extends Record> table = db.getTable(tableName);
+        try (Cursor<? extends Record> cursor = db.getDSLContext().selectFrom(table)
+                .fetchSize(DEFAULT_FETCH_SIZE).fetchLazy()) {
+            long n = writeRecordsAsExcelSheets(cursor.fields(), cursor.iterator(), sheet, maxRowsPerSheet);
+            LOG.info("Wrote {} records of table {} to the workbook", n, tableName);
         }
-        writeResultRecordsAsExcelSheet(records, sheet);
     }
 
     /** If the workbook exists the sheet containing the results is added to the workbook. If the sheet
@@ -874,7 +1105,7 @@ public class ExcelUtil {
     }
 
     private static void writeRecordsToNewWorkbook(Path pathToWb, String sheetName, Result<Record> records){
-        Workbook wb = new XSSFWorkbook();
+        SXSSFWorkbook wb = new SXSSFWorkbook(DEFAULT_ROW_ACCESS_WINDOW);
         LOG.info("Created workbook {} for writing records", pathToWb);
         Sheet sheet = createSheet(wb, sheetName);
         writeResultRecordsAsExcelSheet(records, sheet);
@@ -883,6 +1114,7 @@ public class ExcelUtil {
             wb.write(fileOut);
             LOG.info("Wrote workbook {} to file.", pathToWb);
             wb.close();
+            wb.dispose();
         }catch (FileNotFoundException e) {
             LOG.error("FileNotFoundException {} ", pathToWb, e);
             e.printStackTrace();
@@ -940,29 +1172,79 @@ public class ExcelUtil {
 
     /**
      * Writes the results from a query to the Excel sheet. Includes the field names as the first row of
-     * the sheet.
+     * the sheet. If there are more records than fit on the sheet, then the records are continued
+     * on new sheets named sheetName_2, sheetName_3, etc., each with its own header row.
      *
      * @param records the records from a select query, must not be null
      * @param sheet   the Excel sheet to write to, must not be null
      */
     public static void writeResultRecordsAsExcelSheet(Result<Record> records, Sheet sheet) {
+        writeResultRecordsAsExcelSheet(records, sheet, DEFAULT_MAX_ROWS_PER_SHEET);
+    }
+
+    /**
+     * Writes the results from a query to the Excel sheet, continuing on new sheets when there are
+     * more records than the supplied maximum. See writeResultRecordsAsExcelSheet(Result, Sheet).
+     *
+     * @param records         the records from a select query, must not be null
+     * @param sheet           the Excel sheet to write to, must not be null
+     * @param maxRowsPerSheet the maximum number of rows, including the header row, written to a sheet,
+     *                        must be at least 2 and no more than DEFAULT_MAX_ROWS_PER_SHEET
+     */
+    public static void writeResultRecordsAsExcelSheet(Result<Record> records, Sheet sheet, int maxRowsPerSheet) {
+        checkMaxRowsPerSheet(maxRowsPerSheet);
         Objects.requireNonNull(records, "The Result records must not be null");
         Objects.requireNonNull(sheet, "The workbook sheet must not be null");
-        Field[] fields = records.fields();
+        writeRecordsAsExcelSheets(records.fields(), records.iterator(), sheet, maxRowsPerSheet);
+    }
+
+    /**
+     * Writes the records to the Excel sheet, starting a new sheet with a header row whenever
+     * maxRowsPerSheet rows have been written to the current sheet.
+     *
+     * @param fields          the fields of the records, used for the header row
+     * @param records         the records to write
+     * @param sheet           the first sheet to write to
+     * @param maxRowsPerSheet the maximum number of rows, including the header row, on a sheet
+     * @return the number of records written
+     */
+    private static long writeRecordsAsExcelSheets(Field<?>[] fields, Iterator<? extends Record> records,
+                                                  Sheet sheet, int maxRowsPerSheet) {
+        String baseName = sheet.getSheetName();
+        int sheetCnt = 1;
+        writeHeaderRow(fields, sheet);
+        int rowCnt = 1;
+        long n = 0;
+        while (records.hasNext()) {
+            if (rowCnt >= maxRowsPerSheet) {
+                sheetCnt++;
+                sheet = createContinuationSheet(sheet.getWorkbook(), baseName, sheetCnt);
+                writeHeaderRow(fields, sheet);
+                rowCnt = 1;
+            }
+            Row row = sheet.createRow(rowCnt);
+            writeRecordToSheet(records.next(), row);
+            rowCnt++;
+            n++;
+        }
+        return n;
+    }
+
+    private static void writeHeaderRow(Field<?>[] fields, Sheet sheet) {
         Row header = sheet.createRow(0);
         int i = 0;
-        for (Field field : fields) {
+        for (Field<?> field : fields) {
             Cell cell = header.createCell(i);
             cell.setCellValue(field.getName());
             sheet.setColumnWidth(i, (field.getName().length() + 2) * 256);
             i++;
         }
-        int rowCnt = 1;
-        for (Record record : records) {
-            Row row = sheet.createRow(rowCnt);
-            writeRecordToSheet(record, row);
-            rowCnt++;
-        }
+    }
+
+    private static Sheet createContinuationSheet(Workbook workbook, String baseName, int sheetCnt) {
+        String sheetName = continuationSheetName(baseName, sheetCnt);
+        LOG.info("Sheet {} is full, continuing on sheet {}", baseName, sheetName);
+        return createSheet(workbook, sheetName);
     }
 
     /**
@@ -1097,7 +1379,27 @@ public class ExcelUtil {
     static void processXSSFSheet(StylesTable styles, ReadOnlySharedStringsTable strings,
                                  XSSFSheetXMLHandler.SheetContentsHandler sheetHandler,
                                  InputStream sheetInputStream) throws IOException {
-        DataFormatter formatter = new DataFormatter();
+        processXSSFSheet(styles, strings, sheetHandler, new DataFormatter(), sheetInputStream);
+    }
+
+    /**
+     * Parses and shows the content of one sheet
+     * using the specified styles and shared-strings tables.
+     *
+     * @param styles           The table of styles that may be referenced by cells in the
+     *                         sheet
+     * @param strings          The table of strings that may be referenced by cells in
+     *                         the sheet
+     * @param sheetHandler     a sheet handler that knows how to process the sheet
+     * @param formatter        the formatter used to turn cell values into strings
+     * @param sheetInputStream The stream to read the sheet-data from.
+     * @throws IOException An IO exception from the parser,
+     *                     possibly from a byte stream or character stream
+     *                     supplied by the application.
+     */
+    static void processXSSFSheet(StylesTable styles, ReadOnlySharedStringsTable strings,
+                                 XSSFSheetXMLHandler.SheetContentsHandler sheetHandler,
+                                 DataFormatter formatter, InputStream sheetInputStream) throws IOException {
         InputSource sheetSource = new InputSource(sheetInputStream);
         try {
             XMLReader sheetParser = XMLHelper.newXMLReader();
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package jslx.tabularfiles;
+
+/**
+ * Describes a chunk of rows within a columnar file: where the chunk starts,
+ * the number of rows, and the minimum and maximum of each numeric column within
+ * the chunk. The minimum and maximum are NaN if all the values of the column
+ * within the chunk are missing.
+ */
+final class ColumnChunk {
+
+    /**
+     * The maximum number of bytes of a chunk, which must fit within a memory mapped
+     * region of the file
+     */
+    final static long MAX_NUM_BYTES = 1L << 30;
+
+    private final long myOffset;
+    private final int myNumRows;
+    private final double[] myMin;
+    private final double[] myMax;
+
+    ColumnChunk(long offset, int numRows, double[] min, double[] max) {
+        myOffset = offset;
+        myNumRows = numRows;
+        myMin = min;
+        myMax = max;
+    }
+
+    /**
+     * @param numRows           the number of rows in the chunk
+     * @param numNumericColumns the number of numeric columns
+     * @param numTextColumns    the number of text columns
+     * @return the number of bytes needed to store the chunk
+     * @throws ArithmeticException if the number of bytes overflows a long
+     */
+    static long numBytes(int numRows, int numNumericColumns, int numTextColumns) {
+        long rowBytes = Math.addExact(Math.multiplyExact((long) numNumericColumns, Double.BYTES),
+                Math.multiplyExact((long) numTextColumns, Integer.BYTES));
+        return Math.multiplyExact(numRows, rowBytes);
+    }
+
+    long getOffset() {
+        return myOffset;
+    }
+
+    int getNumRows() {
+        return myNumRows;
+    }
+
+    /**
+     * @param storageIndex the index among the numeric columns
+     * @return the minimum value of the column within the chunk
+     */
+    double getMinimum(int storageIndex) {
+        return myMin[storageIndex];
+    }
+
+    /**
+     * @param storageIndex the index among the numeric columns
+     * @return the maximum value of the column within the chunk
+     */
+    double getMaximum(int storageIndex) {
+        return myMax[storageIndex];
+    }
+
+    /**
+     * @param storageIndex the index among the numeric columns
+     * @return the offset of the column's values from the start of the file
+     */
+    long getNumericOffset(int storageIndex) {
+        return myOffset + (long) storageIndex * myNumRows * Double.BYTES;
+    }
+
+    /**
+     * @param storageIndex      the index among the text columns
+     * @param numNumericColumns the number of numeric columns
+     * @return the offset of the column's codes from the start of the file
+     */
+    long getTextOffset(int storageIndex, int numNumericColumns) {
+        return myOffset + (long) myNumRows * (numNumericColumns * Double.BYTES + storageIndex * Integer.BYTES);
+    }
+}
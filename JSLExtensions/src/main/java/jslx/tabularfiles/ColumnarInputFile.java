@@ -0,0 +1,799 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package jslx.tabularfiles;
+
+import jsl.utilities.reporting.JSL;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Reads a column oriented binary file that was written using ColumnarOutputFile.
+ * The file is memory mapped, so that the values of a numeric column within a chunk can be
+ * accessed without copying via getNumericChunk() or copied in bulk via getNumericColumn().
+ * The minimum and maximum of each numeric column within each chunk can be used to
+ * find the chunks that may hold values of interest.
+ * <p>
+ * As with TabularInputFile, row numbers start at 1.
+ * The file can be converted to and from the SQLite based TabularInputFile.
+ *
+ * @see jslx.tabularfiles.ColumnarOutputFile
+ * @see jslx.tabularfiles.TabularInputFile
+ */
+public class ColumnarInputFile extends TabularFile implements Iterable<RowGetterIfc>, AutoCloseable {
+
+    /**
+     * The maximum size of a memory mapped region of the file
+     */
+    private final static long MAX_SEGMENT_SIZE = ColumnChunk.MAX_NUM_BYTES;
+
+    private final FileChannel myChannel;
+    private final List<ColumnChunk> myChunks;
+    private final String[][] myDictionaries;
+    private final long[] myChunkStartingRows;
+    private final long myTotalNumberRows;
+    private final int[] myChunkSegments;
+    private final List<long[]> mySegments;
+    private final MappedByteBuffer[] myMappedSegments;
+
+    /**
+     * @param pathToFile the path to a valid file that was written using ColumnarOutputFile
+     */
+    public ColumnarInputFile(Path pathToFile) {
+        this(Footer.read(pathToFile), pathToFile);
+    }
+
+    private ColumnarInputFile(Footer footer, Path pathToFile) {
+        super(footer.myColumnTypes, pathToFile);
+        myChunks = footer.myChunks;
+        myDictionaries = footer.myDictionaries;
+        myChunkStartingRows = new long[myChunks.size()];
+        myChunkSegments = new int[myChunks.size()];
+        mySegments = new ArrayList<>();
+        long n = 0;
+        long segmentStart = -1;
+        long segmentEnd = -1;
+        for (int k = 0; k < myChunks.size(); k++) {
+            ColumnChunk chunk = myChunks.get(k);
+            myChunkStartingRows[k] = n;
+            n = n + chunk.getNumRows();
+            long end = chunk.getOffset() + chunkBytes(chunk);
+            if ((segmentStart < 0) || (end - segmentStart > MAX_SEGMENT_SIZE)) {
+                if (segmentStart >= 0) {
+                    mySegments.add(new long[]{segmentStart, segmentEnd});
+                }
+                segmentStart = chunk.getOffset();
+            }
+            segmentEnd = end;
+            myChunkSegments[k] = mySegments.size();
+        }
+        if (segmentStart >= 0) {
+            mySegments.add(new long[]{segmentStart, segmentEnd});
+        }
+        myTotalNumberRows = n;
+        myMappedSegments = new MappedByteBuffer[mySegments.size()];
+        try {
+            myChannel = FileChannel.open(pathToFile, StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Gets the meta data for an existing ColumnarInputFile.  The path must lead
+     * to a file that was written by ColumnarOutputFile.
+     *
+     * @param pathToFile the path to the input file, must not be null
+     * @return the meta data for the file column names and data type
+     */
+    public static LinkedHashMap<String, DataType> getColumnTypes(Path pathToFile) {
+        return Footer.read(pathToFile).myColumnTypes;
+    }
+
+    /**
+     * Converts a file written by TabularOutputFile to the columnar format
+     *
+     * @param input      the file to convert, must not be null
+     * @param pathToFile the path to the columnar file to write, an existing file is replaced
+     * @return the columnar file
+     */
+    public static ColumnarInputFile convert(TabularInputFile input, Path pathToFile) {
+        Objects.requireNonNull(input, "The input file was null");
+        try (ColumnarOutputFile out = new ColumnarOutputFile(input.getColumnTypes(), pathToFile)) {
+            RowSetterIfc rowSetter = out.getRow();
+            for (RowGetterIfc row : input) {
+                rowSetter.setNumeric(row.getNumeric());
+                rowSetter.setText(row.getText());
+                out.writeRow(rowSetter);
+            }
+        }
+        return new ColumnarInputFile(pathToFile);
+    }
+
+    /**
+     * Writes the rows of this file to a file in the format of TabularOutputFile
+     *
+     * @param pathToFile the path to the file to write
+     * @return the written file opened as a TabularInputFile
+     */
+    public final TabularInputFile asTabularInputFile(Path pathToFile) {
+        TabularOutputFile out = new TabularOutputFile(getColumnTypes(), pathToFile);
+        RowSetterIfc rowSetter = out.getRow();
+        for (RowGetterIfc row : this) {
+            rowSetter.setNumeric(row.getNumeric());
+            rowSetter.setText(row.getText());
+            out.writeRow(rowSetter);
+        }
+        out.flushRows();
+        return new TabularInputFile(pathToFile);
+    }
+
+    /**
+     * @return the total number of rows in the file
+     */
+    public final long getTotalNumberRows() {
+        return myTotalNumberRows;
+    }
+
+    /**
+     * @return the number of chunks in the file
+     */
+    public final int getNumberOfChunks() {
+        return myChunks.size();
+    }
+
+    /**
+     * @param chunk the chunk index, 0 based
+     * @return the number of rows in the chunk
+     */
+    public final int getChunkNumberOfRows(int chunk) {
+        return myChunks.get(chunk).getNumRows();
+    }
+
+    /**
+     * @param chunk the chunk index, 0 based
+     * @return the row number of the first row of the chunk
+     */
+    public final long getChunkStartingRow(int chunk) {
+        checkChunk(chunk);
+        return myChunkStartingRows[chunk] + 1;
+    }
+
+    /**
+     * @param colNum the numeric column
+     * @param chunk  the chunk index, 0 based
+     * @return the minimum of the column's values within the chunk, NaN if all values are missing
+     */
+    public final double getChunkMinimum(int colNum, int chunk) {
+        checkNumeric(colNum);
+        return myChunks.get(chunk).getMinimum(getNumericStorageIndex(colNum));
+    }
+
+    /**
+     * @param colNum the numeric column
+     * @param chunk  the chunk index, 0 based
+     * @return the maximum of the column's values within the chunk, NaN if all values are missing
+     */
+    public final double getChunkMaximum(int colNum, int chunk) {
+        checkNumeric(colNum);
+        return myChunks.get(chunk).getMaximum(getNumericStorageIndex(colNum));
+    }
+
+    /**
+     * Uses the chunk statistics to find the chunks that may hold values
+     * of the column within the interval [lower, upper]
+     *
+     * @param colNum the numeric column
+     * @param lower  the lower limit of the interval
+     * @param upper  the upper limit of the interval
+     * @return the indices of the chunks that may have values in the interval
+     */
+    public final List<Integer> findChunks(int colNum, double lower, double upper) {
+        checkNumeric(colNum);
+        int j = getNumericStorageIndex(colNum);
+        List<Integer> list = new ArrayList<>();
+        for (int k = 0; k < myChunks.size(); k++) {
+            ColumnChunk chunk = myChunks.get(k);
+            if ((chunk.getMaximum(j) >= lower) && (chunk.getMinimum(j) <= upper)) {
+                list.add(k);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Provides the values of a numeric column within a chunk without copying them.
+     *
+     * @param colNum the numeric column
+     * @param chunk  the chunk index, 0 based
+     * @return a read only view of the values
+     */
+    public final DoubleBuffer getNumericChunk(int colNum, int chunk) {
+        checkNumeric(colNum);
+        checkChunk(chunk);
+        ColumnChunk c = myChunks.get(chunk);
+        ByteBuffer segment = getSegment(chunk);
+        int start = positionInSegment(chunk, c.getNumericOffset(getNumericStorageIndex(colNum)));
+        ByteBuffer b = segment.duplicate();
+        b.position(start);
+        b.limit(start + c.getNumRows() * Double.BYTES);
+        return b.slice().order(ColumnarOutputFile.BYTE_ORDER).asDoubleBuffer().asReadOnlyBuffer();
+    }
+
+    /**
+     * @param colNum the text column
+     * @param chunk  the chunk index, 0 based
+     * @return the values of the text column within the chunk
+     */
+    public final String[] getTextChunk(int colNum, int chunk) {
+        checkText(colNum);
+        checkChunk(chunk);
+        ColumnChunk c = myChunks.get(chunk);
+        String[] values = new String[c.getNumRows()];
+        fillText(colNum, chunk, 0, values, 0, values.length);
+        return values;
+    }
+
+    /**
+     * Copies numRows values of the numeric column starting at the starting row.
+     *
+     * @param colNum      the numeric column
+     * @param startingRow the first row, must be 1 or more
+     * @param numRows     the number of rows, fewer values are returned if the file has fewer rows
+     * @return the values
+     */
+    public final double[] getNumericColumn(int colNum, long startingRow, int numRows) {
+        checkNumeric(colNum);
+        checkRows(startingRow, numRows);
+        int n = (int) Math.min(numRows, Math.max(0, myTotalNumberRows - startingRow + 1));
+        double[] values = new double[n];
+        int copied = 0;
+        long row = startingRow - 1;
+        while (copied < n) {
+            int chunk = findChunk(row);
+            int i = (int) (row - myChunkStartingRows[chunk]);
+            int m = Math.min(n - copied, getChunkNumberOfRows(chunk) - i);
+            DoubleBuffer b = getNumericChunk(colNum, chunk);
+            b.position(i);
+            b.get(values, copied, m);
+            copied = copied + m;
+            row = row + m;
+        }
+        return values;
+    }
+
+    /**
+     * Copies numRows values of the text column starting at the starting row.
+     *
+     * @param colNum      the text column
+     * @param startingRow the first row, must be 1 or more
+     * @param numRows     the number of rows, fewer values are returned if the file has fewer rows
+     * @return the values
+     */
+    public final String[] getTextColumn(int colNum, long startingRow, int numRows) {
+        checkText(colNum);
+        checkRows(startingRow, numRows);
+        int n = (int) Math.min(numRows, Math.max(0, myTotalNumberRows - startingRow + 1));
+        String[] values = new String[n];
+        int copied = 0;
+        long row = startingRow - 1;
+        while (copied < n) {
+            int chunk = findChunk(row);
+            int i = (int) (row - myChunkStartingRows[chunk]);
+            int m = Math.min(n - copied, getChunkNumberOfRows(chunk) - i);
+            fillText(colNum, chunk, i, values, copied, m);
+            copied = copied + m;
+            row = row + m;
+        }
+        return values;
+    }
+
+    /**
+     * @param colNum  the numeric column
+     * @param maxRows the total number of rows to extract starting at row 1
+     * @return the array of values, including any missing values as NaN
+     */
+    public final double[] getNumericColumn(int colNum, int maxRows) {
+        return getNumericColumn(colNum, maxRows, false);
+    }
+
+    /**
+     * @param columnName the name of the numeric column
+     * @param maxRows    the total number of rows to extract starting at row 1
+     * @return the array of values, including any missing values as NaN
+     */
+    public final double[] getNumericColumn(String columnName, int maxRows) {
+        Objects.requireNonNull(columnName, "The name of the column cannot be null");
+        return getNumericColumn(getColumn(columnName), maxRows, false);
+    }
+
+    /**
+     * @param columnName    the name of the numeric column
+     * @param maxRows       the total number of rows to extract starting at row 1
+     * @param removeMissing if true, then missing (NaN values) are removed
+     * @return the array of values
+     */
+    public final double[] getNumericColumn(String columnName, int maxRows, boolean removeMissing) {
+        Objects.requireNonNull(columnName, "The name of the column cannot be null");
+        return getNumericColumn(getColumn(columnName), maxRows, removeMissing);
+    }
+
+    /**
+     * @param colNum        the numeric column
+     * @param maxRows       the total number of rows to extract starting at row 1
+     * @param removeMissing if true, then missing (NaN values) are removed
+     * @return the array of values
+     */
+    public final double[] getNumericColumn(int colNum, int maxRows, boolean removeMissing) {
+        if (maxRows < 0) {
+            throw new IllegalArgumentException("The max number of rows must be >= 0");
+        }
+        double[] values = getNumericColumn(colNum, 1, maxRows);
+        if (!removeMissing) {
+            return values;
+        }
+        return Arrays.stream(values).filter(x -> !Double.isNaN(x)).toArray();
+    }
+
+    /**
+     * @param colNum  the text column
+     * @param maxRows the total number of rows to extract starting at row 1
+     * @return the array of values, including any missing values as null
+     */
+    public final String[] getTextColumn(int colNum, int maxRows) {
+        return getTextColumn(colNum, maxRows, false);
+    }
+
+    /**
+     * @param columnName the name of the text column
+     * @param maxRows    the total number of rows to extract starting at row 1
+     * @return the array of values, including any missing values as null
+     */
+    public final String[] getTextColumn(String columnName, int maxRows) {
+        Objects.requireNonNull(columnName, "The name of the column cannot be null");
+        return getTextColumn(getColumn(columnName), maxRows, false);
+    }
+
+    /**
+     * @param colNum        the text column
+     * @param maxRows       the total number of rows to extract starting at row 1
+     * @param removeMissing if true, then missing (null values) are removed
+     * @return the array of values
+     */
+    public final String[] getTextColumn(int colNum, int maxRows, boolean removeMissing) {
+        if (maxRows < 0) {
+            throw new IllegalArgumentException("The max number of rows must be >= 0");
+        }
+        String[] values = getTextColumn(colNum, 1, maxRows);
+        if (!removeMissing) {
+            return values;
+        }
+        return Arrays.stream(values).filter(Objects::nonNull).toArray(String[]::new);
+    }
+
+    /**
+     * @param maxRows       the total number of rows to extract starting at row 1
+     * @param removeMissing if true, then missing (NaN values) are removed
+     * @return a map of all of the numeric data keyed by column name
+     */
+    public final LinkedHashMap<String, double[]> getNumericColumns(int maxRows, boolean removeMissing) {
+        LinkedHashMap<String, double[]> map = new LinkedHashMap<>();
+        for (String name : getNumericColumnNames()) {
+            map.put(name, getNumericColumn(name, maxRows, removeMissing));
+        }
+        return map;
+    }
+
+    /**
+     * Returns an optional wrapping the row. The optional will only be empty
+     * if the provided row number is larger than the number of rows in the file
+     *
+     * @param rowNum the row number, must be 1 or more
+     * @return the row wrapped in an Optional
+     */
+    public final Optional<RowGetterIfc> fetchRow(long rowNum) {
+        if (rowNum <= 0) {
+            throw new IllegalArgumentException("The row number must be > 0");
+        }
+        if (rowNum > getTotalNumberRows()) {
+            return Optional.empty();
+        }
+        int chunk = findChunk(rowNum - 1);
+        return Optional.of(makeRow(chunk, (int) (rowNum - 1 - myChunkStartingRows[chunk]), rowNum));
+    }
+
+    /**
+     * Returns the row. If the provided row number is larger than the number of
+     * rows in the file then an exception is thrown.
+     *
+     * @param rowNum the row number, must be 1 or more and less than getTotalNumberRows()
+     * @return the row
+     */
+    public final RowGetterIfc fetchOneRow(long rowNum) {
+        if (rowNum > getTotalNumberRows()) {
+            throw new IllegalArgumentException("The row number must be <= " + getTotalNumberRows());
+        }
+        return fetchRow(rowNum).get();
+    }
+
+    /**
+     * Returns the rows between minRowNum and maxRowNum, inclusive. Since there may be
+     * memory implications when using this method, please use it wisely. In fact,
+     * use the provided iterator instead.
+     *
+     * @param minRowNum the minimum row number, must be 1 or bigger
+     * @param maxRowNum the maximum row number, must not be less than minRowNum
+     * @return the list of rows, the list may be empty, if there are no rows in the row number range
+     */
+    public final List<RowGetterIfc> fetchRows(long minRowNum, long maxRowNum) {
+        if (minRowNum <= 0) {
+            throw new IllegalArgumentException("The minimum row number must be > 0");
+        }
+        if (minRowNum > maxRowNum) {
+            throw new IllegalArgumentException("The minimum row number must be <= the maximum row number.");
+        }
+        List<RowGetterIfc> rows = new ArrayList<>();
+        Iterator<RowGetterIfc> iterator = iterator(minRowNum);
+        long n = maxRowNum - minRowNum + 1;
+        while (iterator.hasNext() && (rows.size() < n)) {
+            rows.add(iterator.next());
+        }
+        return rows;
+    }
+
+    @Override
+    public RowIterator iterator() {
+        return new RowIterator(1);
+    }
+
+    /**
+     * @param startingRow the starting row for the iteration
+     * @return an iterator for moving through the rows
+     */
+    public RowIterator iterator(long startingRow) {
+        return new RowIterator(startingRow);
+    }
+
+    public final class RowIterator implements Iterator<RowGetterIfc> {
+        private long myCurrentRowNum;
+        private int myChunk;
+        private int myIndex;
+
+        public RowIterator(long startingRowNum) {
+            if (startingRowNum <= 0) {
+                throw new IllegalArgumentException("The row number must be > 0");
+            }
+            myCurrentRowNum = startingRowNum - 1;
+            if (startingRowNum <= myTotalNumberRows) {
+                myChunk = findChunk(startingRowNum - 1);
+                myIndex = (int) (startingRowNum - 1 - myChunkStartingRows[myChunk]);
+            }
+        }
+
+        /**
+         * @return the number of the row last returned by next()
+         */
+        public final long getCurrentRowNum() {
+            return myCurrentRowNum;
+        }
+
+        public final long getRemainingNumRows() {
+            return Math.max(0, myTotalNumberRows - myCurrentRowNum);
+        }
+
+        @Override
+        public final boolean hasNext() {
+            return myCurrentRowNum < myTotalNumberRows;
+        }
+
+        @Override
+        public final RowGetterIfc next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("There are no more rows");
+            }
+            if (myIndex == getChunkNumberOfRows(myChunk)) {
+                myChunk++;
+                myIndex = 0;
+            }
+            myCurrentRowNum++;
+            Row row = makeRow(myChunk, myIndex, myCurrentRowNum);
+            myIndex++;
+            return row;
+        }
+    }
+
+    /**
+     * Releases the file
+     */
+    @Override
+    public void close() {
+        try {
+            myChannel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(super.toString());
+        sb.append(System.lineSeparator());
+        sb.append("Number of rows = ").append(myTotalNumberRows);
+        sb.append(System.lineSeparator());
+        sb.append("Number of chunks = ").append(myChunks.size());
+        sb.append(System.lineSeparator());
+        return sb.toString();
+    }
+
+    private Row makeRow(int chunk, int i, long rowNum) {
+        ColumnChunk c = myChunks.get(chunk);
+        ByteBuffer segment = getSegment(chunk);
+        double[] numeric = new double[getNumNumericColumns()];
+        for (int j = 0; j < numeric.length; j++) {
+            numeric[j] = segment.getDouble(positionInSegment(chunk, c.getNumericOffset(j)) + i * Double.BYTES);
+        }
+        String[] text = new String[getNumTextColumns()];
+        for (int j = 0; j < text.length; j++) {
+            int code = segment.getInt(positionInSegment(chunk, c.getTextOffset(j, numeric.length)) + i * Integer.BYTES);
+            text[j] = decode(j, code);
+        }
+        Row row = new Row(this);
+        row.setNumeric(numeric);
+        row.setText(text);
+        row.setRowNum(rowNum);
+        return row;
+    }
+
+    private void fillText(int colNum, int chunk, int from, String[] values, int start, int n) {
+        int j = getTextStorageIndex(colNum);
+        ColumnChunk c = myChunks.get(chunk);
+        ByteBuffer segment = getSegment(chunk);
+        int p = positionInSegment(chunk, c.getTextOffset(j, getNumNumericColumns())) + from * Integer.BYTES;
+        for (int i = 0; i < n; i++) {
+            values[start + i] = decode(j, segment.getInt(p + i * Integer.BYTES));
+        }
+    }
+
+    private String decode(int storageIndex, int code) {
+        if (code == ColumnarOutputFile.NULL_CODE) {
+            return null;
+        }
+        return myDictionaries[storageIndex][code];
+    }
+
+    /**
+     * @param row the 0 based row index
+     * @return the index of the chunk holding the row
+     */
+    private int findChunk(long row) {
+        int k = Arrays.binarySearch(myChunkStartingRows, row);
+        if (k < 0) {
+            k = -k - 2;
+        }
+        // skip over any empty chunks
+        while (row >= myChunkStartingRows[k] + myChunks.get(k).getNumRows()) {
+            k++;
+        }
+        return k;
+    }
+
+    private ByteBuffer getSegment(int chunk) {
+        int s = myChunkSegments[chunk];
+        if (myMappedSegments[s] == null) {
+            long[] range = mySegments.get(s);
+            try {
+                MappedByteBuffer b = myChannel.map(FileChannel.MapMode.READ_ONLY, range[0], range[1] - range[0]);
+                b.order(ColumnarOutputFile.BYTE_ORDER);
+                myMappedSegments[s] = b;
+            } catch (IOException e) {
+                JSL.getInstance().LOGGER.error("Unable to map columnar file {}", myPath);
+                throw new UncheckedIOException(e);
+            }
+        }
+        return myMappedSegments[s];
+    }
+
+    private int positionInSegment(int chunk, long offset) {
+        return (int) (offset - mySegments.get(myChunkSegments[chunk])[0]);
+    }
+
+    private long chunkBytes(ColumnChunk chunk) {
+        return ColumnChunk.numBytes(chunk.getNumRows(), getNumNumericColumns(), getNumTextColumns());
+    }
+
+    private void checkChunk(int chunk) {
+        if ((chunk < 0) || (chunk >= myChunks.size())) {
+            throw new IllegalArgumentException("The chunk index must be in [0," + myChunks.size() + ")");
+        }
+    }
+
+    private void checkRows(long startingRow, int numRows) {
+        if (startingRow <= 0) {
+            throw new IllegalArgumentException("The starting row must be > 0");
+        }
+        if (numRows < 0) {
+            throw new IllegalArgumentException("The number of rows must be >= 0");
+        }
+    }
+
+    private void checkNumeric(int colNum) {
+        checkColumn(colNum);
+        if (!isNumeric(colNum)) {
+            throw new IllegalArgumentException("The column is not numeric.");
+        }
+    }
+
+    private void checkText(int colNum) {
+        checkColumn(colNum);
+        if (!isText(colNum)) {
+            throw new IllegalArgumentException("The column is not text.");
+        }
+    }
+
+    private void checkColumn(int colNum) {
+        if (colNum < 0) {
+            throw new IllegalArgumentException("The column number must be >= 0");
+        }
+        if (colNum >= getNumberColumns()) {
+            throw new IllegalArgumentException("The column number must be < " + getNumberColumns());
+        }
+    }
+
+    /**
+     * The contents of the footer of a columnar file
+     */
+    private static final class Footer {
+
+        private final LinkedHashMap<String, DataType> myColumnTypes = new LinkedHashMap<>();
+        private final List<ColumnChunk> myChunks = new ArrayList<>();
+        private String[][] myDictionaries;
+
+        /**
+         * Reads the latest footer and then the earlier footers that it refers to
+         */
+        static Footer read(Path pathToFile) {
+            Objects.requireNonNull(pathToFile, "The path to the file was null");
+            try (FileChannel channel = FileChannel.open(pathToFile, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size < ColumnarOutputFile.HEADER_SIZE) {
+                    throw new IllegalStateException("The path does not represent a valid ColumnarInputFile " + pathToFile);
+                }
+                ByteBuffer header = ByteBuffer.allocate(ColumnarOutputFile.HEADER_SIZE);
+                readFully(channel, header, 0);
+                long footerOffset = header.getLong(ColumnarOutputFile.FOOTER_POSITION_OFFSET);
+                if ((header.getLong(0) != ColumnarOutputFile.MAGIC) || (footerOffset == 0)) {
+                    throw new IllegalStateException("The path does not represent a valid ColumnarInputFile " + pathToFile);
+                }
+                Footer footer = new Footer();
+                // the footers from the latest to the first
+                List<List<ColumnChunk>> chunks = new ArrayList<>();
+                List<List<List<String>>> dictionaries = new ArrayList<>();
+                long limit = size;
+                while (footerOffset != 0) {
+                    if ((footerOffset < ColumnarOutputFile.HEADER_SIZE) || (footerOffset > limit - Integer.BYTES)) {
+                        throw new IllegalStateException("The path does not represent a valid ColumnarInputFile " + pathToFile);
+                    }
+                    ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+                    readFully(channel, length, footerOffset);
+                    int n = length.getInt(0);
+                    if ((n < 0) || (footerOffset + Integer.BYTES + n > limit)) {
+                        throw new IllegalStateException("The path does not represent a valid ColumnarInputFile " + pathToFile);
+                    }
+                    ByteBuffer bytes = ByteBuffer.allocate(n);
+                    readFully(channel, bytes, footerOffset + Integer.BYTES);
+                    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.array()));
+                    long previous = in.readLong();
+                    LinkedHashMap<String, DataType> columnTypes = new LinkedHashMap<>();
+                    int numColumns = in.readInt();
+                    int numNumeric = 0;
+                    int numText = 0;
+                    for (int i = 0; i < numColumns; i++) {
+                        String name = readString(in);
+                        if (in.readByte() == 0) {
+                            columnTypes.put(name, DataType.NUMERIC);
+                            numNumeric++;
+                        } else {
+                            columnTypes.put(name, DataType.TEXT);
+                            numText++;
+                        }
+                    }
+                    if (chunks.isEmpty()) {
+                        footer.myColumnTypes.putAll(columnTypes);
+                    }
+                    List<ColumnChunk> footerChunks = new ArrayList<>();
+                    int numChunks = in.readInt();
+                    for (int k = 0; k < numChunks; k++) {
+                        long offset = in.readLong();
+                        int numRows = in.readInt();
+                        double[] min = new double[numNumeric];
+                        double[] max = new double[numNumeric];
+                        for (int j = 0; j < numNumeric; j++) {
+                            min[j] = in.readDouble();
+                            max[j] = in.readDouble();
+                        }
+                        footerChunks.add(new ColumnChunk(offset, numRows, min, max));
+                    }
+                    List<List<String>> footerDictionaries = new ArrayList<>();
+                    for (int j = 0; j < numText; j++) {
+                        int numValues = in.readInt();
+                        List<String> values = new ArrayList<>(numValues);
+                        for (int i = 0; i < numValues; i++) {
+                            values.add(readString(in));
+                        }
+                        footerDictionaries.add(values);
+                    }
+                    chunks.add(footerChunks);
+                    dictionaries.add(footerDictionaries);
+                    // earlier footers precede this one
+                    limit = footerOffset;
+                    footerOffset = previous;
+                }
+                int numText = dictionaries.get(0).size();
+                List<List<String>> all = new ArrayList<>();
+                for (int j = 0; j < numText; j++) {
+                    all.add(new ArrayList<>());
+                }
+                for (int f = chunks.size() - 1; f >= 0; f--) {
+                    footer.myChunks.addAll(chunks.get(f));
+                    for (int j = 0; j < numText; j++) {
+                        all.get(j).addAll(dictionaries.get(f).get(j));
+                    }
+                }
+                footer.myDictionaries = new String[numText][];
+                for (int j = 0; j < numText; j++) {
+                    footer.myDictionaries[j] = all.get(j).toArray(new String[0]);
+                }
+                return footer;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                int n = channel.read(buffer, position);
+                if (n < 0) {
+                    throw new IOException("Unexpected end of file");
+                }
+                position = position + n;
+            }
+        }
+
+        private static String readString(DataInputStream in) throws IOException {
+            byte[] b = new byte[in.readInt()];
+            in.readFully(b);
+            return new String(b, StandardCharsets.UTF_8);
+        }
+    }
+}
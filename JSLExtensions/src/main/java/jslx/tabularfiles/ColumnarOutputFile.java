@@ -0,0 +1,423 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package jslx.tabularfiles;
+
+import jsl.utilities.reporting.JSL;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Writes rows of tabular data to a column oriented binary file. This is an alternative
+ * to TabularOutputFile for large files, for example traces of every observation.
+ * The rows are buffered into chunks. When a chunk is full, the values of each
+ * column of the chunk are written contiguously: numeric columns as 8 byte doubles and
+ * text columns as 4 byte codes into a dictionary of the distinct values of the column.
+ * The minimum and maximum of each numeric column within each chunk are recorded so that
+ * readers can skip chunks.
+ * <p>
+ * As with TabularOutputFile, use getRow() or the convenience methods to write rows and
+ * call flushRows() after writing, which makes all the written rows readable. Flushing
+ * writes the buffered rows as a chunk, so frequent flushing produces small chunks.
+ * Call close() to release the file. Use ColumnarInputFile to read the file.
+ * <p>
+ * The file layout is a header followed by the chunks and footers in the order that they
+ * were written. Each footer describes the columns, the chunks written since the previous
+ * footer, and the text values added to the dictionaries since the previous footer, and
+ * refers to the previous footer. The header holds the position of the latest footer, which
+ * is updated only after the footer is completely written. Thus, each flush writes only what
+ * changed, and a file whose writing was interrupted can be read up to its last flush.
+ *
+ * @see jslx.tabularfiles.ColumnarInputFile
+ * @see jslx.tabularfiles.TabularFile
+ */
+public class ColumnarOutputFile extends TabularFile implements AutoCloseable {
+
+    /**
+     * The default number of rows in each chunk
+     */
+    public final static int DEFAULT_CHUNK_SIZE = 8192;
+
+    /**
+     * Marks the start of a columnar file, "JSLCOL01"
+     */
+    final static long MAGIC = 0x4A534C434F4C3031L;
+
+    /**
+     * The number of bytes preceding the first chunk, the magic number and
+     * the position of the latest footer
+     */
+    final static int HEADER_SIZE = 16;
+
+    /**
+     * The position within the header of the position of the latest footer
+     */
+    final static int FOOTER_POSITION_OFFSET = 8;
+
+    /**
+     * The byte order of the chunk data
+     */
+    final static ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    /**
+     * The code stored for a missing (null) text value
+     */
+    final static int NULL_CODE = -1;
+
+    private final FileChannel myChannel;
+    private final int myChunkSize;
+    private final double[][] myNumericChunk;
+    private final int[][] myTextChunk;
+    private final List<Map<String, Integer>> myCodes;
+    private final List<List<String>> myDictionaries;
+    private final List<ColumnChunk> myChunks;
+    private final int[] myNumDictionaryValuesInFooters;
+    private final RowSetterIfc myRow;
+    private ByteBuffer myBuffer;
+    private int myRowCount = 0;
+    private long myTotalNumberRows = 0;
+    private long myDataEnd = HEADER_SIZE;
+    private long myFooterPosition = 0;
+    private int myNumChunksInFooters = 0;
+
+    /**
+     * @param columnTypes the names and types of the columns, must not be null or empty
+     * @param path        the path to the file, an existing file is replaced
+     */
+    public ColumnarOutputFile(LinkedHashMap<String, DataType> columnTypes, Path path) {
+        this(columnTypes, path, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param columnTypes the names and types of the columns, must not be null or empty
+     * @param path        the path to the file, an existing file is replaced
+     * @param chunkSize   the number of rows in each chunk, must be greater than 0
+     */
+    public ColumnarOutputFile(LinkedHashMap<String, DataType> columnTypes, Path path, int chunkSize) {
+        super(columnTypes, path);
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("The chunk size must be > 0");
+        }
+        long chunkBytes;
+        try {
+            chunkBytes = ColumnChunk.numBytes(chunkSize, getNumNumericColumns(), getNumTextColumns());
+        } catch (ArithmeticException e) {
+            chunkBytes = Long.MAX_VALUE;
+        }
+        if (chunkBytes > ColumnChunk.MAX_NUM_BYTES) {
+            throw new IllegalArgumentException("A chunk of " + chunkSize + " rows would exceed the maximum of "
+                    + ColumnChunk.MAX_NUM_BYTES + " bytes per chunk");
+        }
+        myChunkSize = chunkSize;
+        myNumericChunk = new double[getNumNumericColumns()][chunkSize];
+        myTextChunk = new int[getNumTextColumns()][chunkSize];
+        myCodes = new ArrayList<>();
+        myDictionaries = new ArrayList<>();
+        for (int i = 0; i < getNumTextColumns(); i++) {
+            myCodes.add(new HashMap<>());
+            myDictionaries.add(new ArrayList<>());
+        }
+        myChunks = new ArrayList<>();
+        myNumDictionaryValuesInFooters = new int[getNumTextColumns()];
+        try {
+            myChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putLong(MAGIC);
+            // no footer yet
+            header.putLong(0L);
+            header.flip();
+            writeFully(header, 0);
+        } catch (IOException e) {
+            JSL.getInstance().LOGGER.error("Unable to create columnar file {}", path);
+            throw new UncheckedIOException(e);
+        }
+        myRow = getRow();
+        // the file is readable, with no rows, from the start
+        writeFooter();
+    }
+
+    /**
+     * @return the number of rows in each chunk
+     */
+    public final int getChunkSize() {
+        return myChunkSize;
+    }
+
+    /**
+     * @return the number of rows written, including any buffered rows
+     */
+    public final long getTotalNumberRows() {
+        return myTotalNumberRows + myRowCount;
+    }
+
+    /**
+     * Provides a row that can be used to set individual columns
+     * before writing the row to the file
+     *
+     * @return a RowSetterIfc
+     */
+    public final RowSetterIfc getRow() {
+        return new Row(this);
+    }
+
+    /**
+     * A convenience method. This writes the values in the array
+     * to the numeric columns in the file in the order of their appearance.
+     * The recommended use is for files that have all numeric columns.
+     *
+     * @param data the data to write
+     */
+    public final void writeNumeric(double[] data) {
+        myRow.setNumeric(data);
+        writeRow(myRow);
+    }
+
+    /**
+     * A convenience method. This writes the values in the array
+     * to the text columns in the file in the order of their appearance.
+     * The recommended use is for files that have all text columns.
+     *
+     * @param data the data to write
+     */
+    public final void writeText(String[] data) {
+        myRow.setText(data);
+        writeRow(myRow);
+    }
+
+    /**
+     * Writes the data currently in the row to the file. Once
+     * written, the write cannot be undone.
+     *
+     * @param rowSetter a rowSetter, provided by getRow()
+     */
+    public final void writeRow(RowSetterIfc rowSetter) {
+        Row row = (Row) rowSetter;
+        for (int j = 0; j < myNumericChunk.length; j++) {
+            myNumericChunk[j][myRowCount] = row.getNumericByStorageIndex(j);
+        }
+        for (int j = 0; j < myTextChunk.length; j++) {
+            myTextChunk[j][myRowCount] = encode(j, row.getTextByStorageIndex(j));
+        }
+        myRowCount++;
+        if (myRowCount == myChunkSize) {
+            writeChunk();
+        }
+    }
+
+    /**
+     * A convenience method if the user has a list of rows to write.
+     * All rows in the list are written to the file.
+     *
+     * @param rows the rows to write, must not be null
+     */
+    public final void writeRows(List<RowSetterIfc> rows) {
+        Objects.requireNonNull(rows, "The list was null");
+        for (RowSetterIfc row : rows) {
+            writeRow(row);
+        }
+    }
+
+    /**
+     * After writing all rows, you must call flushRows() to ensure that
+     * all buffered row data is committed to the file. Rows may continue
+     * to be written after flushing. Each flush appends the buffered rows as
+     * a chunk and a footer describing what was written since the previous flush.
+     */
+    public final void flushRows() {
+        if (myRowCount > 0) {
+            writeChunk();
+        }
+        writeFooter();
+    }
+
+    /**
+     * Flushes the rows and closes the file
+     */
+    @Override
+    public void close() {
+        if (!myChannel.isOpen()) {
+            return;
+        }
+        flushRows();
+        try {
+            myChannel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(super.toString());
+        sb.append(System.lineSeparator());
+        sb.append("Rows per chunk = ").append(myChunkSize);
+        sb.append(System.lineSeparator());
+        sb.append("Number of chunks written = ").append(myChunks.size());
+        sb.append(System.lineSeparator());
+        return sb.toString();
+    }
+
+    private int encode(int textIndex, String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Map<String, Integer> codes = myCodes.get(textIndex);
+        Integer code = codes.get(value);
+        if (code == null) {
+            List<String> dictionary = myDictionaries.get(textIndex);
+            code = dictionary.size();
+            dictionary.add(value);
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    private void writeChunk() {
+        int n = myRowCount;
+        // checked against the maximum chunk size by the constructor
+        int numBytes = (int) ColumnChunk.numBytes(n, myNumericChunk.length, myTextChunk.length);
+        if ((myBuffer == null) || (myBuffer.capacity() < numBytes)) {
+            myBuffer = ByteBuffer.allocateDirect(numBytes).order(BYTE_ORDER);
+        }
+        myBuffer.clear();
+        double[] min = new double[myNumericChunk.length];
+        double[] max = new double[myNumericChunk.length];
+        for (int j = 0; j < myNumericChunk.length; j++) {
+            double[] values = myNumericChunk[j];
+            myBuffer.asDoubleBuffer().put(values, 0, n);
+            myBuffer.position(myBuffer.position() + n * Double.BYTES);
+            double lo = Double.NaN;
+            double hi = Double.NaN;
+            for (int i = 0; i < n; i++) {
+                double x = values[i];
+                // missing values are ignored
+                if (!Double.isNaN(x)) {
+                    if (Double.isNaN(lo) || (x < lo)) {
+                        lo = x;
+                    }
+                    if (Double.isNaN(hi) || (x > hi)) {
+                        hi = x;
+                    }
+                }
+            }
+            min[j] = lo;
+            max[j] = hi;
+        }
+        for (int[] codes : myTextChunk) {
+            myBuffer.asIntBuffer().put(codes, 0, n);
+            myBuffer.position(myBuffer.position() + n * Integer.BYTES);
+        }
+        myBuffer.flip();
+        writeFully(myBuffer, myDataEnd);
+        myChunks.add(new ColumnChunk(myDataEnd, n, min, max));
+        myDataEnd = myDataEnd + numBytes;
+        myTotalNumberRows = myTotalNumberRows + n;
+        myRowCount = 0;
+    }
+
+    /**
+     * Appends a footer for the chunks and dictionary values written since the previous
+     * footer and then points the header at it. Nothing is written if nothing changed.
+     */
+    private void writeFooter() {
+        boolean changed = (myFooterPosition == 0) || (myNumChunksInFooters < myChunks.size());
+        for (int j = 0; j < myDictionaries.size(); j++) {
+            changed = changed || (myNumDictionaryValuesInFooters[j] < myDictionaries.get(j).size());
+        }
+        if (!changed) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            // reserve the length
+            out.writeInt(0);
+            out.writeLong(myFooterPosition);
+            out.writeInt(getNumberColumns());
+            for (int i = 0; i < getNumberColumns(); i++) {
+                writeString(out, getColumnName(i));
+                out.writeByte(isNumeric(i) ? 0 : 1);
+            }
+            out.writeInt(myChunks.size() - myNumChunksInFooters);
+            for (ColumnChunk chunk : myChunks.subList(myNumChunksInFooters, myChunks.size())) {
+                out.writeLong(chunk.getOffset());
+                out.writeInt(chunk.getNumRows());
+                for (int j = 0; j < myNumericChunk.length; j++) {
+                    out.writeDouble(chunk.getMinimum(j));
+                    out.writeDouble(chunk.getMaximum(j));
+                }
+            }
+            for (int j = 0; j < myDictionaries.size(); j++) {
+                List<String> dictionary = myDictionaries.get(j);
+                out.writeInt(dictionary.size() - myNumDictionaryValuesInFooters[j]);
+                for (String s : dictionary.subList(myNumDictionaryValuesInFooters[j], dictionary.size())) {
+                    writeString(out, s);
+                }
+            }
+            out.flush();
+            ByteBuffer footer = ByteBuffer.wrap(bytes.toByteArray());
+            footer.putInt(0, footer.capacity() - Integer.BYTES);
+            long position = myDataEnd;
+            writeFully(footer, position);
+            // the footer must be complete before the header refers to it
+            myChannel.force(false);
+            ByteBuffer pointer = ByteBuffer.allocate(Long.BYTES);
+            pointer.putLong(0, position);
+            writeFully(pointer, FOOTER_POSITION_OFFSET);
+            myFooterPosition = position;
+            myDataEnd = position + footer.capacity();
+            myNumChunksInFooters = myChunks.size();
+            for (int j = 0; j < myDictionaries.size(); j++) {
+                myNumDictionaryValuesInFooters[j] = myDictionaries.get(j).size();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) {
+        try {
+            while (buffer.hasRemaining()) {
+                position = position + myChannel.write(buffer, position);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
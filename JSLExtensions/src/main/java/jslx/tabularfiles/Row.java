@@ -34,6 +34,22 @@ public class Row implements RowGetterIfc, RowSetterIfc, RowIfc {
         myRowNum = rowNum;
     }
 
+    /**
+     * @param storageIndex the index of the value among the numeric columns
+     * @return the value without copying the numeric data
+     */
+    final double getNumericByStorageIndex(int storageIndex) {
+        return numericData[storageIndex];
+    }
+
+    /**
+     * @param storageIndex the index of the value among the text columns
+     * @return the value without copying the text data
+     */
+    final String getTextByStorageIndex(int storageIndex) {
+        return textData[storageIndex];
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -0,0 +1,91 @@
+package jslx.tabularfiles;
+
+import jsl.controls.experiments.ScenarioSweep;
+import jsl.controls.experiments.ScenarioSweepListenerIfc;
+import jsl.controls.experiments.SimulationRun;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Writes the results of the design points of a ScenarioSweep to a TabularOutputFile as
+ * the design points complete. Each row of the file holds one replication of a design point:
+ * the index of the design point, the values of the factors, and the response data of the
+ * replication. The rows of a design point are flushed to the file before the design point
+ * is recorded in the checkpoint file of the sweep.
+ * <p>
+ * The file is created when the first successful design point completes. An existing file
+ * is not appended to, so a resumed sweep must be given a new file. The design points of the
+ * original and the resumed sweep are identified by the design_point column. Design points
+ * that failed are not written.
+ */
+public class ScenarioSweepTabularWriter implements ScenarioSweepListenerIfc {
+
+    private final Path myPath;
+
+    private TabularOutputFile myFile;
+
+    private List<String> myResponseNames;
+
+    /**
+     * @param path the path to the file, must not be null and the file must not exist
+     */
+    public ScenarioSweepTabularWriter(Path path) {
+        Objects.requireNonNull(path, "The path to the file was null");
+        if (Files.exists(path)) {
+            throw new IllegalArgumentException("The file " + path + " already exists");
+        }
+        myPath = path;
+    }
+
+    /**
+     * @return the file, or null if no design points have been written
+     */
+    public final TabularOutputFile getTabularOutputFile() {
+        return myFile;
+    }
+
+    @Override
+    public void designPointCompleted(ScenarioSweep sweep, int designPoint, SimulationRun run) {
+        if ((run.functionError != null) && !run.functionError.isEmpty()) {
+            return;
+        }
+        if (myFile == null) {
+            createFile(sweep, run);
+        }
+        double[] factors = sweep.getDesignPoint(designPoint);
+        int numReps = run.responseData.get("replication").length;
+        double[] data = new double[1 + factors.length + myResponseNames.size()];
+        for (int r = 0; r < numReps; r++) {
+            data[0] = designPoint;
+            System.arraycopy(factors, 0, data, 1, factors.length);
+            int j = 1 + factors.length;
+            for (String name : myResponseNames) {
+                double[] values = run.responseData.get(name);
+                data[j] = (values == null) ? Double.NaN : values[r];
+                j++;
+            }
+            myFile.writeNumeric(data);
+        }
+        myFile.flushRows();
+    }
+
+    /**
+     * The columns are determined by the factors of the sweep and the responses of the first run
+     */
+    private void createFile(ScenarioSweep sweep, SimulationRun run) {
+        List<String> names = new ArrayList<>();
+        names.add("design_point");
+        names.addAll(sweep.getFactorNames());
+        myResponseNames = new ArrayList<>();
+        for (Map.Entry<String, double[]> entry : run.responseData.entrySet()) {
+            myResponseNames.add(entry.getKey());
+        }
+        names.addAll(myResponseNames);
+        myFile = new TabularOutputFile(TabularFile.columns(names, DataType.NUMERIC), myPath);
+    }
+}
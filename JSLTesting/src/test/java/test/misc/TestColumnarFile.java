@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package test.misc;
+
+import jslx.tabularfiles.ColumnarInputFile;
+import jslx.tabularfiles.ColumnarOutputFile;
+import jslx.tabularfiles.DataType;
+import jslx.tabularfiles.RowGetterIfc;
+import jslx.tabularfiles.RowSetterIfc;
+import jslx.tabularfiles.TabularFile;
+import jslx.tabularfiles.TabularInputFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.DoubleBuffer;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the writing and reading of columnar tabular files
+ */
+public class TestColumnarFile {
+
+    @TempDir
+    Path myDir;
+
+    private static final int NUM_ROWS = 1050;
+
+    private static double x(int i) {
+        return (i % 97 == 0) ? Double.NaN : i * 0.5;
+    }
+
+    private static String s(int i) {
+        return (i % 10 == 0) ? null : "Type" + (i % 7);
+    }
+
+    private Path writeFile() {
+        LinkedHashMap<String, DataType> columns = new LinkedHashMap<>();
+        columns.put("time", DataType.NUMERIC);
+        columns.put("type", DataType.TEXT);
+        columns.put("value", DataType.NUMERIC);
+        Path path = myDir.resolve("trace.jslcol");
+        try (ColumnarOutputFile out = new ColumnarOutputFile(columns, path, 100)) {
+            RowSetterIfc row = out.getRow();
+            for (int i = 1; i <= NUM_ROWS; i++) {
+                row.setNumeric(0, i);
+                row.setText(1, s(i));
+                row.setNumeric(2, x(i));
+                out.writeRow(row);
+                if (i == 250) {
+                    // produces a partial chunk
+                    out.flushRows();
+                    ColumnarInputFile partial = new ColumnarInputFile(path);
+                    assertEquals(250, partial.getTotalNumberRows());
+                    partial.close();
+                }
+            }
+        }
+        return path;
+    }
+
+    @Test
+    public void readRows() {
+        ColumnarInputFile in = new ColumnarInputFile(writeFile());
+        assertEquals(NUM_ROWS, in.getTotalNumberRows());
+        assertEquals(3, in.getNumberColumns());
+        assertTrue(in.isText(1));
+        int i = 0;
+        for (RowGetterIfc row : in) {
+            i++;
+            assertEquals(i, row.getNumeric(0));
+            assertEquals(s(i), row.getText(1));
+            assertEquals(x(i), row.getNumeric("value"));
+        }
+        assertEquals(NUM_ROWS, i);
+        assertEquals(s(777), in.fetchOneRow(777).getText(1));
+        assertFalse(in.fetchRow(NUM_ROWS + 1).isPresent());
+        List<RowGetterIfc> rows = in.fetchRows(248, 252);
+        assertEquals(5, rows.size());
+        assertEquals(252.0, rows.get(4).getNumeric(0));
+        in.close();
+    }
+
+    @Test
+    public void readColumns() {
+        ColumnarInputFile in = new ColumnarInputFile(writeFile());
+        double[] values = in.getNumericColumn("value", NUM_ROWS + 10);
+        assertEquals(NUM_ROWS, values.length);
+        for (int i = 1; i <= NUM_ROWS; i++) {
+            assertEquals(x(i), values[i - 1]);
+        }
+        double[] slice = in.getNumericColumn(0, 240, 30);
+        assertEquals(30, slice.length);
+        assertEquals(240.0, slice[0]);
+        assertEquals(269.0, slice[29]);
+        assertEquals(NUM_ROWS - NUM_ROWS / 97, in.getNumericColumn(2, NUM_ROWS, true).length);
+        String[] text = in.getTextColumn(1, NUM_ROWS);
+        assertEquals(s(10), text[9]);
+        assertNull(text[9]);
+        assertEquals(s(11), text[10]);
+        // chunks of 100 rows, with a partial chunk of 50 rows after row 250
+        assertEquals(11, in.getNumberOfChunks());
+        assertEquals(50, in.getChunkNumberOfRows(2));
+        assertEquals(251, in.getChunkStartingRow(3));
+        assertEquals(251.0, in.getChunkMinimum(0, 3));
+        assertEquals(350.0, in.getChunkMaximum(0, 3));
+        assertEquals(List.of(3, 4), in.findChunks(0, 300.5, 400.5));
+        DoubleBuffer b = in.getNumericChunk(0, 3);
+        assertEquals(100, b.remaining());
+        assertEquals(251.0, b.get(0));
+        in.close();
+    }
+
+    @Test
+    public void convertToAndFromSQLite() {
+        ColumnarInputFile in = new ColumnarInputFile(writeFile());
+        TabularInputFile sqlite = in.asTabularInputFile(myDir.resolve("trace.sqlite"));
+        assertEquals(NUM_ROWS, sqlite.getTotalNumberRows());
+        ColumnarInputFile back = ColumnarInputFile.convert(sqlite, myDir.resolve("back.jslcol"));
+        assertEquals(in.getColumnTypes(), back.getColumnTypes());
+        assertArrayEquals(in.getNumericColumn(2, NUM_ROWS), back.getNumericColumn(2, NUM_ROWS));
+        assertArrayEquals(in.getTextColumn(1, NUM_ROWS), back.getTextColumn(1, NUM_ROWS));
+        in.close();
+        back.close();
+    }
+
+    @Test
+    public void allNumeric() {
+        Path path = myDir.resolve("numeric.jslcol");
+        ColumnarOutputFile out = new ColumnarOutputFile(TabularFile.columns(2, DataType.NUMERIC), path);
+        out.writeNumeric(new double[]{1.0, 2.0});
+        out.writeNumeric(new double[]{3.0, 4.0});
+        out.close();
+        ColumnarInputFile in = new ColumnarInputFile(path);
+        assertArrayEquals(new double[]{2.0, 4.0}, in.getNumericColumn("C2", 10));
+        in.close();
+    }
+
+    @Test
+    public void readableUpToLastFlush() {
+        LinkedHashMap<String, DataType> columns = new LinkedHashMap<>();
+        columns.put("time", DataType.NUMERIC);
+        columns.put("type", DataType.TEXT);
+        Path path = myDir.resolve("flushed.jslcol");
+        try (ColumnarOutputFile out = new ColumnarOutputFile(columns, path, 10)) {
+            RowSetterIfc row = out.getRow();
+            for (int i = 1; i <= 95; i++) {
+                row.setNumeric(0, i);
+                row.setText(1, "T" + i);
+                out.writeRow(row);
+                if (i % 3 == 0) {
+                    out.flushRows();
+                }
+            }
+            // rows and a full chunk written after the last flush are not yet visible
+            for (int i = 96; i <= 120; i++) {
+                row.setNumeric(0, i);
+                row.setText(1, "T" + i);
+                out.writeRow(row);
+            }
+            ColumnarInputFile in = new ColumnarInputFile(path);
+            assertEquals(93, in.getTotalNumberRows());
+            int i = 1;
+            for (RowGetterIfc r : in) {
+                assertEquals(i, r.getNumeric(0), 0.0);
+                assertEquals("T" + i, r.getText(1));
+                i++;
+            }
+            in.close();
+        }
+        ColumnarInputFile in = new ColumnarInputFile(path);
+        assertEquals(120, in.getTotalNumberRows());
+        assertArrayEquals(new String[]{"T119", "T120"}, in.getTextColumn(1, 119, 2));
+        in.close();
+    }
+
+    @Test
+    public void chunkTooLarge() {
+        LinkedHashMap<String, DataType> columns = new LinkedHashMap<>();
+        columns.put("a", DataType.NUMERIC);
+        columns.put("b", DataType.TEXT);
+        assertThrows(IllegalArgumentException.class,
+                () -> new ColumnarOutputFile(columns, myDir.resolve("big.jslcol"), Integer.MAX_VALUE));
+    }
+}
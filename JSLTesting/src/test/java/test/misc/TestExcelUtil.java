@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package test.misc;
+
+import jslx.dbutilities.dbutil.DatabaseFactory;
+import jslx.dbutilities.dbutil.DatabaseIfc;
+import jslx.excel.ExcelUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.jooq.Table;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the writing of database tables to Excel workbooks and the reading of them back
+ */
+public class TestExcelUtil {
+
+    @TempDir
+    Path myDir;
+
+    private static final int NUM_ROWS = 7;
+
+    private static final List<String> TABLES = List.of("ITEM");
+
+    private DatabaseIfc myDb;
+
+    private Table<?> myTable;
+
+    @BeforeEach
+    public void setUp() {
+        myDb = DatabaseFactory.createEmbeddedDerbyDatabase("TestExcelUtilDb", myDir);
+        myDb.executeCommand("create table ITEM (ID integer not null primary key, LABEL varchar(20), AMOUNT double)");
+        myTable = myDb.getTable("ITEM");
+    }
+
+    private void insertRows() {
+        for (int i = 1; i <= NUM_ROWS; i++) {
+            myDb.getDSLContext().insertInto(myTable).values(i, "item " + i, i * 1.5).execute();
+        }
+    }
+
+    private Result<? extends Record> selectRows() {
+        return myDb.getDSLContext().selectFrom(myTable).orderBy(myTable.field(0)).fetch();
+    }
+
+    @Test
+    public void roundTripOnContinuationSheets() throws IOException {
+        insertRows();
+        Result<? extends Record> before = selectRows();
+        Path wbPath = myDir.resolve("items.xlsx");
+        // 3 rows per sheet is a header and 2 records, so 7 records need 4 sheets
+        ExcelUtil.writeDBAsExcelWorkbook(myDb, TABLES, wbPath, 3);
+        try (InputStream in = new FileInputStream(wbPath.toFile()); XSSFWorkbook wb = new XSSFWorkbook(in)) {
+            assertEquals(4, wb.getNumberOfSheets());
+            assertEquals(3, wb.getSheet("ITEM").getPhysicalNumberOfRows());
+            assertEquals(2, wb.getSheet("ITEM_4").getPhysicalNumberOfRows());
+            assertEquals("LABEL", wb.getSheet("ITEM_3").getRow(0).getCell(1).getStringCellValue());
+        }
+        myDb.getDSLContext().deleteFrom(myTable).execute();
+        ExcelUtil.writeWorkbookToDatabase(wbPath, myDb, TABLES);
+        assertEquals(before, selectRows());
+
+        // the default writes everything on one sheet
+        Path wbPath2 = myDir.resolve("items2.xlsx");
+        ExcelUtil.writeDBAsExcelWorkbook(myDb, TABLES, wbPath2);
+        try (InputStream in = new FileInputStream(wbPath2.toFile()); XSSFWorkbook wb = new XSSFWorkbook(in)) {
+            assertEquals(1, wb.getNumberOfSheets());
+            assertEquals(NUM_ROWS + 1, wb.getSheet("ITEM").getPhysicalNumberOfRows());
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> ExcelUtil.writeDBAsExcelWorkbook(myDb, TABLES, wbPath2, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> ExcelUtil.writeDBAsExcelWorkbook(myDb, TABLES, wbPath2, ExcelUtil.DEFAULT_MAX_ROWS_PER_SHEET + 1));
+    }
+
+    private static void addRow(Sheet sheet, int rowNum, double id, double label, double amount) {
+        Row row = sheet.createRow(rowNum);
+        row.createCell(0).setCellValue(id);
+        row.createCell(1).setCellValue(label);
+        row.createCell(2).setCellValue(amount);
+    }
+
+    @Test
+    public void numericCellsIntoTextField() throws IOException {
+        Path wbPath = myDir.resolve("numbers.xlsx");
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            Sheet sheet = wb.createSheet("ITEM");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("ID");
+            header.createCell(1).setCellValue("LABEL");
+            header.createCell(2).setCellValue("AMOUNT");
+            addRow(sheet, 1, 1, 1.0E7, 0.1);
+            addRow(sheet, 2, 2, 2.5, 1.0E7);
+            Sheet next = wb.createSheet("ITEM_2");
+            next.createRow(0).createCell(0).setCellValue("ID");
+            addRow(next, 1, 3, 12345678901.0, 3.0);
+            try (OutputStream out = new FileOutputStream(wbPath.toFile())) {
+                wb.write(out);
+            }
+        }
+        // the streaming import
+        ExcelUtil.writeWorkbookToDatabase(wbPath, myDb, TABLES);
+        checkNumericRows();
+
+        // the import of an opened sheet
+        myDb.getDSLContext().deleteFrom(myTable).execute();
+        try (InputStream in = new FileInputStream(wbPath.toFile()); XSSFWorkbook wb = new XSSFWorkbook(in)) {
+            ExcelUtil.writeSheetToTable(wb.getSheet("ITEM"), myDb);
+            ExcelUtil.writeSheetToTable(wb.getSheet("ITEM_2"), "ITEM", myDb);
+        }
+        checkNumericRows();
+    }
+
+    private void checkNumericRows() {
+        Result<? extends Record> rows = selectRows();
+        assertEquals(3, rows.size());
+        assertEquals("10000000", rows.get(0).get(1));
+        assertEquals(0.1, rows.get(0).get(2));
+        assertEquals("2.5", rows.get(1).get(1));
+        assertEquals(1.0E7, rows.get(1).get(2));
+        assertEquals("12345678901", rows.get(2).get(1));
+        assertEquals(3.0, rows.get(2).get(2));
+    }
+}
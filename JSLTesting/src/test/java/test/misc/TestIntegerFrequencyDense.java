@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package test.misc;
+
+import jsl.utilities.random.rvariable.BinomialRV;
+import jsl.utilities.random.rvariable.PoissonRV;
+import jsl.utilities.statistic.IntegerFrequency;
+import jsl.utilities.statistic.StateFrequency;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the dense option of IntegerFrequency tabulates the same as the sparse cells
+ */
+public class TestIntegerFrequencyDense {
+
+    private void assertSameTabulation(IntegerFrequency expected, IntegerFrequency actual) {
+        assertEquals(expected.getNumberOfCells(), actual.getNumberOfCells());
+        assertEquals(expected.getTotalCount(), actual.getTotalCount());
+        assertEquals(expected.getUnderFlowCount(), actual.getUnderFlowCount());
+        assertEquals(expected.getOverFlowCount(), actual.getOverFlowCount());
+        assertArrayEquals(expected.getValues(), actual.getValues());
+        assertArrayEquals(expected.getFrequencies(), actual.getFrequencies());
+        assertArrayEquals(expected.getProportions(), actual.getProportions(), 0.0);
+        for (int v : expected.getValues()) {
+            assertEquals(expected.getFrequency(v), actual.getFrequency(v));
+        }
+    }
+
+    @Test
+    public void denseWithinLimits() {
+        IntegerFrequency sparse = new IntegerFrequency(0, 100, "sparse");
+        IntegerFrequency dense = new IntegerFrequency(0, 100, "dense", true);
+        BinomialRV rv = new BinomialRV(0.3, 100);
+        for (int i = 0; i < 10000; i++) {
+            double x = rv.getValue();
+            sparse.collect(x);
+            dense.collect(x);
+        }
+        // outliers are held outside the dense counts
+        sparse.collect(-5);
+        dense.collect(-5);
+        sparse.collect(250);
+        dense.collect(250);
+        assertSameTabulation(sparse, dense);
+        assertEquals(1, dense.getFrequency(250));
+        dense.reset();
+        assertEquals(0, dense.getNumberOfCells());
+        assertEquals(0, dense.getValues().length);
+    }
+
+    @Test
+    public void denseGrowsOnDemand() {
+        IntegerFrequency sparse = new IntegerFrequency();
+        IntegerFrequency dense = new IntegerFrequency(Integer.MIN_VALUE, Integer.MAX_VALUE, null, true);
+        PoissonRV rv = new PoissonRV(500.0);
+        for (int i = 0; i < 10000; i++) {
+            int x = (int) rv.getValue();
+            sparse.collect(x);
+            dense.collect(x);
+            sparse.collect(-x);
+            dense.collect(-x);
+        }
+        // too far from the dense range, must be held sparsely
+        sparse.collect(Integer.MAX_VALUE);
+        dense.collect(Integer.MAX_VALUE);
+        assertSameTabulation(sparse, dense);
+    }
+
+    @Test
+    public void denseMerge() {
+        IntegerFrequency sparse = new IntegerFrequency();
+        IntegerFrequency d1 = new IntegerFrequency(Integer.MIN_VALUE, Integer.MAX_VALUE, null, true);
+        IntegerFrequency d2 = new IntegerFrequency(Integer.MIN_VALUE, Integer.MAX_VALUE, null, true);
+        for (int i = 0; i < 1000; i++) {
+            sparse.collect(i % 37);
+            d1.collect(i % 37);
+            sparse.collect(1000 + i % 11);
+            d2.collect(1000 + i % 11);
+        }
+        d1.merge(d2);
+        assertSameTabulation(sparse, d1);
+    }
+
+    @Test
+    public void stateFrequency() {
+        StateFrequency sf = new StateFrequency(3);
+        StateFrequency other = new StateFrequency(3);
+        for (int i = 0; i < 30; i++) {
+            sf.collect(sf.getStates().get(i % 3));
+        }
+        // states from another instance are ignored
+        sf.collect(other.getStates().get(0));
+        assertEquals(30, sf.getTotalCount());
+        assertArrayEquals(new int[]{10, 10, 10}, sf.getFrequencies());
+        int[][] t = sf.getTransitionCounts();
+        assertEquals(10, t[0][1]);
+        assertEquals(10, t[1][2]);
+        assertEquals(9, t[2][0]);
+        assertTrue(sf.getProportion(1) > 0.33);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package test.misc;
+
+import jsl.utilities.random.rvariable.ExponentialRV;
+import jsl.utilities.random.rvariable.LognormalRV;
+import jsl.utilities.statistic.QuantileSketch;
+import jsl.utilities.statistic.Statistic;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the quantile estimates of QuantileSketch against the exact order statistics
+ */
+public class TestQuantileSketch {
+
+    private static double exactQuantile(double[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(p * sorted.length))];
+    }
+
+    private static void assertQuantiles(double[] data, QuantileSketch sketch) {
+        double[] sorted = Arrays.copyOf(data, data.length);
+        Arrays.sort(sorted);
+        for (double p : QuantileSketch.DEFAULT_QUANTILES) {
+            double q = sketch.quantile(p);
+            double cdf = Statistic.countLessEqualTo(sorted, q) / (double) sorted.length;
+            // the rank error is small, especially in the tails
+            assertEquals(p, cdf, 0.01 * Math.min(1.0, 10.0 * (1.0 - p)) + 0.0005, "p = " + p);
+            assertEquals(exactQuantile(sorted, p), q, 0.05 * Math.abs(exactQuantile(sorted, p)), "p = " + p);
+        }
+        assertEquals(sorted[0], sketch.quantile(0.0), 0.0);
+        assertEquals(sorted[sorted.length - 1], sketch.quantile(1.0), 0.0);
+    }
+
+    @Test
+    public void accuracy() {
+        LognormalRV rv = new LognormalRV(10.0, 400.0);
+        double[] data = rv.sample(200000);
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.collect(data);
+        assertEquals(data.length, sketch.getCount(), 0.0);
+        assertTrue(sketch.getNumberOfCentroids() <= 2 * QuantileSketch.DEFAULT_COMPRESSION);
+        assertQuantiles(data, sketch);
+        assertEquals(0.5, sketch.cdf(sketch.quantile(0.5)), 0.001);
+    }
+
+    @Test
+    public void merge() {
+        ExponentialRV rv = new ExponentialRV(2.0);
+        double[] data = rv.sample(100000);
+        QuantileSketch[] parts = new QuantileSketch[8];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = new QuantileSketch();
+        }
+        for (int i = 0; i < data.length; i++) {
+            parts[i % parts.length].collect(data[i]);
+        }
+        QuantileSketch merged = new QuantileSketch();
+        for (QuantileSketch s : parts) {
+            merged.merge(s);
+        }
+        assertEquals(data.length, merged.getCount(), 0.0);
+        assertQuantiles(data, merged);
+    }
+
+    @Test
+    public void weighted() {
+        // value 1 for 9 time units, value 2 for 1 time unit, repeated
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < 1000; i++) {
+            sketch.collect(1.0, 9.0);
+            sketch.collect(2.0, 1.0);
+            // a zero length interval is ignored, a negative weight is missing
+            sketch.collect(5.0, 0.0);
+            sketch.collect(5.0, -1.0);
+        }
+        assertEquals(1000.0, sketch.getNumberMissing(), 0.0);
+        assertEquals(2000.0, sketch.getCount(), 0.0);
+        assertEquals(2.0, sketch.getMax(), 0.0);
+        assertEquals(10000.0, sketch.getTotalWeight(), 0.0);
+        assertEquals(1.0, sketch.quantile(0.5), 0.0);
+        assertEquals(2.0, sketch.quantile(0.95), 0.0);
+        assertEquals(0.9, sketch.cdf(1.5), 0.01);
+    }
+
+    @Test
+    public void newInstanceIsExact() {
+        ExponentialRV rv = new ExponentialRV(2.0);
+        QuantileSketch sketch = new QuantileSketch();
+        for (double x : rv.sample(50001)) {
+            sketch.collect(x);
+        }
+        QuantileSketch copy = sketch.newInstance();
+        assertEquals(sketch.getCount(), copy.getCount(), 0.0);
+        assertEquals(sketch.getTotalWeight(), copy.getTotalWeight(), 0.0);
+        for (double p = 0.01; p < 1.0; p = p + 0.01) {
+            assertEquals(sketch.quantile(p), copy.quantile(p), 0.0);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package test.misc;
+
+import jsl.utilities.random.rvariable.ExponentialRV;
+import jsl.utilities.random.rvariable.PoissonRV;
+import jsl.utilities.statistic.BatchStatistic;
+import jsl.utilities.statistic.Histogram;
+import jsl.utilities.statistic.IntegerFrequency;
+import jsl.utilities.statistic.Statistic;
+import jsl.utilities.statistic.WeightedStatistic;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that merging partial statistics gives the same results as collecting
+ * all of the data sequentially
+ */
+public class TestStatisticMerge {
+
+    private static void assertClose(double expected, double actual) {
+        assertEquals(expected, actual, 1.0E-9 * Math.max(1.0, Math.abs(expected)));
+    }
+
+    private static void assertSame(Statistic expected, Statistic actual) {
+        assertEquals(expected.getCount(), actual.getCount(), 0.0);
+        assertEquals(expected.getMin(), actual.getMin(), 0.0);
+        assertEquals(expected.getMax(), actual.getMax(), 0.0);
+        assertEquals(expected.getLastValue(), actual.getLastValue(), 0.0);
+        assertClose(expected.getAverage(), actual.getAverage());
+        assertClose(expected.getVariance(), actual.getVariance());
+        assertClose(expected.getSkewness(), actual.getSkewness());
+        assertClose(expected.getKurtosis(), actual.getKurtosis());
+        assertClose(expected.getLag1Covariance(), actual.getLag1Covariance());
+        assertClose(expected.getVonNeumannLag1TestStatistic(), actual.getVonNeumannLag1TestStatistic());
+        assertClose(expected.getObsWeightedSum(), actual.getObsWeightedSum());
+    }
+
+    @Test
+    public void statisticMerge() {
+        double[] x = new ExponentialRV(3.0).sample(10001);
+        Statistic all = new Statistic(x);
+        int[] splits = {0, 1, 2, 5000, 9999, 10001};
+        for (int k : splits) {
+            Statistic a = new Statistic(Arrays.copyOfRange(x, 0, k));
+            Statistic b = new Statistic(Arrays.copyOfRange(x, k, x.length));
+            a.merge(b);
+            assertSame(all, a);
+        }
+        Statistic c = new Statistic();
+        for (int i = 0; i < x.length; i = i + 1000) {
+            c.merge(new Statistic(Arrays.copyOfRange(x, i, Math.min(i + 1000, x.length))));
+        }
+        assertSame(all, c);
+    }
+
+    @Test
+    public void parallelStreams() {
+        double[] x = new ExponentialRV(1.0).sample(100000);
+        Statistic all = new Statistic(x);
+        assertSame(all, Statistic.collectStatistics(Arrays.stream(x).parallel()));
+        assertSame(all, Arrays.stream(x).boxed().parallel().collect(Statistic.collector()));
+        Histogram h = new Histogram(0.0, 20, 0.25, x);
+        Histogram hp = Arrays.stream(x).boxed().parallel().collect(Histogram.collector(0.0, 20, 0.25));
+        assertEquals(h.getOverFlowCount(), hp.getOverFlowCount(), 0.0);
+        for (int i = 1; i <= 20; i++) {
+            assertEquals(h.getBinCount(i), hp.getBinCount(i), 0.0);
+        }
+        int[] y = Arrays.stream(new PoissonRV(4.0).sample(100000)).mapToInt(v -> (int) v).toArray();
+        IntegerFrequency f = new IntegerFrequency();
+        f.collect(y);
+        IntegerFrequency fp = Arrays.stream(y).parallel()
+                .collect(IntegerFrequency::new, IntegerFrequency::collect, IntegerFrequency::merge);
+        assertArrayEquals(f.getValueFrequencies()[0], fp.getValueFrequencies()[0]);
+        assertArrayEquals(f.getValueFrequencies()[1], fp.getValueFrequencies()[1]);
+        assertEquals(f.getTotalCount(), Arrays.stream(y).boxed().parallel()
+                .collect(IntegerFrequency.collector()).getTotalCount());
+    }
+
+    @Test
+    public void weightedMerge() {
+        double[] x = new ExponentialRV(2.0).sample(1000);
+        double[] w = new ExponentialRV(1.0).sample(1000);
+        WeightedStatistic all = WeightedStatistic.collectStatistics(x, w);
+        WeightedStatistic a = WeightedStatistic.collectStatistics(Arrays.copyOfRange(x, 0, 400), Arrays.copyOfRange(w, 0, 400));
+        a.merge(WeightedStatistic.collectStatistics(Arrays.copyOfRange(x, 400, 1000), Arrays.copyOfRange(w, 400, 1000)));
+        assertEquals(all.getCount(), a.getCount(), 0.0);
+        assertClose(all.getAverage(), a.getAverage());
+        assertClose(all.getWeightedSumOfSquares(), a.getWeightedSumOfSquares());
+        assertEquals(all.getLastWeight(), a.getLastWeight(), 0.0);
+        assertEquals(all.getMin(), a.getMin(), 0.0);
+    }
+
+    @Test
+    public void batchMerge() {
+        double[] x = new ExponentialRV(2.0).sample(5000);
+        BatchStatistic all = new BatchStatistic(x);
+        // after 3200 observations the batch size is 128 with no partially filled batch,
+        // and the remaining 1800 observations are batched in sizes of 64
+        int k = 3200;
+        BatchStatistic a = new BatchStatistic(Arrays.copyOfRange(x, 0, k));
+        a.merge(new BatchStatistic(Arrays.copyOfRange(x, k, x.length)));
+        assertEquals(all.getTotalNumberOfObservations(), a.getTotalNumberOfObservations(), 0.0);
+        assertEquals(all.getCurrentBatchSize(), a.getCurrentBatchSize());
+        assertEquals(all.getAmountLeftUnbatched(), a.getAmountLeftUnbatched(), 0.0);
+        assertArrayEquals(all.getBatchMeanArrayCopy(), a.getBatchMeanArrayCopy(), 1.0E-12);
+        assertClose(all.getVariance(), a.getVariance());
+        BatchStatistic c = new BatchStatistic(Arrays.copyOfRange(x, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> c.merge(new BatchStatistic(Arrays.copyOfRange(x, 10, 100))));
+    }
+}
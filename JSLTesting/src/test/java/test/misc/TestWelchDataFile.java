@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package test.misc;
+
+import jsl.utilities.random.rvariable.ExponentialRV;
+import jsl.utilities.statistic.BatchStatistic;
+import jsl.utilities.statistic.welch.StatisticType;
+import jsl.utilities.statistic.welch.WelchDataArrayCollector;
+import jsl.utilities.statistic.welch.WelchDataFileAnalyzer;
+import jsl.utilities.statistic.welch.WelchDataFileCollector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that the buffered Welch data file and the mapped analysis produce the same
+ * Welch averages as the array based collector
+ */
+public class TestWelchDataFile {
+
+    @TempDir
+    Path myDir;
+
+    private static final int NUM_REPS = 5;
+
+    private void runExperiment(WelchDataFileCollector fc, WelchDataArrayCollector ac, ExponentialRV rv) {
+        fc.setUpCollector();
+        ac.setUpCollector();
+        for (int r = 0; r < NUM_REPS; r++) {
+            fc.beginReplication();
+            ac.beginReplication();
+            int n = 40000 + 1000 * r;
+            for (int i = 1; i <= n; i++) {
+                double x = rv.getValue();
+                fc.collect(i, x);
+                ac.collect(i, x);
+            }
+            fc.endReplication();
+            ac.endReplication();
+        }
+        fc.cleanUpCollector();
+        ac.cleanUpCollector();
+    }
+
+    @Test
+    public void fileMatchesArray() throws IOException {
+        // a tiny buffer forces many writes
+        WelchDataFileCollector fc = new WelchDataFileCollector(myDir, StatisticType.TALLY, "x", 1.0, 100);
+        WelchDataArrayCollector ac = new WelchDataArrayCollector(50000, NUM_REPS, StatisticType.TALLY, "x", 1.0);
+        ExponentialRV rv = new ExponentialRV(2.0);
+        // the second experiment must replace the data of the first
+        runExperiment(fc, ac, rv);
+        runExperiment(fc, ac, rv);
+        assertEquals(8L * (NUM_REPS * 40000L + 10000L), fc.getDataFile().length());
+        WelchDataFileAnalyzer wa = fc.makeWelchDataFileAnalyzer();
+        assertEquals(40000, wa.getMinNumObservationsInReplications());
+        double[] expected = ac.getWelchAverages();
+        double[] avgs = wa.getWelchAverages(50000);
+        assertArrayEquals(expected, avgs, 1.0E-12);
+        assertArrayEquals(ac.getWelchCumulativeAverages(), wa.getCumulativeWelchAverages(40000), 1.0E-12);
+        double[][] plotData = wa.getWelchPlotData(40000);
+        assertArrayEquals(avgs, plotData[0], 0.0);
+        assertEquals(ac.getData()[12345][3], wa.get(12346, 4), 0.0);
+        assertEquals(expected[777], wa.getAcrossReplicationAverage(778), 1.0E-12);
+        wa.close();
+        assertThrows(IllegalStateException.class, () -> wa.get(1, 1));
+    }
+
+    @Test
+    public void parallelMatchesObserved() throws IOException {
+        WelchDataFileCollector fc = new WelchDataFileCollector(myDir, StatisticType.TALLY, "y", 1.0);
+        WelchDataArrayCollector ac = new WelchDataArrayCollector(50000, NUM_REPS, StatisticType.TALLY, "y", 1.0);
+        runExperiment(fc, ac, new ExponentialRV(1.0));
+        WelchDataFileAnalyzer wa = fc.makeWelchDataFileAnalyzer();
+        BatchStatistic parallel = wa.batchWelchAverages(100);
+        double[] avgs = wa.getWelchAverages(40000);
+        // attaching an observer causes each observation to be read individually
+        int[] count = new int[1];
+        wa.addObserver((observable, obj) -> count[0]++);
+        BatchStatistic observed = wa.batchWelchAverages(100);
+        assertEquals(NUM_REPS * (40000 - 100), count[0]);
+        assertEquals(observed.getCount(), parallel.getCount(), 0.0);
+        assertEquals(observed.getAverage(), parallel.getAverage(), 1.0E-12);
+        assertArrayEquals(avgs, wa.getWelchAverages(40000), 1.0E-12);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package test.modeling;
+
+import jsl.modeling.elements.spatial.AbstractMover;
+import jsl.modeling.elements.spatial.BroadPhaseCollisionDetector;
+import jsl.modeling.elements.spatial.Collision;
+import jsl.modeling.elements.spatial.CoordinateIfc;
+import jsl.modeling.elements.spatial.Euclidean2DPlane;
+import jsl.modeling.elements.spatial.EuclideanStepBasedMovementController;
+import jsl.modeling.elements.spatial.Mover;
+import jsl.modeling.elements.spatial.RandomMover;
+import jsl.modeling.elements.spatial.SpatialModel;
+import jsl.modeling.elements.spatial.Vector3D;
+import jsl.simulation.Model;
+import jsl.simulation.ModelElement;
+import jsl.simulation.Simulation;
+import jsl.utilities.random.rng.RNStreamFactory;
+import jsl.utilities.random.rng.RNStreamIfc;
+import jsl.utilities.random.rng.RNStreamProvider;
+import jsl.utilities.random.rvariable.JSLRandom;
+import jsl.utilities.random.rvariable.UniformRV;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the collisions found by the BroadPhaseCollisionDetector
+ */
+public class CollisionDetectorTest {
+
+    /**
+     * Travels to its destination when the replication starts
+     */
+    static class Traveler extends Mover {
+
+        private final CoordinateIfc myTarget;
+
+        Traveler(ModelElement parent, String name, SpatialModel spatialModel, CoordinateIfc start,
+                 CoordinateIfc target) {
+            super(parent, name, spatialModel, start);
+            myTarget = target;
+        }
+
+        @Override
+        protected void initialize() {
+            super.initialize();
+            if (myTarget != null) {
+                travelTo(myTarget);
+            }
+        }
+    }
+
+    @Test
+    public void crossingAndStationaryCollisions() {
+        Simulation sim = new Simulation("Crossing");
+        Model model = sim.getModel();
+        Euclidean2DPlane plane = new Euclidean2DPlane();
+        Traveler b = new Traveler(model, "B", plane, plane.getCoordinate(5, -5), plane.getCoordinate(5, 5));
+        Traveler a = new Traveler(model, "A", plane, plane.getCoordinate(0, 0), plane.getCoordinate(10, 0));
+        Traveler s = new Traveler(model, "S", plane, plane.getCoordinate(10, 10), null);
+        Traveler d = new Traveler(model, "D", plane, plane.getCoordinate(0, 10), plane.getCoordinate(20, 10));
+        BroadPhaseCollisionDetector detector = new BroadPhaseCollisionDetector(plane, 2.0);
+        List<Collision> collisions = new ArrayList<>();
+        for (Traveler t : List.of(b, a, s, d)) {
+            detector.register(t);
+            t.setCollisionHandler(c -> {
+                Collision copy = new Collision(c.getMovingElement());
+                copy.setCollision(c.getCollisionElement(), c.getTimeOfCollision(), c.getCollisionPosition(),
+                        c.getCollisionType());
+                collisions.add(copy);
+            });
+        }
+        sim.setLengthOfReplication(100.0);
+        sim.run();
+        assertEquals(2, collisions.size());
+
+        Collision ca = collisions.get(0);
+        assertSame(a, ca.getMovingElement());
+        assertEquals("B:SpatialElement", ca.getCollisionElement().getName());
+        assertEquals(Collision.MOVING, ca.getCollisionType());
+        double t = 5.0 - 1.0 / Math.sqrt(2.0);
+        assertEquals(t, ca.getTimeOfCollision(), 1.0E-9);
+        assertEquals(t, ca.getCollisionPosition().getX1(), 1.0E-9);
+
+        Collision cd = collisions.get(1);
+        assertSame(d, cd.getMovingElement());
+        assertEquals(Collision.STATIONARY, cd.getCollisionType());
+        assertEquals(9.0, cd.getTimeOfCollision(), 1.0E-9);
+        assertEquals(9.0, cd.getCollisionPosition().getX1(), 1.0E-9);
+
+        double tca = BroadPhaseCollisionDetector.timeOfClosestApproach(new Vector3D(0, 0), new Vector3D(1, 0),
+                new Vector3D(5, -5), new Vector3D(0, 1));
+        assertEquals(5.0, tca, 1.0E-9);
+        assertEquals(0.0, BroadPhaseCollisionDetector.timeOfClosestApproach(new Vector3D(0, 0),
+                new Vector3D(-1, 0), new Vector3D(5, 0), new Vector3D(1, 0)), 0.0);
+    }
+
+    /**
+     * Runs many random movers and records the collisions
+     */
+    private List<String> runRandomMovers(int maxCellsPerMover, long[] pairsChecked) {
+        Simulation sim = new Simulation("RandomMovers");
+        Model model = sim.getModel();
+        model.setRNStreamProvider(new RNStreamProvider());
+        Euclidean2DPlane plane = new Euclidean2DPlane();
+        BroadPhaseCollisionDetector detector = new BroadPhaseCollisionDetector(plane, 2.0);
+        detector.setMaximumCellsPerMover(maxCellsPerMover);
+        List<String> collisions = new ArrayList<>();
+        RNStreamIfc stream = new RNStreamFactory().getStream();
+        JSLRandom.runWithRNStreamProvider(model.getRNStreamProvider(), () -> {
+            EuclideanStepBasedMovementController controller = new EuclideanStepBasedMovementController(model);
+            for (int i = 0; i < 300; i++) {
+                RandomMover m = new RandomMover(model, "M" + i, plane);
+                m.setInitialPosition(plane.getCoordinate(100 * stream.randU01(), 100 * stream.randU01()));
+                m.setXDestinationInitialRandomSource(new UniformRV(0, 100));
+                m.setYDestinationInitialRandomSource(new UniformRV(0, 100));
+                m.setDefaultNextTripOption(true);
+                m.setMovementController(controller);
+                detector.register(m, 0.3);
+                m.setCollisionHandler(c -> collisions.add(((AbstractMover) c.getMovingElement()).getName()
+                        + "@" + c.getTimeOfCollision() + ":" + c.getCollisionElement().getName()));
+            }
+        });
+        sim.setLengthOfReplication(20.0);
+        sim.run();
+        pairsChecked[0] = detector.getNumberOfPairsChecked();
+        return collisions;
+    }
+
+    @Test
+    public void broadPhaseSameAsAllPairs() {
+        long[] gridPairs = new long[1];
+        List<String> grid = runRandomMovers(64, gridPairs);
+        long[] allPairs = new long[1];
+        // any movement covering more than one cell is checked against all movers
+        List<String> all = runRandomMovers(1, allPairs);
+        assertFalse(grid.isEmpty());
+        assertEquals(all, grid);
+        assertTrue(gridPairs[0] * 10 < allPairs[0], gridPairs[0] + " vs " + allPairs[0]);
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package test.modeling;
+
+import jsl.calendar.CalendarIfc;
+import jsl.calendar.IndexedHeapEventCalendar;
+import jsl.calendar.LadderQueueEventCalendar;
+import jsl.calendar.PriorityQueueEventCalendar;
+import jsl.simulation.EventAction;
+import jsl.simulation.Executive;
+import jsl.simulation.JSLEvent;
+import jsl.simulation.Model;
+import jsl.simulation.Simulation;
+import jsl.utilities.random.rng.RNStreamIfc;
+import jsl.utilities.random.rng.RNStreamProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the event calendars execute events in the same order as
+ * the default PriorityQueueEventCalendar
+ */
+public class EventCalendarTest {
+
+    private Model myModel;
+
+    @BeforeEach
+    public void setUp() {
+        myModel = new Simulation().getModel();
+    }
+
+    /**
+     * Schedules events with many ties in time and priority, cancels some of
+     * them, and records the order of execution
+     *
+     * @param calendar the calendar to test
+     * @return the ids of the executed events in the order of execution
+     */
+    private List<Long> executionOrder(CalendarIfc calendar) {
+        Executive executive = new Executive(calendar);
+        List<Long> order = new ArrayList<>();
+        RNStreamIfc rng = new RNStreamProvider().nextRNStream();
+        EventAction action = new EventAction() {
+            @Override
+            public void action(JSLEvent<Object> event) {
+                order.add(event.getId());
+                // schedule more events from within events
+                if (order.size() < 5000) {
+                    executive.scheduleEvent(this, rng.randInt(0, 20), rng.randInt(1, 3),
+                            null, null, myModel);
+                }
+            }
+        };
+        executive.initialize();
+        List<JSLEvent<Object>> events = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            events.add(executive.scheduleEvent(action, rng.randInt(0, 50), rng.randInt(1, 3),
+                    null, null, myModel));
+        }
+        for (int i = 0; i < events.size(); i = i + 3) {
+            executive.cancel(events.get(i));
+        }
+        executive.executeAllEvents();
+        return order;
+    }
+
+    /**
+     * Schedules a large number of events with mostly distinct times, some of
+     * which are clustered, and records the order of execution
+     *
+     * @param calendar the calendar to test
+     * @return the ids of the executed events in the order of execution
+     */
+    private List<Long> largeExecutionOrder(CalendarIfc calendar) {
+        Executive executive = new Executive(calendar);
+        List<Long> order = new ArrayList<>();
+        RNStreamIfc rng = new RNStreamProvider().nextRNStream();
+        EventAction action = new EventAction() {
+            @Override
+            public void action(JSLEvent<Object> event) {
+                order.add(event.getId());
+                if (order.size() < 50000) {
+                    double u = rng.randU01();
+                    double t = (u < 0.2) ? 0.0 : (u < 0.3) ? Math.floor(100.0 * u) : 100.0 * u;
+                    executive.scheduleEvent(this, t, rng.randInt(1, 3), null, null, myModel);
+                }
+            }
+        };
+        executive.initialize();
+        for (int i = 0; i < 20000; i++) {
+            double u = rng.randU01();
+            double t = (u < 0.1) ? 10.0 : 1000.0 * u * u;
+            executive.scheduleEvent(action, t, rng.randInt(1, 3), null, null, myModel);
+        }
+        executive.executeAllEvents();
+        return order;
+    }
+
+    /**
+     * Schedules an end event far in the future and a few other events so that the
+     * first transfer from the top is small, then schedules many events before the
+     * end event, as happens when a model schedules the end of the replication
+     *
+     * @param calendar the calendar to test
+     * @return the ids of the executed events in the order of execution
+     */
+    private List<Long> endEventExecutionOrder(CalendarIfc calendar) {
+        Executive executive = new Executive(calendar);
+        List<Long> order = new ArrayList<>();
+        RNStreamIfc rng = new RNStreamProvider().nextRNStream();
+        EventAction action = new EventAction() {
+            @Override
+            public void action(JSLEvent<Object> event) {
+                order.add(event.getId());
+                if (order.size() == 1) {
+                    for (int i = 0; i < 20000; i++) {
+                        executive.scheduleEvent(this, 100.0 * rng.randU01(), 1, null, null, myModel);
+                    }
+                } else if (order.size() < 60000) {
+                    double u = rng.randU01();
+                    double t = (u < 0.1) ? 0.0 : -10.0 * Math.log(u);
+                    executive.scheduleEvent(this, t, rng.randInt(1, 3), null, null, myModel);
+                }
+            }
+        };
+        executive.initialize();
+        executive.scheduleEvent(action, 1.0e6, 1, null, "end", myModel);
+        for (int i = 0; i < 3; i++) {
+            executive.scheduleEvent(action, rng.randU01(), 1, null, null, myModel);
+        }
+        executive.executeAllEvents();
+        return order;
+    }
+
+    @Test
+    public void indexedHeapSameOrder() {
+        List<Long> expected = executionOrder(new PriorityQueueEventCalendar());
+        List<Long> actual = executionOrder(new IndexedHeapEventCalendar(4));
+        assertTrue(expected.size() > 0);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void indexedHeapRemovesCanceledEvents() {
+        IndexedHeapEventCalendar calendar = new IndexedHeapEventCalendar();
+        Executive executive = new Executive(calendar);
+        EventAction action = new EventAction() {
+            @Override
+            public void action(JSLEvent<Object> event) {
+            }
+        };
+        executive.initialize();
+        JSLEvent<Object> e1 = executive.scheduleEvent(action, 1.0, 1, null, "e1", myModel);
+        JSLEvent<Object> e2 = executive.scheduleEvent(action, 2.0, 1, null, "e2", myModel);
+        JSLEvent<Object> e3 = executive.scheduleEvent(action, 3.0, 1, null, "e3", myModel);
+        executive.cancel(e2);
+        assertEquals(2, calendar.size());
+        assertEquals(1, calendar.getNumberOfRemovedEvents());
+        assertTrue(e2.getCanceledFlag());
+        assertFalse(e2.isScheduled());
+        e3.setCanceledFlag(true);
+        assertEquals(1, calendar.getNumberOfLiveEvents());
+        e3.setCanceledFlag(false);
+        executive.rescheduleInPlace(e3, 0.5);
+        assertEquals(e3, calendar.peekNext());
+        // canceling directly through the calendar leaves the event scheduled in the calendar
+        JSLEvent<Object> e4 = executive.scheduleEvent(action, 4.0, 1, null, "e4", myModel);
+        calendar.cancel(e4);
+        assertTrue(e4.getCanceledFlag());
+        assertTrue(e4.isScheduled());
+        assertEquals(3, calendar.size());
+        // the rescheduling removed e3, the direct cancel removed nothing
+        assertEquals(2, calendar.getNumberOfRemovedEvents());
+        executive.executeAllEvents();
+        assertFalse(e4.isScheduled());
+        assertEquals(2, executive.getTotalNumberEventsExecuted());
+        assertEquals(1.0, e1.getTime());
+    }
+
+    @Test
+    public void ladderQueueSameOrder() {
+        List<Long> expected = executionOrder(new PriorityQueueEventCalendar());
+        List<Long> actual = executionOrder(new LadderQueueEventCalendar());
+        assertTrue(expected.size() > 0);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void ladderQueueSameOrderLarge() {
+        List<Long> expected = largeExecutionOrder(new PriorityQueueEventCalendar());
+        List<Long> actual = largeExecutionOrder(new LadderQueueEventCalendar());
+        assertTrue(expected.size() > 20000);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void ladderQueueSameOrderWithEndEvent() {
+        List<Long> expected = endEventExecutionOrder(new PriorityQueueEventCalendar());
+        List<Long> actual = endEventExecutionOrder(new LadderQueueEventCalendar());
+        assertTrue(expected.size() > 20000);
+        assertEquals(expected, actual);
+    }
+}
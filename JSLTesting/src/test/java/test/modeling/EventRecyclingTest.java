@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package test.modeling;
+
+import examples.general.queueing.DriverLicenseBureauWithQ;
+import jsl.modeling.elements.variable.ResponseVariable;
+import jsl.simulation.EventAction;
+import jsl.simulation.Executive;
+import jsl.simulation.JSLEvent;
+import jsl.simulation.JSLEventException;
+import jsl.simulation.Model;
+import jsl.simulation.Simulation;
+import jsl.utilities.random.rng.RNStreamProvider;
+import jsl.utilities.random.rvariable.ExponentialRV;
+import jsl.utilities.random.rvariable.JSLRandom;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the recycling of events by the Executive
+ */
+public class EventRecyclingTest {
+
+    private Simulation makeSimulation(String name, boolean recycle) {
+        Executive executive = new Executive();
+        executive.setEventRecyclingOption(recycle);
+        Simulation sim = new Simulation(name, null, executive);
+        Model model = sim.getModel();
+        model.setRNStreamProvider(new RNStreamProvider());
+        JSLRandom.runWithRNStreamProvider(model.getRNStreamProvider(),
+                () -> new DriverLicenseBureauWithQ(model, 2, new ExponentialRV(1.0), new ExponentialRV(1.8)));
+        sim.setNumberOfReplications(3);
+        sim.setLengthOfReplication(2000.0);
+        sim.setLengthOfWarmUp(200.0);
+        return sim;
+    }
+
+    @Test
+    public void sameResultsWithRecycling() {
+        Simulation plain = makeSimulation("NoRecycling", false);
+        plain.run();
+        Simulation recycled = makeSimulation("Recycling", true);
+        recycled.run();
+        assertTrue(recycled.getExecutive().getNumberOfReusedEvents() > 0);
+        assertEquals(0, plain.getExecutive().getNumberOfReusedEvents());
+        assertEquals(plain.getExecutive().getTotalNumberEventsExecuted(),
+                recycled.getExecutive().getTotalNumberEventsExecuted());
+        List<ResponseVariable> e = plain.getModel().getResponseVariables();
+        List<ResponseVariable> a = recycled.getModel().getResponseVariables();
+        assertEquals(e.size(), a.size());
+        for (int i = 0; i < e.size(); i++) {
+            assertFalse(Double.isNaN(a.get(i).getAcrossReplicationStatistic().getAverage()));
+            assertEquals(e.get(i).getAcrossReplicationStatistic().getAverage(),
+                    a.get(i).getAcrossReplicationStatistic().getAverage(), 0.0);
+        }
+    }
+
+    @Test
+    public void executedEventsAreReused() {
+        Model model = new Simulation().getModel();
+        Executive executive = new Executive();
+        executive.setEventRecyclingOption(true);
+        EventAction action = new EventAction() {
+            @Override
+            public void action(JSLEvent<Object> event) {
+                if (executive.getTotalNumberEventsExecuted() < 1000) {
+                    executive.scheduleEvent(this, 1.0, 1, null, null, model);
+                }
+            }
+        };
+        executive.initialize();
+        executive.scheduleEvent(action, 1.0, 1, null, null, model);
+        executive.scheduleEvent(action, 1.5, 1, null, null, model);
+        executive.executeAllEvents();
+        // after the first events, every scheduled event is a recycled event
+        assertTrue(executive.getNumberOfReusedEvents() >= 990);
+        assertTrue(executive.getNumberOfRecycledEvents() <= 2);
+    }
+
+    @Test
+    public void guardDetectsKeptReferences() {
+        Model model = new Simulation().getModel();
+        Executive executive = new Executive();
+        executive.setEventRecyclingOption(true);
+        executive.setEventRecyclingGuardOption(true);
+        EventAction action = new EventAction() {
+            @Override
+            public void action(JSLEvent<Object> event) {
+            }
+        };
+        executive.initialize();
+        JSLEvent<Object> kept = executive.scheduleEvent(action, 1.0, 1, null, null, model);
+        JSLEvent<Object> retained = executive.scheduleEvent(action, 2.0, 1, null, null, model);
+        retained.setRetainedFlag(true);
+        executive.scheduleEvent(action, 3.0, 1, null, null, model);
+        executive.executeAllEvents();
+        assertTrue(kept.isRecycled());
+        assertFalse(retained.isRecycled());
+        assertThrows(JSLEventException.class, () -> executive.reschedule(kept, 1.0));
+        assertThrows(JSLEventException.class, () -> kept.setCanceledFlag(true));
+    }
+}
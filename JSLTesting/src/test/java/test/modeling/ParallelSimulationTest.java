@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package test.modeling;
+
+import examples.general.queueing.DriverLicenseBureauWithQ;
+import jsl.modeling.elements.variable.Counter;
+import jsl.modeling.elements.variable.ResponseVariable;
+import jsl.simulation.JSLEvent;
+import jsl.simulation.Model;
+import jsl.simulation.ModelElement;
+import jsl.simulation.ModelBuilderIfc;
+import jsl.simulation.ParallelSimulation;
+import jsl.simulation.SchedulingElement;
+import jsl.simulation.Simulation;
+import jsl.utilities.random.rng.RNStreamProvider;
+import jsl.utilities.random.rvariable.ExponentialRV;
+import jsl.utilities.random.rvariable.JSLRandom;
+import jsl.utilities.statistic.StatisticAccessorIfc;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a ParallelSimulation reproduces the results of a sequential
+ * Simulation of the same model.
+ */
+public class ParallelSimulationTest {
+
+    private final ModelBuilderIfc myBuilder = model ->
+            new DriverLicenseBureauWithQ(model, 2, new ExponentialRV(1.0), new ExponentialRV(1.8));
+
+    private Simulation makeSequentialSimulation(String name) {
+        Simulation sim = new Simulation(name);
+        Model model = sim.getModel();
+        model.setRNStreamProvider(new RNStreamProvider());
+        JSLRandom.runWithRNStreamProvider(model.getRNStreamProvider(), () -> myBuilder.build(model));
+        return sim;
+    }
+
+    private void assertSameResults(Model expected, Model actual) {
+        List<ResponseVariable> e = expected.getResponseVariables();
+        List<ResponseVariable> a = actual.getResponseVariables();
+        assertEquals(e.size(), a.size());
+        for (int i = 0; i < e.size(); i++) {
+            assertFalse(Double.isNaN(a.get(i).getAcrossReplicationStatistic().getAverage()));
+            assertEquals(e.get(i).getAcrossReplicationStatistic().getCount(),
+                    a.get(i).getAcrossReplicationStatistic().getCount());
+            assertEquals(e.get(i).getAcrossReplicationStatistic().getAverage(),
+                    a.get(i).getAcrossReplicationStatistic().getAverage(), 0.0);
+            assertEquals(e.get(i).getAcrossReplicationStatistic().getVariance(),
+                    a.get(i).getAcrossReplicationStatistic().getVariance(), 0.0);
+        }
+        List<Counter> ec = expected.getCounters();
+        List<Counter> ac = actual.getCounters();
+        assertEquals(ec.size(), ac.size());
+        for (int i = 0; i < ec.size(); i++) {
+            assertEquals(ec.get(i).getAcrossReplicationStatistic().getAverage(),
+                    ac.get(i).getAcrossReplicationStatistic().getAverage(), 0.0);
+        }
+    }
+
+    @Test
+    public void sameAsSequential() {
+        Simulation seq = makeSequentialSimulation("Sequential");
+        seq.setNumberOfReplications(10);
+        seq.setLengthOfReplication(2000.0);
+        seq.setLengthOfWarmUp(200.0);
+        seq.run();
+
+        ParallelSimulation par = new ParallelSimulation("Parallel", myBuilder, 3);
+        par.setNumberOfReplications(10);
+        par.setLengthOfReplication(2000.0);
+        par.setLengthOfWarmUp(200.0);
+        par.run();
+
+        assertEquals(10, par.getCurrentReplicationNumber());
+        assertSameResults(seq.getModel(), par.getModel());
+    }
+
+    @Test
+    public void quantileSketchSameAsSequential() {
+        ModelBuilderIfc builder = model -> {
+            myBuilder.build(model);
+            model.getResponseVariables().forEach(ResponseVariable::turnOnQuantileSketch);
+        };
+        Simulation seq = new Simulation("SequentialSketch");
+        Model model = seq.getModel();
+        model.setRNStreamProvider(new RNStreamProvider());
+        JSLRandom.runWithRNStreamProvider(model.getRNStreamProvider(), () -> builder.build(model));
+        seq.setNumberOfReplications(5);
+        seq.setLengthOfReplication(2000.0);
+        seq.run();
+
+        ParallelSimulation par = new ParallelSimulation("ParallelSketch", builder, 2);
+        par.setNumberOfReplications(5);
+        par.setLengthOfReplication(2000.0);
+        par.run();
+
+        List<ResponseVariable> e = seq.getModel().getResponseVariables();
+        List<ResponseVariable> a = par.getModel().getResponseVariables();
+        for (int i = 0; i < e.size(); i++) {
+            List<StatisticAccessorIfc> es = e.get(i).getAcrossReplicationQuantileStatistics();
+            List<StatisticAccessorIfc> as = a.get(i).getAcrossReplicationQuantileStatistics();
+            assertEquals(4, as.size());
+            for (int j = 0; j < es.size(); j++) {
+                assertEquals(es.get(j).getName(), as.get(j).getName());
+                assertEquals(5.0, as.get(j).getCount(), 0.0);
+                assertEquals(es.get(j).getAverage(), as.get(j).getAverage(), 0.0);
+            }
+            assertEquals(e.get(i).getAcrossReplicationQuantileSketch().getTotalWeight(),
+                    a.get(i).getAcrossReplicationQuantileSketch().getTotalWeight(), 0.0);
+        }
+    }
+
+    @Test
+    public void sameAsSequentialWithAntithetic() {
+        Simulation seq = makeSequentialSimulation("SequentialAntithetic");
+        seq.setNumberOfReplications(6, true);
+        seq.setLengthOfReplication(2000.0);
+        seq.run();
+
+        ParallelSimulation par = new ParallelSimulation("ParallelAntithetic", myBuilder, 2);
+        par.setNumberOfReplications(6, true);
+        par.setLengthOfReplication(2000.0);
+        par.run();
+
+        assertSameResults(seq.getModel(), par.getModel());
+    }
+
+    /**
+     * Throws an error, rather than an exception, from an event of its replication
+     */
+    private static class FailingElement extends SchedulingElement {
+
+        FailingElement(ModelElement parent) {
+            super(parent);
+        }
+
+        @Override
+        protected void initialize() {
+            super.initialize();
+            schedule(this::fail).in(10.0).units();
+        }
+
+        private void fail(JSLEvent<Object> evt) {
+            throw new AssertionError("Failure within the model");
+        }
+    }
+
+    @Test
+    public void errorInWorkerReachesCaller() {
+        ModelBuilderIfc builder = model -> {
+            myBuilder.build(model);
+            new FailingElement(model);
+        };
+        ParallelSimulation par = new ParallelSimulation("ParallelError", builder, 2);
+        par.setNumberOfReplications(4);
+        par.setLengthOfReplication(100.0);
+        jsl.simulation.IllegalStateException ex = assertTimeoutPreemptively(Duration.ofSeconds(60),
+                () -> assertThrows(jsl.simulation.IllegalStateException.class, par::run));
+        assertTrue(ex.getCause() instanceof AssertionError);
+    }
+}
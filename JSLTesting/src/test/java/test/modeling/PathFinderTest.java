@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package test.modeling;
+
+import jsl.modeling.elements.spatial.AStarGridPathFinder;
+import jsl.modeling.elements.spatial.CoordinateIfc;
+import jsl.modeling.elements.spatial.DijkstraPathFinder;
+import jsl.modeling.elements.spatial.Euclidean2DPlane;
+import jsl.modeling.elements.spatial.NoPathFoundException;
+import jsl.modeling.elements.spatial.Path;
+import jsl.modeling.elements.spatial.RectangularCell2D;
+import jsl.modeling.elements.spatial.RectangularGridSpatialModel2D;
+import jsl.utilities.random.rng.RNStreamFactory;
+import jsl.utilities.random.rng.RNStreamIfc;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the A* and Dijkstra path finders
+ */
+public class PathFinderTest {
+
+    @Test
+    public void aroundAWall() {
+        RectangularGridSpatialModel2D grid = new RectangularGridSpatialModel2D(10.0, 10.0, 10, 10);
+        AStarGridPathFinder finder = new AStarGridPathFinder(grid, false, AStarGridPathFinder.Heuristic.MANHATTAN);
+        for (int row = 0; row < 9; row++) {
+            finder.setBlocked(row, 5, true);
+        }
+        CoordinateIfc from = grid.getCoordinate(0.5, 0.5);
+        CoordinateIfc to = grid.getCoordinate(9.5, 0.5);
+        Path path = finder.findPath(from, to);
+        assertEquals(27, path.size());
+        assertEquals(27.0, path.getTotalDistance(), 1.0E-9);
+        for (CoordinateIfc c : path) {
+            assertFalse(finder.isBlocked(grid.getCell(c)));
+        }
+        // a repeated request is answered from the cache
+        Path again = finder.findPath(grid.getCoordinate(0.2, 0.7), grid.getCoordinate(9.1, 0.3));
+        assertEquals(27, again.size());
+        assertEquals(1, finder.getNumberOfCacheHits());
+        assertEquals(1, finder.getNumberOfCacheMisses());
+        // closing the gap clears the cache and disconnects the cells
+        finder.setBlocked(9, 5, true);
+        assertEquals(0, finder.getCacheSize());
+        assertThrows(NoPathFoundException.class, () -> finder.findPath(from, to));
+        Path empty = new Path(grid);
+        finder.findPath(empty, from, to);
+        assertTrue(empty.isEmpty());
+        // diagonal moves shorten the path
+        finder.setBlocked(9, 5, false);
+        finder.setDiagonalMoveOption(true);
+        finder.setHeuristic(AStarGridPathFinder.Heuristic.EUCLIDEAN);
+        Path diagonal = finder.findPath(from, to);
+        // the corners of the wall cannot be cut
+        assertEquals(13 + 7 * Math.sqrt(2.0), diagonal.getTotalDistance(), 1.0E-9);
+    }
+
+    @Test
+    public void sameLengthsAsDijkstra() {
+        int n = 20;
+        RectangularGridSpatialModel2D grid = new RectangularGridSpatialModel2D(20.0, 20.0, n, n);
+        AStarGridPathFinder aStar = new AStarGridPathFinder(grid);
+        aStar.setCacheCapacity(0);
+        RNStreamIfc stream = new RNStreamFactory().getStream();
+        for (int row = 0; row < n; row++) {
+            for (int col = 0; col < n; col++) {
+                if (stream.randU01() < 0.3) {
+                    aStar.setBlocked(row, col, true);
+                }
+            }
+        }
+        // the same moves as a graph of cell centers
+        DijkstraPathFinder dijkstra = new DijkstraPathFinder(grid);
+        for (int row = 0; row < n; row++) {
+            for (int col = 0; col < n; col++) {
+                RectangularCell2D cell = grid.getCell(row, col);
+                if (!aStar.isBlocked(cell)) {
+                    dijkstra.addNode(cell.getCenterCoordinate());
+                }
+            }
+        }
+        for (int row = 0; row < n; row++) {
+            for (int col = 0; col < n; col++) {
+                for (int dr = -1; dr <= 1; dr++) {
+                    for (int dc = -1; dc <= 1; dc++) {
+                        if (open(grid, aStar, row, col) && open(grid, aStar, row + dr, col + dc)
+                                && ((dr == 0) != (dc == 0) || (dr != 0 && open(grid, aStar, row + dr, col)
+                                && open(grid, aStar, row, col + dc)))) {
+                            dijkstra.addEdge(grid.getCell(row, col).getCenterCoordinate(),
+                                    grid.getCell(row + dr, col + dc).getCenterCoordinate());
+                        }
+                    }
+                }
+            }
+        }
+        int connected = 0;
+        for (int k = 0; k < 200; k++) {
+            RectangularCell2D a = grid.getCell((int) (n * stream.randU01()), (int) (n * stream.randU01()));
+            RectangularCell2D b = grid.getCell((int) (n * stream.randU01()), (int) (n * stream.randU01()));
+            if (aStar.isBlocked(a) || aStar.isBlocked(b) || (a == b)) {
+                continue;
+            }
+            Path path = new Path(grid);
+            aStar.findPath(path, a.getCenterCoordinate(), b.getCenterCoordinate());
+            double weight = dijkstra.findPathWeight(a.getCenterCoordinate(), b.getCenterCoordinate());
+            if (path.isEmpty()) {
+                assertEquals(Double.POSITIVE_INFINITY, weight);
+            } else {
+                connected++;
+                assertEquals(weight, path.getTotalDistance(), 1.0E-9);
+            }
+        }
+        assertTrue(connected > 0);
+    }
+
+    private boolean open(RectangularGridSpatialModel2D grid, AStarGridPathFinder finder, int row, int col) {
+        RectangularCell2D cell = grid.getCell(row, col);
+        return (cell != null) && !finder.isBlocked(cell);
+    }
+
+    @Test
+    public void weightedGraph() {
+        Euclidean2DPlane plane = new Euclidean2DPlane();
+        CoordinateIfc a = plane.getCoordinate(0, 0);
+        CoordinateIfc b = plane.getCoordinate(1, 0);
+        CoordinateIfc c = plane.getCoordinate(2, 0);
+        DijkstraPathFinder finder = new DijkstraPathFinder(plane);
+        finder.addEdge(a, b, 1.0);
+        finder.addEdge(b, c, 1.0);
+        finder.addEdge(a, c, 5.0);
+        assertEquals(3, finder.getNumberOfNodes());
+        assertEquals(3, finder.getNumberOfEdges());
+        Path path = finder.findPath(plane.getCoordinate(0, 0), c);
+        assertEquals(2, path.size());
+        assertTrue(path.contains(b));
+        assertEquals(2.0, finder.findPathWeight(a, c), 0.0);
+        // the edges are directed
+        assertEquals(Double.POSITIVE_INFINITY, finder.findPathWeight(c, a));
+        assertThrows(NoPathFoundException.class, () -> finder.findPath(c, a));
+        assertThrows(IllegalArgumentException.class, () -> finder.findPath(a, plane.getCoordinate(3, 0)));
+    }
+
+    @Test
+    public void nodesFoundByPosition() {
+        // an aisle network built from separately made coordinates, centered on the origin
+        Euclidean2DPlane plane = new Euclidean2DPlane();
+        int n = 150;
+        DijkstraPathFinder finder = new DijkstraPathFinder(plane);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                double x = i - n / 2;
+                double y = j - n / 2;
+                if (i + 1 < n) {
+                    finder.addUndirectedEdge(plane.getCoordinate(x, y), plane.getCoordinate(x + 1, y));
+                }
+                if (j + 1 < n) {
+                    finder.addUndirectedEdge(plane.getCoordinate(x, y), plane.getCoordinate(x, y + 1));
+                }
+            }
+        }
+        assertEquals(n * n, finder.getNumberOfNodes());
+        assertEquals(4 * n * (n - 1), finder.getNumberOfEdges());
+        // positions within the precision of the plane match the nodes
+        double p = plane.getDefaultPositionPrecision();
+        assertTrue(finder.contains(plane.getCoordinate(0.0, -p / 2.0)));
+        assertTrue(finder.contains(plane.getCoordinate(-3.0 * (1.0 + p / 2.0), 7.0 * (1.0 - p / 2.0))));
+        assertFalse(finder.contains(plane.getCoordinate(0.5, 0.0)));
+        assertThrows(IllegalArgumentException.class, () -> finder.addNode(plane.getCoordinate(1.0 + p / 2.0, 1.0)));
+        assertEquals(2.0 * (n - 1), finder.findPathWeight(plane.getCoordinate(-n / 2, -n / 2),
+                plane.getCoordinate(n / 2 - 1, n / 2 - 1)), 1.0E-9);
+        // a coarser precision of the spatial model is used for later lookups
+        plane.setDefaultPositionPrecision(0.01);
+        assertTrue(finder.contains(plane.getCoordinate(10.05, -10.05)));
+    }
+
+    @Test
+    public void nodesSharingABucket() {
+        // levels of a multi-level layout are different positions at the same (x1, x2)
+        Euclidean2DPlane levels = new Euclidean2DPlane() {
+            @Override
+            public boolean comparePositions(CoordinateIfc coordinate1, CoordinateIfc coordinate2) {
+                return super.comparePositions(coordinate1, coordinate2)
+                        && (coordinate1.getX3() == coordinate2.getX3());
+            }
+        };
+        DijkstraPathFinder finder = new DijkstraPathFinder(levels);
+        CoordinateIfc ground = levels.getCoordinate(5.0, 5.0, 0.0);
+        CoordinateIfc upper = levels.getCoordinate(5.0, 5.0, 1.0);
+        CoordinateIfc door = levels.getCoordinate(0.0, 5.0, 0.0);
+        finder.addEdge(door, ground, 5.0);
+        finder.addEdge(ground, upper, 3.0);
+        assertEquals(3, finder.getNumberOfNodes());
+        assertTrue(finder.contains(levels.getCoordinate(5.0, 5.0, 0.0)));
+        assertTrue(finder.contains(levels.getCoordinate(5.0, 5.0, 1.0)));
+        assertFalse(finder.contains(levels.getCoordinate(5.0, 5.0, 2.0)));
+        // the edge is added to the existing ground node rather than to a duplicate
+        finder.addEdge(levels.getCoordinate(5.0, 5.0, 0.0), levels.getCoordinate(10.0, 5.0, 0.0), 5.0);
+        assertEquals(4, finder.getNumberOfNodes());
+        assertEquals(10.0, finder.findPathWeight(door, levels.getCoordinate(10.0, 5.0, 0.0)), 0.0);
+        assertEquals(8.0, finder.findPathWeight(door, upper), 0.0);
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package test.modeling;
+
+import jsl.modeling.queue.QObject;
+import jsl.modeling.queue.Queue;
+import jsl.simulation.Simulation;
+import jsl.utilities.random.rng.RNStreamFactory;
+import jsl.utilities.random.rng.RNStreamIfc;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the queue disciplines against simple reference implementations
+ */
+public class QueueDisciplineTest {
+
+    private void checkSameOrder(List<QObject> expected, Queue<QObject> q) {
+        assertEquals(expected.size(), q.size());
+        int i = 0;
+        for (QObject qo : q) {
+            assertSame(expected.get(i), qo);
+            i++;
+        }
+        if (!expected.isEmpty()) {
+            assertSame(expected.get(0), q.peekNext());
+            assertSame(expected.get(expected.size() - 1), q.peekLast());
+        }
+    }
+
+    @Test
+    public void rankedSameAsSortedList() {
+        Simulation s = new Simulation();
+        Queue<QObject> q = new Queue<>(s.getModel(), "Ranked", Queue.Discipline.RANKED);
+        RNStreamIfc rng = new RNStreamFactory().getStream();
+        List<QObject> ref = new ArrayList<>();
+        for (int k = 0; k < 3000; k++) {
+            double u = rng.randU01();
+            if ((u < 0.5) || ref.isEmpty()) {
+                QObject qo = new QObject(0.0);
+                q.enqueue(qo, rng.randInt(1, 10));
+                ref.add(qo);
+            } else if (u < 0.7) {
+                Collections.sort(ref);
+                QObject next = q.removeNext();
+                assertSame(ref.remove(0), next);
+            } else if (u < 0.8) {
+                QObject qo = ref.remove(rng.randInt(0, ref.size() - 1));
+                assertTrue(q.contains(qo));
+                assertTrue(q.remove(qo));
+                assertFalse(q.contains(qo));
+                assertFalse(q.remove(qo));
+            } else if (u < 0.9) {
+                QObject qo = ref.get(rng.randInt(0, ref.size() - 1));
+                qo.setPriority(rng.randInt(1, 10));
+            } else {
+                Collections.sort(ref);
+                int i = rng.randInt(0, ref.size() - 1);
+                assertSame(ref.get(i), q.peekAt(i));
+                assertEquals(i, q.indexOf(ref.get(i)));
+                assertSame(ref.remove(i), q.remove(i));
+            }
+            if (k % 100 == 0) {
+                Collections.sort(ref);
+                checkSameOrder(ref, q);
+            }
+        }
+        Collections.sort(ref);
+        checkSameOrder(ref, q);
+        while (!ref.isEmpty()) {
+            assertSame(ref.remove(0), q.removeNext());
+        }
+        assertNull(q.removeNext());
+    }
+
+    @Test
+    public void fifoAndLifoSameAsDeque() {
+        Simulation s = new Simulation();
+        Queue<QObject> fifo = new Queue<>(s.getModel(), "FIFO", Queue.Discipline.FIFO);
+        Queue<QObject> lifo = new Queue<>(s.getModel(), "LIFO", Queue.Discipline.LIFO);
+        RNStreamIfc rng = new RNStreamFactory().getStream();
+        ArrayDeque<QObject> fref = new ArrayDeque<>();
+        ArrayDeque<QObject> lref = new ArrayDeque<>();
+        for (int k = 0; k < 5000; k++) {
+            // grows on average, to force the circular array to wrap and resize
+            if (rng.randU01() < 0.6) {
+                QObject a = new QObject(0.0);
+                QObject b = new QObject(0.0);
+                fifo.enqueue(a);
+                fref.addLast(a);
+                lifo.enqueue(b);
+                lref.addLast(b);
+            } else {
+                assertSame(fref.pollFirst(), fifo.removeNext());
+                assertSame(lref.pollLast(), lifo.removeNext());
+            }
+        }
+        checkSameOrder(new ArrayList<>(fref), fifo);
+        List<QObject> lexpected = new ArrayList<>(lref);
+        assertEquals(lexpected.size(), lifo.size());
+        assertSame(lexpected.get(lexpected.size() - 1), lifo.peekNext());
+
+        // removing from the middle keeps the order
+        List<QObject> expected = new ArrayList<>(fref);
+        for (int k = 0; k < 100; k++) {
+            int i = rng.randInt(0, expected.size() - 1);
+            assertSame(expected.remove(i), fifo.remove(i));
+        }
+        checkSameOrder(expected, fifo);
+    }
+
+    @Test
+    public void switchDiscipline() {
+        Simulation s = new Simulation();
+        Queue<QObject> q = new Queue<>(s.getModel(), "Q", Queue.Discipline.FIFO);
+        List<QObject> view = q.getUnmodifiableList();
+        List<QObject> ref = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            QObject qo = new QObject(0.0);
+            q.enqueue(qo, 50 - i);
+            ref.add(qo);
+        }
+        checkSameOrder(ref, q);
+        q.changeDiscipline(Queue.Discipline.RANKED);
+        List<QObject> sorted = new ArrayList<>(ref);
+        Collections.sort(sorted);
+        checkSameOrder(sorted, q);
+        // the view follows the list that replaced the original list
+        assertEquals(sorted, view);
+        q.changeDiscipline(Queue.Discipline.FIFO);
+        checkSameOrder(sorted, q);
+        assertSame(sorted.get(0), q.removeNext());
+        assertEquals(sorted.subList(1, sorted.size()), view);
+        assertThrows(UnsupportedOperationException.class, () -> view.remove(0));
+        q.clear();
+        assertTrue(q.isEmpty());
+    }
+
+    @Test
+    public void fastRemovalSameAsList() {
+        Simulation s = new Simulation();
+        RNStreamIfc rng = new RNStreamFactory().getStream();
+        for (Queue.Discipline d : new Queue.Discipline[]{Queue.Discipline.FIFO, Queue.Discipline.LIFO}) {
+            Queue<QObject> q = new Queue<>(s.getModel(), "Q" + d, d);
+            q.setFastRemovalOption(true);
+            assertTrue(q.getFastRemovalOption());
+            List<QObject> ref = new ArrayList<>();
+            QObject outsider = new QObject(0.0);
+            for (int k = 0; k < 5000; k++) {
+                double u = rng.randU01();
+                if ((u < 0.5) || ref.isEmpty()) {
+                    QObject qo = new QObject(0.0);
+                    q.enqueue(qo);
+                    ref.add(qo);
+                } else if (u < 0.7) {
+                    QObject expected = (d == Queue.Discipline.FIFO) ? ref.remove(0) : ref.remove(ref.size() - 1);
+                    assertSame(expected, q.removeNext());
+                } else if (u < 0.9) {
+                    QObject qo = ref.remove(rng.randInt(0, ref.size() - 1));
+                    assertTrue(q.contains(qo));
+                    assertTrue(q.remove(qo));
+                    assertFalse(q.contains(qo));
+                    assertFalse(q.remove(qo));
+                } else if (u < 0.95) {
+                    int i = rng.randInt(0, ref.size() - 1);
+                    assertSame(ref.get(i), q.peekAt(i));
+                    assertEquals(i, q.indexOf(ref.get(i)));
+                } else {
+                    // switching the option keeps the order
+                    q.setFastRemovalOption(!q.getFastRemovalOption());
+                }
+                assertFalse(q.contains(outsider));
+                assertFalse(q.remove(outsider));
+            }
+            assertEquals(ref.size(), q.size());
+            int i = 0;
+            for (QObject qo : q) {
+                assertSame(ref.get(i), qo);
+                i++;
+            }
+            q.clear();
+            assertTrue(q.isEmpty());
+            assertNull(q.peekNext());
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package test.modeling;
+
+import jsl.modeling.queue.QObject;
+import jsl.modeling.queue.Queue;
+import jsl.modeling.resource.*;
+import jsl.simulation.JSLEvent;
+import jsl.simulation.Model;
+import jsl.simulation.ModelElement;
+import jsl.simulation.SchedulingElement;
+import jsl.simulation.Simulation;
+import jsl.utilities.random.rvariable.ExponentialRV;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the state indexes of a ResourcePool agree with examining every unit
+ */
+public class ResourcePoolIndexTest {
+
+    @Test
+    public void defaultSelection() {
+        assertTrue(runPool(null, null) > 0);
+    }
+
+    @Test
+    public void leastUtilizedSelection() {
+        assertTrue(runPool(ResourceUnitSelectionRules.leastUtilized(),
+                ResourceUnitSelectionRules.leastUtilized()) > 0);
+    }
+
+    @Test
+    public void longestIdleSelection() {
+        assertTrue(runPool(ResourceUnitSelectionRules.longestIdle(),
+                ResourceUnitSelectionRules.longestIdle()) > 0);
+    }
+
+    @Test
+    public void cyclicSelection() {
+        assertTrue(runPool(ResourceUnitSelectionRules.cyclic(),
+                ResourceUnitSelectionRules.cyclic()) > 0);
+    }
+
+    /**
+     * @param rule  the rule used by the pool
+     * @param check a separate instance of the rule applied to the list of units
+     * @return the number of selections that were checked
+     */
+    private int runPool(ResourceUnitSelectionRuleIfc rule, ResourceUnitSelectionRuleIfc check) {
+        Simulation sim = new Simulation("ResourcePoolIndexTest");
+        Model m = sim.getModel();
+        PoolModel pm = new PoolModel(m, 25, rule, check);
+        sim.setNumberOfReplications(2);
+        sim.setLengthOfWarmUp(50.0);
+        sim.setLengthOfReplication(500.0);
+        sim.run();
+        return pm.myNumChecks;
+    }
+
+    private static class PoolModel extends SchedulingElement {
+
+        private final ResourcePool myPool;
+        private final Queue<QObject> myWaitingQ;
+        private final ExponentialRV myTBA = new ExponentialRV(1.0 / 20.0);
+        private final ExponentialRV myST = new ExponentialRV(1.0);
+        private final ResourceUnitSelectionRuleIfc myCheckRule;
+        private final RequestReactorIfc myReactor = new Reactor();
+        private int myNumChecks;
+
+        PoolModel(ModelElement parent, int numUnits, ResourceUnitSelectionRuleIfc rule,
+                  ResourceUnitSelectionRuleIfc check) {
+            super(parent);
+            List<ResourceUnit> units = new ResourceUnit.Builder(this).name("Unit").build(numUnits);
+            myPool = new ResourcePool(this, units, true, "Pool");
+            myPool.setSelectionRule(rule);
+            myCheckRule = check;
+            myWaitingQ = new Queue<>(this, "WaitingQ");
+        }
+
+        @Override
+        protected void initialize() {
+            super.initialize();
+            // the pool resets its rule when each replication starts
+            if (myCheckRule != null) {
+                myCheckRule.resetSelections();
+            }
+            checkCounts();
+            schedule(this::arrival).in(myTBA.getValue()).units();
+        }
+
+        private void arrival(JSLEvent<Object> evt) {
+            QObject customer = new QObject(getTime());
+            myWaitingQ.enqueue(customer);
+            checkCounts();
+            if (myPool.hasIdleUnits()) {
+                myWaitingQ.remove(customer);
+                select().seize(myReactor, myST.getValue(), customer);
+                checkCounts();
+            }
+            schedule(this::arrival).in(myTBA.getValue()).units();
+        }
+
+        private ResourceUnit select() {
+            ResourceUnit expected;
+            if (myCheckRule == null) {
+                expected = null;
+                for (ResourceUnit ru : myPool.getUnits()) {
+                    if (ru.isIdle()) {
+                        expected = ru;
+                        break;
+                    }
+                }
+            } else {
+                expected = myCheckRule.selectAvailableResource(myPool.getUnits());
+            }
+            ResourceUnit selected = myPool.selectResourceUnit();
+            assertSame(expected, selected);
+            assertTrue(myPool.contains(selected));
+            assertTrue(myPool.findIdleResourceUnits().contains(selected));
+            myNumChecks++;
+            return selected;
+        }
+
+        private void checkCounts() {
+            int idle = 0, busy = 0, failed = 0, inactive = 0;
+            for (ResourceUnit ru : myPool.getUnits()) {
+                if (ru.isIdle()) {
+                    idle++;
+                } else if (ru.isBusy()) {
+                    busy++;
+                } else if (ru.isFailed()) {
+                    failed++;
+                } else if (ru.isInactive()) {
+                    inactive++;
+                }
+            }
+            assertEquals(idle, myPool.getNumIdle());
+            assertEquals(busy, myPool.getNumBusy());
+            assertEquals(failed, myPool.getNumFailed());
+            assertEquals(inactive, myPool.getNumInactive());
+            assertEquals(idle, myPool.findIdleResourceUnits().size());
+            assertEquals(idle > 0, myPool.findFirstIdle() != null);
+            if (idle == 0) {
+                assertFalse(myPool.hasIdleUnits());
+            }
+        }
+
+        private class Reactor extends RequestReactorAdapter {
+
+            @Override
+            public void completed(Request request) {
+                checkCounts();
+                if (myWaitingQ.isNotEmpty()) {
+                    QObject next = myWaitingQ.removeNext();
+                    select().seize(myReactor, myST.getValue(), next);
+                    checkCounts();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package test.modeling;
+
+import examples.general.queueing.DriverLicenseBureauWithQ;
+import jsl.controls.experiments.ScenarioSweep;
+import jsl.controls.experiments.SimulationParameters;
+import jsl.controls.experiments.SimulationRun;
+import jsl.controls.experiments.SimulationRunWorker;
+import jsl.simulation.Model;
+import jsl.simulation.ModelBuilderIfc;
+import jsl.utilities.random.rng.RNStreamFactory;
+import jsl.utilities.random.rvariable.ExponentialRV;
+import jslx.dbutilities.JSLDatabase;
+import jslx.dbutilities.ScenarioSweepDatabaseWriter;
+import jslx.tabularfiles.ScenarioSweepTabularWriter;
+import jslx.tabularfiles.TabularInputFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a ScenarioSweep reproduces sequential runs of the design points and can be resumed
+ */
+public class ScenarioSweepTest {
+
+    public static class Builder implements ModelBuilderIfc {
+        @Override
+        public void build(Model model) {
+            new DriverLicenseBureauWithQ(model, 2, new ExponentialRV(1.0), new ExponentialRV(1.8));
+        }
+    }
+
+    private static final List<String> FACTORS = Arrays.asList("Arrival RV_PARAM_mean", "Service RV_PARAM_mean");
+
+    private ScenarioSweep makeSweep() {
+        SimulationParameters p = new SimulationParameters.Builder()
+                .withNumberOfReplications(5)
+                .withLengthOfReplication(500.0)
+                .withLengthOfWarmup(50.0)
+                .create();
+        double[][] design = ScenarioSweep.fullFactorial(new double[]{1.0, 1.2}, new double[]{1.5, 1.8});
+        ScenarioSweep sweep = new ScenarioSweep("Sweep", new Builder(), FACTORS, design, p);
+        sweep.setNumberOfThreads(3);
+        return sweep;
+    }
+
+    @Test
+    public void sweepSameAsSequential() {
+        ScenarioSweep sweep = makeSweep();
+        Map<Integer, SimulationRun> runs = new ConcurrentHashMap<>();
+        sweep.addListener((s, k, run) -> runs.put(k, run));
+        assertEquals(4, sweep.run());
+        assertEquals(4, runs.size());
+        for (int k = 0; k < sweep.getNumberOfDesignPoints(); k++) {
+            SimulationRun expected = SimulationRunWorker.execute(new Builder(), "Sequential",
+                    sweep.makeSimulationRun(k));
+            SimulationRun actual = runs.get(k);
+            assertEquals(expected.name, actual.name);
+            for (Map.Entry<String, double[]> e : expected.responseData.entrySet()) {
+                if (!e.getKey().equals("elapsedNs")) {
+                    assertArrayEquals(e.getValue(), actual.responseData.get(e.getKey()), e.getKey());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void sweepResumesFromCheckpoint(@TempDir Path dir) {
+        ScenarioSweep sweep = makeSweep();
+        sweep.setNumberOfThreads(1);
+        sweep.setCheckpointFile(dir.resolve("sweep.checkpoint"));
+        List<Integer> completed = new ArrayList<>();
+        ScenarioSweepTabularWriter firstFile = new ScenarioSweepTabularWriter(dir.resolve("first.db"));
+        sweep.addListener(firstFile);
+        sweep.addListener((s, k, run) -> {
+            completed.add(k);
+            if (completed.size() == 2) {
+                throw new IllegalStateException("Stopped the sweep");
+            }
+        });
+        assertThrows(IllegalStateException.class, sweep::run);
+        // the second design point was written but not recorded in the checkpoint
+        assertEquals(1, sweep.getCompletedDesignPoints().cardinality());
+
+        ScenarioSweep resumed = makeSweep();
+        resumed.setCheckpointFile(dir.resolve("sweep.checkpoint"));
+        ScenarioSweepTabularWriter secondFile = new ScenarioSweepTabularWriter(dir.resolve("second.db"));
+        resumed.addListener(secondFile);
+        Set<Integer> executed = new HashSet<>();
+        resumed.addListener((s, k, run) -> executed.add(k));
+        assertEquals(3, resumed.run());
+        assertTrue(!executed.contains(completed.get(0)));
+        assertEquals(4, resumed.getCompletedDesignPoints().cardinality());
+        assertEquals(0, resumed.run());
+
+        TabularInputFile file = new TabularInputFile(dir.resolve("second.db"));
+        assertEquals(3 * 5, file.getTotalNumberRows());
+        double[] points = file.getNumericColumn("design_point", 100);
+        Set<Double> distinct = new HashSet<>();
+        for (double x : points) {
+            distinct.add(x);
+        }
+        assertEquals(3, distinct.size());
+    }
+
+    @Test
+    public void sweepWritesToDatabase(@TempDir Path dir) {
+        ScenarioSweep sweep = makeSweep();
+        JSLDatabase db = JSLDatabase.createEmbeddedDerbyJSLDatabase("ScenarioSweepTestDb", dir);
+        sweep.addListener(new ScenarioSweepDatabaseWriter(db, new Builder()));
+        Map<String, SimulationRun> runs = new ConcurrentHashMap<>();
+        sweep.addListener((s, k, run) -> runs.put(run.name, run));
+        sweep.run();
+        assertEquals(4, db.getSimulationRunRecords().size());
+        String response = "System Time";
+        Map<String, double[]> values = db.getWithinRepViewValuesAsMapForExperiments(runs.keySet(), response);
+        for (Map.Entry<String, SimulationRun> e : runs.entrySet()) {
+            assertArrayEquals(e.getValue().responseData.get(response), values.get(e.getKey()), 1.0E-9);
+        }
+        // the hierarchy of the model elements is labeled even though the writer's model was not run
+        db.getModelElementRecords().forEach(r -> assertTrue(r.getLeftCount() < r.getRightCount()));
+    }
+
+    @Test
+    public void designsAndFactors() {
+        double[][] ff = ScenarioSweep.fullFactorial(new double[]{1, 2, 3}, new double[]{4, 5});
+        assertEquals(6, ff.length);
+        assertArrayEquals(new double[]{1, 4}, ff[0]);
+        assertArrayEquals(new double[]{1, 5}, ff[1]);
+        assertArrayEquals(new double[]{3, 5}, ff[5]);
+
+        int n = 10;
+        double[][] lh = ScenarioSweep.latinHypercube(n, new double[]{0.0, 10.0}, new double[]{1.0, 20.0},
+                RNStreamFactory.getDefaultFactory().getStream());
+        assertEquals(n, lh.length);
+        for (int j = 0; j < 2; j++) {
+            boolean[] hit = new boolean[n];
+            for (double[] point : lh) {
+                double u = (point[j] - (j == 0 ? 0.0 : 10.0)) / (j == 0 ? 1.0 : 10.0);
+                hit[(int) (u * n)] = true;
+            }
+            for (boolean b : hit) {
+                assertTrue(b);
+            }
+        }
+
+        SimulationParameters p = new SimulationParameters.Builder().withNumberOfReplications(2).create();
+        assertThrows(IllegalArgumentException.class, () -> new ScenarioSweep("Bad", new Builder(),
+                Arrays.asList("Arrival RV_PARAM_rate"), new double[][]{{1.0}}, p));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package test.modeling;
+
+import examples.general.queueing.DriverLicenseBureauWithQ;
+import jsl.controls.experiments.SimulationParameters;
+import jsl.controls.experiments.SimulationRun;
+import jsl.controls.experiments.SimulationRunFarm;
+import jsl.controls.experiments.SimulationRunWorker;
+import jsl.simulation.Model;
+import jsl.simulation.ModelBuilderIfc;
+import jsl.utilities.random.rvariable.ExponentialRV;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a SimulationRunFarm reproduces the results of a single SimulationRunner
+ */
+public class SimulationRunFarmTest {
+
+    public static class Builder implements ModelBuilderIfc {
+        @Override
+        public void build(Model model) {
+            new DriverLicenseBureauWithQ(model, 2, new ExponentialRV(1.0), new ExponentialRV(1.8));
+        }
+    }
+
+    /**
+     * Fails the first time that a model is built while the crash file exists
+     */
+    public static class CrashingBuilder extends Builder {
+        @Override
+        public void build(Model model) {
+            String file = System.getProperty("jsl.farm.crash");
+            try {
+                if ((file != null) && Files.deleteIfExists(Paths.get(file))) {
+                    throw new Error("The worker crashed");
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            super.build(model);
+        }
+    }
+
+    private SimulationRun makeRun() {
+        SimulationParameters p = new SimulationParameters.Builder()
+                .withNumberOfReplications(7)
+                .withLengthOfReplication(1000.0)
+                .withLengthOfWarmup(100.0)
+                .create();
+        SimulationRun run = new SimulationRun.Builder().withParameters(p).create();
+        run.name = "FarmRun";
+        return run;
+    }
+
+    private void assertSameResults(SimulationRun expected, SimulationRun actual) {
+        assertEquals("", actual.functionError);
+        assertEquals(expected.responseData.keySet(), actual.responseData.keySet());
+        for (Map.Entry<String, double[]> e : expected.responseData.entrySet()) {
+            if (!e.getKey().equals("elapsedNs")) {
+                assertArrayEquals(e.getValue(), actual.responseData.get(e.getKey()), 0.0, e.getKey());
+            }
+        }
+    }
+
+    @Test
+    public void classLoaderWorkers() {
+        SimulationRun expected = SimulationRunWorker.execute(new Builder(), "FarmReference", makeRun());
+        assertTrue(expected.responseData.size() > 2);
+        SimulationRunFarm farm = new SimulationRunFarm("ClassLoaderFarm", Builder.class, 2,
+                SimulationRunFarm.WorkerType.CLASS_LOADER);
+        SimulationRun actual = farm.run(makeRun(), 2);
+        assertEquals(7, actual.responseData.get("replication").length);
+        assertSameResults(expected, actual);
+    }
+
+    @Test
+    public void processWorkersRecoverFromCrash(@TempDir Path dir) throws IOException {
+        SimulationRun expected = SimulationRunWorker.execute(new Builder(), "FarmReference", makeRun());
+        Path crash = Files.createFile(dir.resolve("crash"));
+        SimulationRunFarm farm = new SimulationRunFarm("ProcessFarm", CrashingBuilder.class, 2,
+                SimulationRunFarm.WorkerType.PROCESS);
+        farm.setJVMOptions(List.of("-Djsl.farm.crash=" + crash));
+        SimulationRun actual = farm.run(makeRun(), 3);
+        assertFalse(Files.exists(crash));
+        assertSameResults(expected, actual);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package test.modeling;
+
+import jsl.modeling.elements.spatial.CoordinateIfc;
+import jsl.modeling.elements.spatial.Euclidean2DPlane;
+import jsl.modeling.elements.spatial.GeohashSpatialIndex;
+import jsl.modeling.elements.spatial.GreatCircleBasedSpatialModel;
+import jsl.modeling.elements.spatial.RectangularGridSpatialModel2D;
+import jsl.modeling.elements.spatial.SpatialElement;
+import jsl.modeling.elements.spatial.SpatialElementIfc;
+import jsl.modeling.elements.spatial.SpatialModel;
+import jsl.modeling.elements.spatial.UniformGridSpatialIndex;
+import jsl.utilities.random.rng.RNStreamFactory;
+import jsl.utilities.random.rng.RNStreamIfc;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the spatial indexes give the same answers as checking every element
+ */
+public class SpatialIndexTest {
+
+    /**
+     * Exposes the position update of a spatial element
+     */
+    static class MovingElement extends SpatialElement {
+
+        MovingElement(SpatialModel spatialModel, double x, double y) {
+            super(spatialModel, x, y);
+        }
+
+        void moveTo(double x, double y) {
+            setCurrentPosition(getSpatialModel().getCoordinate(x, y));
+        }
+    }
+
+    private final RNStreamIfc myStream = new RNStreamFactory().getStream();
+
+    private double uniform(double a, double b) {
+        return a + (b - a) * myStream.randU01();
+    }
+
+    /**
+     * Compares the indexed queries to the queries without the index
+     */
+    private void checkQueries(SpatialModel model, List<CoordinateIfc> queries, double distance) {
+        Predicate<SpatialElementIfc> even = e -> e.getId() % 2 == 0;
+        List<List<SpatialElementIfc>> indexed = new ArrayList<>();
+        for (CoordinateIfc c : queries) {
+            indexed.add(model.findNearest(c, 5));
+            indexed.add(model.findNearest(c, 3, even));
+            indexed.add(model.findWithinDistance(c, distance));
+            indexed.add(model.findWithinDistance(c, distance, even));
+        }
+        int i = 0;
+        model.getSpatialIndex().setMaximumCellsSearched(1);
+        for (CoordinateIfc c : queries) {
+            assertEquals(model.findNearest(c, 5), indexed.get(i++));
+            assertEquals(model.findNearest(c, 3, even), indexed.get(i++));
+            assertEquals(model.findWithinDistance(c, distance), indexed.get(i++));
+            assertEquals(model.findWithinDistance(c, distance, even), indexed.get(i++));
+        }
+        model.removeSpatialIndex();
+        i = 0;
+        for (CoordinateIfc c : queries) {
+            assertEquals(model.findNearest(c, 5), indexed.get(i++));
+            assertEquals(model.findNearest(c, 3, even), indexed.get(i++));
+            assertEquals(model.findWithinDistance(c, distance), indexed.get(i++));
+            assertEquals(model.findWithinDistance(c, distance, even), indexed.get(i++));
+        }
+    }
+
+    @Test
+    public void uniformGridIndexOnPlane() {
+        Euclidean2DPlane plane = new Euclidean2DPlane();
+        List<MovingElement> elements = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            elements.add(new MovingElement(plane, uniform(0, 100), uniform(0, 100)));
+        }
+        UniformGridSpatialIndex index = new UniformGridSpatialIndex(plane, 5.0, 5.0);
+        // elements added and moved after the index was created are tracked
+        for (int i = 0; i < 100; i++) {
+            elements.add(new MovingElement(plane, uniform(-50, 150), uniform(-50, 150)));
+        }
+        for (MovingElement e : elements) {
+            e.moveTo(e.getPosition().getX1() + uniform(-10, 10), e.getPosition().getX2() + uniform(-10, 10));
+        }
+        assertEquals(300, index.size());
+        List<CoordinateIfc> queries = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            queries.add(plane.getCoordinate(uniform(-100, 200), uniform(-100, 200)));
+        }
+        checkQueries(plane, queries, 12.0);
+    }
+
+    @Test
+    public void uniformGridIndexOnRectangularGrid() {
+        RectangularGridSpatialModel2D grid = new RectangularGridSpatialModel2D(100.0, 50.0, 10, 20);
+        UniformGridSpatialIndex index = new UniformGridSpatialIndex(grid);
+        List<MovingElement> elements = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            elements.add(new MovingElement(grid, uniform(0, 100), uniform(0, 50)));
+        }
+        for (MovingElement e : elements) {
+            e.moveTo(uniform(0, 100), uniform(0, 50));
+        }
+        // moving an element to another spatial model removes it from the index
+        elements.get(0).changeSpatialModel(new Euclidean2DPlane(), grid.getCoordinate(1.0, 1.0));
+        assertEquals(199, index.size());
+        List<CoordinateIfc> queries = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            queries.add(grid.getCoordinate(uniform(0, 100), uniform(0, 50)));
+        }
+        checkQueries(grid, queries, 8.0);
+    }
+
+    @Test
+    public void geohashIndexOnGreatCircle() {
+        GreatCircleBasedSpatialModel earth = new GreatCircleBasedSpatialModel();
+        List<MovingElement> elements = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            elements.add(new MovingElement(earth, uniform(-90, 90), uniform(-180, 180)));
+        }
+        // elements near a pole and the anti-meridian
+        for (int i = 0; i < 50; i++) {
+            elements.add(new MovingElement(earth, uniform(85, 90), uniform(-180, 180)));
+            elements.add(new MovingElement(earth, uniform(-10, 10), uniform(175, 180)));
+            elements.add(new MovingElement(earth, uniform(-10, 10), uniform(-180, -175)));
+        }
+        GeohashSpatialIndex index = new GeohashSpatialIndex(earth, 6);
+        for (MovingElement e : elements) {
+            e.moveTo(Math.max(-90, Math.min(90, e.getPosition().getX1() + uniform(-1, 1))),
+                    e.getPosition().getX2());
+        }
+        assertEquals(450, index.size());
+        List<CoordinateIfc> queries = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            queries.add(earth.getCoordinate(uniform(-90, 90), uniform(-180, 180)));
+        }
+        queries.add(earth.getCoordinate(89.5, 10.0));
+        queries.add(earth.getCoordinate(0.0, 179.9));
+        queries.add(earth.getCoordinate(0.0, -179.9));
+        checkQueries(earth, queries, 800.0);
+    }
+}
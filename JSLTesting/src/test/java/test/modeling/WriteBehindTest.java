@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package test.modeling;
+
+import examples.general.queueing.DriverLicenseBureauWithQ;
+import jsl.modeling.elements.variable.ResponseVariable;
+import jsl.simulation.Simulation;
+import jsl.utilities.random.rvariable.ExponentialRV;
+import jslx.dbutilities.JSLDatabase;
+import jslx.dbutilities.JSLDatabaseObserver;
+import jslx.dbutilities.dbutil.DatabaseIfc;
+import jslx.dbutilities.jsldbsrc.tables.records.WithinRepStatRecord;
+import org.jooq.DSLContext;
+import org.jooq.ExecuteContext;
+import org.jooq.ExecuteListener;
+import org.jooq.SQLDialect;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+import org.jooq.impl.DefaultExecuteListener;
+import org.jooq.impl.DefaultExecuteListenerProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+
+import static jslx.dbutilities.jsldbsrc.Tables.WITHIN_REP_COUNTER_STAT;
+import static jslx.dbutilities.jsldbsrc.Tables.WITHIN_REP_STAT;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Checks that writing the replication records from a separate thread gives the same
+ * database as writing them immediately, and that write errors are reported
+ */
+public class WriteBehindTest {
+
+    private static final int NUM_REPS = 4;
+
+    /**
+     * Records the number of within replication records after each replication and can
+     * make a bad record for one response in one replication
+     */
+    private static class CheckedDatabase extends JSLDatabase {
+
+        private final List<Integer> myCounts = new ArrayList<>();
+        private boolean myFlushFlag;
+        private String myBadResponse;
+        private int myBadRep;
+
+        CheckedDatabase(JSLDatabase db) {
+            this(db.getDatabase());
+        }
+
+        CheckedDatabase(DatabaseIfc db) {
+            super(db);
+        }
+
+        @Override
+        protected void afterReplication(Simulation simulation) {
+            super.afterReplication(simulation);
+            if (myFlushFlag) {
+                flushWriteBehind();
+                myCounts.add(getDatabase().getDSLContext().fetchCount(WITHIN_REP_STAT));
+            }
+        }
+
+        @Override
+        protected WithinRepStatRecord newWithinRepStatRecord(ResponseVariable rv, Integer simId) {
+            WithinRepStatRecord r = super.newWithinRepStatRecord(rv, simId);
+            if (rv.getName().equals(myBadResponse)
+                    && (rv.getExperiment().getCurrentReplicationNumber() == myBadRep)) {
+                // violates the check constraint on the replication number
+                r.setRepNum(0);
+            }
+            return r;
+        }
+    }
+
+    /**
+     * A database whose statements wait for a permit when they are executed by the
+     * write behind thread, so that a test can hold the writer at a known point
+     */
+    private static class GatedDatabase implements DatabaseIfc {
+
+        private final DatabaseIfc myDb;
+        private final Semaphore myPermits = new Semaphore(0);
+
+        GatedDatabase(DatabaseIfc db) {
+            myDb = db;
+        }
+
+        @Override
+        public DataSource getDataSource() {
+            return myDb.getDataSource();
+        }
+
+        @Override
+        public String getLabel() {
+            return myDb.getLabel();
+        }
+
+        @Override
+        public SQLDialect getSQLDialect() {
+            return myDb.getSQLDialect();
+        }
+
+        @Override
+        public DSLContext getDSLContext() {
+            ExecuteListener gate = new DefaultExecuteListener() {
+                @Override
+                public void executeStart(ExecuteContext ctx) {
+                    if (Thread.currentThread().getName().endsWith("_WriteBehindThread")) {
+                        myPermits.acquireUninterruptibly();
+                    }
+                }
+            };
+            return DSL.using(myDb.getDSLContext().configuration().derive(new DefaultExecuteListenerProvider(gate)));
+        }
+
+        @Override
+        public String getDefaultSchemaName() {
+            return myDb.getDefaultSchemaName();
+        }
+
+        @Override
+        public void setDefaultSchemaName(String name) {
+            myDb.setDefaultSchemaName(name);
+        }
+    }
+
+    private Simulation makeSimulation(CheckedDatabase db) {
+        Simulation sim = new Simulation("WriteBehind");
+        new DriverLicenseBureauWithQ(sim.getModel(), 2, new ExponentialRV(1.0), new ExponentialRV(1.8));
+        sim.setNumberOfReplications(NUM_REPS);
+        sim.setLengthOfReplication(500.0);
+        sim.setLengthOfWarmUp(50.0);
+        sim.setResetStartStreamOption(true);
+        new JSLDatabaseObserver(db, sim);
+        return sim;
+    }
+
+    private CheckedDatabase makeDatabase(Path dir, String name) {
+        CheckedDatabase db = new CheckedDatabase(JSLDatabase.createEmbeddedDerbyJSLDatabase(name, dir));
+        db.setWriteBehindBatchSize(2);
+        db.setWriteBehindQueueCapacity(3);
+        return db;
+    }
+
+    @Test
+    public void sameAsSynchronous(@TempDir Path dir) {
+        CheckedDatabase db = makeDatabase(dir, "WriteBehindSameDb");
+        Simulation sim = makeSimulation(db);
+        sim.setExperimentName("Sync");
+        sim.run();
+        db.setWriteBehindOption(true);
+        sim.setExperimentName("Behind");
+        sim.run();
+        List<ResponseVariable> rvs = sim.getModel().getResponseVariables();
+        assertEquals(2 * NUM_REPS * rvs.size(), db.getWithinRepStatRecords().size());
+        assertEquals(2 * NUM_REPS * sim.getModel().getCounters().size(),
+                db.getDatabase().getDSLContext().fetchCount(WITHIN_REP_COUNTER_STAT));
+        Set<String> names = new HashSet<>(List.of("Sync", "Behind"));
+        for (ResponseVariable rv : rvs) {
+            Map<String, double[]> values = db.getWithinRepViewValuesAsMapForExperiments(names, rv.getName());
+            assertEquals(NUM_REPS, values.get("Sync").length);
+            assertArrayEquals(values.get("Sync"), values.get("Behind"), 0.0);
+        }
+    }
+
+    @Test
+    public void flushAndCloseWaitForRecords(@TempDir Path dir) {
+        CheckedDatabase db = makeDatabase(dir, "WriteBehindFlushDb");
+        Simulation sim = makeSimulation(db);
+        db.setWriteBehindOption(true);
+        db.myFlushFlag = true;
+        sim.run();
+        int numResponses = sim.getModel().getResponseVariables().size();
+        assertEquals(NUM_REPS, db.myCounts.size());
+        for (int i = 0; i < NUM_REPS; i++) {
+            assertEquals((i + 1) * numResponses, db.myCounts.get(i).intValue());
+        }
+
+        // without flushing, closing the writer at the end of the experiment writes everything
+        db.myFlushFlag = false;
+        sim.run();
+        assertEquals(NUM_REPS * numResponses, db.getWithinRepStatRecords().size());
+        assertEquals(NUM_REPS * sim.getModel().getCounters().size(),
+                db.getDatabase().getDSLContext().fetchCount(WITHIN_REP_COUNTER_STAT));
+    }
+
+    private CheckedDatabase makeFailingDatabase(Path dir, String name, int badRep, boolean flushFlag) {
+        CheckedDatabase db = makeDatabase(dir, name);
+        // the bad record shares its batch with good records
+        db.setWriteBehindBatchSize(500);
+        db.setWriteBehindQueueCapacity(500);
+        db.setWriteBehindOption(true);
+        db.myBadRep = badRep;
+        db.myFlushFlag = flushFlag;
+        return db;
+    }
+
+    @Test
+    public void failedBatchReportedByFlush(@TempDir Path dir) {
+        CheckedDatabase db = makeFailingDatabase(dir, "WriteBehindFlushFailDb", 2, true);
+        Simulation sim = makeSimulation(db);
+        List<ResponseVariable> rvs = sim.getModel().getResponseVariables();
+        db.myBadResponse = rvs.get(0).getName();
+        // the error is reported by the flush that follows the bad replication
+        assertThrows(DataAccessException.class, sim::run);
+        // the other records of the failed batch were written
+        assertEquals(2 * rvs.size() - 1, db.getDatabase().getDSLContext().fetchCount(WITHIN_REP_STAT));
+        assertEquals(2 * sim.getModel().getCounters().size(),
+                db.getDatabase().getDSLContext().fetchCount(WITHIN_REP_COUNTER_STAT));
+    }
+
+    @Test
+    public void failedBatchReportedByClose(@TempDir Path dir) {
+        CheckedDatabase db = makeFailingDatabase(dir, "WriteBehindCloseFailDb", NUM_REPS, false);
+        Simulation sim = makeSimulation(db);
+        List<ResponseVariable> rvs = sim.getModel().getResponseVariables();
+        db.myBadResponse = rvs.get(0).getName();
+        // the error is reported by the put of the counter records or by closing the writer
+        assertThrows(DataAccessException.class, sim::run);
+        // the error is only reported once
+        db.flushWriteBehind();
+        // the records placed on the queue after the bad record were written
+        assertEquals(NUM_REPS * rvs.size() - 1, db.getDatabase().getDSLContext().fetchCount(WITHIN_REP_STAT));
+    }
+
+    @Test
+    public void failureWhileQueueFullDoesNotHangFlush(@TempDir Path dir) {
+        JSLDatabase derby = JSLDatabase.createEmbeddedDerbyJSLDatabase("WriteBehindBlockedDb", dir);
+        GatedDatabase gated = new GatedDatabase(derby.getDatabase());
+        CheckedDatabase db = new CheckedDatabase(gated);
+        db.setWriteBehindBatchSize(1);
+        db.setWriteBehindQueueCapacity(1);
+        db.setWriteBehindOption(true);
+        db.myBadRep = 1;
+        Simulation sim = makeSimulation(db);
+        List<ResponseVariable> rvs = sim.getModel().getResponseVariables();
+        // the response records must fill the queue while the writer is held
+        assertTrue(rvs.size() >= 4);
+        db.myBadResponse = rvs.get(0).getName();
+        // allow the failed batch of the bad record and its single insert, then hold the
+        // writer on the next record so that the put is waiting on a full queue when it
+        // sees the error
+        gated.myPermits.release(2);
+        assertThrows(DataAccessException.class, sim::run);
+        gated.myPermits.release(Integer.MAX_VALUE / 2);
+        // the records that were never queued must not be waited for
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> db.flushWriteBehind());
+        // the records of the bad replication that were never queued are not written
+        assertEquals(2, db.getDatabase().getDSLContext().fetchCount(WITHIN_REP_STAT, WITHIN_REP_STAT.REP_NUM.eq(1)));
+        // running again continues the experiment and closes the writer at its end
+        db.myBadResponse = null;
+        assertTimeoutPreemptively(Duration.ofSeconds(60), () -> sim.run());
+        assertEquals((NUM_REPS - 1) * rvs.size(),
+                db.getDatabase().getDSLContext().fetchCount(WITHIN_REP_STAT, WITHIN_REP_STAT.REP_NUM.gt(1)));
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package test.random;
+
+import jsl.utilities.random.rng.RNStreamFactory;
+import jsl.utilities.random.rng.RNStreamIfc;
+import jsl.utilities.random.robj.DEmpiricalList;
+import jsl.utilities.random.rvariable.AliasTable;
+import jsl.utilities.random.rvariable.DEmpiricalRV;
+import jsl.utilities.random.rvariable.JSLRandom;
+import jsl.utilities.random.sp.DMarkovChain;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the binary search and alias method selection from discrete empirical distributions
+ */
+public class TestAliasTable {
+
+    private final RNStreamFactory myFactory = new RNStreamFactory();
+
+    private int linearSearch(double[] cdf, double u) {
+        int i = 0;
+        while (cdf[i] <= u) {
+            i = i + 1;
+        }
+        return i;
+    }
+
+    private double[] randomCDF(int n, RNStreamIfc rng) {
+        double[] p = new double[n];
+        double sum = 0.0;
+        for (int i = 0; i < n; i++) {
+            // include some zero probability outcomes
+            p[i] = (i % 7 == 3) ? 0.0 : rng.randU01();
+            sum = sum + p[i];
+        }
+        double[] cdf = new double[n];
+        double c = 0.0;
+        for (int i = 0; i < n - 1; i++) {
+            c = c + p[i] / sum;
+            cdf[i] = Math.min(c, 1.0);
+        }
+        cdf[n - 1] = 1.0;
+        return cdf;
+    }
+
+    @Test
+    public void binarySearchSameAsLinear() {
+        RNStreamIfc rng = myFactory.getStream();
+        double[] cdf = randomCDF(5000, rng);
+        for (int k = 0; k < 10000; k++) {
+            double u = rng.randU01();
+            assertEquals(linearSearch(cdf, u), JSLRandom.searchCDF(cdf, u));
+        }
+        double[] ties = {0.25, 0.25, 0.5, 1.0};
+        assertEquals(2, JSLRandom.searchCDF(ties, 0.25));
+        assertEquals(0, JSLRandom.searchCDF(ties, 0.1));
+        assertEquals(3, JSLRandom.searchCDF(ties, 0.75));
+    }
+
+    @Test
+    public void aliasFrequencies() {
+        RNStreamIfc rng = myFactory.getStream();
+        double[] cdf = randomCDF(50, rng);
+        AliasTable table = new AliasTable(cdf);
+        assertEquals(50, table.size());
+        int n = 1000000;
+        int[] counts = new int[cdf.length];
+        for (int k = 0; k < n; k++) {
+            counts[table.index(rng)]++;
+        }
+        double prev = 0.0;
+        for (int i = 0; i < cdf.length; i++) {
+            double p = cdf[i] - prev;
+            prev = cdf[i];
+            double phat = (double) counts[i] / n;
+            if (p == 0.0) {
+                assertEquals(0, counts[i]);
+            } else {
+                double se = Math.sqrt(p * (1.0 - p) / n);
+                assertTrue(Math.abs(phat - p) < 5.0 * se, "index " + i);
+            }
+        }
+    }
+
+    @Test
+    public void dEmpiricalModes() {
+        double[] x = {1.0, 2.0, 3.0, 4.0};
+        double[] cdf = {0.1, 0.4, 0.9, 1.0};
+        DEmpiricalRV d = new DEmpiricalRV(x, cdf, myFactory.getStream());
+        assertEquals(JSLRandom.AlgoType.Inverse, d.getAlgoType());
+        RNStreamIfc copy = d.getRandomNumberStream().newInstance();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(JSLRandom.randomlySelect(x, cdf, copy), d.getValue(), 0.0);
+        }
+        DEmpiricalRV a = new DEmpiricalRV(x, cdf, myFactory.getStream(), JSLRandom.AlgoType.AcceptanceRejection);
+        double[] s = a.sample(200000);
+        double mean = Arrays.stream(s).average().orElse(0.0);
+        assertEquals(0.1 + 0.6 + 1.5 + 0.4, mean, 0.01);
+
+        List<String> list = Arrays.asList("a", "b", "c", "d");
+        DEmpiricalList<String> dl = new DEmpiricalList<>(list, cdf, myFactory.getStream(),
+                JSLRandom.AlgoType.AcceptanceRejection);
+        int count = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (dl.getRandomElement().equals("c")) {
+                count++;
+            }
+        }
+        assertEquals(0.5, count / 100000.0, 0.01);
+    }
+
+    @Test
+    public void markovChainAlias() {
+        double[][] p = {
+                {0.3, 0.1, 0.6},
+                {0.4, 0.4, 0.2},
+                {0.1, 0.7, 0.2}};
+        DMarkovChain mc = new DMarkovChain(1, p, myFactory.getStream(), JSLRandom.AlgoType.AcceptanceRejection);
+        int n = 300000;
+        int[] counts = new int[3];
+        for (int i = 0; i < n; i++) {
+            counts[mc.next() - 1]++;
+        }
+        assertEquals(238.0 / 854.0, (double) counts[0] / n, 0.01);
+        assertEquals(350.0 / 854.0, (double) counts[1] / n, 0.01);
+        assertEquals(266.0 / 854.0, (double) counts[2] / n, 0.01);
+    }
+
+    @Test
+    public void singleOutcomeUsesNoRandomNumbers() {
+        for (JSLRandom.AlgoType type : JSLRandom.AlgoType.values()) {
+            RNStreamIfc stream = myFactory.getStream();
+            RNStreamIfc copy = stream.newInstance();
+            DEmpiricalList<String> dl = new DEmpiricalList<>(List.of("a"), new double[]{1.0}, stream, type);
+            for (int i = 0; i < 10; i++) {
+                assertEquals("a", dl.getRandomElement());
+            }
+            // the stream is where it would be without the selections
+            assertEquals(copy.randU01(), stream.randU01(), 0.0);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package test.random;
+
+import jsl.utilities.random.rng.RNStreamFactory;
+import jsl.utilities.random.rng.RNStreamIfc;
+import jsl.utilities.random.rvariable.ExponentialRV;
+import jsl.utilities.random.rvariable.LognormalRV;
+import jsl.utilities.random.rvariable.NormalRV;
+import jsl.utilities.random.rvariable.RVariableIfc;
+import jsl.utilities.random.rvariable.UniformRV;
+import jsl.utilities.random.rvariable.WeibullRV;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the bulk generation of random numbers produces the same values
+ * as generating the values one at a time
+ */
+public class TestBulkRandU01 {
+
+    @Test
+    public void bulkSum() {
+        RNStreamIfc rng = new RNStreamFactory().getStream();
+        double[] u = new double[1000];
+        rng.randU01(u, 0, u.length);
+        double sum = 0.0;
+        for (double x : u) {
+            sum = sum + x;
+        }
+        assertTrue(sum == 490.9254839801);
+        assertEquals(u[999], rng.getPrevU01());
+    }
+
+    @Test
+    public void bulkSameAsSequential() {
+        RNStreamFactory f = new RNStreamFactory();
+        RNStreamIfc s1 = f.getStream();
+        RNStreamIfc s2 = s1.newInstance();
+        double[] expected = new double[5000];
+        for (int i = 0; i < 100; i++) {
+            expected[i] = s1.randU01();
+        }
+        s1.advanceToNextSubstream();
+        s1.setAntitheticOption(true);
+        for (int i = 100; i < expected.length; i++) {
+            expected[i] = s1.randU01();
+        }
+        double[] actual = new double[5003];
+        s2.randU01(actual, 0, 100);
+        s2.advanceToNextSubstream();
+        s2.setAntitheticOption(true);
+        s2.randU01(actual, 100, 1000);
+        s2.randU01(actual, 1100, 0);
+        s2.randU01(actual, 1100, 3900);
+        double[] a = new double[5000];
+        System.arraycopy(actual, 0, a, 0, a.length);
+        assertArrayEquals(expected, a, 0.0);
+        assertEquals(s1.randU01(), s2.randU01(), 0.0);
+    }
+
+    private void checkSample(RVariableIfc rv) {
+        RVariableIfc copy = rv.newInstance(rv.getRandomNumberStream().newInstance());
+        double[] expected = new double[2000];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = copy.sample();
+        }
+        double[] actual = rv.sample(expected.length);
+        assertArrayEquals(expected, actual, 0.0);
+        assertEquals(copy.getPreviousValue(), rv.getPreviousValue(), 0.0);
+    }
+
+    @Test
+    public void rvBulkSameAsSequential() {
+        checkSample(new ExponentialRV(2.0));
+        checkSample(new UniformRV(-1.0, 3.0));
+        checkSample(new NormalRV(5.0, 4.0));
+        checkSample(new LognormalRV(2.0, 3.0));
+        checkSample(new WeibullRV(2.0, 3.0));
+    }
+}
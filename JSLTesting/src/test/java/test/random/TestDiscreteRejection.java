@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package test.random;
+
+import jsl.utilities.distributions.Binomial;
+import jsl.utilities.distributions.NegativeBinomial;
+import jsl.utilities.distributions.Poisson;
+import jsl.utilities.random.rng.RNStreamFactory;
+import jsl.utilities.random.rng.RNStreamIfc;
+import jsl.utilities.random.rvariable.BinomialRV;
+import jsl.utilities.random.rvariable.JSLRandom;
+import jsl.utilities.random.rvariable.NegativeBinomialRV;
+import jsl.utilities.random.rvariable.PoissonRV;
+import jsl.utilities.random.rvariable.RVariableIfc;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.IntToDoubleFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the rejection based generators (PTRS, BTPE, gamma-Poisson mixture) against
+ * the probability mass functions
+ */
+public class TestDiscreteRejection {
+
+    private final RNStreamFactory myFactory = new RNStreamFactory();
+
+    /**
+     * Compares the observed frequencies within 3 standard deviations of the mean
+     * to the probability mass function
+     */
+    private void checkPMF(RVariableIfc rv, double mean, double sd, IntToDoubleFunction pmf) {
+        int n = 400000;
+        int lo = (int) Math.max(0, Math.floor(mean - 3.0 * sd));
+        int hi = (int) Math.ceil(mean + 3.0 * sd);
+        int[] counts = new int[hi - lo + 1];
+        double sum = 0.0;
+        for (int i = 0; i < n; i++) {
+            int x = (int) rv.getValue();
+            assertTrue(x >= 0);
+            sum = sum + x;
+            if ((x >= lo) && (x <= hi)) {
+                counts[x - lo]++;
+            }
+        }
+        assertEquals(mean, sum / n, 5.0 * sd / Math.sqrt(n));
+        for (int k = lo; k <= hi; k++) {
+            double p = pmf.applyAsDouble(k);
+            double phat = (double) counts[k - lo] / n;
+            double se = Math.sqrt(p * (1.0 - p) / n);
+            assertTrue(Math.abs(phat - p) < 5.0 * se + 1.0e-6, "k = " + k + " p = " + p + " phat = " + phat);
+        }
+    }
+
+    @Test
+    public void poisson() {
+        JSLRandom.AlgoType ar = JSLRandom.AlgoType.AcceptanceRejection;
+        for (double mean : new double[]{3.0, 10.0, 45.5, 2000.0}) {
+            PoissonRV rv = new PoissonRV(mean, myFactory.getStream(), ar);
+            checkPMF(rv, mean, Math.sqrt(mean), k -> Poisson.poissonPMF(k, mean));
+        }
+    }
+
+    @Test
+    public void binomial() {
+        JSLRandom.AlgoType ar = JSLRandom.AlgoType.AcceptanceRejection;
+        int[] n = {20, 200, 1000, 5000};
+        double[] p = {0.3, 0.2, 0.45, 0.9};
+        for (int i = 0; i < n.length; i++) {
+            int nt = n[i];
+            double ps = p[i];
+            BinomialRV rv = new BinomialRV(ps, nt, myFactory.getStream(), ar);
+            checkPMF(rv, nt * ps, Math.sqrt(nt * ps * (1.0 - ps)), k -> Binomial.binomialPMF(k, nt, ps));
+        }
+    }
+
+    @Test
+    public void negativeBinomial() {
+        JSLRandom.AlgoType ar = JSLRandom.AlgoType.AcceptanceRejection;
+        double[] r = {1.0, 3.5, 20.0};
+        double[] p = {0.4, 0.05, 0.2};
+        for (int i = 0; i < r.length; i++) {
+            double rs = r[i];
+            double ps = p[i];
+            NegativeBinomialRV rv = new NegativeBinomialRV(ps, rs, myFactory.getStream(), ar);
+            double mean = rs * (1.0 - ps) / ps;
+            double sd = Math.sqrt(rs * (1.0 - ps) / (ps * ps));
+            checkPMF(rv, mean, sd, k -> NegativeBinomial.negBinomialPMF(k, rs, ps));
+        }
+    }
+
+    @Test
+    public void inverseIsDefault() {
+        PoissonRV rv = new PoissonRV(25.0, myFactory.getStream());
+        assertEquals(JSLRandom.AlgoType.Inverse, rv.getAlgoType());
+        var copy = rv.getRandomNumberStream().newInstance();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(JSLRandom.rPoisson(25.0, copy), rv.getValue(), 0.0);
+        }
+    }
+
+    /**
+     * Returns the supplied numbers in order
+     */
+    private static class ScriptedStream implements RNStreamIfc {
+
+        private final double[] myValues;
+        private int myNext;
+
+        ScriptedStream(double... values) {
+            myValues = values;
+        }
+
+        @Override
+        public double randU01() {
+            return myValues[myNext++];
+        }
+
+        @Override
+        public double getPrevU01() {
+            return myValues[myNext - 1];
+        }
+
+        @Override
+        public int randInt(int i, int j) {
+            return i + (int) ((j - i + 1) * randU01());
+        }
+
+        @Override
+        public double getAntitheticValue() {
+            return 1.0 - getPrevU01();
+        }
+
+        @Override
+        public void resetStartStream() {
+            myNext = 0;
+        }
+
+        @Override
+        public void resetStartSubstream() {
+            myNext = 0;
+        }
+
+        @Override
+        public void advanceToNextSubstream() {
+        }
+
+        @Override
+        public void setAntitheticOption(boolean flag) {
+        }
+
+        @Override
+        public boolean getAntitheticOption() {
+            return false;
+        }
+
+        @Override
+        public RNStreamIfc newInstance() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public RNStreamIfc newInstance(String name) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public RNStreamIfc newAntitheticInstance() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public RNStreamIfc newAntitheticInstance(String name) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Drives BTPE (Kachitvichyanukul and Schmeiser, 1988) into the final acceptance test
+     * of the squeeze band with log(v) just above the exact log(f(y)/f(m)). The variate
+     * must be rejected, and the next pair of numbers then gives a variate from the
+     * triangular region.
+     */
+    @Test
+    public void btpeFinalTestMatchesPMF() {
+        int n = 1000;
+        double r = 0.3;
+        double q = 1.0 - r;
+        double nrq = n * r * q;
+        double fm = n * r + r;
+        long m = (long) Math.floor(fm);
+        double p1 = Math.floor(2.195 * Math.sqrt(nrq) - 4.6 * q) + 0.5;
+        double xm = m + 0.5;
+        double xl = xm - p1;
+        double xr = xm + p1;
+        double c = 0.134 + 20.5 / (15.3 + m);
+        double a = (fm - xl) / (fm - xl * r);
+        double laml = a * (1.0 + a / 2.0);
+        a = (xr - fm) / (xr * q);
+        double lamr = a * (1.0 + a / 2.0);
+        double p2 = p1 * (1.0 + 2.0 * c);
+        double p4 = p2 + c / laml + c / lamr;
+        // a point in the parallelogram far enough from the mode to reach the squeeze band
+        long y = m - 25;
+        double x = y + 0.5;
+        double u = p1 + (x - xl) * c;
+        double k = m - y;
+        double rho = (k / nrq) * ((k * (k / 3.0 + 0.625) + 0.1666666666666) / nrq + 0.5);
+        double t = -k * k / (2.0 * nrq);
+        double exact = Math.log(Binomial.binomialPMF((int) y, n, r) / Binomial.binomialPMF((int) m, n, r));
+        // the Stirling corrections of y + 1 and n - y + 1 total about 8.3e-4
+        double alv = exact + 4.0e-4;
+        assertTrue((alv > t - rho) && (alv < t + rho));
+        double v = (Math.exp(alv) - 1.0 + Math.abs(m - x + 0.5) / p1) / c;
+        assertTrue((v > 0.0) && (v < 1.0));
+        ScriptedStream stream = new ScriptedStream(u / p4, v, 0.0, 0.5);
+        int value = JSLRandom.rBinomial(r, n, stream, JSLRandom.AlgoType.AcceptanceRejection);
+        assertEquals((int) Math.floor(xm - p1 * 0.5), value);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package test.random;
+
+import jsl.utilities.random.rng.RNStreamProvider;
+import jsl.utilities.random.rng.RNStreamProviderIfc;
+import jsl.utilities.random.rvariable.ExponentialRV;
+import jsl.utilities.random.rvariable.JSLRandom;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks that stream providers bound to threads give reproducible streams.
+ */
+public class TestThreadRNStreamProvider {
+
+    private double[] generate() {
+        double[] x = new double[100];
+        JSLRandom.runWithRNStreamProvider(new RNStreamProvider(), () -> {
+            ExponentialRV e = new ExponentialRV(2.0);
+            for (int i = 0; i < x.length; i++) {
+                x[i] = e.getValue() + JSLRandom.rNormal(0.0, 1.0);
+            }
+        });
+        return x;
+    }
+
+    @Test
+    public void bindingIsRestored() {
+        RNStreamProviderIfc shared = JSLRandom.getRNStreamProvider();
+        RNStreamProviderIfc p = new RNStreamProvider();
+        JSLRandom.runWithRNStreamProvider(p, () -> assertSame(p, JSLRandom.getRNStreamProvider()));
+        assertSame(shared, JSLRandom.getRNStreamProvider());
+    }
+
+    @Test
+    public void sameStreamsOnDifferentThreads() throws InterruptedException {
+        double[] expected = generate();
+        double[][] results = new double[4][];
+        Thread[] threads = new Thread[results.length];
+        for (int i = 0; i < threads.length; i++) {
+            final int k = i;
+            threads[i] = new Thread(() -> results[k] = generate());
+            threads[i].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        for (double[] r : results) {
+            assertArrayEquals(expected, r, 0.0);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2018. Manuel D. Rossetti, rossetti@uark.edu
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package test.random;
+
+import jsl.utilities.random.rng.RNStreamFactory;
+import jsl.utilities.random.rng.RNStreamIfc;
+import jsl.utilities.random.rvariable.BetaRV;
+import jsl.utilities.random.rvariable.ExponentialRV;
+import jsl.utilities.random.rvariable.GammaRV;
+import jsl.utilities.random.rvariable.JSLRandom;
+import jsl.utilities.random.rvariable.LognormalRV;
+import jsl.utilities.random.rvariable.NormalRV;
+import jsl.utilities.random.rvariable.RVariableIfc;
+import jsl.utilities.statistic.Statistic;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the moments of the acceptance-rejection (ziggurat, Marsaglia-Tsang) generators
+ * and that inverse transform remains the default
+ */
+public class TestZiggurat {
+
+    private final RNStreamFactory myFactory = new RNStreamFactory();
+
+    private void checkMoments(RVariableIfc rv, double mean, double variance) {
+        Statistic s = new Statistic();
+        s.collect(rv.sample(200000));
+        assertEquals(mean, s.getAverage(), 0.01 * Math.max(1.0, Math.abs(mean)));
+        assertEquals(variance, s.getVariance(), 0.02 * Math.max(1.0, variance));
+    }
+
+    private RNStreamIfc stream() {
+        return myFactory.getStream();
+    }
+
+    @Test
+    public void normalMoments() {
+        JSLRandom.AlgoType ar = JSLRandom.AlgoType.AcceptanceRejection;
+        checkMoments(new NormalRV(0.0, 1.0, stream(), ar), 0.0, 1.0);
+        checkMoments(new NormalRV(10.0, 4.0, stream(), ar), 10.0, 4.0);
+    }
+
+    @Test
+    public void normalTails() {
+        NormalRV n = new NormalRV(0.0, 1.0, stream(), JSLRandom.AlgoType.AcceptanceRejection);
+        int count = 0;
+        int total = 1000000;
+        for (int i = 0; i < total; i++) {
+            if (Math.abs(n.getValue()) > 3.442619855899) {
+                count++;
+            }
+        }
+        // P(|Z| > R) is about 5.76e-4
+        double p = (double) count / total;
+        assertTrue(Math.abs(p - 5.76e-4) < 1.5e-4);
+    }
+
+    @Test
+    public void exponentialMoments() {
+        checkMoments(new ExponentialRV(2.0, stream(), JSLRandom.AlgoType.AcceptanceRejection), 2.0, 4.0);
+    }
+
+    @Test
+    public void gammaMoments() {
+        JSLRandom.AlgoType ar = JSLRandom.AlgoType.AcceptanceRejection;
+        checkMoments(new GammaRV(0.5, 2.0, stream(), ar), 1.0, 2.0);
+        checkMoments(new GammaRV(3.0, 2.0, stream(), ar), 6.0, 12.0);
+    }
+
+    @Test
+    public void betaMoments() {
+        BetaRV b = new BetaRV(2.0, 5.0, stream(), JSLRandom.AlgoType.AcceptanceRejection);
+        double m = 2.0 / 7.0;
+        double v = (2.0 * 5.0) / (49.0 * 8.0);
+        checkMoments(b, m, v);
+        // inverse transform uses both parameters
+        checkMoments(new BetaRV(2.0, 5.0, stream()), m, v);
+    }
+
+    @Test
+    public void lognormalMoments() {
+        checkMoments(new LognormalRV(2.0, 3.0, stream(), JSLRandom.AlgoType.AcceptanceRejection), 2.0, 3.0);
+    }
+
+    @Test
+    public void inverseIsDefault() {
+        NormalRV n = new NormalRV(5.0, 4.0, stream());
+        assertEquals(JSLRandom.AlgoType.Inverse, n.getAlgoType());
+        RNStreamIfc copy = n.getRandomNumberStream().newInstance();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(JSLRandom.rNormal(5.0, 4.0, copy), n.getValue(), 0.0);
+        }
+        GammaRV g = new GammaRV(2.0, 1.0, stream(), JSLRandom.AlgoType.AcceptanceRejection);
+        assertEquals(JSLRandom.AlgoType.AcceptanceRejection, g.newInstance(stream()).getAlgoType());
+    }
+}